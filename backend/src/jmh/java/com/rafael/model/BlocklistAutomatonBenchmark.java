@@ -0,0 +1,55 @@
+package com.rafael.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to scan one name or solve attempt with the built-in handful of terms
+ * and with 50k random ones: the two should be about the same.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BlocklistAutomatonBenchmark {
+
+    private static final String[] MESSAGES = { "Jogador1", "Maria Clara", "CIENCIA DA COMPUTACAO",
+            "ARROZ COM FEIJAO", "LASANHA DE PRESUNTO", "ORNITORRINCO", "ENGENHARIA ELETRICA", "Zé_do_Pulo 2024",
+            "filho da puta" };
+
+    @Param({ "5", "50000" })
+    int terms;
+
+    private BlocklistAutomaton automaton;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(50);
+        List<String> blocked = new ArrayList<>(List.of("puta", "merd*", "filho da puta", "*bosta", "cacete"));
+        while (blocked.size() < terms) {
+            char[] w = new char[5 + random.nextInt(6)];
+            for (int j = 0; j < w.length; j++)
+                w[j] = (char) ('a' + random.nextInt(26));
+            blocked.add(random.nextInt(4) == 0 ? new String(w) + "*" : new String(w));
+        }
+        automaton = new BlocklistAutomaton(blocked);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        String message = MESSAGES[next];
+        next = next == MESSAGES.length - 1 ? 0 : next + 1;
+        return automaton.matches(message);
+    }
+}
@@ -0,0 +1,45 @@
+package com.rafael.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** One answer scored in a large quiz room, then the view one player gets. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LeaderboardBenchmark {
+
+    @Param({ "50", "5000" })
+    int players;
+
+    private Leaderboard board;
+    private String[] ids;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        board = new Leaderboard();
+        ids = new String[players];
+        random = new SplittableRandom(5000);
+        for (int i = 0; i < players; i++) {
+            ids[i] = "p" + i;
+            board.put(ids[i], "Jogador" + i, random.nextInt(1001));
+        }
+    }
+
+    @Benchmark
+    public int updateAndView() {
+        String id = ids[random.nextInt(players)];
+        board.update(id, random.nextInt(100_000));
+        return board.top(10).size() + board.around(id, 2).size() + board.rank(id);
+    }
+}
@@ -0,0 +1,82 @@
+package com.rafael.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a bot does before each move: the phrases that still fit the board and
+ * how many of them have each letter, over a corpus of random phrases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PhraseIndexBenchmark {
+
+    private static final int BOARDS = 1024;
+
+    @Param({ "1000", "100000" })
+    int phrases;
+
+    private PhraseIndex index;
+    private final String[] boards = new String[BOARDS];
+    private final List<Set<Character>> guessed = new ArrayList<>();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(49);
+        String[] words = new String[4000];
+        for (int i = 0; i < words.length; i++) {
+            char[] w = new char[3 + random.nextInt(7)];
+            for (int j = 0; j < w.length; j++)
+                w[j] = (char) ('A' + random.nextInt(26));
+            words[i] = new String(w);
+        }
+        List<WheelPhrase> corpus = new ArrayList<>();
+        for (int i = 0; i < phrases; i++) {
+            StringBuilder sb = new StringBuilder();
+            int n = 1 + random.nextInt(3);
+            for (int j = 0; j < n; j++)
+                sb.append(j == 0 ? "" : " ").append(words[random.nextInt(words.length)]);
+            WheelPhrase p = new WheelPhrase();
+            p.category = "C" + random.nextInt(10);
+            p.phrase = sb.toString();
+            corpus.add(p);
+        }
+        index = new PhraseIndex(corpus);
+
+        // Boards of random phrases with a few letters guessed
+        for (int i = 0; i < BOARDS; i++) {
+            String p = corpus.get(random.nextInt(corpus.size())).phrase;
+            Set<Character> g = new HashSet<>();
+            for (int j = 0; j < 4; j++)
+                g.add((char) ('A' + random.nextInt(26)));
+            StringBuilder sb = new StringBuilder();
+            for (char c : p.toCharArray())
+                sb.append(c == ' ' ? ' ' : g.contains(c) ? c : '_');
+            boards[i] = sb.toString();
+            guessed.add(g);
+        }
+    }
+
+    @Benchmark
+    public int candidates() {
+        int i = next;
+        next = (i + 1) & (BOARDS - 1);
+        PhraseIndex.Candidates c = index.candidates(boards[i], null, guessed.get(i));
+        return c.count() + c.letterHits()[0];
+    }
+}
@@ -0,0 +1,70 @@
+package com.rafael.service;
+
+import com.rafael.model.GeoHunterTarget;
+import com.rafael.model.GeoLocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Scoring one batch of guesses against the nearest of many targets. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeoIndexBenchmark {
+
+    @Param({ "1000", "100000" })
+    int targets;
+
+    @Param({ "500" })
+    int guesses;
+
+    private GeoIndex index;
+    private double[] lats;
+    private double[] lons;
+    private int[] nearest;
+    private double[] distances;
+    private int[] scores;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom rng = new SplittableRandom(7);
+        List<GeoHunterTarget> list = new ArrayList<>(targets);
+        for (int i = 0; i < targets; i++) {
+            GeoHunterTarget t = new GeoHunterTarget();
+            t.id = "t" + i;
+            t.name = t.id;
+            t.location = new GeoLocation();
+            // Uniform on the sphere, so the poles get their fair share
+            t.location.latitude = Math.toDegrees(Math.asin(rng.nextDouble(-1, 1)));
+            t.location.longitude = rng.nextDouble(-180, 180);
+            list.add(t);
+        }
+        index = GeoIndex.of(list);
+
+        lats = new double[guesses];
+        lons = new double[guesses];
+        for (int i = 0; i < guesses; i++) {
+            lats[i] = rng.nextDouble(-90, 90);
+            lons[i] = rng.nextDouble(-180, 180);
+        }
+        nearest = new int[guesses];
+        distances = new double[guesses];
+        scores = new int[guesses];
+    }
+
+    @Benchmark
+    public int scoreBatch() {
+        index.score(lats, lons, -1, nearest, distances, scores);
+        return scores[0];
+    }
+}
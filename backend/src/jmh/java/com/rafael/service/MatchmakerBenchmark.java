@@ -0,0 +1,50 @@
+package com.rafael.service;
+
+import com.rafael.model.RoomManager;
+import io.vertx.core.Vertx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One room's worth of players queueing and the matcher round that seats
+ * them. Reservations expire at once, so the benchmark does not pile them up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MatchmakerBenchmark {
+
+    private Vertx vertx;
+    private Matchmaker matchmaker;
+
+    @Setup
+    public void setUp() {
+        vertx = Vertx.vertx();
+        matchmaker = new Matchmaker();
+        matchmaker.vertx = vertx;
+        matchmaker.roomManager = new RoomManager();
+        matchmaker.botAfterSeconds = 20;
+        matchmaker.joinSeconds = 0;
+    }
+
+    @TearDown
+    public void tearDown() {
+        vertx.close().toCompletionStage().toCompletableFuture().join();
+    }
+
+    @Benchmark
+    public void matchOneRoom() {
+        for (int i = 0; i < Matchmaker.ROOM_SIZE; i++)
+            matchmaker.enqueue("carga", "Jogador" + i, a -> {
+            });
+        matchmaker.tick(System.nanoTime());
+    }
+}
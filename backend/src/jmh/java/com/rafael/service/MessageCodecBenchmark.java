@@ -0,0 +1,94 @@
+package com.rafael.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rafael.config.GameJsonCustomizer;
+import com.rafael.model.ClientMessage;
+import com.rafael.model.GameMessage;
+import com.rafael.model.GameSession;
+import com.rafael.model.Player;
+import com.rafael.model.Room;
+import com.rafael.model.RoomState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The old message path (bind to GameMessage with an Object payload, then
+ * interpret it; Map payloads through the mapper's bean serializers) against
+ * the {@link MessageCodec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageCodecBenchmark {
+
+    @Param({ "{\"type\":\"GUESS\",\"payload\":\"A\"}",
+            "{\"type\":\"SOLVE\",\"payload\":\"BOLA AZUL\"}",
+            "{\"type\":\"SPIN_START\"}",
+            "{\"type\":\"SUBMIT_ANSWER\",\"payload\":{\"answerIndex\":3}}" })
+    String frame;
+
+    private ObjectMapper generic;
+    private MessageCodec codec;
+    private Room room;
+
+    @Setup
+    public void setUp() {
+        generic = new ObjectMapper();
+        ObjectMapper mapper = new ObjectMapper();
+        new GameJsonCustomizer().customize(mapper);
+        codec = new MessageCodec();
+        codec.mapper = mapper;
+        codec.init();
+
+        room = new Room("sala-codec");
+        for (int i = 0; i < 3; i++) {
+            Player p = new Player("id-" + i, "Jogador " + i, "https://avatar/" + i, "conn-" + i, i == 2);
+            p.score = 100 * i;
+            room.players.add(p);
+        }
+        room.gameSession = new GameSession("sessao", "Objeto", "B_L_ A___", 300, new TreeSet<>(Set.of('B', 'L')), false);
+        room.status = "PLAYING";
+    }
+
+    @Benchmark
+    public int readGeneric() throws Exception {
+        GameMessage msg = generic.readValue(frame, GameMessage.class);
+        if ("GUESS".equals(msg.type))
+            return String.valueOf(msg.payload).charAt(0);
+        if (msg.payload instanceof Map<?, ?> m && m.get("answerIndex") instanceof Number n)
+            return n.intValue();
+        return msg.type.length();
+    }
+
+    @Benchmark
+    public int readCodec() {
+        ClientMessage msg = codec.read(frame);
+        return switch (msg.type()) {
+            case GUESS -> ((ClientMessage.Guess) msg).letter();
+            case SUBMIT_ANSWER -> ((ClientMessage.SubmitAnswer) msg).answerIndex();
+            default -> msg.type().ordinal();
+        };
+    }
+
+    @Benchmark
+    public String writeGeneric() throws Exception {
+        return generic.writeValueAsString(new GameMessage("STATE_UPDATE",
+                Map.of("room", room, "currentPlayerTurnId", "id-1")));
+    }
+
+    @Benchmark
+    public String writeCodec() {
+        return codec.write(new GameMessage("STATE_UPDATE", new RoomState(room, "id-1")));
+    }
+}
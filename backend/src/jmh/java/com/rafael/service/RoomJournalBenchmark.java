@@ -0,0 +1,76 @@
+package com.rafael.service;
+
+import com.rafael.model.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * What journaling costs the thread that handles a room action: encoding the
+ * event and queueing it. The disk write is the writer thread's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RoomJournalBenchmark {
+
+    private Path dir;
+    private RoomJournal journal;
+    private String roomId;
+    private int rooms;
+    private int action;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("journal-bench");
+        journal = new RoomJournal();
+        journal.dirConfig = Optional.of(dir.toString());
+        journal.flushMs = 50;
+        journal.queueSize = 1 << 20;
+        journal.start();
+    }
+
+    @Setup(Level.Iteration)
+    public void openRoom() {
+        roomId = "sala-" + rooms++;
+        journal.created(roomId, "default", "Objeto", "BOLA AZUL");
+        journal.join(roomId, new Player("ana", "Ana", "", "conn-ana", false));
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeRoom() throws InterruptedException {
+        journal.awaitFlush(60_000);
+        journal.discard(roomId);
+        // A room dropped from a full queue makes the appends after it free: the numbers would lie
+        if (((Number) journal.metrics().get("droppedRooms")).longValue() > 0)
+            throw new IllegalStateException("The journal queue overflowed; raise its size");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.onStop(null);
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void guess() {
+        int i = action++;
+        journal.guess(roomId, 0, (char) ('A' + i % 26), i);
+    }
+}
@@ -0,0 +1,92 @@
+package com.rafael.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.rafael.model.Player;
+import com.rafael.model.Room;
+import io.quarkus.jackson.ObjectMapperCustomizer;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Hand-written serializers for {@link Room} and {@link Player}, the objects in
+ * every STATE_UPDATE frame. They write the same JSON, field for field, as the
+ * bean serializers Jackson would build, but go straight to the fields instead
+ * of through reflected property writers. Any field added to either class has to
+ * be added here too; MessageCodecTest compares both against the bean serializers.
+ */
+@Singleton
+public class GameJsonCustomizer implements ObjectMapperCustomizer {
+
+    @Override
+    public void customize(ObjectMapper mapper) {
+        SimpleModule module = new SimpleModule("roletrando-game");
+        module.addSerializer(Room.class, new RoomSerializer());
+        module.addSerializer(Player.class, new PlayerSerializer());
+        mapper.registerModule(module);
+    }
+
+    static final class RoomSerializer extends StdSerializer<Room> {
+        RoomSerializer() {
+            super(Room.class);
+        }
+
+        @Override
+        public void serialize(Room room, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(room);
+            gen.writeStringField("id", room.id);
+            gen.writeFieldName("players");
+            List<Player> players = room.players;
+            if (players == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartArray(players, players.size());
+                for (Player p : players)
+                    PlayerSerializer.write(p, gen);
+                gen.writeEndArray();
+            }
+            // The sessions are each game's own business and keep their bean serializers
+            provider.defaultSerializeField("gameSession", room.gameSession, gen);
+            provider.defaultSerializeField("quizSession", room.quizSession, gen);
+            provider.defaultSerializeField("geoHunterSession", room.geoHunterSession, gen);
+            gen.writeNumberField("currentTurnIndex", room.currentTurnIndex);
+            gen.writeStringField("status", room.status);
+            gen.writeStringField("hostConnectionId", room.hostConnectionId);
+            gen.writeBooleanField("historyRecorded", room.historyRecorded);
+            gen.writeEndObject();
+        }
+    }
+
+    static final class PlayerSerializer extends StdSerializer<Player> {
+        PlayerSerializer() {
+            super(Player.class);
+        }
+
+        @Override
+        public void serialize(Player player, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            write(player, gen);
+        }
+
+        /** resumeToken is left out, as its {@code @JsonIgnore} says. */
+        static void write(Player p, JsonGenerator gen) throws IOException {
+            if (p == null) {
+                gen.writeNull();
+                return;
+            }
+            gen.writeStartObject(p);
+            gen.writeStringField("id", p.id);
+            gen.writeStringField("name", p.name);
+            gen.writeNumberField("score", p.score);
+            gen.writeStringField("avatar", p.avatar);
+            gen.writeStringField("connectionId", p.connectionId);
+            gen.writeBooleanField("isBot", p.isBot);
+            gen.writeBooleanField("disconnected", p.disconnected);
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.rafael.model;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Aho-Corasick automaton over a list of blocked terms, compiled into a dense
+ * transition table so a scan is one table lookup per character, whatever the
+ * number of terms, and allocates nothing.
+ * <p>
+ * Terms and scanned text are folded the same way first: lower case, accents
+ * stripped ({@code ã → a}, {@code ç → c}), the usual leetspeak digits and
+ * symbols read as letters ({@code 4 @ → a}, {@code 3 → e}, {@code 1 ! | → i},
+ * {@code 0 → o}, {@code 5 $ → s}, {@code 7 + → t}, {@code 8 → b}, {@code 9 → g}),
+ * any run of whitespace as one word break, and other punctuation dropped, so
+ * {@code "P.u.t.4"} reads as {@code "puta"}. Repeated letters count once
+ * ({@code "meeerda"} is {@code "merda"}).
+ * <p>
+ * A term matches whole words: {@code "puta"} blocks {@code "sua puta"} but not
+ * {@code "computador"}. A {@code *} at either end lets the word go on past that
+ * end, so {@code "put*"} also blocks {@code "putaria"}. Terms may span words
+ * ({@code "filho da puta"}).
+ */
+public final class BlocklistAutomaton {
+
+    /** Folded symbols: a-z, then the word break. */
+    private static final int ALPHABET = 27;
+    private static final int BREAK = 26;
+    private static final int DROP = -1;
+    /** Folded symbol of every Latin character; the rest are breaks or dropped. */
+    private static final byte[] FOLD = new byte[0x250];
+
+    static {
+        for (char c = 0; c < FOLD.length; c++) {
+            char base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0);
+            base = Character.toLowerCase(base);
+            if (Character.isWhitespace(c))
+                FOLD[c] = BREAK;
+            else if (base >= 'a' && base <= 'z')
+                FOLD[c] = (byte) (base - 'a');
+            else
+                FOLD[c] = DROP;
+        }
+        String leet = "4a@a3e1i!i|i0o5s$s7t+t8b9g";
+        for (int i = 0; i < leet.length(); i += 2)
+            FOLD[leet.charAt(i)] = (byte) (leet.charAt(i + 1) - 'a');
+    }
+
+    /** {@code next[state * ALPHABET + symbol]}, failure links already folded in. */
+    private final int[] next;
+    private final boolean[] accepts;
+    private final int terms;
+
+    public BlocklistAutomaton(Collection<String> blocked) {
+        // Trie first, growing the table as states are added
+        int[] table = new int[64 * ALPHABET];
+        boolean[] terminal = new boolean[64];
+        int states = 1;
+        int count = 0;
+        int[] symbols = new int[16];
+        for (String term : blocked) {
+            if (term == null)
+                continue;
+            String t = term.strip();
+            boolean openStart = t.startsWith("*");
+            boolean openEnd = t.endsWith("*");
+            if (symbols.length < t.length() + 2)
+                symbols = new int[t.length() + 2];
+            int n = 0;
+            int prev = BREAK;
+            for (int i = 0; i < t.length(); i++) {
+                int s = fold(t.charAt(i));
+                if (s == DROP || s == prev)
+                    continue;
+                symbols[n++] = prev = s;
+            }
+            if (n > 0 && symbols[n - 1] == BREAK)
+                n--;
+            if (n == 0)
+                continue;
+            if (!openStart) {
+                System.arraycopy(symbols, 0, symbols, 1, n++);
+                symbols[0] = BREAK;
+            }
+            if (!openEnd)
+                symbols[n++] = BREAK;
+            int state = 0;
+            for (int i = 0; i < n; i++) {
+                int slot = state * ALPHABET + symbols[i];
+                if (table[slot] == 0) {
+                    if (states == terminal.length) {
+                        terminal = Arrays.copyOf(terminal, states * 2);
+                        table = Arrays.copyOf(table, states * 2 * ALPHABET);
+                    }
+                    table[slot] = states++;
+                }
+                state = table[slot];
+            }
+            terminal[state] = true;
+            count++;
+        }
+
+        // Breadth first: fill every missing edge from the failure state's edge
+        int[] fail = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int s = 0; s < ALPHABET; s++) {
+            int child = table[s];
+            if (child != 0)
+                queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            terminal[state] |= terminal[fail[state]];
+            for (int s = 0; s < ALPHABET; s++) {
+                int slot = state * ALPHABET + s;
+                int child = table[slot];
+                int viaFail = table[fail[state] * ALPHABET + s];
+                if (child != 0) {
+                    fail[child] = viaFail;
+                    queue.add(child);
+                } else {
+                    table[slot] = viaFail;
+                }
+            }
+        }
+        this.next = Arrays.copyOf(table, states * ALPHABET);
+        this.accepts = Arrays.copyOf(terminal, states);
+        this.terms = count;
+    }
+
+    /** Whether {@code text} contains any blocked term, after folding. */
+    public boolean matches(CharSequence text) {
+        // The text is read as if between two word breaks
+        int state = next[BREAK];
+        int prev = BREAK;
+        for (int i = 0; i < text.length(); i++) {
+            int s = fold(text.charAt(i));
+            if (s == DROP || s == prev)
+                continue;
+            prev = s;
+            state = next[state * ALPHABET + s];
+            if (accepts[state])
+                return true;
+        }
+        return prev != BREAK && accepts[next[state * ALPHABET + BREAK]];
+    }
+
+    /** Terms compiled; blank ones are skipped. */
+    public int terms() {
+        return terms;
+    }
+
+    public int states() {
+        return accepts.length;
+    }
+
+    private static int fold(char c) {
+        if (c < FOLD.length)
+            return FOLD[c];
+        return Character.isWhitespace(c) ? BREAK : DROP;
+    }
+}
@@ -0,0 +1,112 @@
+package com.rafael.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A frame sent by a Roletrando, Quiz or GeoHunter player, already checked and typed. The
+ * wire format is still {@code {"type": ..., "payload": ...}}; see
+ * {@link com.rafael.service.MessageCodec} for the parsing. Endpoints switch on
+ * {@link #type()} and cast to the matching record.
+ */
+public sealed interface ClientMessage {
+
+    enum Type {
+        START_GAME, SPIN_START, SPIN_END, GUESS, SOLVE, SUBMIT_ANSWER, SUBMIT_SCORE, NEXT_QUESTION, SUBMIT_PIN;
+
+        private static final Map<String, Type> BY_NAME = new HashMap<>();
+
+        static {
+            for (Type t : values())
+                BY_NAME.put(t.name(), t);
+        }
+
+        /** The type named {@code name}, or {@code null} for anything else. */
+        public static Type of(String name) {
+            return BY_NAME.get(name);
+        }
+    }
+
+    Type type();
+
+    /**
+     * Host starts the game; the Quiz may cap the number of questions, Roletrando
+     * may ask for a phrase category and turn weighted draws on or off
+     * ({@code null} keeps the room's setting), GeoHunter sets the number of
+     * rounds (as {@code limit}) and their length.
+     */
+    record StartGame(Integer limit, String category, Boolean weighted, Integer roundSeconds)
+            implements ClientMessage {
+        public static final StartGame UNLIMITED = new StartGame(null);
+
+        public StartGame(Integer limit) {
+            this(limit, null, null, null);
+        }
+
+        public StartGame(Integer limit, String category, Boolean weighted) {
+            this(limit, category, weighted, null);
+        }
+
+        public Type type() {
+            return Type.START_GAME;
+        }
+    }
+
+    record SpinStart() implements ClientMessage {
+        public static final SpinStart INSTANCE = new SpinStart();
+
+        public Type type() {
+            return Type.SPIN_START;
+        }
+    }
+
+    record SpinEnd() implements ClientMessage {
+        public static final SpinEnd INSTANCE = new SpinEnd();
+
+        public Type type() {
+            return Type.SPIN_END;
+        }
+    }
+
+    record Guess(char letter) implements ClientMessage {
+        public Type type() {
+            return Type.GUESS;
+        }
+    }
+
+    record Solve(String phrase) implements ClientMessage {
+        public Type type() {
+            return Type.SOLVE;
+        }
+    }
+
+    record SubmitAnswer(int answerIndex) implements ClientMessage {
+        public Type type() {
+            return Type.SUBMIT_ANSWER;
+        }
+    }
+
+    /** Sent by older Quiz clients; the score is the server's now, so it carries nothing. */
+    record SubmitScore() implements ClientMessage {
+        public static final SubmitScore INSTANCE = new SubmitScore();
+
+        public Type type() {
+            return Type.SUBMIT_SCORE;
+        }
+    }
+
+    record NextQuestion() implements ClientMessage {
+        public static final NextQuestion INSTANCE = new NextQuestion();
+
+        public Type type() {
+            return Type.NEXT_QUESTION;
+        }
+    }
+
+    /** A GeoHunter guess for the open round. */
+    record SubmitPin(double latitude, double longitude) implements ClientMessage {
+        public Type type() {
+            return Type.SUBMIT_PIN;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.rafael.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * The last frames broadcast to a room, numbered from 1, in a fixed ring. A
+ * player that reconnects with the number of the last frame it saw gets just
+ * the frames it missed, as the very strings the room was sent; when they have
+ * already left the ring, the last full state stands in for them. Nothing is
+ * serialized again on resume, so a wave of reconnects costs only the writes.
+ */
+public class FrameLog {
+
+    private final String[] frames;
+    private long lastSeq;
+    /** Last STATE_UPDATE frame, the snapshot for players too far behind. */
+    private String lastState;
+    private long lastStateSeq;
+
+    public FrameLog(int capacity) {
+        frames = new String[Math.max(1, capacity)];
+    }
+
+    /**
+     * Numbers the next frame and keeps it. The encoder gets the sequence number
+     * so it can be written into the frame itself.
+     */
+    public synchronized String append(LongFunction<String> encoder, boolean state) {
+        long seq = lastSeq + 1;
+        String json = encoder.apply(seq);
+        frames[(int) (seq % frames.length)] = json;
+        lastSeq = seq;
+        if (state) {
+            lastState = json;
+            lastStateSeq = seq;
+        }
+        return json;
+    }
+
+    public synchronized long lastSeq() {
+        return lastSeq;
+    }
+
+    /**
+     * What a client that saw up to {@code seq} needs, oldest first: the frames it
+     * missed when they are all still in the ring, otherwise the last state and
+     * the frames after it. {@code seq} of -1 (or one from the future) always
+     * gets the snapshot.
+     */
+    public synchronized List<String> resume(long seq) {
+        if (inRing(seq))
+            return range(seq);
+        List<String> out = new ArrayList<>();
+        if (lastState != null) {
+            out.add(lastState);
+            out.addAll(range(Math.max(lastStateSeq, lastSeq - frames.length)));
+        }
+        return out;
+    }
+
+    /** True when {@link #resume} can answer {@code seq} with the missed frames alone. */
+    public synchronized boolean inRing(long seq) {
+        return seq >= 0 && seq <= lastSeq && lastSeq - seq <= frames.length;
+    }
+
+    private List<String> range(long after) {
+        List<String> out = new ArrayList<>((int) (lastSeq - after));
+        for (long s = after + 1; s <= lastSeq; s++)
+            out.add(frames[(int) (s % frames.length)]);
+        return out;
+    }
+}
@@ -1,7 +1,6 @@
 package com.rafael.model;
 
 import java.util.HashSet;
-import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -20,32 +19,50 @@ public class GameEngine {
     @Inject
     com.rafael.service.DataLoaderService dataLoader;
 
-    private final Random random = new Random();
-    private int lastIndex = -1;
+    @Inject
+    com.rafael.service.PhraseSelector phraseSelector;
 
     /**
      * Initializes a new GameSession with a random phrase from the given theme.
      */
     public GameSession startNewGame(String theme) {
-        java.util.List<WheelPhrase> phrases = dataLoader.getWheelPhrases(theme);
+        return startNewGame(theme, null);
+    }
 
-        if (phrases == null || phrases.isEmpty()) {
+    /**
+     * Initializes a new GameSession with the next phrase of the theme's shuffle
+     * bag, restricted to {@code category} when given.
+     */
+    public GameSession startNewGame(String theme, String category) {
+        return startNewGame(theme, category, false, java.util.concurrent.ThreadLocalRandom.current());
+    }
+
+    /**
+     * Initializes a new GameSession for a room: the phrase comes from
+     * {@code category} (any when {@code null}), drawn from the shuffle bag or,
+     * when {@code weighted}, by phrase weight, using the room's own generator.
+     */
+    public GameSession startNewGame(String theme, String category, boolean weighted,
+            java.util.random.RandomGenerator rng) {
+        WheelPhrase selected = weighted
+                ? phraseSelector.nextWeighted(theme, category, rng)
+                : phraseSelector.next(theme, category, rng);
+
+        if (selected == null) {
             throw new IllegalStateException("Nenhuma frase da Roleta encontrada para o tema: " + theme);
         }
 
-        int index;
-        do {
-            index = random.nextInt(phrases.size());
-        } while (index == lastIndex && phrases.size() > 1);
-        lastIndex = index;
-
-        WheelPhrase selected = phrases.get(index);
-        String category = selected.category;
-        String phrase = selected.phrase;
+        return startGame(selected.category, selected.phrase);
+    }
 
+    /**
+     * Initializes a new GameSession on a known phrase, e.g. to rebuild a
+     * journaled room after a restart.
+     */
+    public GameSession startGame(String selectedCategory, String phrase) {
         GameSession session = new GameSession();
         session.id = UUID.randomUUID().toString();
-        session.category = category;
+        session.category = selectedCategory;
         session.guessedLetters = new HashSet<>();
         session.score = 0;
         session.gameOver = false;
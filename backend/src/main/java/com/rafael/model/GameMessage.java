@@ -1,11 +1,14 @@
 package com.rafael.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class GameMessage {
     public String type;
     public Object payload;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long seq; // Room frame number, for resuming after a reconnect
 
     public GameMessage() {
     }
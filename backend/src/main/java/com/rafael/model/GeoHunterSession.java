@@ -0,0 +1,228 @@
+package com.rafael.model;
+
+import com.rafael.service.GeoIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Multiplayer GeoHunter game of a room. Players get a slot on joining; the pins
+ * of the current round are kept in primitive arrays indexed by slot, so closing
+ * a round scores every pin in one {@link GeoIndex#score} batch. All methods
+ * synchronize on the session, since pins arrive from several connections and
+ * rounds close from a timer.
+ */
+public class GeoHunterSession {
+
+    public enum Phase {
+        WAITING, ROUND, RESULTS, ENDED
+    }
+
+    /** One player's outcome in a closed round. */
+    public record PinResult(Player player, boolean pinned, double latitude, double longitude, double distanceKm,
+            int score) {
+    }
+
+    public final String theme;
+    private Phase phase = Phase.WAITING;
+    private int round;
+    private int totalRounds;
+    private long roundEndsAt;
+    /** Target handle of the current round. */
+    private int target = -1;
+    private final Set<Integer> usedTargets = new HashSet<>();
+
+    // Players, by slot; freed slots are null and reused
+    private final Map<String, Integer> slotByConnection = new HashMap<>();
+    private Player[] players = new Player[16];
+    private int playerCount;
+    /** Set when the last player leaves: the room is on its way out and takes no one else. */
+    private boolean closed;
+
+    // Pins of the current round, by slot
+    private double[] latitudes = new double[16];
+    private double[] longitudes = new double[16];
+    private boolean[] pinned = new boolean[16];
+    private int pinnedCount;
+
+    public GeoHunterSession(String theme) {
+        this.theme = theme;
+    }
+
+    public synchronized Phase phase() {
+        return phase;
+    }
+
+    public synchronized int round() {
+        return round;
+    }
+
+    public synchronized int totalRounds() {
+        return totalRounds;
+    }
+
+    public synchronized long roundEndsAt() {
+        return roundEndsAt;
+    }
+
+    public synchronized int playerCount() {
+        return playerCount;
+    }
+
+    public synchronized int pinnedCount() {
+        return pinnedCount;
+    }
+
+    /** Players in slot order. */
+    public synchronized List<Player> players() {
+        List<Player> out = new ArrayList<>(playerCount);
+        for (Player p : players) {
+            if (p != null)
+                out.add(p);
+        }
+        return out;
+    }
+
+    public synchronized boolean closed() {
+        return closed;
+    }
+
+    /**
+     * Seats the player; {@code false} when the game has started, the room already
+     * has {@code maxPlayers} or its last player has left. Checking and seating
+     * under one lock keeps two joins from both taking the last place.
+     */
+    public synchronized boolean join(Player player, int maxPlayers) {
+        if (closed || phase != Phase.WAITING || playerCount >= maxPlayers)
+            return false;
+        int slot = 0;
+        while (slot < players.length && players[slot] != null)
+            slot++;
+        if (slot == players.length) {
+            int grown = players.length * 2;
+            players = Arrays.copyOf(players, grown);
+            latitudes = Arrays.copyOf(latitudes, grown);
+            longitudes = Arrays.copyOf(longitudes, grown);
+            pinned = Arrays.copyOf(pinned, grown);
+        }
+        players[slot] = player;
+        pinned[slot] = false;
+        slotByConnection.put(player.connectionId, slot);
+        playerCount++;
+        return true;
+    }
+
+    /** Removes the player of this connection, returning it (or {@code null}). */
+    public synchronized Player leave(String connectionId) {
+        Integer slot = slotByConnection.remove(connectionId);
+        if (slot == null)
+            return null;
+        Player player = players[slot];
+        players[slot] = null;
+        if (pinned[slot]) {
+            pinned[slot] = false;
+            pinnedCount--;
+        }
+        playerCount--;
+        if (playerCount == 0)
+            closed = true;
+        return player;
+    }
+
+    /** Starts the game; {@code false} when it has already started. */
+    public synchronized boolean start(int totalRounds) {
+        if (phase != Phase.WAITING)
+            return false;
+        this.totalRounds = totalRounds;
+        return true;
+    }
+
+    /** Whether this target has already been played in this game. */
+    public synchronized boolean wasPlayed(int target) {
+        return usedTargets.contains(target);
+    }
+
+    /** Opens the next round on {@code target}; pins from the previous one are dropped. */
+    public synchronized int startRound(int target, long endsAt) {
+        round++;
+        phase = Phase.ROUND;
+        this.target = target;
+        roundEndsAt = endsAt;
+        usedTargets.add(target);
+        Arrays.fill(pinned, false);
+        pinnedCount = 0;
+        return round;
+    }
+
+    /**
+     * Records (or moves) the pin of this connection's player. Returns {@code false}
+     * when no round is open or the player is unknown.
+     */
+    public synchronized boolean pin(String connectionId, double latitude, double longitude) {
+        Integer slot = slotByConnection.get(connectionId);
+        if (slot == null || phase != Phase.ROUND)
+            return false;
+        latitudes[slot] = latitude;
+        longitudes[slot] = longitude;
+        if (!pinned[slot]) {
+            pinned[slot] = true;
+            pinnedCount++;
+        }
+        return true;
+    }
+
+    public synchronized boolean allPinned() {
+        return playerCount > 0 && pinnedCount == playerCount;
+    }
+
+    /**
+     * Closes round {@code round} if it is still open: scores every pin against the
+     * target in one batch, adds the points to the players and returns their results
+     * ranked by round score (players without a pin last). Returns {@code null} when
+     * that round was already closed.
+     */
+    public synchronized List<PinResult> closeRound(int round, GeoIndex index) {
+        if (this.round != round || phase != Phase.ROUND)
+            return null;
+        phase = round >= totalRounds ? Phase.ENDED : Phase.RESULTS;
+
+        double[] lats = new double[pinnedCount];
+        double[] lons = new double[pinnedCount];
+        int[] slots = new int[pinnedCount];
+        int n = 0;
+        for (int slot = 0; slot < players.length; slot++) {
+            if (players[slot] != null && pinned[slot]) {
+                lats[n] = latitudes[slot];
+                lons[n] = longitudes[slot];
+                slots[n++] = slot;
+            }
+        }
+        int[] nearest = new int[n];
+        double[] distances = new double[n];
+        int[] scores = new int[n];
+        index.score(lats, lons, target, nearest, distances, scores);
+
+        List<PinResult> results = new ArrayList<>(playerCount);
+        for (int i = 0; i < n; i++) {
+            Player p = players[slots[i]];
+            p.score += scores[i];
+            results.add(new PinResult(p, true, lats[i], lons[i], distances[i], scores[i]));
+        }
+        results.sort((a, b) -> a.score() != b.score() ? Integer.compare(b.score(), a.score())
+                : Double.compare(a.distanceKm(), b.distanceKm()));
+        for (int slot = 0; slot < players.length; slot++) {
+            if (players[slot] != null && !pinned[slot])
+                results.add(new PinResult(players[slot], false, 0, 0, Double.NaN, 0));
+        }
+        return results;
+    }
+
+    public synchronized int target() {
+        return target;
+    }
+}
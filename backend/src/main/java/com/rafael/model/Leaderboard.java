@@ -0,0 +1,179 @@
+package com.rafael.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Standings of a room, kept sorted as scores change instead of re-sorted for
+ * every update. Players are ordered by score (ties by arrival) in a tree, so
+ * the top entries and a player's neighbours are a short walk away, and counted
+ * per score in a Fenwick tree, so a rank ({@code 1 +} players with a higher
+ * score, ties sharing it) is {@code O(log maxScore)}. Every operation is
+ * logarithmic in the room size, apart from the entries returned.
+ */
+public final class Leaderboard {
+
+    public record Standing(int rank, String id, String name, int score) {
+    }
+
+    private static final class Entry {
+        final String id;
+        final String name;
+        final long seq;
+        int score;
+
+        Entry(String id, String name, long seq) {
+            this.id = id;
+            this.name = name;
+            this.seq = seq;
+        }
+    }
+
+    private static final Comparator<Entry> ORDER = (a, b) -> a.score != b.score
+            ? Integer.compare(b.score, a.score)
+            : Long.compare(a.seq, b.seq);
+
+    private final TreeSet<Entry> order = new TreeSet<>(ORDER);
+    private final Map<String, Entry> byId = new HashMap<>();
+    private long nextSeq;
+    /** Fenwick tree of player counts by score (slot {@code score + 1}). */
+    private int[] counts = new int[1025];
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    /** Adds a player with this score, or moves an existing one to it. */
+    public synchronized void put(String id, String name, int score) {
+        Entry e = byId.get(id);
+        if (e == null) {
+            e = new Entry(id, name, nextSeq++);
+            e.score = Math.max(0, score);
+            byId.put(id, e);
+            count(e.score, 1);
+            order.add(e);
+            return;
+        }
+        setScore(e, score);
+    }
+
+    /** Moves a known player to a new score; unknown ids are ignored. */
+    public synchronized void update(String id, int score) {
+        Entry e = byId.get(id);
+        if (e != null)
+            setScore(e, score);
+    }
+
+    public synchronized void remove(String id) {
+        Entry e = byId.remove(id);
+        if (e != null) {
+            order.remove(e);
+            count(e.score, -1);
+        }
+    }
+
+    /** Rank of the player (1 for the best score, ties share it), or -1 when unknown. */
+    public synchronized int rank(String id) {
+        Entry e = byId.get(id);
+        return e != null ? rankOf(e.score) : -1;
+    }
+
+    /** The best {@code n} players, in order. */
+    public synchronized List<Standing> top(int n) {
+        List<Standing> out = new ArrayList<>(Math.min(n, byId.size()));
+        for (Entry e : order) {
+            if (out.size() >= n)
+                break;
+            out.add(standing(e));
+        }
+        return out;
+    }
+
+    /** The player with up to {@code radius} neighbours on each side, in order; empty when unknown. */
+    public synchronized List<Standing> around(String id, int radius) {
+        Entry e = byId.get(id);
+        if (e == null)
+            return List.of();
+        Entry first = e;
+        for (int i = 0; i < radius; i++) {
+            Entry better = order.lower(first);
+            if (better == null)
+                break;
+            first = better;
+        }
+        List<Standing> out = new ArrayList<>(2 * radius + 1);
+        for (Entry c : order.tailSet(first, true)) {
+            out.add(standing(c));
+            if (c == e)
+                break;
+        }
+        Entry next = e;
+        for (int i = 0; i < radius; i++) {
+            next = order.higher(next);
+            if (next == null)
+                break;
+            out.add(standing(next));
+        }
+        return out;
+    }
+
+    /** Every player, in order. */
+    public synchronized List<Standing> all() {
+        List<Standing> out = new ArrayList<>(byId.size());
+        for (Entry e : order)
+            out.add(standing(e));
+        return out;
+    }
+
+    private Standing standing(Entry e) {
+        return new Standing(rankOf(e.score), e.id, e.name, e.score);
+    }
+
+    private void setScore(Entry e, int score) {
+        score = Math.max(0, score);
+        if (score == e.score)
+            return;
+        order.remove(e);
+        count(e.score, -1);
+        e.score = score;
+        count(score, 1);
+        order.add(e);
+    }
+
+    private int rankOf(int score) {
+        return 1 + byId.size() - atMost(score);
+    }
+
+    // ── Fenwick tree ────────────────────────────────────────────────────────
+
+    private void count(int score, int delta) {
+        if (score + 1 >= counts.length)
+            grow(score + 1);
+        for (int i = score + 1; i < counts.length; i += i & -i)
+            counts[i] += delta;
+    }
+
+    /** Players with a score of at most {@code score}. */
+    private int atMost(int score) {
+        int sum = 0;
+        for (int i = Math.min(score + 1, counts.length - 1); i > 0; i -= i & -i)
+            sum += counts[i];
+        return sum;
+    }
+
+    /** Rebuilds the tree so slot {@code slot} fits; the entry being moved is not counted yet. */
+    private void grow(int slot) {
+        int size = counts.length;
+        while (size <= slot)
+            size = (size - 1) * 2 + 1;
+        counts = new int[size];
+        for (Entry e : order) {
+            for (int i = e.score + 1; i < size; i += i & -i)
+                counts[i]++;
+        }
+    }
+}
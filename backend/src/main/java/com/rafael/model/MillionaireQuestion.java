@@ -3,6 +3,8 @@ package com.rafael.model;
 import java.util.List;
 
 public class MillionaireQuestion {
+    /** Stable id within the theme, assigned at load when the JSON does not declare one. */
+    public int id;
     public String question;
     public List<String> options;
     public int answer;
@@ -0,0 +1,222 @@
+package com.rafael.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bitset index over a theme's Roletrando phrases, for the bots. Phrases are
+ * grouped by length, since an obscured phrase has exactly the length of its
+ * phrase; inside a group there is one bitset of phrases per (position,
+ * character) and one per category. The phrases that fit a board are then a
+ * handful of ANDs: the revealed characters must match, the hidden positions
+ * must hold none of the guessed letters, and spaces must line up.
+ * <p>
+ * Immutable once built, so one index serves every room of the theme.
+ */
+public final class PhraseIndex {
+
+    private static final char SPACE = ' ';
+    private static final char HIDDEN = '_';
+    private static final int LETTERS = 26;
+    private static final int SPACE_SLOT = LETTERS;
+    /** Candidate counts under which {@link Candidates#letterHits()} reads the phrases. */
+    private static final int SCAN_BELOW = 256;
+
+    private final Map<Integer, Group> groups = new HashMap<>();
+    private final int size;
+
+    public PhraseIndex(List<WheelPhrase> phrases) {
+        Map<Integer, List<WheelPhrase>> byLength = new HashMap<>();
+        for (WheelPhrase p : phrases) {
+            if (p != null && p.phrase != null && !p.phrase.isEmpty())
+                byLength.computeIfAbsent(p.phrase.length(), n -> new ArrayList<>()).add(p);
+        }
+        int total = 0;
+        for (Map.Entry<Integer, List<WheelPhrase>> e : byLength.entrySet()) {
+            groups.put(e.getKey(), new Group(e.getKey(), e.getValue()));
+            total += e.getValue().size();
+        }
+        this.size = total;
+    }
+
+    /** Phrases indexed. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The phrases that could be behind {@code obscured}, as obscured by
+     * {@link GameEngine}: whitespace shows as a space, guessed characters as
+     * themselves and everything else as {@code _}. {@code category} narrows the
+     * search when not {@code null}.
+     */
+    public Candidates candidates(String obscured, String category, Set<Character> guessed) {
+        Group g = groups.get(obscured.length());
+        if (g == null)
+            return new Candidates(null, new long[0], obscured);
+        long[] set = g.all.clone();
+        if (category != null) {
+            long[] inCategory = g.byCategory.get(category);
+            if (inCategory != null)
+                and(set, inCategory);
+        }
+        for (int pos = 0; pos < obscured.length(); pos++) {
+            char c = obscured.charAt(pos);
+            if (c == HIDDEN) {
+                andNot(set, g.bits(pos, SPACE));
+                for (char letter : guessed)
+                    andNot(set, g.bits(pos, Character.toUpperCase(letter)));
+            } else {
+                long[] at = g.bits(pos, Character.isWhitespace(c) ? SPACE : Character.toUpperCase(c));
+                if (at == null) {
+                    Arrays.fill(set, 0);
+                    break;
+                }
+                and(set, at);
+            }
+        }
+        return new Candidates(g, set, obscured);
+    }
+
+    /** A set of phrases that fit one board. */
+    public static final class Candidates {
+        private final Group group;
+        private final long[] set;
+        private final String obscured;
+
+        private Candidates(Group group, long[] set, String obscured) {
+            this.group = group;
+            this.set = set;
+            this.obscured = obscured;
+        }
+
+        public int count() {
+            int n = 0;
+            for (long word : set)
+                n += Long.bitCount(word);
+            return n;
+        }
+
+        /** The first candidate phrase, or {@code null} when none fits. */
+        public String first() {
+            for (int w = 0; w < set.length; w++) {
+                if (set[w] != 0)
+                    return group.phrases[w * 64 + Long.numberOfTrailingZeros(set[w])];
+            }
+            return null;
+        }
+
+        /**
+         * For each letter A-Z, how many candidates hide it somewhere on the
+         * board; a guess of it is a hit for that many of them.
+         */
+        public int[] letterHits() {
+            int[] hits = new int[LETTERS];
+            if (group == null)
+                return hits;
+            int count = count();
+            if (count <= SCAN_BELOW) {
+                // Few candidates left: reading them is cheaper than the bitsets
+                for (int w = 0; w < set.length; w++) {
+                    for (long bits = set[w]; bits != 0; bits &= bits - 1) {
+                        String phrase = group.phrases[w * 64 + Long.numberOfTrailingZeros(bits)];
+                        int seen = 0;
+                        for (int pos = 0; pos < obscured.length(); pos++) {
+                            int slot = Character.toUpperCase(phrase.charAt(pos)) - 'A';
+                            if (obscured.charAt(pos) == HIDDEN && slot >= 0 && slot < LETTERS)
+                                seen |= 1 << slot;
+                        }
+                        for (; seen != 0; seen &= seen - 1)
+                            hits[Integer.numberOfTrailingZeros(seen)]++;
+                    }
+                }
+                return hits;
+            }
+            long[] any = new long[set.length];
+            for (int letter = 0; letter < LETTERS; letter++) {
+                Arrays.fill(any, 0);
+                for (int pos = 0; pos < obscured.length(); pos++) {
+                    long[] at = obscured.charAt(pos) == HIDDEN ? group.letters[pos][letter] : null;
+                    if (at != null) {
+                        for (int w = 0; w < any.length; w++)
+                            any[w] |= at[w];
+                    }
+                }
+                for (int w = 0; w < any.length; w++)
+                    hits[letter] += Long.bitCount(any[w] & set[w]);
+            }
+            return hits;
+        }
+    }
+
+    private static final class Group {
+        final String[] phrases;
+        final long[] all;
+        /** Per position, the phrases holding each letter A-Z there ({@code SPACE_SLOT} for whitespace). */
+        final long[][][] letters;
+        /** Per position, the phrases holding any other (upper-cased) character there. */
+        final Map<Character, long[]>[] others;
+        final Map<String, long[]> byCategory = new HashMap<>();
+
+        @SuppressWarnings("unchecked")
+        Group(int length, List<WheelPhrase> members) {
+            int words = (members.size() + 63) >>> 6;
+            phrases = new String[members.size()];
+            all = new long[words];
+            letters = new long[length][LETTERS + 1][];
+            others = new Map[length];
+            for (int pos = 0; pos < length; pos++)
+                others[pos] = new HashMap<>();
+            for (int i = 0; i < members.size(); i++) {
+                WheelPhrase p = members.get(i);
+                phrases[i] = p.phrase;
+                set(all, i);
+                if (p.category != null)
+                    set(byCategory.computeIfAbsent(p.category, c -> new long[words]), i);
+                for (int pos = 0; pos < length; pos++) {
+                    char c = p.phrase.charAt(pos);
+                    char key = Character.isWhitespace(c) ? SPACE : Character.toUpperCase(c);
+                    int slot = slot(key);
+                    if (slot < 0)
+                        set(others[pos].computeIfAbsent(key, k -> new long[words]), i);
+                    else {
+                        if (letters[pos][slot] == null)
+                            letters[pos][slot] = new long[words];
+                        set(letters[pos][slot], i);
+                    }
+                }
+            }
+        }
+
+        long[] bits(int pos, char c) {
+            int slot = slot(c);
+            return slot < 0 ? others[pos].get(c) : letters[pos][slot];
+        }
+    }
+
+    private static int slot(char c) {
+        if (c == SPACE)
+            return SPACE_SLOT;
+        return c >= 'A' && c <= 'Z' ? c - 'A' : -1;
+    }
+
+    private static void set(long[] bits, int i) {
+        bits[i >>> 6] |= 1L << i;
+    }
+
+    private static void and(long[] set, long[] other) {
+        for (int w = 0; w < set.length; w++)
+            set[w] &= other[w];
+    }
+
+    private static void andNot(long[] set, long[] other) {
+        if (other == null)
+            return;
+        for (int w = 0; w < set.length; w++)
+            set[w] &= ~other[w];
+    }
+}
@@ -1,5 +1,7 @@
 package com.rafael.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class Player {
     public String id;
     public String name;
@@ -7,6 +9,9 @@ public class Player {
     public String avatar;
     public String connectionId; // WebSocket Connection ID
     public boolean isBot;
+    public boolean disconnected; // Seat held while the player may still reconnect
+    @JsonIgnore
+    public String resumeToken; // Sent only to the player; lets a new connection take the seat back
 
     public Player() {
     }
@@ -1,15 +1,151 @@
 package com.rafael.model;
 
-import java.util.HashMap;
+import com.rafael.service.QuestionStore;
+
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+/**
+ * Quiz game of a room. The questions are drawn when the game starts and only the
+ * current one is ever sent to clients; answers are checked and scored here, from
+ * the server's monotonic clock. Answers of the open question are taken under a
+ * shared lock, so they never wait on each other, while closing takes it
+ * exclusively so no answer lands after the scores were applied. Each answer
+ * also bumps a per-option {@link LongAdder}, so the live distribution costs O(1)
+ * per answer whatever the room size.
+ */
 public class QuizSession {
+
+    /** Points for an instant right answer; they drop linearly to zero at the deadline. */
+    public static final int MAX_POINTS = 1000;
+
     public int currentStep = 0;
     public int totalQuestions = 0; // Set when game starts; used to detect end of quiz
-    public String phase = "question"; // question, feedback, question_ranking, accumulated_ranking, ended
-    public Map<String, Integer> roundScores = new HashMap<>(); // connectionId -> score
-    public int answeredCount = 0;
+    public volatile String phase = "question"; // question, feedback, question_ranking, accumulated_ranking, ended
+    public Map<String, Integer> roundScores = new ConcurrentHashMap<>(); // playerId -> score
+    public final AtomicInteger answeredCount = new AtomicInteger();
+
+    private QuestionStore store;
+    /** Question handles, in play order. */
+    private int[] questions = new int[0];
+    private long durationNanos;
+    private volatile long openedAt;
+    /** First answer of each player (id) to the open question. */
+    private final Map<String, Integer> answers = new ConcurrentHashMap<>();
+    /** Answers per option of the open question. */
+    private volatile LongAdder[] optionCounts = new LongAdder[0];
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Leaderboard leaderboard = new Leaderboard();
 
     public QuizSession() {
     }
+
+    /** Sets the questions of the game and the time allowed for each one. */
+    public void load(QuestionStore store, int[] questions, long durationNanos) {
+        lock.writeLock().lock();
+        try {
+            this.store = store;
+            this.questions = questions;
+            this.durationNanos = durationNanos;
+            totalQuestions = questions.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Standings of the room, updated when a question closes. */
+    public Leaderboard leaderboard() {
+        return leaderboard;
+    }
+
+    public QuestionStore store() {
+        return store;
+    }
+
+    /** Handle of the question at {@code step}. */
+    public int question(int step) {
+        return questions[step];
+    }
+
+    /** Opens the question at {@code step}; {@code now} comes from {@link System#nanoTime()}. */
+    public void open(int step, long now) {
+        lock.writeLock().lock();
+        try {
+            currentStep = step;
+            roundScores.clear();
+            answers.clear();
+            answeredCount.set(0);
+            LongAdder[] counts = new LongAdder[store.optionCount(questions[step])];
+            for (int i = 0; i < counts.length; i++)
+                counts[i] = new LongAdder();
+            optionCounts = counts;
+            openedAt = now;
+            phase = "question";
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Takes a player's answer to the open question, timed with {@code now} from
+     * {@link System#nanoTime()}. Returns the points earned (0 when wrong), or -1
+     * when the question is closed, the time is up or the player already answered.
+     */
+    public int submit(String playerId, int answerIndex, long now) {
+        lock.readLock().lock();
+        try {
+            long elapsed = now - openedAt;
+            if (!"question".equals(phase) || elapsed > durationNanos || answers.putIfAbsent(playerId, answerIndex) != null)
+                return -1;
+            int correct = store.answer(questions[currentStep]);
+            int points = correct >= 0 && correct == answerIndex
+                    ? (int) (MAX_POINTS * (durationNanos - Math.max(0, elapsed)) / durationNanos)
+                    : 0;
+            roundScores.put(playerId, points);
+            LongAdder[] counts = optionCounts;
+            if (answerIndex >= 0 && answerIndex < counts.length)
+                counts[answerIndex].increment();
+            answeredCount.incrementAndGet();
+            return points;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Answers per option of the current question so far. */
+    public long[] distribution() {
+        LongAdder[] counts = optionCounts;
+        long[] out = new long[counts.length];
+        for (int i = 0; i < counts.length; i++)
+            out[i] = counts[i].sum();
+        return out;
+    }
+
+    /**
+     * Closes the question at {@code step} and adds the round scores to the players.
+     * Returns the index of the right option, or -2 when that question was already
+     * closed.
+     */
+    public int close(int step, List<Player> players) {
+        lock.writeLock().lock();
+        try {
+            if (step != currentStep || !"question".equals(phase))
+                return -2;
+            phase = "feedback";
+            for (Player p : players) {
+                Integer points = roundScores.get(p.id);
+                if (points != null && points > 0) {
+                    p.score += points;
+                    leaderboard.update(p.id, p.score);
+                }
+            }
+            return store.answer(questions[step]);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
 }
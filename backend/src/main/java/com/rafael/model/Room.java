@@ -1,17 +1,29 @@
 package com.rafael.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 public class Room {
     public String id;
     public List<Player> players = new ArrayList<>();
     public GameSession gameSession; // For Roletrando
     public QuizSession quizSession; // For Quiz
+    public GeoHunterSession geoHunterSession; // For GeoHunter
     public int currentTurnIndex = 0;
     public String status = "WAITING"; // WAITING, PLAYING, FINISHED
     public String hostConnectionId;
     public boolean historyRecorded = false; // Prevents double-recording on game over
+    @JsonIgnore
+    public String theme; // Theme the room was created with: phrases, questions or targets
+    @JsonIgnore
+    public String category; // Roletrando: phrase category picked by the host, null for any
+    @JsonIgnore
+    public boolean weightedPhrases; // Roletrando: draw phrases by weight instead of the shuffle bag
+    @JsonIgnore
+    public RandomGenerator random = new SplittableRandom(); // Roletrando: the room's own phrase draws
 
     public Room() {
     }
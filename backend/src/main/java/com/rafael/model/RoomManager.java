@@ -3,6 +3,7 @@ package com.rafael.model;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 @ApplicationScoped
 public class RoomManager {
@@ -14,6 +15,24 @@ public class RoomManager {
         return r;
     }
 
+    /**
+     * The room with this id, created and handed to {@code setup} first when there
+     * is none. Atomic: players opening the same new room at once all get the one
+     * that {@code setup} ran on.
+     */
+    public Room getOrCreateRoom(String roomId, Consumer<Room> setup) {
+        return rooms.computeIfAbsent(roomId, id -> {
+            Room r = new Room(id);
+            setup.accept(r);
+            return r;
+        });
+    }
+
+    /** Adds a room rebuilt elsewhere, e.g. from the journal after a restart. */
+    public void register(Room room) {
+        rooms.put(room.id, room);
+    }
+
     public Room getRoom(String roomId) {
         return rooms.get(roomId);
     }
@@ -22,6 +41,11 @@ public class RoomManager {
         rooms.remove(roomId);
     }
 
+    /** Removes the room only if it is still the one registered under its id. */
+    public void removeRoom(Room room) {
+        rooms.remove(room.id, room);
+    }
+
     public void addPlayerToRoom(String roomId, Player player) {
         Room r = rooms.get(roomId);
         if (r != null) {
@@ -0,0 +1,16 @@
+package com.rafael.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Payload of a STATE_UPDATE frame. Roletrando names whose turn it is; the Quiz
+ * has no turns and leaves it out.
+ */
+public record RoomState(
+        Room room,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String currentPlayerTurnId) {
+
+    public RoomState(Room room) {
+        this(room, null);
+    }
+}
@@ -0,0 +1,38 @@
+package com.rafael.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket kept in one {@code long}: the time at which it would be full
+ * again (the "theoretical arrival time" of GCRA). Taking a token pushes that
+ * time one interval later, and a take is refused when it would land more than
+ * {@code burst} intervals ahead of now. Threads race with a single CAS, so no
+ * lock and no refill timer is needed.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    /** A full bucket of {@code burst} tokens that earns {@code perSecond} a second. */
+    public TokenBucket(double perSecond, int burst, long now) {
+        if (perSecond <= 0 || burst < 1)
+            throw new IllegalArgumentException("rate and burst must be positive");
+        intervalNanos = Math.max(1, (long) (1_000_000_000L / perSecond));
+        burstNanos = intervalNanos * burst;
+        fullAt = new AtomicLong(now);
+    }
+
+    /** Takes one token if there is one; {@code now} is {@link System#nanoTime()}. */
+    public boolean tryTake(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - now > 0 ? current : now) + intervalNanos;
+            if (next - now > burstNanos)
+                return false;
+            if (fullAt.compareAndSet(current, next))
+                return true;
+        }
+    }
+}
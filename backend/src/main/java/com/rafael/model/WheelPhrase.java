@@ -3,4 +3,6 @@ package com.rafael.model;
 public class WheelPhrase {
     public String category;
     public String phrase;
+    /** Relative draw weight for weighted selection; 0 (absent) counts as 1. */
+    public int weight;
 }
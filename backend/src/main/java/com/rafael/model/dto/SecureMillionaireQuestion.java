@@ -3,10 +3,12 @@ package com.rafael.model.dto;
 import java.util.List;
 
 public class SecureMillionaireQuestion {
+    public int id;
     public String question;
     public List<String> options;
 
-    public SecureMillionaireQuestion(String question, List<String> options) {
+    public SecureMillionaireQuestion(int id, String question, List<String> options) {
+        this.id = id;
         this.question = question;
         this.options = options;
     }
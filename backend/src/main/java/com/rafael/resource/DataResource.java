@@ -1,11 +1,14 @@
 package com.rafael.resource;
 
-import com.rafael.model.MillionaireLevel;
-import com.rafael.model.MillionaireQuestion;
-import com.rafael.model.QuizLevel;
-import com.rafael.model.QuizQuestion;
 import com.rafael.model.GeoHunterTarget;
+import com.rafael.model.GeoLocation;
 import com.rafael.service.DataLoaderService;
+import com.rafael.service.GeoIndex;
+import com.rafael.service.MillionaireSessionService;
+import com.rafael.service.PhraseSelector;
+import com.rafael.service.PreparedPayload;
+import com.rafael.service.QuestionStore;
+import com.rafael.service.SeenQuestionTracker;
 import org.jboss.logging.Logger;
 
 import jakarta.inject.Inject;
@@ -17,6 +20,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Path("/api/data")
 @Produces(MediaType.APPLICATION_JSON)
@@ -26,20 +30,79 @@ public class DataResource {
     private static final Logger LOG = Logger.getLogger(DataResource.class);
     private static final Random RANDOM = new Random();
 
+    /** Clients (and the proxy) may keep a copy but must revalidate it with the ETag. */
+    private static final String REVALIDATE = "public, no-cache";
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    /** Largest batch accepted by the GeoHunter scoring endpoint. */
+    static final int MAX_GEO_GUESSES = 1000;
+
     @Inject
     DataLoaderService dataLoader;
 
+    @Inject
+    PhraseSelector phraseSelector;
+
+    @Inject
+    SeenQuestionTracker seenTracker;
+
     // ============================================================
     // THEME DISCOVERY ENDPOINT
     // ============================================================
 
     @GET
     @Path("/themes")
-    public Response getThemes() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("themes", dataLoader.getAvailableThemes());
-        response.put("defaultTheme", dataLoader.getDefaultTheme());
-        return Response.ok(response).build();
+    public Response getThemes(@HeaderParam("If-None-Match") String ifNoneMatch,
+            @HeaderParam("Accept-Encoding") String acceptEncoding) {
+        return serve(dataLoader.getThemesPayload(), ifNoneMatch, acceptEncoding, REVALIDATE);
+    }
+
+    // ============================================================
+    // THEME BUNDLE ENDPOINTS
+    // ============================================================
+
+    /**
+     * Static, answer-free data of a theme (Millionaire and Quiz questions, GeoHunter
+     * targets). Revalidated through the ETag; the response points at the versioned URL.
+     */
+    @GET
+    @Path("/bundle/{theme}")
+    public Response getBundle(@PathParam("theme") String theme,
+            @HeaderParam("If-None-Match") String ifNoneMatch,
+            @HeaderParam("Accept-Encoding") String acceptEncoding) {
+        if (!dataLoader.hasTheme(theme))
+            return Response.status(Response.Status.NOT_FOUND).build();
+        PreparedPayload bundle = dataLoader.getBundle(theme);
+        Response.ResponseBuilder builder = prepare(bundle, ifNoneMatch, acceptEncoding, REVALIDATE);
+        return builder.header("Content-Location", "/api/data/bundle/" + theme + "/" + bundle.hash).build();
+    }
+
+    /**
+     * Content-addressed bundle: the URL changes whenever the data does, so it can be
+     * cached forever. A hash that is no longer current is gone (404).
+     */
+    @GET
+    @Path("/bundle/{theme}/{hash}")
+    public Response getVersionedBundle(@PathParam("theme") String theme,
+            @PathParam("hash") String hash,
+            @HeaderParam("If-None-Match") String ifNoneMatch,
+            @HeaderParam("Accept-Encoding") String acceptEncoding) {
+        if (!dataLoader.hasTheme(theme))
+            return Response.status(Response.Status.NOT_FOUND).build();
+        PreparedPayload bundle = dataLoader.getBundle(theme);
+        if (!bundle.hash.equals(hash))
+            return Response.status(Response.Status.NOT_FOUND).build();
+        return serve(bundle, ifNoneMatch, acceptEncoding, IMMUTABLE);
+    }
+
+    // ============================================================
+    // ROLETRANDO ENDPOINTS
+    // ============================================================
+
+    /** Phrase categories a room can ask for when starting a Roletrando game. */
+    @GET
+    @Path("/wheel/categories")
+    public Response getWheelCategories(@QueryParam("theme") String theme) {
+        return Response.ok(phraseSelector.categories(resolveTheme(theme))).build();
     }
 
     // ============================================================
@@ -48,23 +111,28 @@ public class DataResource {
 
     @GET
     @Path("/millionaire/questions")
-    public Response getMillionaireQuestions(@QueryParam("theme") String theme) {
+    public Response getMillionaireQuestions(@QueryParam("theme") String theme,
+            @QueryParam("player") String player) {
+        if (player != null && !SeenQuestionTracker.isValidKey(player))
+            return Response.status(Response.Status.BAD_REQUEST).build();
         String t = resolveTheme(theme);
-        List<MillionaireLevel> levels = dataLoader.getMillionaireLevels(t);
-        if (levels == null || levels.isEmpty())
+        QuestionStore store = dataLoader.getMillionaireStore(t);
+        if (store.isEmpty())
             return Response.status(Response.Status.NOT_FOUND).build();
 
+        SeenQuestionTracker.Seen seen = seenTracker.forPlayer(player, "millionaire", trackedTheme(t), store);
         List<Map<String, Object>> result = new ArrayList<>();
-        for (MillionaireLevel level : levels) {
-            if (level.questions == null || level.questions.isEmpty())
+        for (int l = 0; l < store.levelCount(); l++) {
+            if (store.levelSize(l) == 0)
                 continue;
-            int questionIndex = RANDOM.nextInt(level.questions.size());
-            MillionaireQuestion q = level.questions.get(questionIndex);
+            int questionIndex = draw(seen, store, l, -1);
+            int q = store.questionAt(l, questionIndex);
             Map<String, Object> item = new HashMap<>();
-            item.put("level", level.level);
-            item.put("prize", level.prize);
-            item.put("question", q.question);
-            item.put("options", q.options);
+            item.put("level", store.levelNumber(l));
+            item.put("prize", store.levelTitle(l));
+            item.put("questionId", store.id(q));
+            item.put("question", store.text(q));
+            item.put("options", store.options(q));
             item.put("questionIndex", questionIndex);
             result.add(item);
         }
@@ -83,14 +151,15 @@ public class DataResource {
             @QueryParam("theme") String theme,
             AnswerRequest request) {
 
-        MillionaireQuestion q = getMillionaireQuestion(resolveTheme(theme), level, questionIndex);
-        if (q == null)
+        QuestionStore store = dataLoader.getMillionaireStore(resolveTheme(theme));
+        int q = store.question(level, questionIndex);
+        if (q < 0)
             return Response.status(Response.Status.BAD_REQUEST).build();
 
-        boolean correct = (q.answer == request.answerIndex);
+        boolean correct = store.answer(q) >= 0 && store.answer(q) == request.answerIndex;
         Map<String, Object> response = new HashMap<>();
         response.put("correct", correct);
-        response.put("correctAnswerIndex", q.answer);
+        response.put("correctAnswerIndex", store.answer(q));
         return Response.ok(response).build();
     }
 
@@ -101,19 +170,12 @@ public class DataResource {
             @PathParam("questionIndex") int questionIndex,
             @QueryParam("theme") String theme) {
 
-        MillionaireQuestion q = getMillionaireQuestion(resolveTheme(theme), level, questionIndex);
-        if (q == null)
+        QuestionStore store = dataLoader.getMillionaireStore(resolveTheme(theme));
+        int q = store.question(level, questionIndex);
+        List<Integer> toHide = q < 0 ? null : MillionaireSessionService.hiddenOptions(store, q, RANDOM);
+        if (toHide == null)
             return Response.status(Response.Status.BAD_REQUEST).build();
 
-        List<Integer> wrongAnswers = new ArrayList<>();
-        for (int i = 0; i < q.options.size(); i++) {
-            if (i != q.answer)
-                wrongAnswers.add(i);
-        }
-        List<Integer> toHide = new ArrayList<>();
-        for (int i = 0; i < 2; i++) {
-            toHide.add(wrongAnswers.remove(RANDOM.nextInt(wrongAnswers.size())));
-        }
         Map<String, Object> response = new HashMap<>();
         response.put("hiddenOptions", toHide);
         return Response.ok(response).build();
@@ -126,30 +188,12 @@ public class DataResource {
             @PathParam("questionIndex") int questionIndex,
             @QueryParam("theme") String theme) {
 
-        MillionaireQuestion q = getMillionaireQuestion(resolveTheme(theme), level, questionIndex);
-        if (q == null)
+        QuestionStore store = dataLoader.getMillionaireStore(resolveTheme(theme));
+        int q = store.question(level, questionIndex);
+        List<Integer> data = q < 0 ? null : MillionaireSessionService.audienceVotes(store, q, RANDOM);
+        if (data == null)
             return Response.status(Response.Status.BAD_REQUEST).build();
 
-        List<Integer> data = new ArrayList<>(List.of(0, 0, 0, 0));
-        int remaining = 100;
-        int correctWeight = 50 + RANDOM.nextInt(30);
-        data.set(q.answer, correctWeight);
-        remaining -= correctWeight;
-
-        List<Integer> wrongIndices = new ArrayList<>();
-        for (int i = 0; i < 4; i++) {
-            if (i != q.answer)
-                wrongIndices.add(i);
-        }
-        for (int i = 0; i < wrongIndices.size(); i++) {
-            if (i == wrongIndices.size() - 1) {
-                data.set(wrongIndices.get(i), remaining);
-            } else {
-                int val = remaining > 0 ? RANDOM.nextInt(remaining) : 0;
-                data.set(wrongIndices.get(i), val);
-                remaining -= val;
-            }
-        }
         Map<String, Object> response = new HashMap<>();
         response.put("audienceData", data);
         return Response.ok(response).build();
@@ -160,31 +204,38 @@ public class DataResource {
     public Response skipMillionaireQuestion(
             @PathParam("level") int level,
             @QueryParam("excludeIndex") int excludeIndex,
-            @QueryParam("theme") String theme) {
+            @QueryParam("theme") String theme,
+            @QueryParam("player") String player) {
 
+        if (player != null && !SeenQuestionTracker.isValidKey(player))
+            return Response.status(Response.Status.BAD_REQUEST).build();
         String t = resolveTheme(theme);
-        List<MillionaireLevel> levels = dataLoader.getMillionaireLevels(t);
-        if (levels == null)
-            return Response.status(Response.Status.NOT_FOUND).build();
-
-        MillionaireLevel foundLevel = levels.stream().filter(l -> l.level == level).findFirst().orElse(null);
-        if (foundLevel == null || foundLevel.questions.size() <= 1)
+        QuestionStore store = dataLoader.getMillionaireStore(t);
+        int ordinal = store.levelOrdinal(level);
+        int count = store.questionCount(level);
+        if (ordinal < 0 || count <= 1)
             return Response.status(Response.Status.BAD_REQUEST).build();
 
         int newIndex;
-        int attempts = 0;
-        do {
-            newIndex = RANDOM.nextInt(foundLevel.questions.size());
-            attempts++;
-        } while (newIndex == excludeIndex && attempts < 20);
+        SeenQuestionTracker.Seen seen = seenTracker.forPlayer(player, "millionaire", trackedTheme(t), store);
+        if (seen != null) {
+            newIndex = seen.pick(store, ordinal, ThreadLocalRandom.current(), excludeIndex);
+        } else {
+            int attempts = 0;
+            do {
+                newIndex = RANDOM.nextInt(count);
+                attempts++;
+            } while (newIndex == excludeIndex && attempts < 20);
+        }
 
-        MillionaireQuestion q = foundLevel.questions.get(newIndex);
+        int q = store.questionAt(ordinal, newIndex);
         Map<String, Object> result = new HashMap<>();
-        result.put("question", q.question);
-        result.put("options", q.options);
+        result.put("questionId", store.id(q));
+        result.put("question", store.text(q));
+        result.put("options", store.options(q));
         result.put("questionIndex", newIndex);
-        result.put("level", foundLevel.level);
-        result.put("prize", foundLevel.prize);
+        result.put("level", store.levelNumber(ordinal));
+        result.put("prize", store.levelTitle(ordinal));
         return Response.ok(result).build();
     }
 
@@ -194,23 +245,28 @@ public class DataResource {
 
     @GET
     @Path("/quiz/questions")
-    public Response getQuizQuestions(@QueryParam("theme") String theme) {
+    public Response getQuizQuestions(@QueryParam("theme") String theme,
+            @QueryParam("player") String player) {
+        if (player != null && !SeenQuestionTracker.isValidKey(player))
+            return Response.status(Response.Status.BAD_REQUEST).build();
         String t = resolveTheme(theme);
-        List<QuizLevel> levels = dataLoader.getQuizLevels(t);
-        if (levels == null || levels.isEmpty())
+        QuestionStore store = dataLoader.getQuizStore(t);
+        if (store.isEmpty())
             return Response.status(Response.Status.NOT_FOUND).build();
 
+        SeenQuestionTracker.Seen seen = seenTracker.forPlayer(player, "quiz", trackedTheme(t), store);
         List<Map<String, Object>> result = new ArrayList<>();
-        for (QuizLevel level : levels) {
-            if (level.questions == null || level.questions.isEmpty())
+        for (int l = 0; l < store.levelCount(); l++) {
+            if (store.levelSize(l) == 0)
                 continue;
-            int questionIndex = RANDOM.nextInt(level.questions.size());
-            QuizQuestion q = level.questions.get(questionIndex);
+            int questionIndex = draw(seen, store, l, -1);
+            int q = store.questionAt(l, questionIndex);
             Map<String, Object> item = new HashMap<>();
-            item.put("level", level.level);
-            item.put("label", level.label);
-            item.put("question", q.question);
-            item.put("options", q.options);
+            item.put("level", store.levelNumber(l));
+            item.put("label", store.levelTitle(l));
+            item.put("questionId", store.id(q));
+            item.put("question", store.text(q));
+            item.put("options", store.options(q));
             item.put("questionIndex", questionIndex);
             result.add(item);
         }
@@ -225,14 +281,15 @@ public class DataResource {
             @QueryParam("theme") String theme,
             AnswerRequest request) {
 
-        QuizQuestion q = getQuizQuestion(resolveTheme(theme), level, questionIndex);
-        if (q == null)
+        QuestionStore store = dataLoader.getQuizStore(resolveTheme(theme));
+        int q = store.question(level, questionIndex);
+        if (q < 0)
             return Response.status(Response.Status.BAD_REQUEST).build();
 
-        boolean correct = (q.answer == request.answerIndex);
+        boolean correct = store.answer(q) >= 0 && store.answer(q) == request.answerIndex;
         Map<String, Object> response = new HashMap<>();
         response.put("correct", correct);
-        response.put("correctAnswerIndex", q.answer);
+        response.put("correctAnswerIndex", store.answer(q));
         return Response.ok(response).build();
     }
 
@@ -242,39 +299,123 @@ public class DataResource {
 
     @GET
     @Path("/geohunter/targets")
-    public Response getGeoHunterTargets(@QueryParam("theme") String theme) {
+    public Response getGeoHunterTargets(@QueryParam("theme") String theme,
+            @HeaderParam("If-None-Match") String ifNoneMatch,
+            @HeaderParam("Accept-Encoding") String acceptEncoding) {
         String t = resolveTheme(theme);
         List<GeoHunterTarget> targets = dataLoader.getGeoHunterTargets(t);
         if (targets == null || targets.isEmpty())
             return Response.status(Response.Status.NOT_FOUND).build();
-        return Response.ok(targets).build();
+        return serve(dataLoader.getGeoHunterPayload(t), ifNoneMatch, acceptEncoding, REVALIDATE);
+    }
+
+    public static class GeoScoreRequest {
+        /** Target the guesses aim at; when absent each guess is scored against its nearest target. */
+        public String targetId;
+        public List<GeoLocation> guesses;
+    }
+
+    /**
+     * Scores a batch of guesses: haversine distance to the target, points and the
+     * nearest target of each one, in request order.
+     */
+    @POST
+    @Path("/geohunter/score")
+    public Response scoreGeoHunterGuesses(@QueryParam("theme") String theme, GeoScoreRequest request) {
+        if (request == null || request.guesses == null || request.guesses.isEmpty()
+                || request.guesses.size() > MAX_GEO_GUESSES)
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", "guesses must hold 1 to " + MAX_GEO_GUESSES + " locations")).build();
+        int n = request.guesses.size();
+        double[] lats = new double[n];
+        double[] lons = new double[n];
+        for (int i = 0; i < n; i++) {
+            GeoLocation g = request.guesses.get(i);
+            if (g == null || !(Math.abs(g.latitude) <= 90) || !(Math.abs(g.longitude) <= 180))
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(Map.of("error", "guesses[" + i + "] is not a valid location")).build();
+            lats[i] = g.latitude;
+            lons[i] = g.longitude;
+        }
+
+        String t = resolveTheme(theme);
+        GeoIndex index = dataLoader.getGeoHunterIndex(t);
+        if (index.isEmpty())
+            return Response.status(Response.Status.NOT_FOUND).build();
+        int target = -1;
+        if (request.targetId != null) {
+            target = index.byId(request.targetId);
+            if (target < 0)
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity(Map.of("error", "Unknown target " + request.targetId)).build();
+        }
+
+        int[] nearest = new int[n];
+        double[] distances = new double[n];
+        int[] scores = new int[n];
+        index.score(lats, lons, target, nearest, distances, scores);
+
+        List<Map<String, Object>> results = new ArrayList<>(n);
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("distanceKm", Math.round(distances[i] * 1000) / 1000.0);
+            item.put("score", scores[i]);
+            item.put("targetId", index.id(target >= 0 ? target : nearest[i]));
+            item.put("nearestTargetId", index.id(nearest[i]));
+            item.put("nearestTargetName", index.name(nearest[i]));
+            results.add(item);
+            total += scores[i];
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", results);
+        response.put("totalScore", total);
+        return Response.ok(response).build();
     }
 
     // ============================================================
     // HELPERS
     // ============================================================
 
+    private static Response serve(PreparedPayload payload, String ifNoneMatch, String acceptEncoding,
+            String cacheControl) {
+        return prepare(payload, ifNoneMatch, acceptEncoding, cacheControl).build();
+    }
+
+    /**
+     * Answers with the pre-serialized bytes (gzipped when the client accepts it),
+     * or with 304 when {@code If-None-Match} already names the current content.
+     */
+    private static Response.ResponseBuilder prepare(PreparedPayload payload, String ifNoneMatch,
+            String acceptEncoding, String cacheControl) {
+        boolean gzipped = payload.gzip != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        Response.ResponseBuilder builder;
+        if (payload.matches(ifNoneMatch)) {
+            builder = Response.notModified();
+        } else {
+            builder = Response.ok(gzipped ? payload.gzip : payload.json, MediaType.APPLICATION_JSON_TYPE);
+            if (gzipped)
+                builder.header("Content-Encoding", "gzip");
+        }
+        return builder
+                .header("ETag", payload.etag(gzipped))
+                .header("Cache-Control", cacheControl)
+                .header("Vary", "Accept-Encoding");
+    }
+
     private String resolveTheme(String theme) {
         return (theme != null && !theme.isBlank()) ? theme : dataLoader.getDefaultTheme();
     }
 
-    private MillionaireQuestion getMillionaireQuestion(String theme, int level, int questionIndex) {
-        List<MillionaireLevel> levels = dataLoader.getMillionaireLevels(theme);
-        if (levels == null)
-            return null;
-        MillionaireLevel foundLevel = levels.stream().filter(l -> l.level == level).findFirst().orElse(null);
-        if (foundLevel == null || questionIndex < 0 || questionIndex >= foundLevel.questions.size())
-            return null;
-        return foundLevel.questions.get(questionIndex);
+    /** Unknown theme names share the default's seen-sets instead of growing new ones. */
+    private String trackedTheme(String theme) {
+        return dataLoader.hasTheme(theme) ? theme : dataLoader.getDefaultTheme();
     }
 
-    private QuizQuestion getQuizQuestion(String theme, int level, int questionIndex) {
-        List<QuizLevel> levels = dataLoader.getQuizLevels(theme);
-        if (levels == null)
-            return null;
-        QuizLevel foundLevel = levels.stream().filter(l -> l.level == level).findFirst().orElse(null);
-        if (foundLevel == null || questionIndex < 0 || questionIndex >= foundLevel.questions.size())
-            return null;
-        return foundLevel.questions.get(questionIndex);
+    /** Random question of a level, avoiding ones the player has seen when tracked. */
+    private static int draw(SeenQuestionTracker.Seen seen, QuestionStore store, int ordinal, int exclude) {
+        if (seen == null)
+            return RANDOM.nextInt(store.levelSize(ordinal));
+        return seen.pick(store, ordinal, ThreadLocalRandom.current(), exclude);
     }
 }
@@ -3,6 +3,7 @@ package com.rafael.resource;
 import com.rafael.model.GameEngine;
 import com.rafael.model.GameSession;
 import com.rafael.model.GameStore;
+import com.rafael.service.DataLoaderService;
 import org.jboss.logging.Logger;
 
 import jakarta.inject.Inject;
@@ -24,16 +25,22 @@ public class GameResource {
     @Inject
     GameEngine engine;
 
+    @Inject
+    DataLoaderService dataLoader;
+
     /**
      * Resets the game state and starts a new session.
      * 
+     * @param category Optional phrase category of the default theme.
      * @return A new GameSession object.
      */
     @GET
     @Path("/new")
-    public Response newGame() {
+    public Response newGame(@QueryParam("category") String category) {
         LOG.info("Starting a new game session");
-        GameSession session = engine.startNewGame();
+        GameSession session = category == null || category.isBlank()
+                ? engine.startNewGame()
+                : engine.startNewGame(dataLoader.getDefaultTheme(), category);
         GameStore.sessions.put(session.id, session);
         LOG.infof("New game created with ID: %s, Category: %s", session.id, session.category);
         return Response.ok(session).build();
@@ -7,17 +7,43 @@ import io.quarkus.websockets.next.OnOpen;
 import io.quarkus.websockets.next.OnTextMessage;
 import io.quarkus.websockets.next.WebSocket;
 import io.quarkus.websockets.next.WebSocketConnection;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rafael.service.BotBrain;
+import com.rafael.service.DataLoaderService;
+import com.rafael.service.FloodGuard;
 import com.rafael.service.GameHistoryService;
+import com.rafael.service.Matchmaker;
+import com.rafael.service.MessageCodec;
+import com.rafael.service.ModerationFilter;
+import com.rafael.service.RoomJournal;
+import com.rafael.service.SpectatorHub;
 import com.rafael.service.StatsService;
 import io.vertx.core.Vertx;
 
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
-
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Roletrando rooms. Every frame broadcast to a room is numbered and kept in the
+ * room's {@link FrameLog}; joining players get a SESSION frame with a resume
+ * token. When a socket drops, the player's seat is held for
+ * {@code game.resume.grace-seconds}; connecting again with
+ * {@code ?resume=<token>&lastSeq=<n>} takes the seat back and replays the
+ * frames after {@code n}, or the last state when they are gone from the ring.
+ * Every room action also goes to the {@link RoomJournal}, which rebuilds the
+ * unfinished rooms on startup; their players get the same grace period.
+ */
 @WebSocket(path = "/api/ws/game/{roomId}/{playerName}/{theme}")
 public class GameWebSocket {
 
@@ -36,7 +62,19 @@ public class GameWebSocket {
     StatsService statsService;
 
     @Inject
-    ObjectMapper mapper;
+    MessageCodec codec;
+
+    @Inject
+    FloodGuard floodGuard;
+
+    @Inject
+    ModerationFilter moderation;
+
+    @Inject
+    Matchmaker matchmaker;
+
+    @Inject
+    BotBrain botBrain;
 
     @Inject
     GameHistoryService historyService;
@@ -44,61 +82,154 @@ public class GameWebSocket {
     @Inject
     Vertx vertx;
 
+    @Inject
+    SpectatorHub spectators;
+
+    @Inject
+    RoomJournal journal;
+
+    @Inject
+    DataLoaderService dataLoader;
+
+    @ConfigProperty(name = "game.resume.grace-seconds", defaultValue = "30")
+    int graceSeconds;
+
+    @ConfigProperty(name = "game.resume.buffer-frames", defaultValue = "128")
+    int bufferFrames;
+
+    /** Open connections of this endpoint, so a room's frames go straight to its players. */
+    private final Map<String, WebSocketConnection> connections = new ConcurrentHashMap<>();
+    /** Recent frames of each room. */
+    private final Map<String, FrameLog> frameLogs = new ConcurrentHashMap<>();
+    /** Grace timer of each disconnected player, by player id. */
+    private final Map<String, Long> graceTimers = new ConcurrentHashMap<>();
+
+    /** Opens the journal and gives the players of the rooms it rebuilt time to come back. */
+    void onStart(@Observes StartupEvent ev) {
+        for (Room room : journal.start()) {
+            for (Player p : room.players) {
+                if (!p.isBot)
+                    holdSeat(room, p);
+            }
+            broadcastGameState(room);
+            checkBotTurn(room);
+        }
+    }
+
     @OnOpen
-    public void onOpen() {
+    public void onOpen(WebSocketConnection conn) {
         String roomId = connection.pathParam("roomId");
         String playerName = connection.pathParam("playerName");
         String theme = connection.pathParam("theme");
         if (theme == null || theme.isBlank())
             theme = "default";
-        String connId = connection.id();
+        String connId = conn.id();
+        // The connection itself, not the session-scoped proxy: rooms send from timers too
+        connections.put(connId, conn);
 
         LOG.infof("User %s joining room %s (theme: %s) mapped to connection %s", playerName, roomId, theme, connId);
 
         // Input Validation
         if (roomId == null || roomId.length() < 3 || roomId.length() > 20 || !roomId.matches("^[a-zA-Z0-9_-]+$")) {
-            sendError("ID da sala inválido (3-20 caracteres, alfanumérico).");
+            sendError(conn, "ID da sala inválido (3-20 caracteres, alfanumérico).");
             return;
         }
         if (playerName == null || playerName.length() < 3 || playerName.length() > 15) {
-            sendError("Nome inválido (3-15 caracteres).");
+            sendError(conn, "Nome inválido (3-15 caracteres).");
+            return;
+        }
+        if (!moderation.allows(playerName)) {
+            sendError(conn, "Nome não permitido.");
             return;
         }
 
-        Room room = roomManager.getRoom(roomId);
-        if (room == null) {
-            room = roomManager.createRoom(roomId);
-            room.gameSession = gameEngine.startNewGame(theme);
-            room.hostConnectionId = connId;
-            statsService.incrementGamesCreated();
-        }
-
-        if (room.status.equals("PLAYING") || room.players.size() >= 3) {
-            try {
-                connection.sendText(
-                        mapper.writeValueAsString(new GameMessage("ERROR", "Sala cheia ou jogo já em andamento.")))
-                        .subscribe().with(v -> {
-                        }, err -> LOG.error("Send error", err));
-            } catch (Exception e) {
-            }
+        String token = queryParam("resume");
+        if (token != null && resume(roomId, token, connId)) {
             return;
         }
 
-        Player player = new Player(UUID.randomUUID().toString(), playerName,
-                "https://api.dicebear.com/7.x/avataaars/svg?seed=" + playerName, connId, false);
-        room.players.add(player);
+        String roomTheme = theme;
+        // Only the player who creates the room picks its phrases
+        String category = queryParam("category");
+        boolean weighted = Boolean.parseBoolean(queryParam("weighted"));
+        // A theme's first use reads its files: not inside the room map or a room lock
+        dataLoader.prepareWheelPhrases(roomTheme).onComplete(ar -> {
+            if (conn.isClosed())
+                return;
+            if (ar.failed()) {
+                sendError(conn, "Tema indisponível no momento.");
+                return;
+            }
+            seat(conn, roomId, playerName, roomTheme, category, weighted);
+        });
+    }
 
-        if (room.players.size() == 3) {
-            startGame(room);
-        } else {
-            broadcastGameState(room);
+    /** Seats a new player once the theme is loaded, creating the room if needed. */
+    private void seat(WebSocketConnection conn, String roomId, String playerName, String roomTheme, String category,
+            boolean weighted) {
+        String connId = conn.id();
+        while (true) {
+            // Matched players open the same new room at the same moment: only one creates it
+            Room room = roomManager.getOrCreateRoom(roomId,
+                    r -> setUpRoom(r, roomTheme, category, weighted, connId));
+            if (room.gameSession == null) {
+                // A Quiz or GeoHunter room under the same id
+                sendError(conn, "Sala em uso por outro jogo.");
+                return;
+            }
+            // Seating broadcasts: take the log's lock before the room's, as publish does
+            synchronized (frameLog(room.id)) {
+                synchronized (room) {
+                    if (roomManager.getRoom(roomId) != room)
+                        continue; // emptied and dropped while we waited: make a new one
+                    if (room.status.equals("PLAYING") || room.players.size() >= 3) {
+                        sendError(conn, "Sala cheia ou jogo já em andamento.");
+                        return;
+                    }
+
+                    Player player = new Player(UUID.randomUUID().toString(), playerName,
+                            "https://api.dicebear.com/7.x/avataaars/svg?seed=" + playerName, connId, false);
+                    player.resumeToken = UUID.randomUUID().toString();
+                    room.players.add(player);
+                    journal.join(room.id, player);
+                    sendSession(player, false);
+
+                    Integer expected = matchmaker.expectedPlayers(room.id);
+                    if (room.players.size() == 3 || (expected != null && room.players.size() >= expected)) {
+                        startGame(room);
+                    } else {
+                        broadcastGameState(room);
+                    }
+                }
+            }
+            return;
+        }
+    }
+
+    /** Runs once per room, inside its creation, before anyone else can see it. */
+    private void setUpRoom(Room room, String theme, String category, boolean weighted, String hostConnId) {
+        room.theme = theme;
+        room.category = category == null || category.isBlank() ? null : category;
+        room.weightedPhrases = weighted;
+        room.gameSession = gameEngine.startNewGame(theme, room.category, weighted, room.random);
+        room.hostConnectionId = hostConnId;
+        statsService.incrementGamesCreated();
+        journal.created(room.id, theme, room.gameSession.category, GameStore.phrases.get(room.gameSession.id));
+        if (matchmaker.expectedPlayers(room.id) != null) {
+            // A matched player who never shows up must not hold the others back
+            vertx.setTimer(matchmaker.joinSeconds() * 1000L, id -> startReserved(room));
         }
     }
 
     @OnTextMessage
     public void onMessage(String message) {
         try {
-            GameMessage msg = mapper.readValue(message, GameMessage.class);
+            // Size and rate are checked on the raw text, before any parsing
+            if (!floodGuard.admit(connection, message))
+                return;
+            ClientMessage msg = codec.read(message);
+            if (msg == null || !floodGuard.admit(connection, msg.type()))
+                return;
             String connId = connection.id();
             Room room = roomManager.getRoomByConnection(connId);
 
@@ -115,13 +246,18 @@ public class GameWebSocket {
             // Simple Turn Validation
             boolean isMyTurn = room.players.indexOf(sender) == room.currentTurnIndex;
 
-            switch (msg.type) {
-                case "START_GAME":
-                    if (connId.equals(room.hostConnectionId) && room.status.equals("WAITING")) {
-                        startGame(room);
+            switch (msg.type()) {
+                case START_GAME:
+                    synchronized (frameLog(room.id)) {
+                        synchronized (room) {
+                            if (connId.equals(room.hostConnectionId) && room.status.equals("WAITING")) {
+                                repickPhrase(room, (ClientMessage.StartGame) msg);
+                                startGame(room);
+                            }
+                        }
                     }
                     break;
-                case "SPIN_START":
+                case SPIN_START:
                     if (isMyTurn) {
                         int[] values = { 100, 500, 200, 1000, 0, 300, 600, 150, 800, 400 };
                         int val = values[(int) (Math.random() * values.length)];
@@ -130,26 +266,32 @@ public class GameWebSocket {
                         broadcastExcept(room, "", new GameMessage("SPIN_START", val));
                     }
                     break;
-                case "SPIN_END":
+                case SPIN_END:
                     if (isMyTurn) {
                         // Use the server-generated pending value
                         int val = room.gameSession.pendingSpinValue;
                         handleSpinEnd(room, sender, val);
                     }
                     break;
-                case "GUESS":
-                    if (isMyTurn) {
-                        String letterStr = String.valueOf(msg.payload);
-                        char letter = letterStr.charAt(0);
-                        handleGuess(room, sender, letter);
-                    }
+                case GUESS:
+                    if (isMyTurn)
+                        handleGuess(room, sender, ((ClientMessage.Guess) msg).letter());
                     break;
-                case "SOLVE":
-                    if (isMyTurn) {
-                        String phrase = String.valueOf(msg.payload);
+                case SOLVE:
+                    if (!isMyTurn)
+                        break;
+                    String phrase = ((ClientMessage.Solve) msg).phrase();
+                    if (moderation.allows(phrase)) {
                         handleSolve(room, sender, phrase);
+                    } else {
+                        // The attempt would be shown to the whole room: refuse it, keep the turn
+                        connection.sendText(codec.write(new GameMessage("ERROR", "Palpite não permitido.")))
+                                .subscribe().with(v -> {
+                                }, err -> LOG.error("Send error", err));
                     }
                     break;
+                default:
+                    break;
             }
 
         } catch (Exception e) {
@@ -160,16 +302,18 @@ public class GameWebSocket {
     @OnClose
     public void onClose() {
         String connId = connection.id();
+        connections.remove(connId);
         Room room = roomManager.getRoomByConnection(connId);
         if (room != null) {
-            room.players.removeIf(p -> p.connectionId.equals(connId));
-            if (room.players.isEmpty()) {
-                roomManager.removeRoom(room.id);
-            } else {
-                if (room.currentTurnIndex >= room.players.size()) {
-                    room.currentTurnIndex = 0;
-                }
+            Player player = room.players.stream()
+                    .filter(p -> p.connectionId.equals(connId))
+                    .findFirst().orElse(null);
+            if (player != null && player.resumeToken != null && graceSeconds > 0) {
+                // Hold the seat: the player may come back with its resume token
+                holdSeat(room, player);
                 broadcastGameState(room);
+            } else {
+                removeSeat(room, connId);
             }
         }
         LOG.infof("Connection %s closed", connId);
@@ -180,7 +324,126 @@ public class GameWebSocket {
         LOG.error("WebSocket error on connection " + connection.id(), t);
     }
 
+    // ── Resume ──────────────────────────────────────────────────────────────
+
+    /**
+     * Gives a held (or still open) seat of {@code roomId} to this connection and
+     * replays what it missed. Returns false when the token is unknown, so the
+     * connection joins as a new player instead.
+     */
+    private boolean resume(String roomId, String token, String connId) {
+        Room room = roomManager.getRoom(roomId);
+        if (room == null)
+            return false;
+        long lastSeq;
+        try {
+            lastSeq = Long.parseLong(queryParam("lastSeq"));
+        } catch (NumberFormatException e) {
+            lastSeq = -1;
+        }
+        FrameLog log = frameLog(room.id);
+        Player player;
+        // Under the log's lock no new frame can overtake the replay
+        synchronized (log) {
+            synchronized (room) {
+                player = room.players.stream()
+                        .filter(p -> token.equals(p.resumeToken))
+                        .findFirst().orElse(null);
+                if (player == null)
+                    return false;
+                Long timerId = graceTimers.remove(player.id);
+                if (timerId != null)
+                    vertx.cancelTimer(timerId);
+                if (player.connectionId.equals(room.hostConnectionId))
+                    room.hostConnectionId = connId;
+                player.connectionId = connId;
+                player.disconnected = false;
+            }
+            sendSession(player, true);
+            // Already serialized frames only: a burst of reconnects does not re-encode anything
+            for (String json : log.resume(lastSeq))
+                connection.sendText(json).subscribe().with(v -> {
+                }, err -> LOG.error("Send error", err));
+        }
+        LOG.infof("Player %s resumed in room %s on connection %s", player.name, roomId, connId);
+        broadcastExcept(room, connId, new GameMessage("PLAYER_RESUMED", Map.of("playerId", player.id)));
+        return true;
+    }
+
+    private void holdSeat(Room room, Player player) {
+        synchronized (room) {
+            player.disconnected = true;
+            long timerId = vertx.setTimer(graceSeconds * 1000L, id -> expireSeat(room, player));
+            graceTimers.put(player.id, timerId);
+        }
+    }
+
+    private void expireSeat(Room room, Player player) {
+        synchronized (room) {
+            graceTimers.remove(player.id);
+            if (!player.disconnected)
+                return;
+        }
+        removeSeat(room, player.connectionId);
+    }
+
+    private void removeSeat(Room room, String connId) {
+        boolean empty;
+        synchronized (room) {
+            for (int i = 0; i < room.players.size(); i++) {
+                if (room.players.get(i).connectionId.equals(connId)) {
+                    room.players.remove(i);
+                    journal.leave(room.id, i);
+                    break;
+                }
+            }
+            empty = room.players.isEmpty();
+            if (!empty && room.currentTurnIndex >= room.players.size()) {
+                room.currentTurnIndex = 0;
+            }
+            if (empty) {
+                // Under the lock, so a join racing with us sees the room is gone
+                roomManager.removeRoom(room.id);
+            }
+        }
+        if (empty) {
+            matchmaker.release(room.id);
+            journal.discard(room.id);
+            frameLogs.remove(room.id);
+            spectators.closeRoom(room.id);
+        } else {
+            broadcastGameState(room);
+        }
+    }
+
+    private void sendSession(Player player, boolean resumed) {
+        WebSocketConnection conn = connections.get(player.connectionId);
+        if (conn == null)
+            return;
+        try {
+            conn.sendText(codec.write(new GameMessage("SESSION",
+                    Map.of("token", player.resumeToken, "playerId", player.id, "resumed", resumed))))
+                    .subscribe().with(v -> {
+                    }, err -> LOG.error("Send error", err));
+        } catch (Exception e) {
+            LOG.error("Failed to send session", e);
+        }
+    }
+
+    private String queryParam(String name) {
+        String query = connection.handshakeRequest().query();
+        if (query == null)
+            return null;
+        for (String part : query.split("&")) {
+            int eq = part.indexOf('=');
+            if (eq > 0 && part.substring(0, eq).equals(name))
+                return URLDecoder.decode(part.substring(eq + 1), StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+
     private void handleSpinEnd(Room room, Player sender, int val) {
+        journal.spin(room.id, room.players.indexOf(sender), val);
         if (val == 0) {
             sender.score = 0;
             room.gameSession.currentSpinValue = 0;
@@ -197,9 +460,12 @@ public class GameWebSocket {
         int prevScore = room.gameSession.score;
         gameEngine.processGuess(room.gameSession.id, letter);
         int newScore = room.gameSession.score;
-
         if (newScore > prevScore) {
             sender.score += (newScore - prevScore);
+        }
+        journal.guess(room.id, room.players.indexOf(sender), letter, sender.score);
+
+        if (newScore > prevScore) {
             room.gameSession.currentSpinValue = 0;
             broadcastGameState(room);
             checkBotTurn(room); // bot might get to play again right away
@@ -213,27 +479,64 @@ public class GameWebSocket {
         int scoreBefore = room.gameSession.score;
         gameEngine.solve(room.gameSession.id, phrase);
 
-        if (Boolean.TRUE.equals(room.gameSession.solveCorrect)) {
+        boolean correct = Boolean.TRUE.equals(room.gameSession.solveCorrect);
+        if (correct) {
             // Bônus já somado em session.score pelo GameEngine → transferir diferença ao
             // player
             int bonus = room.gameSession.score - scoreBefore;
             sender.score += bonus;
         } else {
-            // Errou: zerar pontuação do jogador e perder a vez
+            // Errou: zerar pontuação do jogador
             sender.score = 0;
+        }
+        journal.solve(room.id, room.players.indexOf(sender), phrase, sender.score);
+        if (!correct) {
+            // ... e perder a vez
             nextTurn(room);
         }
         broadcastGameState(room);
     }
 
+    /**
+     * Draws the room's phrase again when the host starts it with another
+     * category or draw mode than the room was opened with. Holds the room lock.
+     */
+    private void repickPhrase(Room room, ClientMessage.StartGame start) {
+        String category = start.category() == null || start.category().isBlank() ? room.category : start.category();
+        boolean weighted = start.weighted() != null ? start.weighted() : room.weightedPhrases;
+        if (Objects.equals(category, room.category) && weighted == room.weightedPhrases)
+            return;
+        GameSession old = room.gameSession;
+        room.category = category;
+        room.weightedPhrases = weighted;
+        room.gameSession = gameEngine.startNewGame(room.theme, category, weighted, room.random);
+        GameStore.sessions.remove(old.id);
+        GameStore.phrases.remove(old.id);
+        journal.phrase(room.id, room.gameSession.category, GameStore.phrases.get(room.gameSession.id));
+    }
+
+    /** Starts a matchmaking room at its join deadline with whoever came. */
+    private void startReserved(Room room) {
+        synchronized (frameLog(room.id)) {
+            synchronized (room) {
+                if (room.status.equals("WAITING") && !room.players.isEmpty() && roomManager.getRoom(room.id) == room)
+                    startGame(room);
+            }
+        }
+    }
+
     private void startGame(Room room) {
+        matchmaker.release(room.id);
         room.status = "PLAYING";
         int botCount = 1;
         while (room.players.size() < 3) {
-            room.players.add(new Player(UUID.randomUUID().toString(), "Robô " + botCount,
-                    "https://api.dicebear.com/7.x/avataaars/svg?seed=bot" + botCount, "BOT_" + botCount, true));
+            Player bot = new Player(UUID.randomUUID().toString(), "Robô " + botCount,
+                    "https://api.dicebear.com/7.x/avataaars/svg?seed=bot" + botCount, "BOT_" + botCount, true);
+            room.players.add(bot);
+            journal.join(room.id, bot);
             botCount++;
         }
+        journal.started(room.id);
         broadcastGameState(room);
         checkBotTurn(room);
     }
@@ -242,6 +545,7 @@ public class GameWebSocket {
         if (!room.players.isEmpty() && !room.gameSession.gameOver) {
             room.currentTurnIndex = (room.currentTurnIndex + 1) % room.players.size();
             room.gameSession.currentSpinValue = 0;
+            journal.turn(room.id, room.currentTurnIndex);
             checkBotTurn(room);
         }
     }
@@ -250,6 +554,7 @@ public class GameWebSocket {
         if (room.status.equals("PLAYING") && !room.gameSession.gameOver) {
             Player current = room.players.get(room.currentTurnIndex);
             if (current.isBot) {
+                botBrain.prepare(room.theme);
                 vertx.setTimer(1500, id -> playBotTurn(room, current));
             }
         }
@@ -263,6 +568,11 @@ public class GameWebSocket {
             return; // turn changed
 
         if (room.gameSession.currentSpinValue == 0) {
+            BotBrain.Decision move = botBrain.decide(room.theme, room.gameSession);
+            if (move != null && move.solves()) {
+                handleSolve(room, bot, move.solution()); // no need to spin for a sure phrase
+                return;
+            }
             broadcastGameState(room); // send state to ensure UI is updated
 
             // Random spin value simulation
@@ -292,20 +602,14 @@ public class GameWebSocket {
         if (!current.id.equals(bot.id))
             return;
 
-        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
-        java.util.List<Character> unrevealed = new java.util.ArrayList<>();
-        for (char c : alphabet.toCharArray()) {
-            if (!room.gameSession.guessedLetters.contains(c)) {
-                unrevealed.add(c);
-            }
-        }
-
-        if (!unrevealed.isEmpty()) {
-            char guess = unrevealed.get((int) (Math.random() * unrevealed.size()));
-            handleGuess(room, bot, guess);
-        } else {
+        BotBrain.Decision move = botBrain.decide(room.theme, room.gameSession);
+        if (move == null) {
             nextTurn(room);
             broadcastGameState(room);
+        } else if (move.solves()) {
+            handleSolve(room, bot, move.solution());
+        } else {
+            handleGuess(room, bot, move.letter());
         }
     }
 
@@ -314,31 +618,25 @@ public class GameWebSocket {
             // Registrar histórico quando o jogo termina (só uma vez)
             if (room.gameSession.gameOver && !room.historyRecorded) {
                 room.historyRecorded = true;
+                journal.ended(room.id);
                 Player winner = room.players.stream()
                         .filter(p -> !p.isBot)
                         .max(java.util.Comparator.comparingInt(p -> p.score))
                         .orElse(null);
+                List<GameHistoryService.Result> results = new ArrayList<>();
                 for (Player p : room.players) {
                     if (!p.isBot) {
                         boolean isWinner = winner != null && p.id.equals(winner.id);
-                        historyService.record(p.name, "Roletrando", isWinner ? p.score : 0, isWinner);
+                        results.add(new GameHistoryService.Result(p.name, isWinner ? p.score : 0, isWinner));
                     }
                 }
+                // Bot turns end games from timers, on the event loop: the disk write goes elsewhere
+                historyService.recordLater("Roletrando", results);
             }
 
-            Map<String, Object> state = Map.of(
-                    "room", room,
-                    "currentPlayerTurnId", room.players.isEmpty() ? "" : room.players.get(room.currentTurnIndex).id);
-            GameMessage msg = new GameMessage("STATE_UPDATE", state);
-            String json = mapper.writeValueAsString(msg);
-
-            connection.getOpenConnections().forEach(conn -> {
-                boolean inRoom = room.players.stream().anyMatch(p -> p.connectionId.equals(conn.id()));
-                if (inRoom) {
-                    conn.sendText(json).subscribe().with(v -> {
-                    }, err -> LOG.error("Send error", err));
-                }
-            });
+            RoomState state = new RoomState(room,
+                    room.players.isEmpty() ? "" : room.players.get(room.currentTurnIndex).id);
+            publish(room, "", new GameMessage("STATE_UPDATE", state), true);
         } catch (Exception e) {
             LOG.error("Failed to broadcast state", e);
         }
@@ -346,25 +644,67 @@ public class GameWebSocket {
 
     private void broadcastExcept(Room room, String excludeConnId, GameMessage msg) {
         try {
-            String json = mapper.writeValueAsString(msg);
-            connection.getOpenConnections().forEach(conn -> {
-                boolean inRoom = room.players.stream().anyMatch(p -> p.connectionId.equals(conn.id()));
-                if (inRoom && !conn.id().equals(excludeConnId)) {
+            publish(room, excludeConnId, msg, false);
+        } catch (Exception e) {
+            LOG.error("Failed to broadcastExcept", e);
+        }
+    }
+
+    private FrameLog frameLog(String roomId) {
+        return frameLogs.computeIfAbsent(roomId, id -> new FrameLog(bufferFrames));
+    }
+
+    /**
+     * Numbers the frame, keeps it for resuming players and sends it, serialized
+     * once, to the room's players and spectators. Frames leave in number order.
+     * Takes the room's log lock, then the room's: a caller already holding the
+     * room must have taken the log first.
+     */
+    private void publish(Room room, String excludeConnId, GameMessage msg, boolean state) {
+        FrameLog log = frameLog(room.id);
+        synchronized (log) {
+            String json = log.append(seq -> {
+                synchronized (room) {
+                    return encode(msg, seq);
+                }
+            }, state);
+            List<String> targets;
+            synchronized (room) {
+                targets = room.players.stream().map(p -> p.connectionId).toList();
+            }
+            for (String connId : targets) {
+                WebSocketConnection conn = connId.equals(excludeConnId) ? null : connections.get(connId);
+                if (conn != null) {
                     conn.sendText(json).subscribe().with(v -> {
                     }, err -> LOG.error("Send error", err));
                 }
-            });
-        } catch (Exception e) {
-            LOG.error("Failed to broadcastExcept", e);
+            }
+            spectators.publish(room.id, json, state);
         }
     }
 
-    private void sendError(String message) {
+    private String encode(GameMessage msg, long seq) {
+        msg.seq = seq;
+        return codec.write(msg);
+    }
+
+    /**
+     * Sends an error and closes the connection. Takes the connection itself: the
+     * callbacks run after {@code @OnOpen} returns, outside the session scope
+     * the injected proxy needs.
+     */
+    private void sendError(WebSocketConnection conn, String message) {
         try {
-            connection.sendText(mapper.writeValueAsString(new GameMessage("ERROR", message)))
-                    .subscribe().with(v -> connection.close(), err -> connection.close());
+            conn.sendText(codec.write(new GameMessage("ERROR", message)))
+                    .subscribe().with(v -> close(conn), err -> close(conn));
         } catch (Exception e) {
-            connection.close();
+            LOG.error("Failed to send error", e);
+            close(conn);
         }
     }
+
+    private static void close(WebSocketConnection conn) {
+        conn.close().subscribe().with(v -> {
+        }, err -> LOG.debug("Close error", err));
+    }
 }
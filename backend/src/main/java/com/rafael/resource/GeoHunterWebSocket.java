@@ -0,0 +1,452 @@
+package com.rafael.resource;
+
+import com.rafael.model.*;
+import com.rafael.model.GeoHunterSession.PinResult;
+import io.quarkus.websockets.next.OnClose;
+import io.quarkus.websockets.next.OnError;
+import io.quarkus.websockets.next.OnOpen;
+import io.quarkus.websockets.next.OnTextMessage;
+import io.quarkus.websockets.next.WebSocket;
+import io.quarkus.websockets.next.WebSocketConnection;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import com.rafael.service.DataLoaderService;
+import com.rafael.service.FloodGuard;
+import com.rafael.service.GameHistoryService;
+import com.rafael.service.GeoIndex;
+import com.rafael.service.MessageCodec;
+import com.rafael.service.ModerationFilter;
+import io.vertx.core.Vertx;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Multiplayer GeoHunter: timed rounds where every player drops a pin for the
+ * same target. Pins are only stored while the round is open; when it closes
+ * (timer, or everyone has pinned) they are scored in one batch and a single
+ * ranked ROUND_RESULT frame is serialized once and sent to the whole room.
+ */
+@WebSocket(path = "/api/ws/geohunter/{roomId}/{playerName}/{theme}")
+public class GeoHunterWebSocket {
+
+    private static final Logger LOG = Logger.getLogger(GeoHunterWebSocket.class);
+
+    static final String GAME = "GeoHunter";
+    private static final int MAX_ROUNDS = 20;
+    private static final int MIN_ROUND_SECONDS = 5;
+    private static final int MAX_ROUND_SECONDS = 300;
+
+    @Inject
+    RoomManager roomManager;
+
+    @Inject
+    WebSocketConnection connection;
+
+    @Inject
+    MessageCodec codec;
+
+    @Inject
+    DataLoaderService dataLoader;
+
+    @Inject
+    GameHistoryService historyService;
+
+    @Inject
+    FloodGuard floodGuard;
+
+    @Inject
+    ModerationFilter moderation;
+
+    @Inject
+    Vertx vertx;
+
+    @ConfigProperty(name = "game.geohunter.rounds", defaultValue = "5")
+    int defaultRounds;
+
+    @ConfigProperty(name = "game.geohunter.round-seconds", defaultValue = "30")
+    int defaultRoundSeconds;
+
+    @ConfigProperty(name = "game.geohunter.intermission-seconds", defaultValue = "5")
+    int intermissionSeconds;
+
+    @ConfigProperty(name = "game.geohunter.max-players", defaultValue = "200")
+    int maxPlayers;
+
+    /** Open connections of this endpoint, so a room is reached in O(players) and from timers. */
+    private final Map<String, WebSocketConnection> connections = new ConcurrentHashMap<>();
+
+    /** Room of each connection, instead of scanning every room on each message. */
+    private final Map<String, Room> roomByConnection = new ConcurrentHashMap<>();
+
+    /** Round length chosen by each room's host. */
+    private final Map<String, Integer> roundSeconds = new ConcurrentHashMap<>();
+
+    @OnOpen
+    public void onOpen(WebSocketConnection conn) {
+        String roomId = connection.pathParam("roomId");
+        String playerName = connection.pathParam("playerName");
+        String theme = connection.pathParam("theme");
+        if (theme == null || theme.isBlank())
+            theme = "default";
+        String connId = connection.id();
+
+        LOG.infof("GeoHunter User %s joining room %s (theme: %s) mapped to connection %s", playerName, roomId, theme,
+                connId);
+
+        // Input Validation
+        if (roomId == null || roomId.length() < 3 || roomId.length() > 20 || !roomId.matches("^[a-zA-Z0-9_-]+$")) {
+            sendError(conn, "ID da sala inválido (3-20 caracteres, alfanumérico).");
+            return;
+        }
+        if (playerName == null || playerName.length() < 3 || playerName.length() > 15) {
+            sendError(conn, "Nome inválido (3-15 caracteres).");
+            return;
+        }
+        if (!moderation.allows(playerName)) {
+            sendError(conn, "Nome não permitido.");
+            return;
+        }
+
+        // A theme's first use reads its files: not inside the lock below
+        String roomTheme = theme;
+        dataLoader.prepareGeoHunter(roomTheme).onComplete(ar -> {
+            if (conn.isClosed())
+                return;
+            if (ar.failed()) {
+                sendError(conn, "Tema indisponível no momento.");
+                return;
+            }
+            join(conn, roomId, playerName, roomTheme);
+        });
+    }
+
+    /** Seats a new player once the theme is loaded, creating the room if needed. */
+    private void join(WebSocketConnection conn, String roomId, String playerName, String theme) {
+        String connId = conn.id();
+        Player player = new Player(UUID.randomUUID().toString(), playerName,
+                "https://api.dicebear.com/7.x/avataaars/svg?seed=" + playerName, connId, false);
+        Room room;
+        while (true) {
+            room = roomManager.getRoom(roomId);
+            if (room == null) {
+                if (dataLoader.getGeoHunterIndex(theme).isEmpty()) {
+                    sendError(conn, "Tema sem alvos do GeoHunter.");
+                    return;
+                }
+                room = roomManager.getOrCreateRoom(roomId, r -> {
+                    r.theme = theme;
+                    r.geoHunterSession = new GeoHunterSession(theme);
+                    r.hostConnectionId = connId;
+                });
+            }
+            GeoHunterSession session = room.geoHunterSession;
+            if (session == null) {
+                sendError(conn, "Sala em uso por outro jogo.");
+                return;
+            }
+            if (session.join(player, maxPlayers))
+                break;
+            if (!session.closed()) {
+                sendError(conn, "Sala cheia ou jogo já em andamento.");
+                return;
+            }
+            // Its last player just left: drop it now rather than wait for onClose
+            roomManager.removeRoom(room);
+        }
+
+        connections.put(connId, conn);
+        roomByConnection.put(connId, room);
+        synchronized (room) {
+            room.players.add(player);
+        }
+        broadcast(room, new GameMessage("STATE_UPDATE", state(room)));
+    }
+
+    @OnTextMessage
+    public void onMessage(String message) {
+        try {
+            if (!floodGuard.admit(connection, message))
+                return;
+            ClientMessage msg = codec.read(message);
+            if (msg == null || !floodGuard.admit(connection, msg.type()))
+                return;
+            String connId = connection.id();
+            Room room = roomByConnection.get(connId);
+            if (room == null)
+                return;
+            GeoHunterSession session = room.geoHunterSession;
+
+            switch (msg.type()) {
+                case START_GAME:
+                    if (connId.equals(room.hostConnectionId))
+                        startGame(room, (ClientMessage.StartGame) msg);
+                    break;
+                case SUBMIT_PIN: {
+                    ClientMessage.SubmitPin pin = (ClientMessage.SubmitPin) msg;
+                    if (!(Math.abs(pin.latitude()) <= 90) || !(Math.abs(pin.longitude()) <= 180))
+                        break;
+                    int round = session.round();
+                    if (session.pin(connId, pin.latitude(), pin.longitude())) {
+                        send(connection, new GameMessage("PIN_ACCEPTED", Map.of("round", round)));
+                        if (session.allPinned())
+                            closeRound(room, round);
+                    }
+                    break;
+                }
+                default:
+                    break;
+            }
+        } catch (Exception e) {
+            LOG.error("Failed to parse websocket message in GeoHunter", e);
+        }
+    }
+
+    @OnClose
+    public void onClose() {
+        String connId = connection.id();
+        connections.remove(connId);
+        Room room = roomByConnection.remove(connId);
+        if (room != null) {
+            GeoHunterSession session = room.geoHunterSession;
+            session.leave(connId);
+            synchronized (room) {
+                room.players.removeIf(p -> p.connectionId.equals(connId));
+                if (connId.equals(room.hostConnectionId) && !room.players.isEmpty())
+                    room.hostConnectionId = room.players.get(0).connectionId;
+            }
+            if (session.closed()) {
+                roomManager.removeRoom(room);
+                roundSeconds.remove(room.id);
+            } else {
+                broadcast(room, new GameMessage("STATE_UPDATE", state(room)));
+                // The one player still missing may have been the one who left
+                if (session.phase() == GeoHunterSession.Phase.ROUND && session.allPinned())
+                    closeRound(room, session.round());
+            }
+        }
+        LOG.infof("GeoHunter Connection %s closed", connId);
+    }
+
+    @OnError
+    public void onError(Throwable t) {
+        LOG.error("GeoHunter WebSocket error on connection " + connection.id(), t);
+    }
+
+    // ── Rounds ──────────────────────────────────────────────────────────────
+
+    /** Payload: the number of rounds, or {@code {"rounds": n, "roundSeconds": s}}. */
+    private void startGame(Room room, ClientMessage.StartGame start) {
+        int rounds = start.limit() != null ? start.limit() : defaultRounds;
+        int seconds = start.roundSeconds() != null ? start.roundSeconds() : defaultRoundSeconds;
+        rounds = Math.max(1, Math.min(MAX_ROUNDS, rounds));
+        seconds = Math.max(MIN_ROUND_SECONDS, Math.min(MAX_ROUND_SECONDS, seconds));
+        if (!room.geoHunterSession.start(rounds))
+            return;
+        room.status = "PLAYING";
+        roundSeconds.put(room.id, seconds);
+        broadcast(room, new GameMessage("GAME_START", Map.of("rounds", rounds, "roundSeconds", seconds)));
+        startRound(room);
+    }
+
+    private void startRound(Room room) {
+        GeoHunterSession session = room.geoHunterSession;
+        if (session.playerCount() == 0)
+            return;
+        List<GeoHunterTarget> targets = dataLoader.getGeoHunterTargets(session.theme);
+        GeoIndex index = dataLoader.getGeoHunterIndex(session.theme);
+        GeoHunterTarget target = pickTarget(session, targets, index);
+
+        long durationMs = roundSeconds.getOrDefault(room.id, defaultRoundSeconds) * 1000L;
+        int round = session.startRound(index.byId(target.id), System.currentTimeMillis() + durationMs);
+        vertx.setTimer(durationMs, id -> closeRound(room, round));
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("round", round);
+        payload.put("rounds", session.totalRounds());
+        payload.put("durationMs", durationMs);
+        payload.put("endsAt", session.roundEndsAt());
+        payload.put("clues", target.clues != null ? target.clues : List.of());
+        broadcast(room, new GameMessage("ROUND_START", payload));
+    }
+
+    /** A random target not played yet in this game, while there are any left. */
+    private static GeoHunterTarget pickTarget(GeoHunterSession session, List<GeoHunterTarget> targets,
+            GeoIndex index) {
+        ThreadLocalRandom rng = ThreadLocalRandom.current();
+        GeoHunterTarget fallback = null;
+        for (int attempt = 0; attempt < 32; attempt++) {
+            GeoHunterTarget t = targets.get(rng.nextInt(targets.size()));
+            int handle = index.byId(t.id);
+            if (handle < 0)
+                continue;
+            if (!session.wasPlayed(handle))
+                return t;
+            fallback = t;
+        }
+        if (fallback != null)
+            return fallback;
+        for (GeoHunterTarget t : targets) {
+            if (index.byId(t.id) >= 0)
+                return t;
+        }
+        throw new IllegalStateException("No located GeoHunter target in theme " + session.theme);
+    }
+
+    /** Scores round {@code round} in one batch and sends the ranked result, once. */
+    private void closeRound(Room room, int round) {
+        GeoHunterSession session = room.geoHunterSession;
+        GeoIndex index = dataLoader.getGeoHunterIndex(session.theme);
+        List<PinResult> results = session.closeRound(round, index);
+        if (results == null)
+            return;
+        int target = session.target();
+        boolean last = session.phase() == GeoHunterSession.Phase.ENDED;
+
+        List<Map<String, Object>> ranked = new ArrayList<>(results.size());
+        int rank = 0;
+        for (PinResult r : results) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("rank", ++rank);
+            item.put("playerId", r.player().id);
+            item.put("name", r.player().name);
+            item.put("pinned", r.pinned());
+            if (r.pinned()) {
+                item.put("latitude", r.latitude());
+                item.put("longitude", r.longitude());
+                item.put("distanceKm", Math.round(r.distanceKm() * 1000) / 1000.0);
+            }
+            item.put("score", r.score());
+            item.put("total", r.player().score);
+            ranked.add(item);
+        }
+        Map<String, Object> targetInfo = new LinkedHashMap<>();
+        targetInfo.put("id", index.id(target));
+        targetInfo.put("name", index.name(target));
+        targetInfo.put("latitude", index.latitude(target));
+        targetInfo.put("longitude", index.longitude(target));
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("round", round);
+        payload.put("rounds", session.totalRounds());
+        payload.put("target", targetInfo);
+        payload.put("results", ranked);
+        payload.put("standings", standings(session));
+        payload.put("final", last);
+        broadcast(room, new GameMessage("ROUND_RESULT", payload));
+
+        if (last) {
+            room.status = "FINISHED";
+            recordHistory(room);
+        } else {
+            vertx.setTimer(Math.max(1, intermissionSeconds * 1000L), id -> startRound(room));
+        }
+    }
+
+    private static List<Map<String, Object>> standings(GeoHunterSession session) {
+        List<Player> players = session.players();
+        players.sort((a, b) -> Integer.compare(b.score, a.score));
+        List<Map<String, Object>> out = new ArrayList<>(players.size());
+        for (Player p : players) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("playerId", p.id);
+            item.put("name", p.name);
+            item.put("total", p.score);
+            out.add(item);
+        }
+        return out;
+    }
+
+    private void recordHistory(Room room) {
+        if (room.historyRecorded)
+            return;
+        room.historyRecorded = true;
+        List<Player> players = room.geoHunterSession.players();
+        int maxScore = players.stream().mapToInt(p -> p.score).max().orElse(-1);
+        List<GameHistoryService.Result> results = new ArrayList<>();
+        for (Player p : players) {
+            if (!p.isBot)
+                results.add(new GameHistoryService.Result(p.name, p.score, maxScore > 0 && p.score == maxScore));
+        }
+        // Closing may run on the event loop (timer), and history writes hit the disk
+        historyService.recordLater(GAME, results);
+    }
+
+    // ── Messaging ───────────────────────────────────────────────────────────
+
+    private Map<String, Object> state(Room room) {
+        GeoHunterSession session = room.geoHunterSession;
+        List<Map<String, Object>> players = new ArrayList<>();
+        for (Player p : session.players()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", p.id);
+            item.put("name", p.name);
+            item.put("avatar", p.avatar);
+            item.put("score", p.score);
+            item.put("connectionId", p.connectionId);
+            players.add(item);
+        }
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("id", room.id);
+        out.put("status", room.status);
+        out.put("theme", session.theme);
+        out.put("hostConnectionId", room.hostConnectionId);
+        out.put("phase", session.phase());
+        out.put("round", session.round());
+        out.put("rounds", session.totalRounds());
+        out.put("players", players);
+        return Map.of("room", out);
+    }
+
+    /** Serializes once and sends to every player of the room. */
+    private void broadcast(Room room, GameMessage msg) {
+        try {
+            String json = codec.write(msg);
+            for (Player p : room.geoHunterSession.players()) {
+                WebSocketConnection conn = connections.get(p.connectionId);
+                if (conn != null && conn.isOpen()) {
+                    conn.sendText(json).subscribe().with(v -> {
+                    }, err -> LOG.error("Send error", err));
+                }
+            }
+        } catch (Exception e) {
+            LOG.error("Failed to broadcast GeoHunter message", e);
+        }
+    }
+
+    private void send(WebSocketConnection conn, GameMessage msg) {
+        try {
+            conn.sendText(codec.write(msg)).subscribe().with(v -> {
+            }, err -> LOG.error("Send error", err));
+        } catch (Exception e) {
+            LOG.error("Failed to send GeoHunter message", e);
+        }
+    }
+
+    /**
+     * Sends an error and closes the connection. Takes the connection itself: the
+     * callbacks run after {@code @OnOpen} returns, outside the session scope
+     * the injected proxy needs.
+     */
+    private void sendError(WebSocketConnection conn, String message) {
+        try {
+            conn.sendText(codec.write(new GameMessage("ERROR", message)))
+                    .subscribe().with(v -> close(conn), err -> close(conn));
+        } catch (Exception e) {
+            LOG.error("Failed to send error", e);
+            close(conn);
+        }
+    }
+
+    private static void close(WebSocketConnection conn) {
+        conn.close().subscribe().with(v -> {
+        }, err -> LOG.debug("Close error", err));
+    }
+}
@@ -0,0 +1,95 @@
+package com.rafael.resource;
+
+import com.rafael.model.GameMessage;
+import com.rafael.service.DataLoaderService;
+import com.rafael.service.Matchmaker;
+import com.rafael.service.MessageCodec;
+import com.rafael.service.ModerationFilter;
+import io.quarkus.websockets.next.OnClose;
+import io.quarkus.websockets.next.OnOpen;
+import io.quarkus.websockets.next.WebSocket;
+import io.quarkus.websockets.next.WebSocketConnection;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Quick-game queue for Roletrando. A connection waits here until the
+ * {@link Matchmaker} puts it in a room, then gets a MATCH_FOUND frame with the
+ * room id and is closed; the client joins the room on
+ * {@code /api/ws/game/{roomId}/{playerName}/{theme}} as usual.
+ */
+@WebSocket(path = "/api/ws/matchmaking/{playerName}/{theme}")
+public class MatchmakingWebSocket {
+
+    private static final Logger LOG = Logger.getLogger(MatchmakingWebSocket.class);
+
+    @Inject
+    Matchmaker matchmaker;
+
+    @Inject
+    DataLoaderService dataLoader;
+
+    @Inject
+    MessageCodec codec;
+
+    @Inject
+    ModerationFilter moderation;
+
+    private final Map<String, Matchmaker.Ticket> tickets = new ConcurrentHashMap<>();
+
+    @OnOpen
+    public void onOpen(WebSocketConnection conn) {
+        String playerName = conn.pathParam("playerName");
+        String theme = conn.pathParam("theme");
+        if (theme == null || theme.isBlank())
+            theme = "default";
+        if (playerName == null || playerName.length() < 3 || playerName.length() > 15) {
+            sendError(conn, "Nome inválido (3-15 caracteres).");
+            return;
+        }
+        if (!moderation.allows(playerName)) {
+            sendError(conn, "Nome não permitido.");
+            return;
+        }
+        if (!dataLoader.getAvailableThemes().contains(theme)) {
+            sendError(conn, "Tema não encontrado.");
+            return;
+        }
+        // The connection itself, not the session-scoped proxy: the matcher calls back from its timer
+        Matchmaker.Ticket ticket = matchmaker.enqueue(theme, playerName, match -> {
+            tickets.remove(conn.id());
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("roomId", match.roomId());
+            payload.put("theme", match.theme());
+            payload.put("players", match.players());
+            conn.sendText(codec.write(new GameMessage("MATCH_FOUND", payload)))
+                    .subscribe().with(v -> close(conn), err -> close(conn));
+        });
+        tickets.put(conn.id(), ticket);
+        conn.sendText(codec.write(new GameMessage("QUEUED", Map.of("theme", theme))))
+                .subscribe().with(v -> {
+                }, err -> LOG.error("Send error", err));
+        LOG.debugf("%s queued for a %s game", playerName, theme);
+    }
+
+    @OnClose
+    public void onClose(WebSocketConnection conn) {
+        Matchmaker.Ticket ticket = tickets.remove(conn.id());
+        if (ticket != null)
+            ticket.cancel();
+    }
+
+    private void sendError(WebSocketConnection conn, String message) {
+        conn.sendText(codec.write(new GameMessage("ERROR", message)))
+                .subscribe().with(v -> close(conn), err -> close(conn));
+    }
+
+    private static void close(WebSocketConnection conn) {
+        conn.close().subscribe().with(v -> {
+        }, err -> LOG.debug("Close error", err));
+    }
+}
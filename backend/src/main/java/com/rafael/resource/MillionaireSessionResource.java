@@ -0,0 +1,164 @@
+package com.rafael.resource;
+
+import com.rafael.service.DataLoaderService;
+import com.rafael.service.MillionaireSessionService;
+import com.rafael.service.MillionaireSessionService.Lifeline;
+import com.rafael.service.MillionaireSessionService.Session;
+import com.rafael.service.MillionaireSessionService.Status;
+import com.rafael.service.QuestionStore;
+import com.rafael.service.SeenQuestionTracker;
+import org.jboss.logging.Logger;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Millionaire played against a server-side session: one request to start, one
+ * per level (answer + next question), and the result is recorded in the history
+ * when the game ends. The stateless {@code /api/data/millionaire} endpoints stay
+ * available for older clients.
+ */
+@Path("/api/millionaire/sessions")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class MillionaireSessionResource {
+
+    private static final Logger LOG = Logger.getLogger(MillionaireSessionResource.class);
+
+    @Inject
+    MillionaireSessionService sessions;
+
+    @Inject
+    DataLoaderService dataLoader;
+
+    public static class StartRequest {
+        public String playerName;
+        public String theme;
+    }
+
+    public static class AnswerRequest {
+        public int answerIndex;
+    }
+
+    @POST
+    public Response start(StartRequest request) {
+        if (request == null || !SeenQuestionTracker.isValidKey(request.playerName))
+            return error(Response.Status.BAD_REQUEST, "playerName is required (up to "
+                    + SeenQuestionTracker.MAX_KEY_LENGTH + " characters)");
+        String theme = request.theme != null && !request.theme.isBlank() ? request.theme
+                : dataLoader.getDefaultTheme();
+        Session session = sessions.start(request.playerName.trim(), theme);
+        if (session == null)
+            return error(Response.Status.NOT_FOUND, "No Millionaire questions for theme " + theme);
+        LOG.infof("Millionaire session %s started by %s (theme: %s)", session.id, session.playerName, theme);
+        return Response.status(Response.Status.CREATED).entity(state(session)).build();
+    }
+
+    @GET
+    @Path("/{id}")
+    public Response get(@PathParam("id") String id) {
+        Session session = sessions.get(id);
+        if (session == null)
+            return error(Response.Status.NOT_FOUND, "Unknown or expired session");
+        return Response.ok(state(session)).build();
+    }
+
+    /** Answers the current level; the body carries the next question when the game goes on. */
+    @POST
+    @Path("/{id}/answer")
+    public Response answer(@PathParam("id") String id, AnswerRequest request) {
+        Session session = sessions.get(id);
+        if (session == null)
+            return error(Response.Status.NOT_FOUND, "Unknown or expired session");
+        if (request == null)
+            return error(Response.Status.BAD_REQUEST, "answerIndex is required");
+        MillionaireSessionService.AnswerResult result = sessions.answer(session, request.answerIndex);
+        if (result == null)
+            return error(Response.Status.CONFLICT, "Game is over");
+
+        Map<String, Object> response = state(session);
+        response.put("correct", result.correct());
+        response.put("correctAnswerIndex", result.correctAnswerIndex());
+        return Response.ok(response).build();
+    }
+
+    @POST
+    @Path("/{id}/lifelines/{lifeline}")
+    @Consumes(MediaType.WILDCARD)
+    public Response lifeline(@PathParam("id") String id, @PathParam("lifeline") String name) {
+        Session session = sessions.get(id);
+        if (session == null)
+            return error(Response.Status.NOT_FOUND, "Unknown or expired session");
+        Lifeline lifeline;
+        switch (name) {
+            case "fifty-fifty":
+                lifeline = Lifeline.FIFTY_FIFTY;
+                break;
+            case "audience":
+                lifeline = Lifeline.AUDIENCE;
+                break;
+            case "skip":
+                lifeline = Lifeline.SKIP;
+                break;
+            default:
+                return error(Response.Status.NOT_FOUND, "Unknown lifeline " + name);
+        }
+        Object result = sessions.useLifeline(session, lifeline);
+        if (result == null)
+            return error(Response.Status.CONFLICT, "Lifeline not available");
+
+        Map<String, Object> response = state(session);
+        if (lifeline == Lifeline.FIFTY_FIFTY)
+            response.put("hiddenOptions", result);
+        else if (lifeline == Lifeline.AUDIENCE)
+            response.put("audienceData", result);
+        return Response.ok(response).build();
+    }
+
+    private Map<String, Object> state(Session session) {
+        QuestionStore store = session.store();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("sessionId", session.id);
+        out.put("theme", session.theme);
+        Status status = session.status();
+        int step = session.step();
+        out.put("status", status);
+        out.put("step", step);
+        out.put("steps", session.steps());
+
+        List<Map<String, Object>> ladder = new ArrayList<>();
+        for (int i = 0; i < session.steps(); i++) {
+            int ordinal = session.levelOrdinal(i);
+            Map<String, Object> level = new LinkedHashMap<>();
+            level.put("level", store.levelNumber(ordinal));
+            level.put("prize", store.levelTitle(ordinal));
+            ladder.add(level);
+        }
+        out.put("ladder", ladder);
+
+        if (status == Status.PLAYING) {
+            int q = session.question();
+            int ordinal = session.levelOrdinal(step);
+            Map<String, Object> question = new LinkedHashMap<>();
+            question.put("level", store.levelNumber(ordinal));
+            question.put("prize", store.levelTitle(ordinal));
+            question.put("questionId", store.id(q));
+            question.put("question", store.text(q));
+            question.put("options", store.options(q));
+            question.put("questionIndex", session.questionIndex(step));
+            out.put("question", question);
+        }
+        out.put("lifelines", MillionaireSessionService.lifelines(session));
+        return out;
+    }
+
+    private static Response error(Response.Status status, String message) {
+        return Response.status(status).entity(Map.of("error", message)).build();
+    }
+}
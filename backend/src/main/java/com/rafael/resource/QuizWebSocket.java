@@ -8,20 +8,53 @@ import io.quarkus.websockets.next.OnTextMessage;
 import io.quarkus.websockets.next.WebSocket;
 import io.quarkus.websockets.next.WebSocketConnection;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rafael.service.DataLoaderService;
+import com.rafael.service.FloodGuard;
 import com.rafael.service.GameHistoryService;
+import com.rafael.service.MessageCodec;
+import com.rafael.service.ModerationFilter;
+import com.rafael.service.QuestionStore;
+import com.fasterxml.jackson.databind.util.RawValue;
 import io.vertx.core.Vertx;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quiz rooms. The server draws the questions, sends them one at a time without
+ * the answer, and scores {@code SUBMIT_ANSWER} messages itself from the time the
+ * question was opened. A question closes when its time is up or when every
+ * player has answered; the right option, the round scores and the answer
+ * distribution go out then. While a question is open the host also gets a
+ * throttled ANSWER_HISTOGRAM frame with the answers per option.
+ *
+ * <p>
+ * Rooms above {@code game.quiz.large-room-threshold} players switch to a
+ * large-room mode: only the host gets the whole room; every other player gets a
+ * view with the top of the leaderboard, their own rank and their neighbours,
+ * read from the room's incrementally kept {@link Leaderboard}.
+ */
 @WebSocket(path = "/api/ws/quiz/{roomId}/{playerName}/{theme}")
 public class QuizWebSocket {
 
     private static final Logger LOG = Logger.getLogger(QuizWebSocket.class);
 
+    /** Neighbours on each side of a player in a large-room view. */
+    static final int NEIGHBOURS = 2;
+    /** Joins and leaves in a large room reach the host at most this often. */
+    private static final long HOST_STATE_DELAY_MS = 250;
+
     @Inject
     RoomManager roomManager;
 
@@ -31,14 +64,51 @@ public class QuizWebSocket {
     @Inject
     ObjectMapper mapper;
 
+    @Inject
+    MessageCodec codec;
+
+    @Inject
+    FloodGuard floodGuard;
+
+    @Inject
+    ModerationFilter moderation;
+
     @Inject
     GameHistoryService historyService;
 
+    @Inject
+    DataLoaderService dataLoader;
+
     @Inject
     Vertx vertx;
 
+    @ConfigProperty(name = "game.quiz.question-seconds", defaultValue = "10")
+    int questionSeconds;
+
+    @ConfigProperty(name = "game.quiz.histogram-interval-ms", defaultValue = "250")
+    long histogramIntervalMs;
+
+    @ConfigProperty(name = "game.quiz.large-room-threshold", defaultValue = "50")
+    int largeRoomThreshold;
+
+    @ConfigProperty(name = "game.quiz.leaderboard-top", defaultValue = "10")
+    int leaderboardTop;
+
+    /** Open connections of this endpoint, so rooms are reached in O(players) and from timers. */
+    private final Map<String, WebSocketConnection> connections = new ConcurrentHashMap<>();
+
+    /** Room and player of each connection, instead of scanning rooms and players on each message. */
+    private final Map<String, Room> roomByConnection = new ConcurrentHashMap<>();
+    private final Map<String, Player> playerByConnection = new ConcurrentHashMap<>();
+
+    /** Large rooms with a host update already scheduled. */
+    private final Map<String, Boolean> hostStatePending = new ConcurrentHashMap<>();
+
+    /** Periodic histogram timer of each room's open question. */
+    private final Map<String, Long> histogramTimers = new ConcurrentHashMap<>();
+
     @OnOpen
-    public void onOpen() {
+    public void onOpen(WebSocketConnection conn) {
         String roomId = connection.pathParam("roomId");
         String playerName = connection.pathParam("playerName");
         String theme = connection.pathParam("theme");
@@ -51,100 +121,96 @@ public class QuizWebSocket {
 
         // Input Validation
         if (roomId == null || roomId.length() < 3 || roomId.length() > 20 || !roomId.matches("^[a-zA-Z0-9_-]+$")) {
-            sendError("ID da sala inválido (3-20 caracteres, alfanumérico).");
+            sendError(conn, "ID da sala inválido (3-20 caracteres, alfanumérico).");
             return;
         }
         if (playerName == null || playerName.length() < 3 || playerName.length() > 15) {
-            sendError("Nome inválido (3-15 caracteres).");
+            sendError(conn, "Nome inválido (3-15 caracteres).");
+            return;
+        }
+        if (!moderation.allows(playerName)) {
+            sendError(conn, "Nome não permitido.");
             return;
         }
 
-        Room room = roomManager.getRoom(roomId);
-        if (room == null) {
-            room = roomManager.createRoom(roomId);
-            room.quizSession = new QuizSession();
-            room.hostConnectionId = connId;
+        Room room;
+        synchronized (connections) {
+            room = roomManager.getRoom(roomId);
+            if (room == null) {
+                room = roomManager.createRoom(roomId);
+                room.quizSession = new QuizSession();
+                room.hostConnectionId = connId;
+                room.theme = theme;
+            }
         }
 
+        if (room.quizSession == null) {
+            sendError(conn, "Sala em uso por outro jogo.");
+            return;
+        }
         if (room.status.equals("PLAYING")) {
-            try {
-                connection.sendText(mapper.writeValueAsString(new GameMessage("ERROR", "Jogo já em andamento.")))
-                        .subscribe().with(v -> {
-                        }, err -> LOG.error("Send error", err));
-            } catch (Exception e) {
-            }
+            sendError(conn, "Jogo já em andamento.");
             return;
         }
 
         Player player = new Player(UUID.randomUUID().toString(), playerName,
                 "https://api.dicebear.com/7.x/avataaars/svg?seed=" + playerName, connId, false);
-        room.players.add(player);
-
-        broadcastGameState(room);
+        connections.put(connId, conn);
+        roomByConnection.put(connId, room);
+        playerByConnection.put(connId, player);
+        synchronized (room) {
+            room.players.add(player);
+        }
+        room.quizSession.leaderboard().put(player.id, player.name, 0);
+
+        if (isLarge(room)) {
+            // Nobody else's view changes when someone joins a large room
+            sendView(room, player, topJson(room));
+            scheduleHostState(room);
+        } else {
+            broadcastGameState(room);
+        }
     }
 
     @OnTextMessage
     public void onMessage(String message) {
         try {
-            GameMessage msg = mapper.readValue(message, GameMessage.class);
+            // Size and rate are checked on the raw text, before any parsing
+            if (!floodGuard.admit(connection, message))
+                return;
+            ClientMessage msg = codec.read(message);
+            if (msg == null || !floodGuard.admit(connection, msg.type()))
+                return;
             String connId = connection.id();
-            Room room = roomManager.getRoomByConnection(connId);
+            Room room = roomByConnection.get(connId);
 
             if (room == null)
                 return;
 
-            Player sender = room.players.stream()
-                    .filter(p -> p.connectionId.equals(connId))
-                    .findFirst().orElse(null);
-
+            Player sender = playerByConnection.get(connId);
             if (sender == null)
                 return;
 
-            switch (msg.type) {
-                case "START_GAME":
+            switch (msg.type()) {
+                case START_GAME:
                     if (connId.equals(room.hostConnectionId) && room.status.equals("WAITING")) {
-                        if (msg.payload instanceof Number n) {
-                            room.quizSession.totalQuestions = n.intValue();
-                        }
-                        startGame(room);
+                        Integer limit = ((ClientMessage.StartGame) msg).limit();
+                        startGame(room, limit != null ? limit : Integer.MAX_VALUE);
                     }
                     break;
-                case "SUBMIT_SCORE":
-                    if (room.status.equals("PLAYING")) {
-                        int scoreGained = Integer.parseInt(msg.payload.toString());
-                        sender.score += scoreGained;
-                        // Map connectionId to score strictly for visual updates if needed
-                        room.quizSession.roundScores.put(sender.id, scoreGained);
-                        broadcastGameState(room);
-                    }
+                case SUBMIT_ANSWER:
+                    if (room.status.equals("PLAYING"))
+                        submitAnswer(room, sender, ((ClientMessage.SubmitAnswer) msg).answerIndex());
                     break;
-                case "NEXT_QUESTION":
-                    if (connId.equals(room.hostConnectionId) && room.status.equals("PLAYING")) {
-                        room.quizSession.currentStep++;
-                        room.quizSession.roundScores.clear();
-
-                        // Detecta fim do quiz: quando não há mais perguntas
-                        // O front envia NEXT_QUESTION após a última — verificamos pelo totalQuestions
-                        if (room.quizSession.totalQuestions > 0
-                                && room.quizSession.currentStep >= room.quizSession.totalQuestions
-                                && !room.historyRecorded) {
-                            room.historyRecorded = true;
-
-                            // Determinar a pontuação máxima para definir o(s) vencedor(es)
-                            int maxScore = room.players.stream()
-                                    .filter(p -> !p.isBot)
-                                    .mapToInt(p -> p.score)
-                                    .max().orElse(-1);
-
-                            for (Player p : room.players) {
-                                if (!p.isBot) {
-                                    boolean isWinner = (maxScore > 0 && p.score == maxScore);
-                                    historyService.record(p.name, "Quiz", p.score, isWinner);
-                                }
-                            }
-                        }
-                        broadcastGameState(room);
-                    }
+                case SUBMIT_SCORE:
+                    // Scores are computed by the server now; older clients are ignored
+                    LOG.debugf("Ignoring client-computed quiz score from %s", sender.name);
+                    break;
+                case NEXT_QUESTION:
+                    if (connId.equals(room.hostConnectionId) && room.status.equals("PLAYING"))
+                        nextQuestion(room);
+                    break;
+                default:
                     break;
             }
 
@@ -156,13 +222,32 @@ public class QuizWebSocket {
     @OnClose
     public void onClose() {
         String connId = connection.id();
-        Room room = roomManager.getRoomByConnection(connId);
+        connections.remove(connId);
+        Room room = roomByConnection.remove(connId);
+        Player player = playerByConnection.remove(connId);
         if (room != null) {
-            room.players.removeIf(p -> p.connectionId.equals(connId));
-            if (room.players.isEmpty()) {
-                roomManager.removeRoom(room.id);
+            if (player != null)
+                room.quizSession.leaderboard().remove(player.id);
+            boolean empty;
+            synchronized (room) {
+                room.players.removeIf(p -> p.connectionId.equals(connId));
+                empty = room.players.isEmpty();
+                if (!empty && connId.equals(room.hostConnectionId))
+                    room.hostConnectionId = room.players.get(0).connectionId;
+            }
+            if (empty) {
+                synchronized (connections) {
+                    roomManager.removeRoom(room.id);
+                }
+                stopHistogram(room);
             } else {
-                broadcastGameState(room);
+                if (isLarge(room))
+                    scheduleHostState(room);
+                else
+                    broadcastGameState(room);
+                // The player who left may have been the last one still to answer
+                if (room.status.equals("PLAYING") && allAnswered(room))
+                    closeQuestion(room, room.quizSession.currentStep);
             }
         }
         LOG.infof("Quiz Connection %s closed", connId);
@@ -173,53 +258,362 @@ public class QuizWebSocket {
         LOG.error("Quiz WebSocket error on connection " + connection.id(), t);
     }
 
-    private void startGame(Room room) {
+    // ── Game flow ───────────────────────────────────────────────────────────
+
+    /** Draws one question per level (at most {@code limit}) and opens the first one. */
+    private void startGame(Room room, int limit) {
+        QuestionStore store = dataLoader.getQuizStore(room.theme);
+        List<Integer> drawn = new ArrayList<>();
+        ThreadLocalRandom rng = ThreadLocalRandom.current();
+        for (int l = 0; l < store.levelCount() && drawn.size() < limit; l++) {
+            if (store.levelSize(l) > 0)
+                drawn.add(store.questionAt(l, rng.nextInt(store.levelSize(l))));
+        }
+        if (drawn.isEmpty()) {
+            LOG.warnf("Quiz room %s: theme %s has no questions", room.id, room.theme);
+            return;
+        }
+        room.quizSession.load(store, drawn.stream().mapToInt(Integer::intValue).toArray(),
+                TimeUnit.SECONDS.toNanos(questionSeconds));
         room.status = "PLAYING";
         broadcastGameState(room);
 
         // Let clients know game started
-        broadcastExcept(room, "", new GameMessage("GAME_START", null));
+        broadcast(room, new GameMessage("GAME_START", null));
+        openQuestion(room, 0);
+    }
+
+    private void openQuestion(Room room, int step) {
+        QuizSession quiz = room.quizSession;
+        QuestionStore store = quiz.store();
+        int q = quiz.question(step);
+        quiz.open(step, System.nanoTime());
+        vertx.setTimer(questionSeconds * 1000L, id -> closeQuestion(room, step));
+        startHistogram(room, step);
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("step", step);
+        payload.put("total", quiz.totalQuestions);
+        payload.put("questionId", store.id(q));
+        payload.put("question", store.text(q));
+        payload.put("options", store.options(q));
+        payload.put("durationMs", questionSeconds * 1000L);
+        broadcast(room, new GameMessage("QUESTION", payload));
+    }
+
+    /** Payload: the option index, or {@code {"answerIndex": n}}. */
+    private void submitAnswer(Room room, Player sender, int answerIndex) {
+        long now = System.nanoTime();
+        QuizSession quiz = room.quizSession;
+        int step = quiz.currentStep;
+        if (quiz.submit(sender.id, answerIndex, now) < 0)
+            return;
+        WebSocketConnection conn = connections.get(sender.connectionId);
+        if (conn != null)
+            send(conn, new GameMessage("ANSWER_RECEIVED", Map.of("step", step)));
+        if (allAnswered(room))
+            closeQuestion(room, step);
+    }
+
+    private static boolean allAnswered(Room room) {
+        int players;
+        synchronized (room) {
+            players = room.players.size();
+        }
+        return room.quizSession.answeredCount.get() >= players;
+    }
+
+    /**
+     * Closes the question at {@code step} once and reveals the answer with the
+     * round scores. In a large room only the host gets them all; each player gets
+     * those of the top entries and their own.
+     */
+    private void closeQuestion(Room room, int step) {
+        QuizSession quiz = room.quizSession;
+        List<Player> players;
+        synchronized (room) {
+            players = new ArrayList<>(room.players);
+        }
+        int correct = quiz.close(step, players);
+        if (correct == -2)
+            return;
+        stopHistogram(room);
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("step", step);
+        payload.put("correctAnswerIndex", correct);
+        payload.put("answeredCount", quiz.answeredCount.get());
+        payload.put("distribution", quiz.distribution());
+        if (!isLarge(room)) {
+            payload.put("roundScores", quiz.roundScores);
+            broadcast(room, new GameMessage("QUESTION_CLOSED", payload));
+        } else {
+            Map<String, Integer> topScores = new HashMap<>();
+            for (Leaderboard.Standing s : quiz.leaderboard().top(leaderboardTop)) {
+                Integer points = quiz.roundScores.get(s.id());
+                if (points != null)
+                    topScores.put(s.id(), points);
+            }
+            for (Player p : players) {
+                WebSocketConnection conn = connections.get(p.connectionId);
+                if (conn == null || !conn.isOpen())
+                    continue;
+                Map<String, Object> own = new LinkedHashMap<>(payload);
+                if (p.connectionId.equals(room.hostConnectionId)) {
+                    own.put("roundScores", quiz.roundScores);
+                } else {
+                    Map<String, Integer> scores = new HashMap<>(topScores);
+                    Integer points = quiz.roundScores.get(p.id);
+                    if (points != null)
+                        scores.put(p.id, points);
+                    own.put("roundScores", scores);
+                }
+                send(conn, new GameMessage("QUESTION_CLOSED", own));
+            }
+        }
+        broadcastGameState(room);
+    }
+
+    /**
+     * Sends the host the answers per option every {@code game.quiz.histogram-interval-ms}
+     * while the question is open, skipping ticks where nothing changed. The frame
+     * is built from the counters, so its cost does not depend on the answers.
+     */
+    private void startHistogram(Room room, int step) {
+        stopHistogram(room);
+        int[] lastSent = { -1 };
+        long timerId = vertx.setPeriodic(histogramIntervalMs, id -> {
+            QuizSession quiz = room.quizSession;
+            if (quiz.currentStep != step || !"question".equals(quiz.phase)) {
+                vertx.cancelTimer(id);
+                return;
+            }
+            int answered = quiz.answeredCount.get();
+            // Nothing to report before the first answer
+            if (answered == 0 || answered == lastSent[0])
+                return;
+            WebSocketConnection host = connections.get(room.hostConnectionId);
+            if (host == null || !host.isOpen())
+                return;
+            lastSent[0] = answered;
+            int players;
+            synchronized (room) {
+                players = room.players.size();
+            }
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("step", step);
+            payload.put("answeredCount", answered);
+            payload.put("players", players);
+            payload.put("distribution", quiz.distribution());
+            send(host, new GameMessage("ANSWER_HISTOGRAM", payload));
+        });
+        histogramTimers.put(room.id, timerId);
+    }
+
+    private void stopHistogram(Room room) {
+        Long timerId = histogramTimers.remove(room.id);
+        if (timerId != null)
+            vertx.cancelTimer(timerId);
     }
 
+    private void nextQuestion(Room room) {
+        QuizSession quiz = room.quizSession;
+        // An early NEXT_QUESTION closes the open question first
+        closeQuestion(room, quiz.currentStep);
+        int next = quiz.currentStep + 1;
+        if (next < quiz.totalQuestions) {
+            openQuestion(room, next);
+            return;
+        }
+
+        quiz.phase = "ended";
+        room.status = "FINISHED";
+        if (!room.historyRecorded) {
+            room.historyRecorded = true;
+
+            List<Player> players;
+            synchronized (room) {
+                players = new ArrayList<>(room.players);
+            }
+            // Determinar a pontuação máxima para definir o(s) vencedor(es)
+            int maxScore = players.stream()
+                    .filter(p -> !p.isBot)
+                    .mapToInt(p -> p.score)
+                    .max().orElse(-1);
+
+            List<GameHistoryService.Result> results = new ArrayList<>();
+            for (Player p : players) {
+                if (!p.isBot) {
+                    boolean isWinner = (maxScore > 0 && p.score == maxScore);
+                    results.add(new GameHistoryService.Result(p.name, p.score, isWinner));
+                }
+            }
+            historyService.recordLater("Quiz", results);
+        }
+        broadcastGameState(room);
+        broadcast(room, new GameMessage("GAME_OVER", null));
+    }
+
+    // ── Messaging ───────────────────────────────────────────────────────────
+
+    private boolean isLarge(Room room) {
+        return room.quizSession.leaderboard().size() > largeRoomThreshold;
+    }
+
+    /** Sends the room state: the whole room to everyone, or per-player views in a large room. */
     private void broadcastGameState(Room room) {
         try {
-            Map<String, Object> state = Map.of("room", room);
-            GameMessage msg = new GameMessage("STATE_UPDATE", state);
-            String json = mapper.writeValueAsString(msg);
-
-            connection.getOpenConnections().forEach(conn -> {
-                boolean inRoom = room.players.stream().anyMatch(p -> p.connectionId.equals(conn.id()));
-                if (inRoom) {
-                    conn.sendText(json).subscribe().with(v -> {
-                    }, err -> LOG.error("Send error", err));
-                }
-            });
+            if (!isLarge(room)) {
+                sendToRoom(room, fullState(room));
+                return;
+            }
+            WebSocketConnection host = connections.get(room.hostConnectionId);
+            if (host != null && host.isOpen())
+                sendText(host, fullState(room));
+            List<Player> players;
+            synchronized (room) {
+                players = new ArrayList<>(room.players);
+            }
+            RawValue top = topJson(room);
+            for (Player p : players) {
+                if (!p.connectionId.equals(room.hostConnectionId))
+                    sendView(room, p, top);
+            }
         } catch (Exception e) {
             LOG.error("Failed to broadcast Quiz state", e);
         }
     }
 
-    private void broadcastExcept(Room room, String excludeConnId, GameMessage msg) {
+    private String fullState(Room room) throws Exception {
+        synchronized (room) {
+            return codec.write(new GameMessage("STATE_UPDATE", new RoomState(room)));
+        }
+    }
+
+    /** Top of the leaderboard, serialized once per broadcast and shared by every view. */
+    private RawValue topJson(Room room) {
         try {
-            String json = mapper.writeValueAsString(msg);
-            connection.getOpenConnections().forEach(conn -> {
-                boolean inRoom = room.players.stream().anyMatch(p -> p.connectionId.equals(conn.id()));
-                if (inRoom && !conn.id().equals(excludeConnId)) {
-                    conn.sendText(json).subscribe().with(v -> {
-                    }, err -> LOG.error("Send error", err));
-                }
-            });
+            return new RawValue(mapper.writeValueAsString(room.quizSession.leaderboard().top(leaderboardTop)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A large-room STATE_UPDATE for one player: the room without its player list,
+     * the top entries, the player's rank and neighbours, and the round scores of
+     * just those players. Its size does not depend on the room size.
+     */
+    private void sendView(Room room, Player player, RawValue top) {
+        QuizSession quiz = room.quizSession;
+        Leaderboard leaderboard = quiz.leaderboard();
+        List<Leaderboard.Standing> around = leaderboard.around(player.id, NEIGHBOURS);
+
+        Map<String, Integer> roundScores = new HashMap<>();
+        for (Leaderboard.Standing s : around) {
+            Integer points = quiz.roundScores.get(s.id());
+            if (points != null)
+                roundScores.put(s.id(), points);
+        }
+        Map<String, Object> quizState = new LinkedHashMap<>();
+        quizState.put("currentStep", quiz.currentStep);
+        quizState.put("totalQuestions", quiz.totalQuestions);
+        quizState.put("phase", quiz.phase);
+        quizState.put("answeredCount", quiz.answeredCount.get());
+        quizState.put("roundScores", roundScores);
+
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("rank", leaderboard.rank(player.id));
+        view.put("top", top);
+        view.put("around", around);
+
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("id", room.id);
+        state.put("status", room.status);
+        state.put("hostConnectionId", room.hostConnectionId);
+        state.put("playerCount", leaderboard.size());
+        state.put("players", List.of(player));
+        state.put("quizSession", quizState);
+        state.put("leaderboard", view);
+        WebSocketConnection conn = connections.get(player.connectionId);
+        if (conn == null || !conn.isOpen())
+            return;
+        try {
+            sendText(conn, codec.write(new GameMessage("STATE_UPDATE", Map.of("room", state))));
         } catch (Exception e) {
-            LOG.error("Failed to broadcastExcept Quiz", e);
+            LOG.error("Failed to send Quiz view", e);
         }
     }
 
-    private void sendError(String message) {
+    /** Coalesces joins and leaves of a large room into one full update for the host. */
+    private void scheduleHostState(Room room) {
+        if (hostStatePending.putIfAbsent(room.id, Boolean.TRUE) != null)
+            return;
+        vertx.setTimer(HOST_STATE_DELAY_MS, id -> {
+            hostStatePending.remove(room.id);
+            WebSocketConnection host = connections.get(room.hostConnectionId);
+            if (host == null || !host.isOpen())
+                return;
+            try {
+                sendText(host, fullState(room));
+            } catch (Exception e) {
+                LOG.error("Failed to send Quiz state to host", e);
+            }
+        });
+    }
+
+    /** Serializes once and sends to every player of the room. */
+    private void broadcast(Room room, GameMessage msg) {
         try {
-            connection.sendText(mapper.writeValueAsString(new GameMessage("ERROR", message)))
-                    .subscribe().with(v -> connection.close(), err -> connection.close());
+            sendToRoom(room, codec.write(msg));
         } catch (Exception e) {
-            connection.close();
+            LOG.error("Failed to broadcast Quiz message", e);
+        }
+    }
+
+    private void sendToRoom(Room room, String json) {
+        List<Player> players;
+        synchronized (room) {
+            players = new ArrayList<>(room.players);
         }
+        for (Player p : players) {
+            WebSocketConnection conn = connections.get(p.connectionId);
+            if (conn != null && conn.isOpen())
+                sendText(conn, json);
+        }
+    }
+
+    private static void sendText(WebSocketConnection conn, String json) {
+        conn.sendText(json).subscribe().with(v -> {
+        }, err -> LOG.error("Send error", err));
+    }
+
+    private void send(WebSocketConnection conn, GameMessage msg) {
+        try {
+            conn.sendText(codec.write(msg)).subscribe().with(v -> {
+            }, err -> LOG.error("Send error", err));
+        } catch (Exception e) {
+            LOG.error("Failed to send Quiz message", e);
+        }
+    }
+
+    /**
+     * Sends an error and closes the connection. Takes the connection itself: the
+     * callbacks run after {@code @OnOpen} returns, outside the session scope
+     * the injected proxy needs.
+     */
+    private void sendError(WebSocketConnection conn, String message) {
+        try {
+            conn.sendText(codec.write(new GameMessage("ERROR", message)))
+                    .subscribe().with(v -> close(conn), err -> close(conn));
+        } catch (Exception e) {
+            LOG.error("Failed to send error", e);
+            close(conn);
+        }
+    }
+
+    private static void close(WebSocketConnection conn) {
+        conn.close().subscribe().with(v -> {
+        }, err -> LOG.debug("Close error", err));
     }
 }
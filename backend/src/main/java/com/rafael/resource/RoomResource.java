@@ -0,0 +1,91 @@
+package com.rafael.resource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rafael.service.RoomJournal;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Path("/api/rooms")
+public class RoomResource {
+
+    @Inject
+    RoomJournal journal;
+
+    @Inject
+    ObjectMapper mapper;
+
+    /**
+     * The events of the room's last finished Roletrando game, one JSON object per
+     * line, in order. Resume tokens are left out.
+     */
+    @GET
+    @Path("/{id}/replay")
+    @Produces("application/x-ndjson")
+    public Response replay(@PathParam("id") String id) {
+        if (id == null || !id.matches("^[a-zA-Z0-9_-]{3,20}$")) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity(Map.of("error", "ID da sala inválido")).build();
+        }
+        List<RoomJournal.Event> events = journal.replay(id).orElse(null);
+        if (events == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity(Map.of("error", "Nenhuma partida encerrada nesta sala")).build();
+        }
+        StreamingOutput body = out -> {
+            for (RoomJournal.Event e : events) {
+                out.write(mapper.writeValueAsBytes(toJson(e)));
+                out.write('\n');
+            }
+        };
+        return Response.ok(body).build();
+    }
+
+    private static Map<String, Object> toJson(RoomJournal.Event e) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("t", e.at());
+        m.put("type", e.kind().name());
+        List<String> texts = e.texts();
+        switch (e.kind()) {
+            case CREATED -> {
+                m.put("theme", texts.get(0));
+                m.put("category", texts.get(1));
+                m.put("phrase", texts.get(2));
+            }
+            case JOIN -> {
+                m.put("playerId", texts.get(0));
+                m.put("name", texts.get(1));
+                m.put("bot", e.value() == 1);
+            }
+            case SPIN -> {
+                m.put("seat", e.seat());
+                m.put("value", e.value());
+            }
+            case GUESS -> {
+                m.put("seat", e.seat());
+                m.put("letter", texts.get(0));
+                m.put("score", e.value());
+            }
+            case SOLVE -> {
+                m.put("seat", e.seat());
+                m.put("attempt", texts.get(0));
+                m.put("score", e.value());
+            }
+            case LEAVE, TURN -> m.put("seat", e.seat());
+            default -> {
+            }
+        }
+        return m;
+    }
+}
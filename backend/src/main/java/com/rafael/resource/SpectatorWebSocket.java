@@ -0,0 +1,76 @@
+package com.rafael.resource;
+
+import com.rafael.model.GameMessage;
+import com.rafael.model.Room;
+import com.rafael.model.RoomManager;
+import com.rafael.service.MessageCodec;
+import com.rafael.service.SpectatorHub;
+import io.quarkus.websockets.next.OnClose;
+import io.quarkus.websockets.next.OnOpen;
+import io.quarkus.websockets.next.WebSocket;
+import io.quarkus.websockets.next.WebSocketConnection;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+/**
+ * Read-only view of a Roletrando room. Spectators get the same STATE_UPDATE and
+ * SPIN_START frames as the players, starting with the room's current state, and
+ * anything they send is ignored. There is no limit per room; the node as a whole
+ * takes at most {@code game.spectators.max-per-node}.
+ */
+@WebSocket(path = "/api/ws/spectate/{roomId}")
+public class SpectatorWebSocket {
+
+    private static final Logger LOG = Logger.getLogger(SpectatorWebSocket.class);
+
+    @Inject
+    RoomManager roomManager;
+
+    @Inject
+    SpectatorHub hub;
+
+    @Inject
+    MessageCodec codec;
+
+    @OnOpen
+    public void onOpen(WebSocketConnection connection) {
+        String roomId = connection.pathParam("roomId");
+        Room room = roomId == null ? null : roomManager.getRoom(roomId);
+        // Quiz and GeoHunter rooms share the room ids but never publish to the hub
+        if (room == null || room.gameSession == null) {
+            sendError(connection, "Sala não encontrada.");
+            return;
+        }
+        // The hub keeps the connection itself, not the session-scoped proxy
+        switch (hub.join(room, connection)) {
+            case ROOM_GONE:
+                sendError(connection, "Sala não encontrada.");
+                return;
+            case FULL:
+                sendError(connection, "Limite de espectadores atingido.");
+                return;
+            default:
+                break;
+        }
+        LOG.debugf("Spectator %s watching room %s", connection.id(), roomId);
+    }
+
+    @OnClose
+    public void onClose(WebSocketConnection connection) {
+        hub.leave(connection);
+    }
+
+    private void sendError(WebSocketConnection connection, String message) {
+        try {
+            connection.sendText(codec.write(new GameMessage("ERROR", message)))
+                    .subscribe().with(v -> close(connection), err -> close(connection));
+        } catch (Exception e) {
+            close(connection);
+        }
+    }
+
+    private static void close(WebSocketConnection connection) {
+        connection.close().subscribe().with(v -> {
+        }, err -> LOG.debug("Close error", err));
+    }
+}
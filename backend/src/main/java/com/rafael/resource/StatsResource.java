@@ -1,6 +1,16 @@
 package com.rafael.resource;
 
 import com.rafael.model.RoomManager;
+import com.rafael.service.BlockingWorkers;
+import com.rafael.service.BotBrain;
+import com.rafael.service.DataLoaderService;
+import com.rafael.service.FloodGuard;
+import com.rafael.service.GameHistoryService;
+import com.rafael.service.Matchmaker;
+import com.rafael.service.MillionaireSessionService;
+import com.rafael.service.ModerationFilter;
+import com.rafael.service.RoomJournal;
+import com.rafael.service.SeenQuestionTracker;
 import com.rafael.service.StatsService;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.GET;
@@ -21,6 +31,36 @@ public class StatsResource {
     @Inject
     RoomManager roomManager;
 
+    @Inject
+    DataLoaderService dataLoader;
+
+    @Inject
+    SeenQuestionTracker seenTracker;
+
+    @Inject
+    MillionaireSessionService millionaireSessions;
+
+    @Inject
+    RoomJournal journal;
+
+    @Inject
+    BlockingWorkers workers;
+
+    @Inject
+    GameHistoryService historyService;
+
+    @Inject
+    FloodGuard floodGuard;
+
+    @Inject
+    Matchmaker matchmaker;
+
+    @Inject
+    BotBrain botBrain;
+
+    @Inject
+    ModerationFilter moderation;
+
     @GET
     public Response getStats() {
         Map<String, Object> stats = new HashMap<>();
@@ -29,6 +69,17 @@ public class StatsResource {
         stats.put("requestsProcessed", statsService.getRequestCount());
         stats.put("uptime", statsService.getUptime());
         stats.put("gamesCreated", statsService.getTotalGamesCreated());
+        stats.put("loadedThemes", dataLoader.getLoadedThemeCount());
+        stats.put("seenQuestions", seenTracker.metrics());
+        stats.put("millionaireSessions", millionaireSessions.activeSessions());
+        stats.put("journal", journal.metrics());
+        Map<String, Object> blocking = new HashMap<>(workers.metrics());
+        blocking.put("historyWritesOnEventLoop", historyService.eventLoopWrites());
+        stats.put("blockingWork", blocking);
+        stats.put("flood", floodGuard.metrics());
+        stats.put("matchmaking", matchmaker.metrics());
+        stats.put("bots", botBrain.metrics());
+        stats.put("moderation", moderation.metrics());
 
         return Response.ok(stats).build();
     }
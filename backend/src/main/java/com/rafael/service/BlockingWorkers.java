@@ -0,0 +1,100 @@
+package com.rafael.service;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Where the game endpoints send work that blocks (disk writes, for now the game
+ * history). Room logic runs on event loops whenever a timer drives it, so
+ * anything that may wait goes to this pool of {@code game.blocking.pool-size}
+ * threads instead, and its result comes back on the context that submitted it,
+ * the same thread that owns the room. At most {@code game.blocking.max-pending}
+ * tasks wait or run at a time; past that new ones fail right away rather than
+ * piling up behind a slow disk.
+ */
+@ApplicationScoped
+public class BlockingWorkers {
+
+    private static final Logger LOG = Logger.getLogger(BlockingWorkers.class);
+
+    @ConfigProperty(name = "game.blocking.pool-size", defaultValue = "4")
+    int poolSize;
+
+    @ConfigProperty(name = "game.blocking.max-pending", defaultValue = "1024")
+    int maxPending;
+
+    @Inject
+    Vertx vertx;
+
+    private WorkerExecutor executor;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    void onStart(@Observes StartupEvent ev) {
+        executor = vertx.createSharedWorkerExecutor("roletrando-blocking", poolSize);
+    }
+
+    void onStop(@Observes ShutdownEvent ev) {
+        if (executor != null)
+            executor.close();
+    }
+
+    /**
+     * Runs {@code work} on the pool. Called on a Vert.x context, the returned
+     * future completes on that context; tasks do not wait for each other, so
+     * callers that need an order must chain them.
+     */
+    public <T> Future<T> submit(String task, Callable<T> work) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            rejected.incrementAndGet();
+            LOG.warnf("Blocking pool full (%d pending), dropping %s", maxPending, task);
+            return Future.failedFuture(new RejectedExecutionException(task));
+        }
+        long queuedAt = System.nanoTime();
+        return executor.<T>executeBlocking(() -> {
+            maxWaitNanos.accumulateAndGet(System.nanoTime() - queuedAt, Math::max);
+            try {
+                return work.call();
+            } finally {
+                pending.decrementAndGet();
+            }
+        }, false).onComplete(ar -> {
+            if (ar.succeeded()) {
+                completed.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+                LOG.errorf(ar.cause(), "Blocking task %s failed", task);
+            }
+        });
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("poolSize", poolSize);
+        out.put("pending", pending.get());
+        out.put("completed", completed.get());
+        out.put("failed", failed.get());
+        out.put("rejected", rejected.get());
+        out.put("maxWaitMs", maxWaitNanos.get() / 1_000_000);
+        return out;
+    }
+}
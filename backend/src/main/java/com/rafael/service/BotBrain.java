@@ -0,0 +1,196 @@
+package com.rafael.service;
+
+import com.rafael.model.GameSession;
+import com.rafael.model.PhraseIndex;
+import com.rafael.model.WheelPhrase;
+import io.vertx.core.Context;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+/**
+ * Decides what a Roletrando bot does with its turn. The bot reads the board
+ * like a player who knows the theme's phrases: a {@link PhraseIndex} gives
+ * the phrases that still fit, the letter hidden in most of them is guessed
+ * next, and once a single phrase fits the bot solves it. How far a bot
+ * follows that is its {@link Difficulty}.
+ * <p>
+ * A theme's index is built the first time a bot plays it, on the blocking
+ * pool, and is kept on the theme's cache entry so it is dropped together with
+ * the theme. Until it is ready the bot goes by letter frequency.
+ */
+@ApplicationScoped
+public class BotBrain {
+
+    private static final Logger LOG = Logger.getLogger(BotBrain.class);
+
+    /** Letters by frequency in Portuguese, for boards no indexed phrase fits. */
+    private static final String BY_FREQUENCY = "AEOSRINDMUTCLPVGHQBFZJXKWY";
+
+    public enum Difficulty {
+        /** Random letters, never solves. */
+        EASY,
+        /** Guesses letters the candidates hide, in proportion to how many hide them; solves a sure phrase. */
+        MEDIUM,
+        /** Always the letter most candidates hide; solves a sure phrase. */
+        HARD
+    }
+
+    /** A letter to guess, or the phrase to solve when {@code solution} is set. */
+    public record Decision(char letter, String solution) {
+        static Decision guess(char letter) {
+            return new Decision(letter, null);
+        }
+
+        static Decision solve(String phrase) {
+            return new Decision((char) 0, phrase);
+        }
+
+        public boolean solves() {
+            return solution != null;
+        }
+    }
+
+    @ConfigProperty(name = "game.bot.difficulty", defaultValue = "MEDIUM")
+    Difficulty difficulty;
+
+    @Inject
+    DataLoaderService dataLoader;
+
+    @Inject
+    BlockingWorkers workers;
+
+    private final AtomicLong decisions = new AtomicLong();
+    private final AtomicLong solves = new AtomicLong();
+    private final AtomicLong decideNanos = new AtomicLong();
+
+    /** The bot index of one theme, held by its cache entry. */
+    private static final class Indexed {
+        final String theme;
+        final AtomicBoolean started = new AtomicBoolean();
+        volatile PhraseIndex index;
+
+        Indexed(String theme) {
+            this.theme = theme;
+        }
+    }
+
+    /** Starts building the theme's index, if needed, so it is ready by the bot's move. */
+    public void prepare(String theme) {
+        index(theme);
+    }
+
+    /**
+     * Next move for a bot on {@code session}, at the configured difficulty.
+     * Returns {@code null} when no letter is left to guess.
+     */
+    public Decision decide(String theme, GameSession session) {
+        return decide(theme, session, difficulty, ThreadLocalRandom.current());
+    }
+
+    public Decision decide(String theme, GameSession session, Difficulty level, RandomGenerator rng) {
+        long start = System.nanoTime();
+        try {
+            return choose(theme, session, level, rng);
+        } finally {
+            decisions.incrementAndGet();
+            decideNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private Decision choose(String theme, GameSession session, Difficulty level, RandomGenerator rng) {
+        List<Character> open = new ArrayList<>();
+        for (int i = 0; i < BY_FREQUENCY.length(); i++) {
+            char c = BY_FREQUENCY.charAt(i);
+            if (!session.guessedLetters.contains(c))
+                open.add(c);
+        }
+        if (level == Difficulty.EASY)
+            return open.isEmpty() ? null : Decision.guess(open.get(rng.nextInt(open.size())));
+
+        PhraseIndex index = index(theme);
+        PhraseIndex.Candidates candidates = index == null ? null
+                : index.candidates(session.obscuredPhrase, session.category, session.guessedLetters);
+        if (candidates != null && candidates.count() == 1) {
+            solves.incrementAndGet();
+            return Decision.solve(candidates.first());
+        }
+        if (open.isEmpty())
+            return null;
+
+        int[] hits = new int[open.size()];
+        int total = 0;
+        int best = 0;
+        if (candidates != null) {
+            int[] byLetter = candidates.letterHits();
+            for (int i = 0; i < open.size(); i++) {
+                hits[i] = byLetter[open.get(i) - 'A'];
+                total += hits[i];
+                if (hits[i] > hits[best])
+                    best = i;
+            }
+        }
+        if (total == 0)
+            return Decision.guess(open.get(0)); // nothing indexed fits: go by frequency
+        if (level == Difficulty.HARD)
+            return Decision.guess(open.get(best));
+        int pick = rng.nextInt(total);
+        for (int i = 0; i < open.size(); i++) {
+            pick -= hits[i];
+            if (pick < 0)
+                return Decision.guess(open.get(i));
+        }
+        return Decision.guess(open.get(best));
+    }
+
+    /**
+     * The theme's index, or {@code null} while it is being built. Off the event
+     * loop a missing index is built right away; on it the build goes to the
+     * blocking pool and this turn is played without it.
+     */
+    private PhraseIndex index(String theme) {
+        Indexed indexed = dataLoader.derived(theme, Indexed.class, Indexed::new);
+        PhraseIndex index = indexed.index;
+        if (index != null || !indexed.started.compareAndSet(false, true))
+            return index;
+        if (!Context.isOnEventLoopThread()) {
+            build(indexed);
+            return indexed.index;
+        }
+        workers.submit("bot index " + indexed.theme, () -> build(indexed))
+                .onFailure(e -> indexed.started.set(false)); // the next turn tries again
+        return null;
+    }
+
+    private Void build(Indexed indexed) {
+        List<WheelPhrase> list = dataLoader.getWheelPhrases(indexed.theme);
+        if (list == null || list.isEmpty())
+            return null;
+        long start = System.nanoTime();
+        PhraseIndex index = new PhraseIndex(list);
+        indexed.index = index;
+        LOG.infof("Indexed %d phrases of theme %s for the bots in %d ms", index.size(), indexed.theme,
+                (System.nanoTime() - start) / 1_000_000);
+        return null;
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        long n = decisions.get();
+        out.put("difficulty", difficulty.name());
+        out.put("decisions", n);
+        out.put("solves", solves.get());
+        out.put("avgDecisionMicros", n == 0 ? 0 : decideNanos.get() / n / 1000.0);
+        return out;
+    }
+}
@@ -1,23 +1,33 @@
 package com.rafael.service;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rafael.model.GeoHunterTarget;
-import com.rafael.model.MillionaireData;
-import com.rafael.model.MillionaireLevel;
-import com.rafael.model.QuizData;
-import com.rafael.model.QuizLevel;
 import com.rafael.model.WheelPhrase;
+import com.rafael.model.dto.SecureMillionaireQuestion;
+import com.rafael.model.dto.SecureQuizQuestion;
 import com.fasterxml.jackson.core.type.TypeReference;
 import io.quarkus.runtime.StartupEvent;
+import io.vertx.core.Future;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
 
 @ApplicationScoped
 public class DataLoaderService {
@@ -30,56 +40,416 @@ public class DataLoaderService {
     @Inject
     ObjectMapper mapper;
 
-    private final Map<String, ThemeData> themeCache = new LinkedHashMap<>();
+    @Inject
+    BlockingWorkers workers;
+
+    @ConfigProperty(name = "game.theme-cache.size", defaultValue = "32")
+    int themeCacheSize;
+
+    /**
+     * Known theme names and the pre-serialized theme list. Discovering names is
+     * cheap; the data of each theme is only read on first use.
+     */
+    private volatile Catalog catalog = Catalog.EMPTY;
 
-    public static class ThemeData {
-        public List<WheelPhrase> wheelPhrases = new ArrayList<>();
-        public List<MillionaireLevel> millionaireLevels = new ArrayList<>();
-        public List<QuizLevel> quizLevels = new ArrayList<>();
-        public List<GeoHunterTarget> geoHunterTargets = new ArrayList<>();
+    /**
+     * Themes loaded so far, bounded by {@code game.theme-cache.size}. The least
+     * recently used theme is evicted first; {@code default} is pinned because every
+     * other theme falls back to it.
+     */
+    private final ConcurrentHashMap<String, ThemeEntry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Every entry but {@code default}, least recently used first. Reads only touch
+     * it when they move an entry's clock, so eviction takes the eldest instead of
+     * scanning {@link #entries}. Guarded by itself.
+     */
+    private final LinkedHashMap<String, ThemeEntry> recency = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Kinds of data loaded independently for each theme. */
+    private enum Section {
+        WHEEL, MILLIONAIRE, QUIZ, GEOHUNTER, BUNDLE
+    }
+
+    private static final Section[] SECTIONS = Section.values();
+
+    /** A loaded section. {@code own} is false when it came from the default theme. */
+    private static final class Loaded {
+        final Object value;
+        final boolean own;
+
+        Loaded(Object value, boolean own) {
+            this.value = value;
+            this.own = own;
+        }
+    }
+
+    private static final class GeoHunterData {
+        final List<GeoHunterTarget> targets;
+        final PreparedPayload payload;
+        final GeoIndex index;
+
+        GeoHunterData(List<GeoHunterTarget> targets, PreparedPayload payload) {
+            this.targets = targets;
+            this.payload = payload;
+            this.index = GeoIndex.of(targets);
+        }
+    }
+
+    /**
+     * Lazily filled view of one theme. Each section is loaded at most once, by the
+     * first caller (single flight); concurrent callers wait for that same load.
+     * Values are already resolved against the default fallback and never change,
+     * a reload publishes a new entry instead.
+     */
+    private static final class ThemeEntry {
+        final String name;
+        final AtomicReferenceArray<CompletableFuture<Loaded>> sections =
+                new AtomicReferenceArray<>(SECTIONS.length);
+        /** Values other services derive from this entry's data, see {@link #derived}. */
+        final ConcurrentHashMap<Object, Object> derived = new ConcurrentHashMap<>();
+        /** Last time {@link #recency} was touched for this entry, at most once per millisecond. */
+        volatile long lastAccess = System.nanoTime();
+
+        ThemeEntry(String name) {
+            this.name = name;
+        }
+
+        Loaded loadedOrNull(Section section) {
+            CompletableFuture<Loaded> f = sections.get(section.ordinal());
+            return f != null && f.isDone() && !f.isCompletedExceptionally() ? f.join() : null;
+        }
+    }
+
+    private static final class Catalog {
+        static final Catalog EMPTY = new Catalog(List.of(), null);
+
+        final List<String> names;
+        final Set<String> known;
+        final PreparedPayload themesPayload;
+
+        Catalog(List<String> names, PreparedPayload themesPayload) {
+            this.names = names;
+            this.known = Set.copyOf(names);
+            this.themesPayload = themesPayload;
+        }
+
+        /** Orders {@code default} first and pre-serializes the theme list. */
+        static Catalog of(Collection<String> themes, ObjectMapper mapper, String defaultTheme) {
+            List<String> names = new ArrayList<>();
+            names.add("default");
+            for (String theme : themes) {
+                if (!names.contains(theme))
+                    names.add(theme);
+            }
+            Map<String, Object> themesContent = new LinkedHashMap<>();
+            themesContent.put("themes", names);
+            themesContent.put("defaultTheme", defaultTheme);
+            return new Catalog(List.copyOf(names), PreparedPayload.of(mapper, themesContent));
+        }
     }
 
     void onStart(@Observes StartupEvent ev) {
+        classLoader = Thread.currentThread().getContextClassLoader();
+        externalDir = getExternalDir();
+        if (externalDir != null)
+            LOG.infof("External theme directory: %s", externalDir.toAbsolutePath());
+
         LOG.infof("Scanning game themes in data/...");
-        List<String> themes = discoverThemes();
-        // Load default first so other themes can fall back to it
-        if (themes.contains("default")) {
-            themeCache.put("default", loadTheme("default"));
+        catalog = Catalog.of(discoverThemes(), mapper, defaultTheme);
+
+        // Warm the pinned fallback theme; everything else loads on first use
+        ThemeEntry fallback = entries.computeIfAbsent("default", ThemeEntry::new);
+        for (Section section : SECTIONS) {
+            if (section != Section.BUNDLE)
+                load(fallback, section);
+        }
+        LOG.infof("Found %d theme(s): %s (cache size %d)", catalog.names.size(), catalog.names, themeCacheSize);
+    }
+
+    /**
+     * Re-parses a single theme and publishes it with one atomic swap. Sections that
+     * were loaded are rebuilt right away, the others stay lazy. Readers keep using
+     * the previous entry until then, and objects already handed out (phrases,
+     * questions) are never mutated. A file that fails to parse keeps its previous
+     * data. Must not be called from the event loop: it does blocking file I/O.
+     */
+    public synchronized void reloadTheme(String theme) {
+        long start = System.nanoTime();
+        if (!catalog.known.contains(theme)) {
+            List<String> names = new ArrayList<>(catalog.names);
+            names.add(theme);
+            catalog = Catalog.of(names, mapper, defaultTheme);
+        }
+        ThemeEntry old = entries.get(theme);
+        ThemeEntry fresh = new ThemeEntry(theme);
+        if (old != null) {
+            for (Section section : SECTIONS) {
+                Loaded previous = old.loadedOrNull(section);
+                if (previous != null)
+                    fresh.sections.set(section.ordinal(),
+                            CompletableFuture.completedFuture(compute(fresh, section, previous)));
+            }
+        }
+        entries.put(theme, fresh);
+        if (theme.equals("default")) {
+            // Other themes may hold default's old data as their fallback
+            entries.keySet().removeIf(name -> !name.equals("default"));
+            synchronized (recency) {
+                recency.clear();
+            }
+        } else {
+            admit(fresh);
+        }
+        LOG.infof("[%s] Theme reloaded in %d ms.", theme, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private ThemeEntry entry(String theme) {
+        ThemeEntry entry = theme != null ? entries.get(theme) : null;
+        if (entry == null)
+            entry = miss(theme);
+        long now = System.nanoTime();
+        if (now - entry.lastAccess > 1_000_000) {
+            entry.lastAccess = now;
+            if (!entry.name.equals("default")) {
+                synchronized (recency) {
+                    recency.get(entry.name);
+                }
+            }
+        }
+        return entry;
+    }
+
+    private ThemeEntry miss(String theme) {
+        if (theme == null || !catalog.known.contains(theme)) {
+            LOG.warnf("Theme '%s' not found in cache, using default.", theme);
+            return fallbackEntry();
+        }
+        ThemeEntry created = new ThemeEntry(theme);
+        ThemeEntry existing = entries.putIfAbsent(theme, created);
+        if (existing != null)
+            return existing;
+        admit(created);
+        return created;
+    }
+
+    private ThemeEntry fallbackEntry() {
+        ThemeEntry entry = entries.get("default");
+        return entry != null ? entry : entries.computeIfAbsent("default", ThemeEntry::new);
+    }
+
+    /** Records a new entry as the most recent one and evicts the eldest past the limit. */
+    private void admit(ThemeEntry entry) {
+        synchronized (recency) {
+            recency.put(entry.name, entry);
+            Iterator<ThemeEntry> eldest = recency.values().iterator();
+            while (recency.size() > Math.max(themeCacheSize, 1) && eldest.hasNext()) {
+                ThemeEntry coldest = eldest.next();
+                eldest.remove();
+                if (entries.remove(coldest.name, coldest))
+                    LOG.debugf("[%s] Evicted from theme cache.", coldest.name);
+            }
+        }
+    }
+
+    /** Returns the section, loading it first if this is the first access. */
+    private Loaded load(ThemeEntry entry, Section section) {
+        int i = section.ordinal();
+        CompletableFuture<Loaded> f = entry.sections.get(i);
+        if (f == null) {
+            CompletableFuture<Loaded> mine = new CompletableFuture<>();
+            if (entry.sections.compareAndSet(i, null, mine)) {
+                try {
+                    mine.complete(compute(entry, section, null));
+                } catch (RuntimeException e) {
+                    // Let the next caller retry instead of caching the failure
+                    entry.sections.compareAndSet(i, mine, null);
+                    mine.completeExceptionally(e);
+                    throw e;
+                }
+                return mine.join();
+            }
+            f = entry.sections.get(i);
+        }
+        return f.join();
+    }
+
+    private Object section(String theme, Section section) {
+        return load(entry(theme), section).value;
+    }
+
+    /**
+     * Loads a section on the blocking pool unless it is already in memory, in
+     * which case the returned future is already complete.
+     */
+    private Future<Void> prepare(String theme, Section section) {
+        ThemeEntry entry = entry(theme);
+        if (entry.loadedOrNull(section) != null)
+            return Future.succeededFuture();
+        return workers.submit("theme " + entry.name, () -> {
+            load(entry, section);
+            return null;
+        });
+    }
+
+    /**
+     * Reads one section of a theme from its files. Missing data falls back to the
+     * default theme; data that fails to parse keeps {@code previous} when given.
+     */
+    private Loaded compute(ThemeEntry entry, Section section, Loaded previous) {
+        String theme = entry.name;
+        Object own;
+        boolean empty;
+        switch (section) {
+            case WHEEL: {
+                List<WheelPhrase> list = loadWheelPhrases(theme);
+                List<WheelPhrase> value = list != null ? readOnly(list) : ownOrEmpty(previous, List.of());
+                own = value;
+                empty = value.isEmpty();
+                break;
+            }
+            case MILLIONAIRE: {
+                QuestionStore store = loadMillionaireData(theme);
+                QuestionStore value = store != null ? store : ownOrEmpty(previous, QuestionStore.empty());
+                own = value;
+                empty = value.isEmpty();
+                break;
+            }
+            case QUIZ: {
+                QuestionStore store = loadQuizData(theme);
+                QuestionStore value = store != null ? store : ownOrEmpty(previous, QuestionStore.empty());
+                own = value;
+                empty = value.isEmpty();
+                break;
+            }
+            case GEOHUNTER: {
+                List<GeoHunterTarget> list = loadGeoHunterData(theme);
+                GeoHunterData value = list != null
+                        ? new GeoHunterData(readOnly(list), PreparedPayload.of(mapper, readOnly(list)))
+                        : ownOrEmpty(previous, new GeoHunterData(List.of(), PreparedPayload.of(mapper, List.of())));
+                own = value;
+                empty = value.targets.isEmpty();
+                break;
+            }
+            case BUNDLE:
+                return new Loaded(PreparedPayload.of(mapper, bundleContent(entry)), true);
+            default:
+                throw new IllegalArgumentException(section.name());
         }
-        for (String theme : themes) {
-            if (!theme.equals("default")) {
-                themeCache.put(theme, loadTheme(theme));
+        // Field-level fallback: if a specific data type is missing, use default.
+        // e.g.: jatai has wheel but no millionaire → millionaire falls back to default.
+        if (empty && !theme.equals("default"))
+            return new Loaded(load(fallbackEntry(), section).value, false);
+        return new Loaded(own, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T ownOrEmpty(Loaded previous, T empty) {
+        return previous != null && previous.own ? (T) previous.value : empty;
+    }
+
+    /** Answer-free static data of a theme, served by {@code /api/data/bundle}. */
+    private Map<String, Object> bundleContent(ThemeEntry entry) {
+        List<Map<String, Object>> millionaireOut = new ArrayList<>();
+        QuestionStore millionaire = (QuestionStore) load(entry, Section.MILLIONAIRE).value;
+        for (int l = 0; l < millionaire.levelCount(); l++) {
+            List<SecureMillionaireQuestion> questions = new ArrayList<>();
+            for (int i = 0; i < millionaire.levelSize(l); i++) {
+                int q = millionaire.questionAt(l, i);
+                questions.add(new SecureMillionaireQuestion(millionaire.id(q), millionaire.text(q),
+                        millionaire.options(q)));
             }
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("level", millionaire.levelNumber(l));
+            item.put("prize", millionaire.levelTitle(l));
+            item.put("questions", questions);
+            millionaireOut.add(item);
         }
-        // Ensure default is always present
-        themeCache.putIfAbsent("default", new ThemeData());
-        LOG.infof("Loaded %d theme(s): %s", themeCache.size(), themeCache.keySet());
+        List<Map<String, Object>> quizOut = new ArrayList<>();
+        QuestionStore quiz = (QuestionStore) load(entry, Section.QUIZ).value;
+        for (int l = 0; l < quiz.levelCount(); l++) {
+            List<SecureQuizQuestion> questions = new ArrayList<>();
+            for (int i = 0; i < quiz.levelSize(l); i++) {
+                int q = quiz.questionAt(l, i);
+                questions.add(new SecureQuizQuestion(quiz.id(q), quiz.text(q), quiz.options(q)));
+            }
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("level", quiz.levelNumber(l));
+            item.put("label", quiz.levelTitle(l));
+            item.put("questions", questions);
+            quizOut.add(item);
+        }
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("theme", entry.name);
+        content.put("millionaire", millionaireOut);
+        content.put("quiz", quizOut);
+        content.put("geohunter", ((GeoHunterData) load(entry, Section.GEOHUNTER).value).targets);
+        return content;
     }
 
-    @ConfigProperty(name = "game.themes", defaultValue = "default")
-    String configuredThemes;
+    private static <T> List<T> readOnly(List<T> list) {
+        if (list == null || list.isEmpty())
+            return List.of();
+        return Collections.unmodifiableList(new ArrayList<>(list));
+    }
+
+    /** Directory with theme overrides, or {@code null} when only the classpath is used. */
+    public Path getExternalDir() {
+        return dataDir.filter(d -> !d.isBlank()).map(Path::of).orElse(null);
+    }
+
+    /** Explicit theme list; when absent the index compiled at build time is used. */
+    @ConfigProperty(name = "game.themes")
+    Optional<String> configuredThemes;
+
+    /**
+     * Optional directory laid out like {@code data/} ({@code <dir>/<theme>/quiz.json}).
+     * Files found there take precedence over the classpath and are watched for changes.
+     */
+    @ConfigProperty(name = "game.data.dir")
+    Optional<String> dataDir;
+
+    private Path externalDir;
+    private ClassLoader classLoader;
 
     private List<String> discoverThemes() {
-        // Primeiro tenta a lista explícita do application.properties
-        // (necessário porque java.io.File não funciona dentro de um JAR em produção)
-        if (configuredThemes != null && !configuredThemes.isBlank()) {
+        // Primeiro tenta a lista explícita do application.properties, se houver
+        if (configuredThemes.isPresent() && !configuredThemes.get().isBlank()) {
             List<String> themes = new ArrayList<>();
-            for (String t : configuredThemes.split(",")) {
+            for (String t : configuredThemes.get().split(",")) {
                 String trimmed = t.trim();
                 if (!trimmed.isEmpty())
                     themes.add(trimmed);
             }
             if (!themes.isEmpty()) {
                 LOG.infof("Themes loaded from configuration: %s", themes);
+                addExternalThemes(themes);
+                Collections.sort(themes);
+                return themes;
+            }
+        }
+
+        // Depois o índice gerado no build pelo ThemeCompiler (funciona dentro do JAR)
+        try (InputStream is = classLoader.getResourceAsStream("data/" + ThemeCompiler.INDEX_FILE)) {
+            if (is != null) {
+                List<String> themes = new ArrayList<>();
+                for (String line : new String(is.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+                    if (!line.isBlank())
+                        themes.add(line.trim());
+                }
+                LOG.infof("Themes loaded from compiled index: %s", themes);
+                addExternalThemes(themes);
                 Collections.sort(themes);
                 return themes;
             }
+        } catch (IOException e) {
+            LOG.warnf("Could not read compiled theme index: %s", e.getMessage());
         }
 
         // Fallback: scan do filesystem (funciona apenas em dev, não no JAR)
         List<String> themes = new ArrayList<>();
         try {
-            URL dataUrl = Thread.currentThread().getContextClassLoader().getResource("data");
+            URL dataUrl = classLoader.getResource("data");
             if (dataUrl != null) {
                 java.io.File dataDir = new java.io.File(dataUrl.toURI());
                 if (dataDir.exists() && dataDir.isDirectory()) {
@@ -92,145 +462,251 @@ public class DataLoaderService {
         } catch (Exception e) {
             LOG.warn("Could not auto-discover themes from filesystem.");
         }
+        addExternalThemes(themes);
         if (themes.isEmpty())
             themes.add("default");
         Collections.sort(themes);
         return themes;
     }
 
-    private ThemeData loadTheme(String theme) {
-        ThemeData data = new ThemeData();
-        data.wheelPhrases = loadWheelPhrases(theme);
-        data.millionaireLevels = loadMillionaireData(theme);
-        data.quizLevels = loadQuizData(theme);
-        data.geoHunterTargets = loadGeoHunterData(theme);
-        return data;
+    /** Theme folders that exist only in the external directory are loaded as well. */
+    private void addExternalThemes(List<String> themes) {
+        if (externalDir == null || !Files.isDirectory(externalDir))
+            return;
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(externalDir, Files::isDirectory)) {
+            for (Path dir : dirs) {
+                String name = dir.getFileName().toString();
+                if (!themes.contains(name))
+                    themes.add(name);
+            }
+        } catch (IOException e) {
+            LOG.warnf("Could not list external theme directory %s: %s", externalDir, e.getMessage());
+        }
     }
 
     private List<WheelPhrase> loadWheelPhrases(String theme) {
-        String path = "data/" + theme + "/wheel.json";
-        try (InputStream is = stream(path)) {
-            if (is == null || is.available() == 0) {
+        List<WheelPhrase> compiled = loadCompiled(theme, "wheel", ThemeCodec::readWheel);
+        if (compiled != null) {
+            LOG.infof("[%s] Loaded %d wheel phrases (compiled).", theme, compiled.size());
+            return compiled;
+        }
+        try (InputStream is = open(theme, "wheel.json");
+                JsonParser parser = is == null ? null : mapper.createParser(is)) {
+            if (parser == null || parser.nextToken() == null) {
                 LOG.warnf("[%s] wheel.json not found or empty.", theme);
                 return new ArrayList<>();
             }
-            List<WheelPhrase> list = mapper.readValue(is, new TypeReference<List<WheelPhrase>>() {
+            List<WheelPhrase> list = mapper.readValue(parser, new TypeReference<List<WheelPhrase>>() {
             });
             LOG.infof("[%s] Loaded %d wheel phrases.", theme, list.size());
             return list;
         } catch (Exception e) {
             LOG.warnf("[%s] Failed to load wheel.json: %s", theme, e.getMessage());
-            return new ArrayList<>();
+            return null;
         }
     }
 
-    private List<MillionaireLevel> loadMillionaireData(String theme) {
-        String path = "data/" + theme + "/millionaire.json";
-        try (InputStream is = stream(path)) {
-            if (is == null || is.available() == 0) {
+    private QuestionStore loadMillionaireData(String theme) {
+        QuestionStore compiled = loadCompiled(theme, "millionaire", ThemeCodec::readMillionaire);
+        if (compiled != null) {
+            LOG.infof("[%s] Loaded %d millionaire levels (compiled).", theme, compiled.levelCount());
+            return compiled;
+        }
+        try (InputStream is = open(theme, "millionaire.json")) {
+            QuestionStore store = is == null ? null : new QuestionBankParser(mapper.getFactory()).parseMillionaire(is);
+            if (store == null) {
                 LOG.warnf("[%s] millionaire.json not found or empty — will use default fallback.", theme);
-                return new ArrayList<>();
+                return QuestionStore.empty();
             }
-            MillionaireData data = mapper.readValue(is, MillionaireData.class);
-            LOG.infof("[%s] Loaded %d millionaire levels.", theme, data.levels.size());
-            return data.levels;
+            LOG.infof("[%s] Loaded %d millionaire levels (%d distinct strings).", theme, store.levelCount(),
+                    store.poolSize());
+            return store;
         } catch (Exception e) {
             LOG.warnf("[%s] Failed to load millionaire.json: %s — will use default fallback.", theme, e.getMessage());
-            return new ArrayList<>();
+            return null;
         }
     }
 
-    private List<QuizLevel> loadQuizData(String theme) {
-        String path = "data/" + theme + "/quiz.json";
-        try (InputStream is = stream(path)) {
-            if (is == null || is.available() == 0) {
+    private QuestionStore loadQuizData(String theme) {
+        QuestionStore compiled = loadCompiled(theme, "quiz", ThemeCodec::readQuiz);
+        if (compiled != null) {
+            LOG.infof("[%s] Loaded %d quiz levels (compiled).", theme, compiled.levelCount());
+            return compiled;
+        }
+        try (InputStream is = open(theme, "quiz.json")) {
+            QuestionStore store = is == null ? null : new QuestionBankParser(mapper.getFactory()).parseQuiz(is);
+            if (store == null) {
                 LOG.warnf("[%s] quiz.json not found or empty — will use default fallback.", theme);
-                return new ArrayList<>();
+                return QuestionStore.empty();
             }
-            QuizData data = mapper.readValue(is, QuizData.class);
-            LOG.infof("[%s] Loaded %d quiz levels.", theme, data.levels.size());
-            return data.levels;
+            LOG.infof("[%s] Loaded %d quiz levels (%d distinct strings).", theme, store.levelCount(),
+                    store.poolSize());
+            return store;
         } catch (Exception e) {
             LOG.warnf("[%s] Failed to load quiz.json: %s — will use default fallback.", theme, e.getMessage());
-            return new ArrayList<>();
+            return null;
         }
     }
 
     private List<GeoHunterTarget> loadGeoHunterData(String theme) {
-        String path = "data/" + theme + "/geohunter.json";
-        try (InputStream is = stream(path)) {
-            if (is == null || is.available() == 0) {
+        List<GeoHunterTarget> compiled = loadCompiled(theme, "geohunter", ThemeCodec::readGeoHunter);
+        if (compiled != null) {
+            LOG.infof("[%s] Loaded %d geohunter targets (compiled).", theme, compiled.size());
+            return compiled;
+        }
+        try (InputStream is = open(theme, "geohunter.json");
+                JsonParser parser = is == null ? null : mapper.createParser(is)) {
+            if (parser == null || parser.nextToken() == null) {
                 LOG.warnf("[%s] geohunter.json not found or empty — will use default fallback.", theme);
                 return new ArrayList<>();
             }
-            List<GeoHunterTarget> list = mapper.readValue(is, new TypeReference<List<GeoHunterTarget>>() {
+            List<GeoHunterTarget> list = mapper.readValue(parser, new TypeReference<List<GeoHunterTarget>>() {
             });
             LOG.infof("[%s] Loaded %d geohunter targets.", theme, list.size());
             return list;
         } catch (Exception e) {
             LOG.warnf("[%s] Failed to load geohunter.json: %s — will use default fallback.", theme, e.getMessage());
-            return new ArrayList<>();
+            return null;
         }
     }
 
-    private InputStream stream(String path) {
-        return Thread.currentThread().getContextClassLoader().getResourceAsStream(path);
+    @FunctionalInterface
+    private interface CompiledReader<T> {
+        T read(InputStream is) throws IOException;
+    }
+
+    /**
+     * Reads the binary written by {@link ThemeCompiler} for a theme file. Returns
+     * {@code null} when there is none, when the external directory overrides the
+     * file, or when the JSON next to it is newer (edited in dev mode since the
+     * last build), so the JSON is parsed instead.
+     */
+    private <T> T loadCompiled(String theme, String name, CompiledReader<T> reader) {
+        if (externalDir != null && Files.isRegularFile(externalDir.resolve(theme).resolve(name + ".json")))
+            return null;
+        URL bin = classLoader.getResource("data/" + theme + "/" + name + ".bin");
+        if (bin == null)
+            return null;
+        if (isStale(bin, classLoader.getResource("data/" + theme + "/" + name + ".json"))) {
+            LOG.infof("[%s] %s.json changed since it was compiled, reading the JSON.", theme, name);
+            return null;
+        }
+        try (InputStream is = bin.openStream()) {
+            return reader.read(is);
+        } catch (IOException e) {
+            LOG.warnf("[%s] Ignoring unreadable %s.bin: %s", theme, name, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Whether {@code json} was modified after {@code bin}. Only files on disk are
+     * compared; inside a JAR both were written by the same build.
+     */
+    static boolean isStale(URL bin, URL json) {
+        if (json == null || !"file".equals(bin.getProtocol()) || !"file".equals(json.getProtocol()))
+            return false;
+        try {
+            return Files.getLastModifiedTime(Path.of(json.toURI()))
+                    .compareTo(Files.getLastModifiedTime(Path.of(bin.toURI()))) > 0;
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /** Opens a theme file, preferring the external directory over the classpath. */
+    private InputStream open(String theme, String file) throws IOException {
+        if (externalDir != null) {
+            Path external = externalDir.resolve(theme).resolve(file);
+            if (Files.isRegularFile(external))
+                return Files.newInputStream(external);
+        }
+        return classLoader.getResourceAsStream("data/" + theme + "/" + file);
     }
 
     // ── Public API ──────────────────────────────────────────────────────────
 
     public List<String> getAvailableThemes() {
-        return new ArrayList<>(themeCache.keySet());
+        return catalog.names;
     }
 
     public String getDefaultTheme() {
         return defaultTheme;
     }
 
+    /** Pre-serialized {@code {themes, defaultTheme}} body. */
+    public PreparedPayload getThemesPayload() {
+        return catalog.themesPayload;
+    }
+
     /**
-     * Resolve a theme with per-field fallback to default when data is missing.
-     * e.g.: jatai has wheel but no millionaire → millionaire falls back to default.
+     * Whether the theme exists under its own name (as opposed to resolving
+     * to the default fallback).
      */
-    private ThemeData resolve(String theme) {
-        ThemeData requested = themeCache.get(theme);
-        ThemeData fallback = themeCache.getOrDefault("default", new ThemeData());
+    public boolean hasTheme(String theme) {
+        return theme != null && catalog.known.contains(theme);
+    }
 
-        if (requested == null) {
-            LOG.warnf("Theme '%s' not found in cache, using default.", theme);
-            return fallback;
-        }
-
-        // Field-level fallback: if a specific data type is missing, use default
-        ThemeData result = new ThemeData();
-        result.wheelPhrases = (requested.wheelPhrases == null || requested.wheelPhrases.isEmpty())
-                ? fallback.wheelPhrases
-                : requested.wheelPhrases;
-        result.millionaireLevels = (requested.millionaireLevels == null || requested.millionaireLevels.isEmpty())
-                ? fallback.millionaireLevels
-                : requested.millionaireLevels;
-        result.quizLevels = (requested.quizLevels == null || requested.quizLevels.isEmpty())
-                ? fallback.quizLevels
-                : requested.quizLevels;
-        result.geoHunterTargets = (requested.geoHunterTargets == null || requested.geoHunterTargets.isEmpty())
-                ? fallback.geoHunterTargets
-                : requested.geoHunterTargets;
-        return result;
+    /** Number of themes currently held in memory, {@code default} included. */
+    public int getLoadedThemeCount() {
+        return entries.size();
     }
 
-    public List<WheelPhrase> getWheelPhrases(String theme) {
-        return resolve(theme).wheelPhrases;
+    /**
+     * Value another service keeps for a theme (the bots' phrase index, the phrase
+     * bags), held by the theme's cache entry so it goes away when the theme is
+     * evicted or reloaded. {@code factory} runs once per entry, with the name of
+     * the theme actually loaded ({@code default} for an unknown one). It runs
+     * inside the entry's map, so it must not ask for another derived value.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T derived(String theme, Object key, Function<String, T> factory) {
+        ThemeEntry entry = entry(theme);
+        return (T) entry.derived.computeIfAbsent(key, k -> factory.apply(entry.name));
     }
 
-    public List<MillionaireLevel> getMillionaireLevels(String theme) {
-        return resolve(theme).millionaireLevels;
+    /**
+     * Completes once the theme's phrases are in memory, loading them on the
+     * blocking pool on first use. Socket handlers wait for it before taking any
+     * room lock, so the getters below no longer read files there.
+     */
+    public Future<Void> prepareWheelPhrases(String theme) {
+        return prepare(theme, Section.WHEEL);
     }
 
-    public List<QuizLevel> getQuizLevels(String theme) {
-        return resolve(theme).quizLevels;
+    /** Same as {@link #prepareWheelPhrases} for the GeoHunter targets and index. */
+    public Future<Void> prepareGeoHunter(String theme) {
+        return prepare(theme, Section.GEOHUNTER);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<WheelPhrase> getWheelPhrases(String theme) {
+        return (List<WheelPhrase>) section(theme, Section.WHEEL);
     }
 
     public List<GeoHunterTarget> getGeoHunterTargets(String theme) {
-        return resolve(theme).geoHunterTargets;
+        return ((GeoHunterData) section(theme, Section.GEOHUNTER)).targets;
+    }
+
+    /** Spatial index of the theme's GeoHunter targets, built with them. */
+    public GeoIndex getGeoHunterIndex(String theme) {
+        return ((GeoHunterData) section(theme, Section.GEOHUNTER)).index;
+    }
+
+    public QuestionStore getMillionaireStore(String theme) {
+        return (QuestionStore) section(theme, Section.MILLIONAIRE);
+    }
+
+    public QuestionStore getQuizStore(String theme) {
+        return (QuestionStore) section(theme, Section.QUIZ);
+    }
+
+    public PreparedPayload getGeoHunterPayload(String theme) {
+        return ((GeoHunterData) section(theme, Section.GEOHUNTER)).payload;
+    }
+
+    public PreparedPayload getBundle(String theme) {
+        return (PreparedPayload) section(theme, Section.BUNDLE);
     }
 
     // No-arg versions use configured default
@@ -238,12 +714,12 @@ public class DataLoaderService {
         return getWheelPhrases(defaultTheme);
     }
 
-    public List<MillionaireLevel> getMillionaireLevels() {
-        return getMillionaireLevels(defaultTheme);
+    public QuestionStore getMillionaireStore() {
+        return getMillionaireStore(defaultTheme);
     }
 
-    public List<QuizLevel> getQuizLevels() {
-        return getQuizLevels(defaultTheme);
+    public QuestionStore getQuizStore() {
+        return getQuizStore(defaultTheme);
     }
 
     public List<GeoHunterTarget> getGeoHunterTargets() {
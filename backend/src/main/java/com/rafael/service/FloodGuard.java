@@ -0,0 +1,229 @@
+package com.rafael.service;
+
+import com.rafael.model.ClientMessage.Type;
+import com.rafael.model.TokenBucket;
+import io.quarkus.websockets.next.CloseReason;
+import io.quarkus.websockets.next.Closed;
+import io.quarkus.websockets.next.HttpUpgradeCheck;
+import io.quarkus.websockets.next.UserData;
+import io.quarkus.websockets.next.WebSocketConnection;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.net.SocketAddress;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.ObservesAsync;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps a single client from flooding the game endpoints. Each connection gets
+ * token buckets: one for all its frames, checked on the raw text before it is
+ * parsed (together with the frame size), and one per message type, checked
+ * once the type is known. A refused frame is dropped and counts as a strike;
+ * strikes come back at one a second, and a connection that runs out of them
+ * ({@code game.flood.max-strikes}) is closed, and whatever it still sends
+ * before the close completes is dropped. The WebSocket upgrade itself is
+ * refused with 429 once an address already has
+ * {@code game.flood.max-connections-per-ip} open (0 turns this off). Behind a
+ * proxy the address is the forwarded one, so the proxy has to be trusted in
+ * {@code quarkus.http.proxy.*}; otherwise every client shares its address.
+ */
+@ApplicationScoped
+public class FloodGuard implements HttpUpgradeCheck {
+
+    private static final Logger LOG = Logger.getLogger(FloodGuard.class);
+
+    /** Close code for a client that broke the limits (RFC 6455 "policy violation"). */
+    static final int POLICY_VIOLATION = 1008;
+
+    private static final UserData.TypedKey<String> ADDRESS = UserData.TypedKey.forString("flood.address");
+
+    /** Sustained rate and burst of each message type; a person playing never gets close. */
+    private record Limit(double perSecond, int burst) {
+    }
+
+    private static final Map<Type, Limit> TYPE_LIMITS = new EnumMap<>(Type.class);
+
+    static {
+        TYPE_LIMITS.put(Type.START_GAME, new Limit(1, 3));
+        TYPE_LIMITS.put(Type.SPIN_START, new Limit(1, 2));
+        TYPE_LIMITS.put(Type.SPIN_END, new Limit(1, 2));
+        TYPE_LIMITS.put(Type.GUESS, new Limit(2, 4));
+        TYPE_LIMITS.put(Type.SOLVE, new Limit(1, 2));
+        TYPE_LIMITS.put(Type.SUBMIT_ANSWER, new Limit(2, 4));
+        TYPE_LIMITS.put(Type.SUBMIT_SCORE, new Limit(1, 2));
+        TYPE_LIMITS.put(Type.NEXT_QUESTION, new Limit(2, 4));
+        TYPE_LIMITS.put(Type.SUBMIT_PIN, new Limit(2, 4));
+    }
+
+    @ConfigProperty(name = "game.flood.max-frame-chars", defaultValue = "2048")
+    int maxFrameChars;
+
+    @ConfigProperty(name = "game.flood.frames-per-second", defaultValue = "10")
+    double framesPerSecond;
+
+    @ConfigProperty(name = "game.flood.frame-burst", defaultValue = "20")
+    int frameBurst;
+
+    @ConfigProperty(name = "game.flood.max-strikes", defaultValue = "20")
+    int maxStrikes;
+
+    @ConfigProperty(name = "game.flood.max-connections-per-ip", defaultValue = "64")
+    int maxConnectionsPerIp;
+
+    /**
+     * Buckets of one connection, created on its first frame and removed only when
+     * the connection's Closed event arrives.
+     */
+    private final class Gate {
+        final TokenBucket frames;
+        final TokenBucket[] types = new TokenBucket[Type.values().length];
+        final TokenBucket strikes;
+        /** Set once the connection is being closed for flooding; its frames are dropped. */
+        volatile boolean closed;
+
+        Gate(long now) {
+            frames = new TokenBucket(framesPerSecond, frameBurst, now);
+            for (Map.Entry<Type, Limit> e : TYPE_LIMITS.entrySet())
+                types[e.getKey().ordinal()] = new TokenBucket(e.getValue().perSecond(), e.getValue().burst(), now);
+            strikes = new TokenBucket(1, maxStrikes, now);
+        }
+    }
+
+    private final Map<String, Gate> gates = new ConcurrentHashMap<>();
+    private final Map<String, Integer> connectionsByAddress = new ConcurrentHashMap<>();
+
+    private final AtomicLong oversized = new AtomicLong();
+    private final AtomicLong overRate = new AtomicLong();
+    private final AtomicLongArray overTypeRate = new AtomicLongArray(Type.values().length);
+    private final AtomicLong disconnected = new AtomicLong();
+    private final AtomicLong refusedUpgrades = new AtomicLong();
+
+    // ── Frames ──────────────────────────────────────────────────────────────
+
+    /**
+     * Whether a frame may be parsed at all. Looks only at its length and the
+     * connection's frame rate; a refused frame is a strike.
+     */
+    public boolean admit(WebSocketConnection conn, String text) {
+        long now = System.nanoTime();
+        Gate gate = gate(conn, now);
+        if (gate == null || gate.closed)
+            return false;
+        if (text.length() > maxFrameChars) {
+            oversized.incrementAndGet();
+            return strike(conn, gate, now, "oversized frame");
+        }
+        if (!gate.frames.tryTake(now)) {
+            overRate.incrementAndGet();
+            return strike(conn, gate, now, "frame rate");
+        }
+        return true;
+    }
+
+    /** Whether a parsed message of {@code type} is within its own rate. */
+    public boolean admit(WebSocketConnection conn, Type type) {
+        long now = System.nanoTime();
+        Gate gate = gate(conn, now);
+        if (gate == null || gate.closed)
+            return false;
+        TokenBucket bucket = gate.types[type.ordinal()];
+        if (bucket == null || bucket.tryTake(now))
+            return true;
+        overTypeRate.incrementAndGet(type.ordinal());
+        return strike(conn, gate, now, type.name() + " rate");
+    }
+
+    /**
+     * The connection's gate, or {@code null} once it is closed: a gate made after
+     * the Closed event was observed would never be removed.
+     */
+    private Gate gate(WebSocketConnection conn, long now) {
+        Gate gate = gates.get(conn.id());
+        if (gate != null || conn.isClosed())
+            return gate;
+        gate = gates.computeIfAbsent(conn.id(), id -> new Gate(now));
+        // Closed meanwhile: the observer may already have run, so clean up here
+        if (conn.isClosed()) {
+            gates.remove(conn.id(), gate);
+            return null;
+        }
+        return gate;
+    }
+
+    private boolean strike(WebSocketConnection conn, Gate gate, long now, String reason) {
+        if (gate.strikes.tryTake(now))
+            return false;
+        synchronized (gate) {
+            if (gate.closed)
+                return false;
+            gate.closed = true;
+        }
+        disconnected.incrementAndGet();
+        LOG.warnf("Closing connection %s from %s: too many dropped frames (%s)",
+                conn.id(), conn.userData().get(ADDRESS), reason);
+        conn.close(new CloseReason(POLICY_VIOLATION, "Muitas mensagens."))
+                .subscribe().with(v -> {
+                }, err -> LOG.debug("Close error", err));
+        return false;
+    }
+
+    // ── Connections per address ─────────────────────────────────────────────
+
+    @Override
+    public Uni<CheckResult> perform(HttpUpgradeContext context) {
+        if (maxConnectionsPerIp <= 0)
+            return CheckResult.permitUpgrade();
+        SocketAddress remote = context.httpRequest().remoteAddress();
+        String address = remote == null ? "unknown" : remote.hostAddress();
+        boolean[] refused = { false };
+        connectionsByAddress.compute(address, (a, open) -> {
+            int next = open == null ? 1 : open + 1;
+            refused[0] = next > maxConnectionsPerIp;
+            return refused[0] ? open : Integer.valueOf(next);
+        });
+        if (refused[0]) {
+            refusedUpgrades.incrementAndGet();
+            LOG.warnf("Refusing WebSocket from %s: %d connections already open", address, maxConnectionsPerIp);
+            return CheckResult.rejectUpgrade(429);
+        }
+        // Released by the Closed event below, which carries the same user data
+        context.userData().put(ADDRESS, address);
+        return CheckResult.permitUpgrade();
+    }
+
+    void onClosed(@ObservesAsync @Closed WebSocketConnection conn) {
+        gates.remove(conn.id());
+        String address = conn.userData().get(ADDRESS);
+        if (address != null)
+            release(address);
+    }
+
+    private void release(String address) {
+        connectionsByAddress.computeIfPresent(address, (a, open) -> open <= 1 ? null : open - 1);
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("trackedConnections", gates.size());
+        out.put("addresses", connectionsByAddress.size());
+        out.put("droppedOversized", oversized.get());
+        out.put("droppedFrameRate", overRate.get());
+        Map<String, Long> byType = new LinkedHashMap<>();
+        for (Type t : Type.values()) {
+            long n = overTypeRate.get(t.ordinal());
+            if (n > 0)
+                byType.put(t.name(), n);
+        }
+        out.put("droppedTypeRate", byType);
+        out.put("disconnected", disconnected.get());
+        out.put("refusedUpgrades", refusedUpgrades.get());
+        return out;
+    }
+}
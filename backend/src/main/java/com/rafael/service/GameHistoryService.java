@@ -1,8 +1,11 @@
 package com.rafael.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
 import java.io.*;
@@ -10,6 +13,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Persists game result records to a JSON-Lines file (one JSON object per line).
@@ -22,13 +26,20 @@ public class GameHistoryService {
 
     /**
      * Location of the history file. Use /tmp for Render (ephemeral but functional).
+     * Defaults to ~/.roletrando/history.jsonl.
      */
-    private static final Path HISTORY_FILE = Path.of(
-            System.getProperty("user.home"), ".roletrando", "history.jsonl");
+    @ConfigProperty(name = "game.history.file")
+    Optional<String> fileConfig;
 
     @Inject
     ObjectMapper mapper;
 
+    @Inject
+    BlockingWorkers workers;
+
+    /** Writes that ran on an event loop, stalling every connection on it. Should stay 0. */
+    private final AtomicLong eventLoopWrites = new AtomicLong();
+
     public record GameRecord(
             String timestamp,
             String playerName,
@@ -37,16 +48,31 @@ public class GameHistoryService {
             boolean winner) {
     }
 
+    /** One player's result, as the game rooms hand it over. */
+    public record Result(String playerName, int score, boolean winner) {
+    }
+
+    private Path historyFile() {
+        return Path.of(fileConfig.orElse(
+                Path.of(System.getProperty("user.home"), ".roletrando", "history.jsonl").toString()));
+    }
+
     /**
-     * Records a single player's result for a finished game.
+     * Records a single player's result for a finished game. Blocks on the disk,
+     * so the game rooms use {@link #recordLater} instead.
      */
     public synchronized void record(String playerName, String game, int score, boolean winner) {
+        if (Context.isOnEventLoopThread()) {
+            eventLoopWrites.incrementAndGet();
+            LOG.warnf("History write for %s on an event loop thread", game);
+        }
+        Path file = historyFile();
         try {
-            Files.createDirectories(HISTORY_FILE.getParent());
+            Files.createDirectories(file.toAbsolutePath().getParent());
             GameRecord entry = new GameRecord(
                     Instant.now().toString(), playerName, game, score, winner);
             String line = mapper.writeValueAsString(entry);
-            Files.writeString(HISTORY_FILE, line + "\n",
+            Files.writeString(file, line + "\n",
                     StandardOpenOption.CREATE, StandardOpenOption.APPEND);
             LOG.infof("[History] Recorded: %s | %s | score=%d | winner=%b", playerName, game, score, winner);
         } catch (Exception e) {
@@ -54,6 +80,23 @@ public class GameHistoryService {
         }
     }
 
+    /**
+     * Records the results of a finished game on the blocking pool. The room is
+     * often on an event loop when its game ends (a timer closed the last round),
+     * so it never waits for the disk; the future completes back on its context.
+     */
+    public Future<Void> recordLater(String game, List<Result> results) {
+        return workers.submit("history:" + game, () -> {
+            for (Result r : results)
+                record(r.playerName(), game, r.score(), r.winner());
+            return null;
+        });
+    }
+
+    public long eventLoopWrites() {
+        return eventLoopWrites.get();
+    }
+
     /**
      * Reads all records and aggregates by player name.
      * Returns a sorted list (highest total score first).
@@ -61,12 +104,13 @@ public class GameHistoryService {
     public List<Map<String, Object>> getRanking() {
         Map<String, Map<String, Object>> aggregated = new LinkedHashMap<>();
 
-        if (!Files.exists(HISTORY_FILE)) {
+        Path file = historyFile();
+        if (!Files.exists(file)) {
             LOG.info("[History] No history file found yet.");
             return List.of();
         }
 
-        try (BufferedReader reader = Files.newBufferedReader(HISTORY_FILE, StandardCharsets.UTF_8)) {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
             String line;
             while ((line = reader.readLine()) != null) {
                 if (line.isBlank())
@@ -0,0 +1,288 @@
+package com.rafael.service;
+
+import com.rafael.model.GeoHunterTarget;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only spatial index over the GeoHunter targets of one theme, for
+ * server-side scoring.
+ *
+ * <p>
+ * Coordinates are kept in parallel primitive arrays addressed by a target
+ * handle ({@code 0..size()-1}, in the original list order). Nearest-target
+ * lookups go through a balanced k-d tree over the points projected on the unit
+ * sphere: straight-line (chord) distance there grows with the great-circle
+ * distance, so the tree needs no special case at the poles or at the
+ * antimeridian. The tree is implicit (the median of each range is its node), so
+ * a query creates no per-point objects and touches about {@code log2(size)}
+ * nodes.
+ */
+public final class GeoIndex {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    /** Score of a guess right on the target. */
+    public static final int MAX_SCORE = 5000;
+    /** Distance at which the score has dropped to {@code 1/e} of the maximum. */
+    public static final double SCORE_SCALE_KM = 2000;
+
+    private static final GeoIndex EMPTY = new GeoIndex(new ArrayList<>());
+
+    // Targets, by handle
+    private final String[] ids;
+    private final String[] names;
+    /** Latitude and longitude in degrees, as given. */
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final Map<String, Integer> handleById;
+
+    // k-d tree, in node order: node i covers a range whose median is i
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    private final byte[] axis;
+    /** Target handle of each node. */
+    private final int[] handles;
+
+    private GeoIndex(List<GeoHunterTarget> targets) {
+        int n = targets.size();
+        ids = new String[n];
+        names = new String[n];
+        latitudes = new double[n];
+        longitudes = new double[n];
+        handleById = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            GeoHunterTarget t = targets.get(i);
+            ids[i] = t.id;
+            names[i] = t.name;
+            latitudes[i] = t.location.latitude;
+            longitudes[i] = t.location.longitude;
+            if (t.id != null)
+                handleById.putIfAbsent(t.id, i);
+        }
+
+        double[][] points = new double[3][n];
+        handles = new int[n];
+        for (int i = 0; i < n; i++) {
+            double lat = Math.toRadians(latitudes[i]);
+            double lon = Math.toRadians(longitudes[i]);
+            points[0][i] = Math.cos(lat) * Math.cos(lon);
+            points[1][i] = Math.cos(lat) * Math.sin(lon);
+            points[2][i] = Math.sin(lat);
+            handles[i] = i;
+        }
+        axis = new byte[n];
+        build(points, 0, n);
+        x = new double[n];
+        y = new double[n];
+        z = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = points[0][handles[i]];
+            y[i] = points[1][handles[i]];
+            z[i] = points[2][handles[i]];
+        }
+    }
+
+    /** Index over the targets that have a location; the others are left out. */
+    public static GeoIndex of(List<GeoHunterTarget> targets) {
+        List<GeoHunterTarget> located = new ArrayList<>(targets.size());
+        for (GeoHunterTarget t : targets) {
+            if (t != null && t.location != null)
+                located.add(t);
+        }
+        return located.isEmpty() ? EMPTY : new GeoIndex(located);
+    }
+
+    public static GeoIndex empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    /** Handle of the target with this id, or -1. */
+    public int byId(String id) {
+        Integer h = id != null ? handleById.get(id) : null;
+        return h != null ? h : -1;
+    }
+
+    public String id(int h) {
+        return ids[h];
+    }
+
+    public String name(int h) {
+        return names[h];
+    }
+
+    public double latitude(int h) {
+        return latitudes[h];
+    }
+
+    public double longitude(int h) {
+        return longitudes[h];
+    }
+
+    // ── Queries ─────────────────────────────────────────────────────────────
+
+    /** Handle of the target closest to the point (degrees), or -1 when empty. */
+    public int nearest(double latitude, double longitude) {
+        if (isEmpty())
+            return -1;
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double[] best = { Double.MAX_VALUE, -1 };
+        search(0, size(), Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat), best);
+        return (int) best[1];
+    }
+
+    /**
+     * Scores a batch of guesses (degrees). With a {@code target} handle each guess
+     * is measured against that target, with {@code -1} against its nearest target.
+     * Results go to the caller's arrays, indexed like the guesses:
+     * {@code nearest} gets the closest target, {@code distanceKm} the haversine
+     * distance to the measured target and {@code scores} its score.
+     */
+    public void score(double[] lats, double[] lons, int target, int[] nearest, double[] distanceKm, int[] scores) {
+        double[] best = new double[2];
+        for (int i = 0; i < lats.length; i++) {
+            double lat = Math.toRadians(lats[i]);
+            double lon = Math.toRadians(lons[i]);
+            best[0] = Double.MAX_VALUE;
+            best[1] = -1;
+            if (!isEmpty())
+                search(0, size(), Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat), best);
+            int h = (int) best[1];
+            nearest[i] = h;
+            int measured = target >= 0 ? target : h;
+            double d = measured >= 0 ? haversineKm(lats[i], lons[i], latitudes[measured], longitudes[measured])
+                    : Double.NaN;
+            distanceKm[i] = d;
+            scores[i] = measured >= 0 ? score(d) : 0;
+        }
+    }
+
+    /** Great-circle distance in kilometres between two points given in degrees. */
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double sinDLat = Math.sin((phi2 - phi1) / 2);
+        double sinDLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+        double a = sinDLat * sinDLat + Math.cos(phi1) * Math.cos(phi2) * sinDLon * sinDLon;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /** Points for a guess this far from the target: {@link #MAX_SCORE} decaying exponentially. */
+    public static int score(double distanceKm) {
+        return (int) Math.round(MAX_SCORE * Math.exp(-Math.max(0, distanceKm) / SCORE_SCALE_KM));
+    }
+
+    // ── k-d tree ────────────────────────────────────────────────────────────
+
+    /** {@code best} holds the squared chord distance and the handle of the closest node so far. */
+    private void search(int lo, int hi, double qx, double qy, double qz, double[] best) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            double dx = x[mid] - qx;
+            double dy = y[mid] - qy;
+            double dz = z[mid] - qz;
+            double d2 = dx * dx + dy * dy + dz * dz;
+            if (d2 < best[0]) {
+                best[0] = d2;
+                best[1] = handles[mid];
+            }
+            double diff = axis[mid] == 0 ? -dx : axis[mid] == 1 ? -dy : -dz;
+            // Near side first; the far side only if the splitting plane is closer than the best
+            int nearLo = diff < 0 ? lo : mid + 1;
+            int nearHi = diff < 0 ? mid : hi;
+            search(nearLo, nearHi, qx, qy, qz, best);
+            if (diff * diff >= best[0])
+                return;
+            lo = diff < 0 ? mid + 1 : lo;
+            hi = diff < 0 ? hi : mid;
+        }
+    }
+
+    /** Orders {@code handles[lo..hi)} so each range's median splits it on its widest axis. */
+    private void build(double[][] points, int lo, int hi) {
+        while (hi - lo > 1) {
+            int a = widestAxis(points, lo, hi);
+            int mid = (lo + hi) >>> 1;
+            select(points[a], lo, hi - 1, mid);
+            axis[mid] = (byte) a;
+            if (mid - lo < hi - mid - 1) {
+                build(points, lo, mid);
+                lo = mid + 1;
+            } else {
+                build(points, mid + 1, hi);
+                hi = mid;
+            }
+        }
+    }
+
+    private int widestAxis(double[][] points, int lo, int hi) {
+        int widest = 0;
+        double widestSpread = -1;
+        for (int a = 0; a < 3; a++) {
+            double min = Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
+            for (int i = lo; i < hi; i++) {
+                double v = points[a][handles[i]];
+                if (v < min)
+                    min = v;
+                if (v > max)
+                    max = v;
+            }
+            if (max - min > widestSpread) {
+                widestSpread = max - min;
+                widest = a;
+            }
+        }
+        return widest;
+    }
+
+    /**
+     * Quickselect on {@code handles[left..right]} by {@code coord}, placing the k-th
+     * smallest at {@code k}. Three-way partitioning keeps maps with many identical
+     * points linear.
+     */
+    private void select(double[] coord, int left, int right, int k) {
+        while (right > left) {
+            double a = coord[handles[left]];
+            double b = coord[handles[(left + right) >>> 1]];
+            double c = coord[handles[right]];
+            double pivot = Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+            int lt = left;
+            int gt = right;
+            int i = left;
+            while (i <= gt) {
+                double v = coord[handles[i]];
+                if (v < pivot)
+                    swap(lt++, i++);
+                else if (v > pivot)
+                    swap(i, gt--);
+                else
+                    i++;
+            }
+            if (k < lt)
+                right = lt - 1;
+            else if (k > gt)
+                left = gt + 1;
+            else
+                return;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int t = handles[i];
+        handles[i] = handles[j];
+        handles[j] = t;
+    }
+}
@@ -0,0 +1,231 @@
+package com.rafael.service;
+
+import com.rafael.model.RoomManager;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.vertx.core.Vertx;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Puts players who asked for a quick game into Roletrando rooms. Enqueuing only
+ * appends to the theme's lock-free queue; every {@code game.matchmaking.tick-ms}
+ * a single matcher drains the queues, takes waiting players three at a time in
+ * arrival order and reserves a fresh room for them. Whoever is left over once
+ * the oldest of them has waited {@code game.matchmaking.bot-after-seconds} gets
+ * a room of its own, which the bots fill up when the game starts.
+ * <p>
+ * A reserved room expects its players for {@code game.matchmaking.join-seconds};
+ * {@link com.rafael.resource.GameWebSocket} starts it as soon as they are all
+ * in, or at the deadline with whoever came.
+ */
+@ApplicationScoped
+public class Matchmaker {
+
+    private static final Logger LOG = Logger.getLogger(Matchmaker.class);
+
+    public static final int ROOM_SIZE = 3;
+    /** Queue times kept for the percentiles, the most recent first to go. */
+    private static final int SAMPLES = 4096;
+    private static final String ROOM_ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+
+    @ConfigProperty(name = "game.matchmaking.tick-ms", defaultValue = "250")
+    long tickMs;
+
+    @ConfigProperty(name = "game.matchmaking.bot-after-seconds", defaultValue = "20")
+    int botAfterSeconds;
+
+    @ConfigProperty(name = "game.matchmaking.join-seconds", defaultValue = "15")
+    int joinSeconds;
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    RoomManager roomManager;
+
+    /** A room handed to a group of players. */
+    public record Assignment(String roomId, String theme, List<String> players) {
+    }
+
+    /** A player waiting in a queue. Cancelled tickets are skipped by the matcher. */
+    public static final class Ticket {
+        final String playerName;
+        final String theme;
+        final long enqueuedAt;
+        final Consumer<Assignment> onMatch;
+        volatile boolean cancelled;
+
+        Ticket(String playerName, String theme, long enqueuedAt, Consumer<Assignment> onMatch) {
+            this.playerName = playerName;
+            this.theme = theme;
+            this.enqueuedAt = enqueuedAt;
+            this.onMatch = onMatch;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private final Map<String, Queue<Ticket>> queues = new ConcurrentHashMap<>();
+    /** Tickets drained but not matched yet. Only the matcher touches these. */
+    private final Map<String, ArrayDeque<Ticket>> holding = new ConcurrentHashMap<>();
+    /** Players each reserved room still expects. */
+    private final Map<String, Integer> reservations = new ConcurrentHashMap<>();
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong matched = new AtomicLong();
+    private final AtomicLong botRooms = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final long[] waitMillis = new long[SAMPLES];
+    private long samples;
+
+    private long timerId = -1;
+
+    void onStart(@Observes StartupEvent ev) {
+        timerId = vertx.setPeriodic(tickMs, id -> {
+            try {
+                tick(System.nanoTime());
+            } catch (Exception e) {
+                LOG.error("Matchmaking tick failed", e);
+            }
+        });
+    }
+
+    void onStop(@Observes ShutdownEvent ev) {
+        if (timerId >= 0)
+            vertx.cancelTimer(timerId);
+    }
+
+    /** Queues a player; {@code onMatch} is called once, from the matcher, with its room. */
+    public Ticket enqueue(String theme, String playerName, Consumer<Assignment> onMatch) {
+        Ticket ticket = new Ticket(playerName, theme, System.nanoTime(), onMatch);
+        queues.computeIfAbsent(theme, t -> new ConcurrentLinkedQueue<>()).offer(ticket);
+        enqueued.incrementAndGet();
+        return ticket;
+    }
+
+    /**
+     * One matcher round. Package-private so tests can drive the clock; the timer
+     * is the only caller in production, so rounds never overlap.
+     */
+    synchronized void tick(long now) {
+        for (Map.Entry<String, Queue<Ticket>> e : queues.entrySet()) {
+            String theme = e.getKey();
+            ArrayDeque<Ticket> waiting = holding.computeIfAbsent(theme, t -> new ArrayDeque<>());
+            Ticket t;
+            while ((t = e.getValue().poll()) != null)
+                waiting.add(t);
+            waiting.removeIf(ticket -> {
+                if (ticket.cancelled)
+                    cancelled.incrementAndGet();
+                return ticket.cancelled;
+            });
+            while (waiting.size() >= ROOM_SIZE)
+                assign(theme, take(waiting, ROOM_SIZE), now);
+            if (!waiting.isEmpty() && now - waiting.peekFirst().enqueuedAt >= botAfterSeconds * 1_000_000_000L) {
+                botRooms.incrementAndGet();
+                assign(theme, take(waiting, waiting.size()), now);
+            }
+        }
+    }
+
+    private static List<Ticket> take(ArrayDeque<Ticket> waiting, int n) {
+        List<Ticket> group = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            group.add(waiting.pollFirst());
+        return group;
+    }
+
+    private void assign(String theme, List<Ticket> group, long now) {
+        String roomId = newRoomId();
+        reservations.put(roomId, group.size());
+        List<String> names = new ArrayList<>(group.size());
+        for (Ticket t : group) {
+            names.add(t.playerName);
+            recordWait((now - t.enqueuedAt) / 1_000_000);
+        }
+        matched.addAndGet(group.size());
+        Assignment assignment = new Assignment(roomId, theme, List.copyOf(names));
+        for (Ticket t : group) {
+            try {
+                t.onMatch.accept(assignment);
+            } catch (Exception e) {
+                LOG.error("Failed to hand room " + roomId + " to " + t.playerName, e);
+            }
+        }
+        // The room may have been abandoned before anyone joined
+        vertx.setTimer(Math.max(1, joinSeconds * 2000L), id -> reservations.remove(roomId));
+    }
+
+    private String newRoomId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            char[] id = new char[6];
+            for (int i = 0; i < id.length; i++)
+                id[i] = ROOM_ALPHABET.charAt(random.nextInt(ROOM_ALPHABET.length()));
+            String roomId = "MM-" + new String(id);
+            if (!reservations.containsKey(roomId) && roomManager.getRoom(roomId) == null)
+                return roomId;
+        }
+    }
+
+    private void recordWait(long millis) {
+        waitMillis[(int) (samples++ % SAMPLES)] = millis;
+    }
+
+    /** Players a reserved room waits for, or {@code null} for a room matchmaking did not create. */
+    public Integer expectedPlayers(String roomId) {
+        return reservations.get(roomId);
+    }
+
+    /** Seconds a reserved room waits for its players before starting anyway. */
+    public int joinSeconds() {
+        return joinSeconds;
+    }
+
+    /** Called when a reserved room starts or empties. */
+    public void release(String roomId) {
+        reservations.remove(roomId);
+    }
+
+    public synchronized Map<String, Object> metrics() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        Map<String, Integer> waiting = new LinkedHashMap<>();
+        for (Map.Entry<String, Queue<Ticket>> e : queues.entrySet()) {
+            ArrayDeque<Ticket> held = holding.get(e.getKey());
+            waiting.put(e.getKey(), e.getValue().size() + (held == null ? 0 : held.size()));
+        }
+        out.put("waiting", waiting);
+        out.put("enqueued", enqueued.get());
+        out.put("matched", matched.get());
+        out.put("botRooms", botRooms.get());
+        out.put("cancelled", cancelled.get());
+        out.put("reservedRooms", reservations.size());
+        long[] sorted = Arrays.copyOf(waitMillis, (int) Math.min(samples, SAMPLES));
+        Arrays.sort(sorted);
+        Map<String, Long> queueMs = new LinkedHashMap<>();
+        for (int p : new int[] { 50, 90, 99 })
+            queueMs.put("p" + p, sorted.length == 0 ? 0 : sorted[Math.min(sorted.length - 1, sorted.length * p / 100)]);
+        queueMs.put("max", sorted.length == 0 ? 0 : sorted[sorted.length - 1]);
+        out.put("queueMs", queueMs);
+        return out;
+    }
+}
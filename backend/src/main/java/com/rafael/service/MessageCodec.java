@@ -0,0 +1,198 @@
+package com.rafael.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SegmentedStringWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.rafael.model.ClientMessage;
+import com.rafael.model.ClientMessage.Type;
+import com.rafael.model.GameMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Wire format of the game rooms. Incoming frames are read token by token
+ * straight into a {@link ClientMessage}, by a reader of their type, with no
+ * intermediate map or tree, and anything malformed or of an unknown type comes
+ * back as {@code null} for the endpoint to ignore. Outgoing frames write their
+ * envelope by hand and the payload through an {@link ObjectWriter} kept per
+ * payload class, so each frame skips the mapper's per-call lookups.
+ */
+@ApplicationScoped
+public class MessageCodec {
+
+    @Inject
+    ObjectMapper mapper;
+
+    private JsonFactory factory;
+    private ClassValue<ObjectWriter> payloadWriters;
+
+    @PostConstruct
+    void init() {
+        factory = mapper.getFactory();
+        payloadWriters = new ClassValue<>() {
+            @Override
+            protected ObjectWriter computeValue(Class<?> type) {
+                return mapper.writerFor(type);
+            }
+        };
+    }
+
+    /** The message in {@code text}, or {@code null} when it is not one a player may send. */
+    public ClientMessage read(String text) {
+        try (JsonParser parser = factory.createParser(text)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+                return null;
+            Type type = null;
+            // A payload that arrives before its type is kept until the type is known
+            TokenBuffer early = null;
+            ClientMessage msg = null;
+            boolean hasPayload = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("type".equals(field)) {
+                    type = value == JsonToken.VALUE_STRING ? Type.of(parser.getText()) : null;
+                    if (type == null)
+                        return null;
+                    if (early != null) {
+                        try (JsonParser buffered = early.asParser()) {
+                            buffered.nextToken();
+                            msg = payload(type, buffered);
+                        }
+                    }
+                } else if ("payload".equals(field)) {
+                    hasPayload = true;
+                    if (type == null) {
+                        early = new TokenBuffer(parser);
+                        early.copyCurrentStructure(parser);
+                    } else {
+                        msg = payload(type, parser);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (type == null)
+                return null;
+            return hasPayload ? msg : payload(type, null);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the payload of a {@code type} message, the parser standing on its
+     * first token ({@code null} when the frame has none), and consumes all of it.
+     */
+    private static ClientMessage payload(Type type, JsonParser p) throws IOException {
+        JsonToken token = p == null ? JsonToken.VALUE_NULL : p.currentToken();
+        ClientMessage msg = switch (type) {
+            case START_GAME -> {
+                if (token.isNumeric())
+                    yield new ClientMessage.StartGame(p.getIntValue());
+                if (token != JsonToken.START_OBJECT)
+                    yield ClientMessage.StartGame.UNLIMITED;
+                // {"limit": n, "category": "...", "weighted": true}, or GeoHunter's
+                // {"rounds": n, "roundSeconds": s}; every field optional
+                Integer limit = null;
+                String category = null;
+                Boolean weighted = null;
+                Integer roundSeconds = null;
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = p.currentName();
+                    JsonToken value = p.nextToken();
+                    if (("limit".equals(field) || "rounds".equals(field)) && value.isNumeric())
+                        limit = p.getIntValue();
+                    else if ("category".equals(field) && value == JsonToken.VALUE_STRING)
+                        category = p.getText();
+                    else if ("weighted".equals(field) && value.isBoolean())
+                        weighted = value == JsonToken.VALUE_TRUE;
+                    else if ("roundSeconds".equals(field) && value.isNumeric())
+                        roundSeconds = p.getIntValue();
+                    else
+                        p.skipChildren();
+                }
+                yield new ClientMessage.StartGame(limit, category, weighted, roundSeconds);
+            }
+            case SPIN_START -> ClientMessage.SpinStart.INSTANCE;
+            case SPIN_END -> ClientMessage.SpinEnd.INSTANCE;
+            case GUESS -> {
+                if (token != JsonToken.VALUE_STRING || p.getTextLength() == 0)
+                    yield null;
+                yield new ClientMessage.Guess(p.getTextCharacters()[p.getTextOffset()]);
+            }
+            case SOLVE -> token == JsonToken.VALUE_STRING ? new ClientMessage.Solve(p.getText()) : null;
+            case SUBMIT_ANSWER -> {
+                if (token.isNumeric())
+                    yield new ClientMessage.SubmitAnswer(p.getIntValue());
+                if (token != JsonToken.START_OBJECT)
+                    yield null;
+                // Older clients send {"answerIndex": n}
+                Integer index = null;
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = p.currentName();
+                    JsonToken value = p.nextToken();
+                    if ("answerIndex".equals(field) && value.isNumeric())
+                        index = p.getIntValue();
+                    else
+                        p.skipChildren();
+                }
+                yield index == null ? null : new ClientMessage.SubmitAnswer(index);
+            }
+            case SUBMIT_SCORE -> ClientMessage.SubmitScore.INSTANCE;
+            case NEXT_QUESTION -> ClientMessage.NextQuestion.INSTANCE;
+            case SUBMIT_PIN -> {
+                if (token != JsonToken.START_OBJECT)
+                    yield null;
+                double latitude = Double.NaN;
+                double longitude = Double.NaN;
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = p.currentName();
+                    JsonToken value = p.nextToken();
+                    if ("latitude".equals(field) && value.isNumeric())
+                        latitude = p.getDoubleValue();
+                    else if ("longitude".equals(field) && value.isNumeric())
+                        longitude = p.getDoubleValue();
+                    else
+                        p.skipChildren();
+                }
+                yield Double.isNaN(latitude) || Double.isNaN(longitude) ? null
+                        : new ClientMessage.SubmitPin(latitude, longitude);
+            }
+        };
+        // Whatever was not read (an ignored payload) is skipped whole
+        if (p != null && p.currentToken() != null && p.currentToken().isStructStart())
+            p.skipChildren();
+        return msg;
+    }
+
+    /** The JSON of an outgoing frame, as the mapper would write the {@link GameMessage}. */
+    public String write(GameMessage msg) {
+        SegmentedStringWriter out = new SegmentedStringWriter(factory._getBufferRecycler());
+        try (JsonGenerator gen = factory.createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeStringField("type", msg.type);
+            gen.writeFieldName("payload");
+            if (msg.payload == null)
+                gen.writeNull();
+            else
+                payloadWriters.get(msg.payload.getClass()).writeValue(gen, msg.payload);
+            if (msg.seq != null)
+                gen.writeNumberField("seq", msg.seq);
+            gen.writeEndObject();
+            gen.flush();
+            return out.getAndClear();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.rafael.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Server-side Millionaire games. The whole ladder (one question per level) is
+ * drawn when the game starts and kept with the lifelines used so far, so each
+ * level costs a single request and the result is recorded here instead of by
+ * the client.
+ *
+ * <p>
+ * Sessions live in a bounded, least-recently-used map: at most
+ * {@code game.millionaire.max-sessions}, and idle ones expire after
+ * {@code game.millionaire.session-ttl}.
+ */
+@ApplicationScoped
+public class MillionaireSessionService {
+
+    private static final Logger LOG = Logger.getLogger(MillionaireSessionService.class);
+
+    public static final String GAME = "Millionaire";
+    /** Score recorded for a full ladder, the same the client used to send. */
+    public static final int WIN_SCORE = 10000;
+
+    public enum Status {
+        PLAYING, WON, LOST
+    }
+
+    public enum Lifeline {
+        FIFTY_FIFTY, AUDIENCE, SKIP
+    }
+
+    @Inject
+    DataLoaderService dataLoader;
+
+    @Inject
+    SeenQuestionTracker seenTracker;
+
+    @Inject
+    GameHistoryService historyService;
+
+    @ConfigProperty(name = "game.millionaire.max-sessions", defaultValue = "10000")
+    int maxSessions;
+
+    @ConfigProperty(name = "game.millionaire.session-ttl", defaultValue = "30m")
+    Duration sessionTtl;
+
+    private final LinkedHashMap<String, Session> sessions = new LinkedHashMap<>(64, 0.75f, true);
+
+    /** One player's game. Mutated only while holding its monitor. */
+    public static final class Session {
+        public final String id;
+        public final String playerName;
+        public final String theme;
+        /** Store the ladder was drawn from; kept so a theme reload does not shift it. */
+        final QuestionStore store;
+        /** Question handle per step, in ladder order. */
+        final int[] ladder;
+        /** Level ordinal of each step. */
+        final int[] levels;
+        int step;
+        Status status = Status.PLAYING;
+        final boolean[] used = new boolean[Lifeline.values().length];
+        volatile long lastAccess = System.currentTimeMillis();
+
+        private Session(String id, String playerName, String theme, QuestionStore store, int[] ladder,
+                int[] levels) {
+            this.id = id;
+            this.playerName = playerName;
+            this.theme = theme;
+            this.store = store;
+            this.ladder = ladder;
+            this.levels = levels;
+        }
+
+        public QuestionStore store() {
+            return store;
+        }
+
+        public int steps() {
+            return ladder.length;
+        }
+
+        public synchronized int step() {
+            return step;
+        }
+
+        public synchronized Status status() {
+            return status;
+        }
+
+        /** Handle of the current question. */
+        public synchronized int question() {
+            return ladder[Math.min(step, ladder.length - 1)];
+        }
+
+        public int levelOrdinal(int step) {
+            return levels[step];
+        }
+
+        /** Position of the question of {@code step} within its level. */
+        public synchronized int questionIndex(int step) {
+            return ladder[step] - store.questionAt(levels[step], 0);
+        }
+
+        public synchronized boolean isUsed(Lifeline lifeline) {
+            return used[lifeline.ordinal()];
+        }
+    }
+
+    /** Outcome of answering the current question. */
+    public record AnswerResult(boolean correct, int correctAnswerIndex, Status status) {
+    }
+
+    /**
+     * Starts a game, or returns {@code null} when the theme has no Millionaire
+     * questions. Players with a valid name get questions they have not seen yet.
+     */
+    public Session start(String playerName, String theme) {
+        QuestionStore store = dataLoader.getMillionaireStore(theme);
+        List<Integer> handles = new ArrayList<>();
+        List<Integer> levels = new ArrayList<>();
+        String tracked = dataLoader.hasTheme(theme) ? theme : dataLoader.getDefaultTheme();
+        SeenQuestionTracker.Seen seen = seenTracker.forPlayer(playerName, "millionaire", tracked, store);
+        RandomGenerator rng = ThreadLocalRandom.current();
+        for (int l = 0; l < store.levelCount(); l++) {
+            if (store.levelSize(l) == 0)
+                continue;
+            int index = seen != null ? seen.pick(store, l, rng, -1) : rng.nextInt(store.levelSize(l));
+            handles.add(store.questionAt(l, index));
+            levels.add(l);
+        }
+        if (handles.isEmpty())
+            return null;
+
+        Session session = new Session(UUID.randomUUID().toString(), playerName, theme, store,
+                handles.stream().mapToInt(Integer::intValue).toArray(),
+                levels.stream().mapToInt(Integer::intValue).toArray());
+        synchronized (sessions) {
+            expire();
+            sessions.put(session.id, session);
+            if (sessions.size() > maxSessions) {
+                Iterator<Session> eldest = sessions.values().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        LOG.debugf("Millionaire session %s started for %s (%s, %d levels)", session.id, playerName, theme,
+                handles.size());
+        return session;
+    }
+
+    /** The session, or {@code null} when unknown or expired. */
+    public Session get(String id) {
+        synchronized (sessions) {
+            Session session = sessions.get(id);
+            if (session == null)
+                return null;
+            if (isExpired(session, System.currentTimeMillis())) {
+                sessions.remove(id);
+                return null;
+            }
+            session.lastAccess = System.currentTimeMillis();
+            return session;
+        }
+    }
+
+    public int activeSessions() {
+        synchronized (sessions) {
+            return sessions.size();
+        }
+    }
+
+    /**
+     * Checks the answer to the current question and moves to the next level. A
+     * wrong answer or the last level ends the game and records it. Returns
+     * {@code null} when the game is already over.
+     */
+    public AnswerResult answer(Session session, int answerIndex) {
+        Status status;
+        int correctIndex;
+        boolean correct;
+        synchronized (session) {
+            if (session.status != Status.PLAYING)
+                return null;
+            int q = session.ladder[session.step];
+            correctIndex = session.store.answer(q);
+            correct = correctIndex >= 0 && correctIndex == answerIndex;
+            if (!correct) {
+                session.status = Status.LOST;
+            } else if (session.step == session.ladder.length - 1) {
+                session.status = Status.WON;
+            } else {
+                session.step++;
+            }
+            status = session.status;
+        }
+        if (status != Status.PLAYING)
+            finish(session, status);
+        return new AnswerResult(correct, correctIndex, status);
+    }
+
+    /**
+     * Uses a lifeline on the current question. Returns the options to hide
+     * (50:50), the audience percentages, or the new question handle (skip);
+     * {@code null} when the lifeline was already used, the game is over or the
+     * question does not support it.
+     */
+    public Object useLifeline(Session session, Lifeline lifeline) {
+        RandomGenerator rng = ThreadLocalRandom.current();
+        synchronized (session) {
+            if (session.status != Status.PLAYING || session.used[lifeline.ordinal()])
+                return null;
+            QuestionStore store = session.store;
+            int q = session.ladder[session.step];
+            Object result;
+            switch (lifeline) {
+                case FIFTY_FIFTY:
+                    result = hiddenOptions(store, q, rng);
+                    break;
+                case AUDIENCE:
+                    result = audienceVotes(store, q, rng);
+                    break;
+                case SKIP: {
+                    int ordinal = session.levels[session.step];
+                    int count = store.levelSize(ordinal);
+                    if (count <= 1) {
+                        result = null;
+                        break;
+                    }
+                    int current = q - store.questionAt(ordinal, 0);
+                    String tracked = dataLoader.hasTheme(session.theme) ? session.theme : dataLoader.getDefaultTheme();
+                    SeenQuestionTracker.Seen seen = seenTracker.forPlayer(session.playerName, "millionaire", tracked,
+                            store);
+                    int index;
+                    if (seen != null) {
+                        index = seen.pick(store, ordinal, rng, current);
+                    } else {
+                        index = rng.nextInt(count - 1);
+                        if (index >= current)
+                            index++;
+                    }
+                    session.ladder[session.step] = store.questionAt(ordinal, index);
+                    result = session.ladder[session.step];
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException(lifeline.name());
+            }
+            if (result != null)
+                session.used[lifeline.ordinal()] = true;
+            return result;
+        }
+    }
+
+    private void finish(Session session, Status status) {
+        boolean won = status == Status.WON;
+        historyService.record(session.playerName, GAME, won ? WIN_SCORE : 0, won);
+    }
+
+    private boolean isExpired(Session session, long now) {
+        return now - session.lastAccess > sessionTtl.toMillis();
+    }
+
+    /** Drops idle sessions from the least recently used end. Caller holds the lock. */
+    private void expire() {
+        long now = System.currentTimeMillis();
+        Iterator<Session> it = sessions.values().iterator();
+        while (it.hasNext()) {
+            if (!isExpired(it.next(), now))
+                return;
+            it.remove();
+        }
+    }
+
+    // ── Lifelines ───────────────────────────────────────────────────────────
+
+    /** Two wrong options to hide, or {@code null} when the question has fewer than three options. */
+    public static List<Integer> hiddenOptions(QuestionStore store, int q, RandomGenerator rng) {
+        int answer = store.answer(q);
+        if (answer < 0 || store.optionCount(q) < 3)
+            return null;
+        List<Integer> wrongAnswers = new ArrayList<>();
+        for (int i = 0; i < store.optionCount(q); i++) {
+            if (i != answer)
+                wrongAnswers.add(i);
+        }
+        List<Integer> toHide = new ArrayList<>();
+        for (int i = 0; i < 2; i++)
+            toHide.add(wrongAnswers.remove(rng.nextInt(wrongAnswers.size())));
+        return toHide;
+    }
+
+    /**
+     * Audience percentages for the four options, favouring the right one, or
+     * {@code null} when the question does not have exactly four options.
+     */
+    public static List<Integer> audienceVotes(QuestionStore store, int q, RandomGenerator rng) {
+        int answer = store.answer(q);
+        if (answer < 0 || store.optionCount(q) != 4)
+            return null;
+        List<Integer> data = new ArrayList<>(List.of(0, 0, 0, 0));
+        int remaining = 100;
+        int correctWeight = 50 + rng.nextInt(30);
+        data.set(answer, correctWeight);
+        remaining -= correctWeight;
+
+        List<Integer> wrongIndices = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            if (i != answer)
+                wrongIndices.add(i);
+        }
+        for (int i = 0; i < wrongIndices.size(); i++) {
+            if (i == wrongIndices.size() - 1) {
+                data.set(wrongIndices.get(i), remaining);
+            } else {
+                int val = remaining > 0 ? rng.nextInt(remaining) : 0;
+                data.set(wrongIndices.get(i), val);
+                remaining -= val;
+            }
+        }
+        return data;
+    }
+
+    /** Snapshot of the lifelines still available, for responses. */
+    public static Map<String, Boolean> lifelines(Session session) {
+        Map<String, Boolean> out = new LinkedHashMap<>();
+        out.put("fiftyFifty", !session.isUsed(Lifeline.FIFTY_FIFTY));
+        out.put("audience", !session.isUsed(Lifeline.AUDIENCE));
+        out.put("skip", !session.isUsed(Lifeline.SKIP));
+        return out;
+    }
+}
@@ -0,0 +1,114 @@
+package com.rafael.service;
+
+import com.rafael.model.BlocklistAutomaton;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps blocked terms out of player names and solve attempts, which every
+ * other player in the room sees. The bundled {@code moderation/blocklist.txt},
+ * the optional {@code game.moderation.blocklist-file} and the terms in
+ * {@code game.moderation.terms} are compiled once at startup into a
+ * {@link BlocklistAutomaton}; checking a text is then one pass over it.
+ */
+@ApplicationScoped
+public class ModerationFilter {
+
+    private static final Logger LOG = Logger.getLogger(ModerationFilter.class);
+    private static final String BUNDLED = "moderation/blocklist.txt";
+
+    @ConfigProperty(name = "game.moderation.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "game.moderation.blocklist-file")
+    Optional<String> blocklistFile;
+
+    @ConfigProperty(name = "game.moderation.terms")
+    Optional<List<String>> extraTerms;
+
+    private volatile BlocklistAutomaton automaton = new BlocklistAutomaton(List.of());
+
+    private final AtomicLong checked = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    void onStart(@Observes StartupEvent ev) {
+        if (!enabled) {
+            LOG.info("Moderation filter disabled");
+            return;
+        }
+        List<String> terms = new ArrayList<>();
+        try (InputStream is = Thread.currentThread().getContextClassLoader().getResourceAsStream(BUNDLED)) {
+            if (is != null)
+                readTerms(new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8)), terms);
+        } catch (IOException e) {
+            LOG.error("Failed to read the bundled blocklist", e);
+        }
+        if (blocklistFile.isPresent()) {
+            try (BufferedReader reader = Files.newBufferedReader(Path.of(blocklistFile.get()), StandardCharsets.UTF_8)) {
+                readTerms(reader, terms);
+            } catch (IOException e) {
+                LOG.errorf(e, "Failed to read blocklist %s", blocklistFile.get());
+            }
+        }
+        extraTerms.ifPresent(terms::addAll);
+        compile(terms);
+    }
+
+    /** Replaces the blocklist; the running scans finish on the old one. */
+    void compile(List<String> terms) {
+        long start = System.nanoTime();
+        BlocklistAutomaton compiled = new BlocklistAutomaton(terms);
+        automaton = compiled;
+        LOG.infof("Moderation filter: %d terms, %d states, compiled in %d ms", compiled.terms(), compiled.states(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void readTerms(BufferedReader reader, List<String> into) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.strip();
+            if (!line.isEmpty() && !line.startsWith("#"))
+                into.add(line);
+        }
+    }
+
+    /** Whether {@code text} is free of blocked terms. */
+    public boolean allows(CharSequence text) {
+        if (!enabled || text == null)
+            return true;
+        checked.incrementAndGet();
+        if (automaton.matches(text)) {
+            rejected.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public Map<String, Object> metrics() {
+        BlocklistAutomaton current = automaton;
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("enabled", enabled);
+        out.put("terms", current.terms());
+        out.put("states", current.states());
+        out.put("checked", checked.get());
+        out.put("rejected", rejected.get());
+        return out;
+    }
+}
@@ -0,0 +1,209 @@
+package com.rafael.service;
+
+import com.rafael.model.WheelPhrase;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Picks Roletrando phrases. Each theme (and each category of a theme) has a
+ * shuffle bag, so every phrase is played once before any of them repeats.
+ * Weighted draws use an alias table. Both kinds of draw are O(1); the random
+ * source is {@link ThreadLocalRandom} unless the caller passes its own (rooms
+ * pass theirs). The bags are kept on the theme's cache entry, so they last as
+ * long as the phrase list they shuffle and are dropped with it.
+ */
+@ApplicationScoped
+public class PhraseSelector {
+
+    private static final Logger LOG = Logger.getLogger(PhraseSelector.class);
+
+    @Inject
+    DataLoaderService dataLoader;
+
+    /** Next phrase of the theme's shuffle bag, or {@code null} when it has no phrases. */
+    public WheelPhrase next(String theme) {
+        return next(theme, null, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Next phrase of the bag for {@code category} (all categories when
+     * {@code null} or unknown), or {@code null} when the theme has no phrases.
+     */
+    public WheelPhrase next(String theme, String category, RandomGenerator rng) {
+        ThemePhrases t = phrases(theme);
+        if (t == null)
+            return null;
+        return t.phrases.get(t.pool(category).bag.draw(rng));
+    }
+
+    /**
+     * Phrase drawn with probability proportional to its {@code weight}. Draws are
+     * independent, so unlike {@link #next} the same phrase may come up twice in a row.
+     */
+    public WheelPhrase nextWeighted(String theme, String category, RandomGenerator rng) {
+        ThemePhrases t = phrases(theme);
+        if (t == null)
+            return null;
+        return t.phrases.get(t.pool(category).sample(rng));
+    }
+
+    /** Categories of a theme, in order of first appearance. */
+    public List<String> categories(String theme) {
+        ThemePhrases t = phrases(theme);
+        return t == null ? List.of() : t.categories;
+    }
+
+    private ThemePhrases phrases(String theme) {
+        ThemePhrases t = dataLoader.derived(theme, ThemePhrases.class,
+                name -> new ThemePhrases(dataLoader.getWheelPhrases(name)));
+        return t.phrases.isEmpty() ? null : t;
+    }
+
+    private static final class ThemePhrases {
+        final List<WheelPhrase> phrases;
+        final Pool all;
+        final Map<String, Pool> byCategory;
+        final List<String> categories;
+
+        ThemePhrases(List<WheelPhrase> phrases) {
+            this.phrases = phrases;
+            Map<String, List<Integer>> members = new LinkedHashMap<>();
+            int[] everything = new int[phrases.size()];
+            for (int i = 0; i < everything.length; i++) {
+                everything[i] = i;
+                String category = phrases.get(i).category;
+                if (category != null)
+                    members.computeIfAbsent(category, c -> new ArrayList<>()).add(i);
+            }
+            this.all = new Pool(everything, phrases);
+            this.byCategory = new LinkedHashMap<>();
+            for (Map.Entry<String, List<Integer>> e : members.entrySet()) {
+                int[] indices = e.getValue().stream().mapToInt(Integer::intValue).toArray();
+                byCategory.put(e.getKey(), new Pool(indices, phrases));
+            }
+            this.categories = Collections.unmodifiableList(new ArrayList<>(members.keySet()));
+        }
+
+        Pool pool(String category) {
+            if (category == null)
+                return all;
+            Pool pool = byCategory.get(category);
+            if (pool == null) {
+                LOG.debugf("Unknown phrase category %s; drawing from all categories.", category);
+                return all;
+            }
+            return pool;
+        }
+    }
+
+    /** Phrase indices of one bag, with their alias table when weights differ. */
+    private static final class Pool {
+        final int[] members;
+        final ShuffleBag bag;
+        final AliasTable alias;
+
+        Pool(int[] members, List<WheelPhrase> phrases) {
+            this.members = members;
+            this.bag = new ShuffleBag(members);
+            double[] weights = new double[members.length];
+            boolean uniform = true;
+            for (int i = 0; i < members.length; i++) {
+                int w = phrases.get(members[i]).weight;
+                weights[i] = w > 0 ? w : 1;
+                uniform &= weights[i] == weights[0];
+            }
+            this.alias = uniform ? null : AliasTable.of(weights);
+        }
+
+        int sample(RandomGenerator rng) {
+            int i = alias == null ? rng.nextInt(members.length) : alias.sample(rng);
+            return members[i];
+        }
+    }
+
+    /**
+     * Draws without replacement: a partial Fisher-Yates shuffle that refills when
+     * empty. The first draw of a new round never repeats the last one of the
+     * previous round.
+     */
+    static final class ShuffleBag {
+        private final int[] items;
+        private int remaining;
+        private int last = -1;
+
+        ShuffleBag(int[] items) {
+            this.items = items.clone();
+        }
+
+        synchronized int draw(RandomGenerator rng) {
+            if (items.length == 1)
+                return items[0];
+            if (remaining == 0)
+                remaining = items.length;
+            int j = rng.nextInt(remaining);
+            if (remaining == items.length && items[j] == last)
+                j = (j + 1) % remaining;
+            int pick = items[j];
+            items[j] = items[--remaining];
+            items[remaining] = pick;
+            last = pick;
+            return pick;
+        }
+    }
+
+    /** Vose's alias method: O(n) to build, O(1) per sample. */
+    static final class AliasTable {
+        private final double[] prob;
+        private final int[] alias;
+
+        private AliasTable(double[] prob, int[] alias) {
+            this.prob = prob;
+            this.alias = alias;
+        }
+
+        static AliasTable of(double[] weights) {
+            int n = weights.length;
+            double total = 0;
+            for (double w : weights)
+                total += w;
+            double[] scaled = new double[n];
+            ArrayDeque<Integer> small = new ArrayDeque<>();
+            ArrayDeque<Integer> large = new ArrayDeque<>();
+            for (int i = 0; i < n; i++) {
+                scaled[i] = weights[i] * n / total;
+                (scaled[i] < 1 ? small : large).add(i);
+            }
+            double[] prob = new double[n];
+            int[] alias = new int[n];
+            while (!small.isEmpty() && !large.isEmpty()) {
+                int s = small.poll();
+                int l = large.poll();
+                prob[s] = scaled[s];
+                alias[s] = l;
+                scaled[l] = scaled[l] + scaled[s] - 1;
+                (scaled[l] < 1 ? small : large).add(l);
+            }
+            // Leftovers are 1 up to rounding error
+            while (!large.isEmpty())
+                prob[large.poll()] = 1;
+            while (!small.isEmpty())
+                prob[small.poll()] = 1;
+            return new AliasTable(prob, alias);
+        }
+
+        int sample(RandomGenerator rng) {
+            int i = rng.nextInt(prob.length);
+            return rng.nextDouble() < prob[i] ? i : alias[i];
+        }
+    }
+}
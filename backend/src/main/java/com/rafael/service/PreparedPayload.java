@@ -0,0 +1,84 @@
+package com.rafael.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A JSON response body serialized once, kept both plain and gzipped, and
+ * identified by a hash of its content. Used for data that never changes
+ * between reloads, so requests only copy bytes instead of running Jackson.
+ */
+public final class PreparedPayload {
+
+    /** Hex characters of the SHA-256 kept as the content hash (80 bits). */
+    private static final int HASH_LENGTH = 20;
+
+    public final byte[] json;
+    /** Gzipped body, or {@code null} when compression would not make it smaller. */
+    public final byte[] gzip;
+    public final String hash;
+
+    private final String etag;
+    private final String gzipEtag;
+
+    private PreparedPayload(byte[] json, byte[] gzip, String hash) {
+        this.json = json;
+        this.gzip = gzip;
+        this.hash = hash;
+        this.etag = "\"" + hash + "\"";
+        this.gzipEtag = "\"" + hash + "-gz\"";
+    }
+
+    public static PreparedPayload of(ObjectMapper mapper, Object value) {
+        try {
+            byte[] json = mapper.writeValueAsBytes(value);
+            byte[] gzip = gzip(json);
+            return new PreparedPayload(json, gzip.length < json.length ? gzip : null, sha256(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to pre-serialize payload", e);
+        }
+    }
+
+    /** Strong ETag for the chosen representation; the two encodings never share one. */
+    public String etag(boolean gzipped) {
+        return gzipped ? gzipEtag : etag;
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header names this content, in either encoding.
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty())
+            return false;
+        if (ifNoneMatch.trim().equals("*"))
+            return true;
+        return ifNoneMatch.contains(etag) || ifNoneMatch.contains(gzipEtag);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(digest).substring(0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
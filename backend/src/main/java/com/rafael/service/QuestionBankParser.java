@@ -0,0 +1,124 @@
+package com.rafael.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming loader for {@code millionaire.json} and {@code quiz.json}. Reads the
+ * document token by token and hands each question straight to a
+ * {@link QuestionStore.Builder}, so no tree, binding buffers or intermediate
+ * level objects are kept: the store's string pool is the only copy of the bank.
+ * Fields may come in any order; unknown fields are skipped.
+ */
+public final class QuestionBankParser {
+
+    private final JsonFactory factory;
+    private final List<String> optionScratch = new ArrayList<>(8);
+
+    public QuestionBankParser(JsonFactory factory) {
+        this.factory = factory;
+    }
+
+    /** Parses a Millionaire bank, or returns {@code null} when the stream is empty. */
+    public QuestionStore parseMillionaire(InputStream is) throws IOException {
+        return parse(is, "prize");
+    }
+
+    /** Parses a Quiz bank, or returns {@code null} when the stream is empty. */
+    public QuestionStore parseQuiz(InputStream is) throws IOException {
+        return parse(is, "label");
+    }
+
+    private QuestionStore parse(InputStream is, String titleField) throws IOException {
+        try (JsonParser p = factory.createParser(is)) {
+            JsonToken root = p.nextToken();
+            if (root == null)
+                return null;
+            expect(p, root, JsonToken.START_OBJECT);
+            QuestionStore.Builder builder = new QuestionStore.Builder();
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                if (field.equals("levels") && value == JsonToken.START_ARRAY) {
+                    while (p.nextToken() != JsonToken.END_ARRAY)
+                        parseLevel(p, titleField, builder);
+                } else {
+                    p.skipChildren();
+                }
+            }
+            return builder.build();
+        }
+    }
+
+    private void parseLevel(JsonParser p, String titleField, QuestionStore.Builder builder) throws IOException {
+        expect(p, p.currentToken(), JsonToken.START_OBJECT);
+        int number = 0;
+        String title = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if (field.equals("level")) {
+                number = p.getValueAsInt();
+            } else if (field.equals(titleField)) {
+                title = value == JsonToken.VALUE_NULL ? null : p.getValueAsString();
+            } else if (field.equals("questions") && value == JsonToken.START_ARRAY) {
+                while (p.nextToken() != JsonToken.END_ARRAY)
+                    parseQuestion(p, builder);
+            } else {
+                p.skipChildren();
+            }
+        }
+        builder.endLevel(number, title);
+    }
+
+    private void parseQuestion(JsonParser p, QuestionStore.Builder builder) throws IOException {
+        expect(p, p.currentToken(), JsonToken.START_OBJECT);
+        int id = 0;
+        int answer = 0;
+        String text = null;
+        boolean hasOptions = false;
+        optionScratch.clear();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "id":
+                    id = p.getValueAsInt();
+                    break;
+                case "question":
+                    text = value == JsonToken.VALUE_NULL ? null : p.getText();
+                    break;
+                case "answer":
+                    answer = p.getValueAsInt();
+                    break;
+                case "options":
+                    if (value == JsonToken.START_ARRAY) {
+                        hasOptions = true;
+                        optionScratch.clear();
+                        while (p.nextToken() != JsonToken.END_ARRAY) {
+                            String option = p.currentToken() == JsonToken.VALUE_NULL ? null : p.getValueAsString();
+                            optionScratch.add(option != null ? option : "");
+                        }
+                    } else {
+                        p.skipChildren();
+                    }
+                    break;
+                default:
+                    p.skipChildren();
+            }
+        }
+        builder.question(id, text, hasOptions ? optionScratch : null, answer);
+    }
+
+    private static void expect(JsonParser p, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected)
+            throw new JsonParseException(p, "Expected " + expected + " but found " + actual);
+    }
+}
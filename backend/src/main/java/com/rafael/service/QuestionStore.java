@@ -0,0 +1,366 @@
+package com.rafael.service;
+
+import com.rafael.model.MillionaireLevel;
+import com.rafael.model.MillionaireQuestion;
+import com.rafael.model.QuizLevel;
+import com.rafael.model.QuizQuestion;
+import org.jboss.logging.Logger;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Compact, read-only question ladder (Millionaire or Quiz) of one theme.
+ *
+ * <p>
+ * Every string (question text, option, level title) is stored once in a pool and
+ * referenced by index. Questions are laid out as parallel arrays, addressed by a
+ * question handle ({@code 0..size()-1}); options are a flat index array sliced by
+ * {@code optionStart}. Level numbers and stable question ids address array slots
+ * directly, so lookups are plain array reads. Response objects are created by the
+ * caller on demand from {@link #text}, {@link #options} and friends.
+ *
+ * <p>
+ * Loaders feed a {@link Builder} as they read, so the bank is never held twice.
+ */
+public final class QuestionStore {
+
+    private static final Logger LOG = Logger.getLogger(QuestionStore.class);
+
+    /** Ids above this are reassigned so the id table stays proportional to the bank. */
+    private static final int MAX_DIRECT_ID = 1 << 20;
+
+    /** Highest level number accepted; the level table is indexed by number. */
+    static final int MAX_LEVEL = 1 << 10;
+
+    private static final int[] NO_INTS = new int[0];
+
+    private static final QuestionStore EMPTY = new QuestionStore(new String[0], NO_INTS, NO_INTS, new int[1],
+            NO_INTS, NO_INTS, NO_INTS, new int[1], NO_INTS, new byte[0], new int[1]);
+
+    private final String[] pool;
+
+    // Levels, in their original order
+    private final int[] levelNumbers;
+    private final int[] levelTitles;
+    /** First question handle of each level; one extra slot closes the last level. */
+    private final int[] levelStart;
+    /** Level ordinal by level number, or -1. */
+    private final int[] levelByNumber;
+
+    // Questions, by handle
+    private final int[] ids;
+    private final int[] texts;
+    private final int[] optionStart;
+    private final int[] options;
+    /** Index of the correct option, or -1 when the source pointed outside the options. */
+    private final byte[] answers;
+    /** Question handle by id, or -1. */
+    private final int[] handleById;
+
+    private QuestionStore(String[] pool, int[] levelNumbers, int[] levelTitles, int[] levelStart,
+            int[] levelByNumber, int[] ids, int[] texts, int[] optionStart, int[] options, byte[] answers,
+            int[] handleById) {
+        this.pool = pool;
+        this.levelNumbers = levelNumbers;
+        this.levelTitles = levelTitles;
+        this.levelStart = levelStart;
+        this.levelByNumber = levelByNumber;
+        this.ids = ids;
+        this.texts = texts;
+        this.optionStart = optionStart;
+        this.options = options;
+        this.answers = answers;
+        this.handleById = handleById;
+    }
+
+    public static QuestionStore empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Packs a Millionaire ladder. Questions without a positive, unique id get one
+     * assigned after the highest declared id, in ladder order; read it back with
+     * {@link #id}. The source objects are left as they are.
+     */
+    public static QuestionStore fromMillionaire(List<MillionaireLevel> levels) {
+        if (levels == null || levels.isEmpty())
+            return EMPTY;
+        Builder b = new Builder();
+        for (MillionaireLevel level : levels) {
+            if (level.questions != null) {
+                for (MillionaireQuestion q : level.questions)
+                    b.question(q.id, q.question, q.options, q.answer);
+            }
+            b.endLevel(level.level, level.prize);
+        }
+        return b.build();
+    }
+
+    /** Packs a Quiz ladder; ids are assigned as in {@link #fromMillionaire}. */
+    public static QuestionStore fromQuiz(List<QuizLevel> levels) {
+        if (levels == null || levels.isEmpty())
+            return EMPTY;
+        Builder b = new Builder();
+        for (QuizLevel level : levels) {
+            if (level.questions != null) {
+                for (QuizQuestion q : level.questions)
+                    b.question(q.id, q.question, q.options, q.answer);
+            }
+            b.endLevel(level.level, level.label);
+        }
+        return b.build();
+    }
+
+    // ── Levels ──────────────────────────────────────────────────────────────
+
+    public boolean isEmpty() {
+        return levelNumbers.length == 0;
+    }
+
+    public int levelCount() {
+        return levelNumbers.length;
+    }
+
+    /** Ordinal (position in the ladder) of a level number, or -1. */
+    public int levelOrdinal(int levelNumber) {
+        return levelNumber >= 0 && levelNumber < levelByNumber.length ? levelByNumber[levelNumber] : -1;
+    }
+
+    public int levelNumber(int ordinal) {
+        return levelNumbers[ordinal];
+    }
+
+    /** Prize (Millionaire) or label (Quiz) of a level. */
+    public String levelTitle(int ordinal) {
+        return string(levelTitles[ordinal]);
+    }
+
+    public int levelSize(int ordinal) {
+        return levelStart[ordinal + 1] - levelStart[ordinal];
+    }
+
+    /** Handle of the {@code index}-th question of the level at {@code ordinal}. */
+    public int questionAt(int ordinal, int index) {
+        return levelStart[ordinal] + index;
+    }
+
+    /** Number of questions in a level, or 0 when the level does not exist. */
+    public int questionCount(int levelNumber) {
+        int ordinal = levelOrdinal(levelNumber);
+        return ordinal < 0 ? 0 : levelSize(ordinal);
+    }
+
+    /** Handle of a question by level number and position, or -1. */
+    public int question(int levelNumber, int index) {
+        int ordinal = levelOrdinal(levelNumber);
+        if (ordinal < 0 || index < 0 || index >= levelSize(ordinal))
+            return -1;
+        return questionAt(ordinal, index);
+    }
+
+    // ── Questions ───────────────────────────────────────────────────────────
+
+    public int size() {
+        return ids.length;
+    }
+
+    /** Handle of the question with this stable id, or -1. */
+    public int byId(int id) {
+        return id > 0 && id < handleById.length ? handleById[id] : -1;
+    }
+
+    /** Exclusive upper bound of assigned ids; every id is in {@code [1, idLimit())}. */
+    public int idLimit() {
+        return handleById.length;
+    }
+
+    public int id(int handle) {
+        return ids[handle];
+    }
+
+    public String text(int handle) {
+        return string(texts[handle]);
+    }
+
+    public int optionCount(int handle) {
+        return optionStart[handle + 1] - optionStart[handle];
+    }
+
+    public String option(int handle, int index) {
+        return string(options[optionStart[handle] + index]);
+    }
+
+    /** A new fixed-size list with the options of a question. */
+    public List<String> options(int handle) {
+        int from = optionStart[handle];
+        String[] out = new String[optionStart[handle + 1] - from];
+        for (int i = 0; i < out.length; i++)
+            out[i] = string(options[from + i]);
+        return Arrays.asList(out);
+    }
+
+    public int answer(int handle) {
+        return answers[handle];
+    }
+
+    /** Number of distinct strings held by this store. */
+    public int poolSize() {
+        return pool.length;
+    }
+
+    private String string(int index) {
+        return index < 0 ? null : pool[index];
+    }
+
+    // ── Building ────────────────────────────────────────────────────────────
+
+    /**
+     * Packs a ladder as it is read: the questions of a level are added first, then
+     * {@link #endLevel} closes them into a level. Every string goes through one
+     * pool, so repeated options and titles are stored once.
+     */
+    public static final class Builder {
+
+        private final HashMap<String, Integer> poolIndex = new HashMap<>();
+        private String[] pool = new String[64];
+        private int poolSize;
+        /** Pool size when the open level started, to drop its strings if it is rejected. */
+        private int levelPoolStart;
+
+        private int[] levelNumbers = new int[16];
+        private int[] levelTitles = new int[16];
+        /** {@code levelStart[levelCount]} is the first question of the open level. */
+        private int[] levelStart = new int[17];
+        private int levelCount;
+        private int maxLevel = -1;
+        private boolean[] usedLevels = new boolean[16];
+
+        private int[] ids = new int[64];
+        private int[] texts = new int[64];
+        private int[] optionStart = new int[65];
+        private int[] options = new int[256];
+        private byte[] answers = new byte[64];
+        private int questionCount;
+        private int optionCount;
+
+        /** Adds a question to the open level. */
+        public void question(int id, String text, List<String> questionOptions, int answer) {
+            if (questionCount == ids.length) {
+                int n = questionCount * 2;
+                ids = Arrays.copyOf(ids, n);
+                texts = Arrays.copyOf(texts, n);
+                optionStart = Arrays.copyOf(optionStart, n + 1);
+                answers = Arrays.copyOf(answers, n);
+            }
+            int count = questionOptions == null ? 0 : questionOptions.size();
+            if (optionCount + count > options.length)
+                options = Arrays.copyOf(options, Math.max(options.length * 2, optionCount + count));
+            optionStart[questionCount] = optionCount;
+            for (int i = 0; i < count; i++)
+                options[optionCount++] = intern(questionOptions.get(i));
+            ids[questionCount] = id;
+            texts[questionCount] = intern(text);
+            answers[questionCount] = (byte) (answer >= 0 && answer < count && answer <= Byte.MAX_VALUE ? answer : -1);
+            questionCount++;
+            optionStart[questionCount] = optionCount;
+        }
+
+        /**
+         * Closes the questions added since the previous level into level
+         * {@code number}. A negative, too large ({@code > MAX_LEVEL}) or repeated
+         * number drops the level with its questions and returns {@code false}.
+         */
+        public boolean endLevel(int number, String title) {
+            if (number < 0 || number > MAX_LEVEL || (number < usedLevels.length && usedLevels[number])) {
+                LOG.warnf("Skipping level %d: negative, above %d or repeated", number, MAX_LEVEL);
+                dropOpenLevel();
+                return false;
+            }
+            if (levelCount + 1 == levelNumbers.length) {
+                levelNumbers = Arrays.copyOf(levelNumbers, levelNumbers.length * 2);
+                levelTitles = Arrays.copyOf(levelTitles, levelTitles.length * 2);
+                levelStart = Arrays.copyOf(levelStart, levelNumbers.length + 1);
+            }
+            if (number >= usedLevels.length)
+                usedLevels = Arrays.copyOf(usedLevels, Math.max(usedLevels.length * 2, number + 1));
+            usedLevels[number] = true;
+            levelNumbers[levelCount] = number;
+            levelTitles[levelCount] = intern(title);
+            levelCount++;
+            levelStart[levelCount] = questionCount;
+            levelPoolStart = poolSize;
+            maxLevel = Math.max(maxLevel, number);
+            return true;
+        }
+
+        /** Number of distinct strings pooled so far. */
+        public int poolSize() {
+            return poolSize;
+        }
+
+        private void dropOpenLevel() {
+            questionCount = levelStart[levelCount];
+            optionCount = optionStart[questionCount];
+            for (int i = levelPoolStart; i < poolSize; i++)
+                poolIndex.remove(pool[i]);
+            Arrays.fill(pool, levelPoolStart, poolSize, null);
+            poolSize = levelPoolStart;
+        }
+
+        /** The packed store; questions added after the last level are dropped. */
+        public QuestionStore build() {
+            dropOpenLevel();
+            if (levelCount == 0)
+                return EMPTY;
+            int[] levelByNumber = new int[maxLevel + 1];
+            Arrays.fill(levelByNumber, -1);
+            for (int i = 0; i < levelCount; i++)
+                levelByNumber[levelNumbers[i]] = i;
+
+            int maxId = 0;
+            for (int h = 0; h < questionCount; h++) {
+                if (ids[h] > 0 && ids[h] <= MAX_DIRECT_ID)
+                    maxId = Math.max(maxId, ids[h]);
+            }
+            int[] handleById = new int[maxId + questionCount + 1];
+            Arrays.fill(handleById, -1);
+            int nextId = maxId + 1;
+            for (int h = 0; h < questionCount; h++) {
+                int id = ids[h];
+                if (id <= 0 || id > MAX_DIRECT_ID || handleById[id] >= 0) {
+                    id = nextId++;
+                    ids[h] = id;
+                }
+                handleById[id] = h;
+            }
+
+            return new QuestionStore(
+                    Arrays.copyOf(pool, poolSize),
+                    Arrays.copyOf(levelNumbers, levelCount),
+                    Arrays.copyOf(levelTitles, levelCount),
+                    Arrays.copyOf(levelStart, levelCount + 1),
+                    levelByNumber,
+                    Arrays.copyOf(ids, questionCount),
+                    Arrays.copyOf(texts, questionCount),
+                    Arrays.copyOf(optionStart, questionCount + 1),
+                    Arrays.copyOf(options, optionCount),
+                    Arrays.copyOf(answers, questionCount),
+                    Arrays.copyOf(handleById, nextId));
+        }
+
+        private int intern(String s) {
+            if (s == null)
+                return -1;
+            Integer existing = poolIndex.get(s);
+            if (existing != null)
+                return existing;
+            if (poolSize == pool.length)
+                pool = Arrays.copyOf(pool, poolSize * 2);
+            pool[poolSize] = s;
+            poolIndex.put(s, poolSize);
+            return poolSize++;
+        }
+    }
+}
@@ -0,0 +1,579 @@
+package com.rafael.service;
+
+import com.rafael.model.GameEngine;
+import com.rafael.model.GameSession;
+import com.rafael.model.Player;
+import com.rafael.model.Room;
+import com.rafael.model.RoomManager;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of the Roletrando rooms, one binary file per room, so the
+ * games in progress survive a restart and finished ones can be watched again.
+ *
+ * <p>
+ * Callers only encode the event (a few dozen bytes) and queue it; a single
+ * writer thread drains the queue every {@code game.journal.flush-ms} and appends
+ * each room's batch with one write. A full queue drops the room from the
+ * journal rather than making the game wait. A finished game's file is renamed
+ * to {@code <room>.done.rj} for {@link #replay}, and only the newest
+ * {@code game.journal.keep-finished} of those are kept; a room that empties out
+ * without finishing is deleted. On startup the remaining {@code <room>.rj}
+ * files are replayed into {@link RoomManager} by {@link #recover}.
+ *
+ * <p>
+ * Layout: {@code int magic}, then per event {@code byte kind}, a varint of
+ * milliseconds since the room was created, and the kind's fields. Players are
+ * referred to by seat (their index in the room). A torn or corrupt last
+ * event, from a crash mid-write, is ignored.
+ */
+@ApplicationScoped
+public class RoomJournal {
+
+    private static final Logger LOG = Logger.getLogger(RoomJournal.class);
+
+    public static final int MAGIC = 0x524A3031; // "RJ01"
+
+    /** What happened in a room; the fields each kind carries are listed with it. */
+    public enum Kind {
+        /** texts: theme, category, phrase */
+        CREATED,
+        /** value: 1 for a bot; texts: player id, name, resume token */
+        JOIN,
+        LEAVE,
+        STARTED,
+        /** value: spin result */
+        SPIN,
+        /** value: player's score after; texts: letter */
+        GUESS,
+        /** value: player's score after; texts: attempt */
+        SOLVE,
+        TURN,
+        ENDED,
+        /** texts: category, phrase; the host picked another category before the start */
+        PHRASE
+    }
+
+    public record Event(Kind kind, long at, int seat, int value, List<String> texts) {
+    }
+
+    /**
+     * Bytes of one event for the writer; a start replaces any older file of the
+     * room, an end closes the file and a discard deletes it.
+     */
+    private record Pending(String roomId, byte[] bytes, boolean start, boolean end, boolean discard) {
+    }
+
+    private static final class RoomState {
+        final long createdAt;
+        volatile boolean dropped;
+
+        RoomState(long createdAt) {
+            this.createdAt = createdAt;
+        }
+    }
+
+    @ConfigProperty(name = "game.journal.dir")
+    Optional<String> dirConfig;
+
+    @ConfigProperty(name = "game.journal.flush-ms", defaultValue = "50")
+    long flushMs;
+
+    @ConfigProperty(name = "game.journal.queue-size", defaultValue = "65536")
+    int queueSize;
+
+    /** Finished games kept for replay; 0 keeps them all. */
+    @ConfigProperty(name = "game.journal.keep-finished", defaultValue = "1000")
+    int keepFinished;
+
+    @Inject
+    RoomManager roomManager;
+
+    @Inject
+    GameEngine gameEngine;
+
+    private Path dir;
+    private BlockingQueue<Pending> queue;
+    private Thread writer;
+    private volatile boolean running;
+    private final Map<String, RoomState> rooms = new ConcurrentHashMap<>();
+    /** {@code .done.rj} files on disk; only the writer thread touches it after start. */
+    private int finished;
+
+    private final LongAdder events = new LongAdder();
+    private final LongAdder appendNanos = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder droppedRooms = new LongAdder();
+    /** Events queued but not yet on disk, for {@link #awaitFlush}. */
+    private final LongAdder inFlight = new LongAdder();
+
+    /** Opens the journal and rebuilds the unfinished rooms; returns them. */
+    public synchronized List<Room> start() {
+        if (running)
+            return List.of();
+        dir = Path.of(dirConfig.orElse(Path.of(System.getProperty("user.home"), ".roletrando", "journal").toString()));
+        queue = new ArrayBlockingQueue<>(queueSize);
+        List<Room> recovered = recover();
+        prune();
+        running = true;
+        writer = new Thread(this::drain, "room-journal");
+        writer.setDaemon(true);
+        writer.start();
+        return recovered;
+    }
+
+    void onStop(@Observes ShutdownEvent ev) {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            try {
+                writer.join(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // ── Recording ───────────────────────────────────────────────────────────
+
+    public void created(String roomId, String theme, String category, String phrase) {
+        rooms.put(roomId, new RoomState(System.currentTimeMillis()));
+        append(roomId, Kind.CREATED, 0, 0, theme, category, phrase);
+    }
+
+    public void join(String roomId, Player player) {
+        append(roomId, Kind.JOIN, 0, player.isBot ? 1 : 0, player.id, player.name,
+                player.resumeToken != null ? player.resumeToken : "");
+    }
+
+    public void leave(String roomId, int seat) {
+        append(roomId, Kind.LEAVE, seat, 0);
+    }
+
+    public void phrase(String roomId, String category, String phrase) {
+        append(roomId, Kind.PHRASE, 0, 0, category, phrase);
+    }
+
+    public void started(String roomId) {
+        append(roomId, Kind.STARTED, 0, 0);
+    }
+
+    public void spin(String roomId, int seat, int value) {
+        append(roomId, Kind.SPIN, seat, value);
+    }
+
+    public void guess(String roomId, int seat, char letter, int score) {
+        append(roomId, Kind.GUESS, seat, score, String.valueOf(letter));
+    }
+
+    public void solve(String roomId, int seat, String attempt, int score) {
+        append(roomId, Kind.SOLVE, seat, score, attempt);
+    }
+
+    public void turn(String roomId, int seat) {
+        append(roomId, Kind.TURN, seat, 0);
+    }
+
+    /** The game is over: the journal is kept for {@link #replay}. */
+    public void ended(String roomId) {
+        append(roomId, Kind.ENDED, 0, 0);
+        rooms.remove(roomId);
+    }
+
+    /** The room emptied out before the end: its journal is deleted. */
+    public void discard(String roomId) {
+        if (rooms.remove(roomId) != null)
+            enqueue(roomId, new Pending(roomId, null, false, false, true));
+    }
+
+    private void append(String roomId, Kind kind, int seat, int value, String... texts) {
+        long start = System.nanoTime();
+        RoomState state = rooms.get(roomId);
+        if (state == null || state.dropped || !running)
+            return;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + 16 * texts.length);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            if (kind == Kind.CREATED)
+                out.writeInt(MAGIC);
+            out.writeByte(kind.ordinal());
+            writeVarLong(out, System.currentTimeMillis() - state.createdAt);
+            writeVarLong(out, seat);
+            writeVarLong(out, value);
+            out.writeByte(texts.length);
+            for (String t : texts)
+                out.writeUTF(t);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // in-memory stream
+        }
+        enqueue(roomId, new Pending(roomId, bytes.toByteArray(), kind == Kind.CREATED, kind == Kind.ENDED, false));
+        events.increment();
+        appendNanos.add(System.nanoTime() - start);
+    }
+
+    private void enqueue(String roomId, Pending pending) {
+        inFlight.increment();
+        if (!queue.offer(pending)) {
+            inFlight.decrement();
+            RoomState state = rooms.remove(roomId);
+            if (state != null)
+                state.dropped = true;
+            droppedRooms.increment();
+            LOG.warnf("Journal queue full: room %s is no longer journaled", roomId);
+            // Whatever was written for it can no longer rebuild the room
+            queue.offer(new Pending(roomId, null, false, false, true));
+        }
+    }
+
+    // ── Writer ──────────────────────────────────────────────────────────────
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(flushMs, TimeUnit.MILLISECONDS);
+                if (first == null)
+                    continue;
+                batch.add(first);
+                queue.drainTo(batch);
+                write(batch);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    queue.drainTo(batch);
+                    write(batch);
+                    return;
+                }
+            } catch (Exception e) {
+                LOG.error("Journal write failed", e);
+            } finally {
+                inFlight.add(-batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    /** Appends each room's events of the batch with one write, in order. */
+    private void write(List<Pending> batch) {
+        if (batch.isEmpty())
+            return;
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            LOG.error("Cannot create journal directory " + dir, e);
+            return;
+        }
+        Map<String, ByteArrayOutputStream> byRoom = new LinkedHashMap<>();
+        for (Pending p : batch) {
+            if (p.discard()) {
+                // Discarded room: drop what was buffered and the file
+                byRoom.remove(p.roomId());
+                delete(file(p.roomId()));
+                continue;
+            }
+            if (p.start()) {
+                byRoom.remove(p.roomId());
+                delete(file(p.roomId()));
+            }
+            byRoom.computeIfAbsent(p.roomId(), id -> new ByteArrayOutputStream()).writeBytes(p.bytes());
+            if (p.end()) {
+                flushRoom(p.roomId(), byRoom.remove(p.roomId()));
+                try {
+                    if (!Files.exists(doneFile(p.roomId())))
+                        finished++;
+                    Files.move(file(p.roomId()), doneFile(p.roomId()), StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException e) {
+                    LOG.error("Cannot close journal of room " + p.roomId(), e);
+                }
+            }
+        }
+        byRoom.forEach(this::flushRoom);
+        batches.increment();
+        // Pruning lists the directory: let a tenth more pile up between runs
+        if (keepFinished > 0 && finished > keepFinished + Math.max(keepFinished / 10, 1))
+            prune();
+    }
+
+    /** Deletes the oldest finished games past {@code game.journal.keep-finished}. */
+    private void prune() {
+        if (!Files.isDirectory(dir))
+            return;
+        List<Path> done;
+        try (Stream<Path> list = Files.list(dir)) {
+            done = new ArrayList<>(list.filter(p -> p.toString().endsWith(".done.rj")).toList());
+        } catch (IOException e) {
+            LOG.error("Cannot list journals in " + dir, e);
+            return;
+        }
+        finished = done.size();
+        if (keepFinished <= 0 || done.size() <= keepFinished)
+            return;
+        Map<Path, Long> modified = new HashMap<>();
+        for (Path p : done) {
+            try {
+                modified.put(p, Files.getLastModifiedTime(p).toMillis());
+            } catch (IOException e) {
+                modified.put(p, 0L); // already gone or unreadable: first to go
+            }
+        }
+        done.sort(Comparator.comparing(modified::get));
+        for (Path p : done.subList(0, done.size() - keepFinished))
+            delete(p);
+        finished = keepFinished;
+        LOG.debugf("Pruned the journal to the last %d finished games", keepFinished);
+    }
+
+    private void flushRoom(String roomId, ByteArrayOutputStream bytes) {
+        try {
+            Files.write(file(roomId), bytes.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            bytesWritten.add(bytes.size());
+        } catch (IOException e) {
+            LOG.error("Cannot append to journal of room " + roomId, e);
+        }
+    }
+
+    /** Waits until every event queued so far is on disk (for tests and shutdown). */
+    public boolean awaitFlush(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (inFlight.sum() > 0) {
+            if (System.currentTimeMillis() > deadline)
+                return false;
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    // ── Reading ─────────────────────────────────────────────────────────────
+
+    /** Events of the room's last finished game, or empty when there is none. */
+    public Optional<List<Event>> replay(String roomId) {
+        Path done = doneFile(roomId);
+        if (!Files.exists(done))
+            return Optional.empty();
+        try {
+            return Optional.of(read(done));
+        } catch (IOException e) {
+            LOG.error("Cannot read journal of room " + roomId, e);
+            return Optional.empty();
+        }
+    }
+
+    /** Rebuilds every room whose journal has no end, and registers it in the {@link RoomManager}. */
+    List<Room> recover() {
+        List<Room> recovered = new ArrayList<>();
+        if (!Files.isDirectory(dir))
+            return recovered;
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(p -> p.toString().endsWith(".rj") && !p.toString().endsWith(".done.rj")).toList();
+        } catch (IOException e) {
+            LOG.error("Cannot list journals in " + dir, e);
+            return recovered;
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            String roomId = name.substring(0, name.length() - ".rj".length());
+            try {
+                List<Event> events = read(file);
+                Room room = rebuild(roomId, events);
+                if (room == null) {
+                    delete(file);
+                    continue;
+                }
+                // Later events keep their times relative to the original creation
+                long elapsed = events.get(events.size() - 1).at();
+                rooms.put(roomId, new RoomState(System.currentTimeMillis() - elapsed));
+                roomManager.register(room);
+                recovered.add(room);
+            } catch (Exception e) {
+                LOG.errorf("Cannot recover room %s: %s", roomId, e.getMessage());
+            }
+        }
+        if (!recovered.isEmpty())
+            LOG.infof("Recovered %d room(s) from the journal", recovered.size());
+        return recovered;
+    }
+
+    /**
+     * Plays the events back on a new room. Players come back disconnected, with
+     * their resume tokens, so they can take their seats again. Returns null when
+     * the journal cannot rebuild a room.
+     */
+    Room rebuild(String roomId, List<Event> events) {
+        if (events.isEmpty() || events.get(0).kind() != Kind.CREATED)
+            return null;
+        Room room = new Room(roomId);
+        for (Event e : events) {
+            GameSession session = room.gameSession;
+            Player player = e.seat() < room.players.size() ? room.players.get(e.seat()) : null;
+            switch (e.kind()) {
+                case CREATED -> {
+                    room.theme = e.texts().get(0);
+                    room.gameSession = gameEngine.startGame(e.texts().get(1), e.texts().get(2));
+                }
+                case PHRASE -> room.gameSession = gameEngine.startGame(e.texts().get(0), e.texts().get(1));
+                case JOIN -> {
+                    String name = e.texts().get(1);
+                    boolean bot = e.value() == 1;
+                    Player p = new Player(e.texts().get(0), name,
+                            "https://api.dicebear.com/7.x/avataaars/svg?seed=" + (bot ? "bot" + name.replaceAll("\\D", "") : name),
+                            (bot ? "BOT_" : "RESTORED_") + e.texts().get(0), bot);
+                    if (!bot) {
+                        p.resumeToken = e.texts().get(2);
+                        p.disconnected = true;
+                    }
+                    if (room.hostConnectionId == null)
+                        room.hostConnectionId = p.connectionId;
+                    room.players.add(p);
+                }
+                case LEAVE -> {
+                    if (player != null)
+                        room.players.remove(e.seat());
+                    if (room.currentTurnIndex >= room.players.size())
+                        room.currentTurnIndex = 0;
+                }
+                case STARTED -> room.status = "PLAYING";
+                case SPIN -> {
+                    session.currentSpinValue = e.value();
+                    if (e.value() == 0 && player != null)
+                        player.score = 0;
+                }
+                case GUESS -> {
+                    gameEngine.processGuess(session.id, e.texts().get(0).charAt(0));
+                    session.currentSpinValue = 0;
+                    if (player != null)
+                        player.score = e.value();
+                }
+                case SOLVE -> {
+                    gameEngine.solve(session.id, e.texts().get(0));
+                    if (player != null)
+                        player.score = e.value();
+                }
+                case TURN -> {
+                    room.currentTurnIndex = e.seat();
+                    session.currentSpinValue = 0;
+                }
+                case ENDED -> {
+                    return null;
+                }
+            }
+        }
+        return room.players.isEmpty() ? null : room;
+    }
+
+    static List<Event> read(Path file) throws IOException {
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(is);
+        }
+    }
+
+    static List<Event> read(InputStream is) throws IOException {
+        DataInputStream in = new DataInputStream(is);
+        List<Event> out = new ArrayList<>();
+        try {
+            if (in.readInt() != MAGIC)
+                throw new IOException("Not a room journal");
+            Kind[] kinds = Kind.values();
+            while (true) {
+                int k = in.read();
+                if (k < 0)
+                    break;
+                if (k >= kinds.length)
+                    break; // Not an event: a corrupt tail, like a torn one
+                Kind kind = kinds[k];
+                long at = readVarLong(in);
+                int seat = (int) readVarLong(in);
+                int value = (int) readVarLong(in);
+                int n = in.readUnsignedByte();
+                List<String> texts = new ArrayList<>(n);
+                for (int i = 0; i < n; i++)
+                    texts.add(in.readUTF());
+                out.add(new Event(kind, at, seat, value, texts));
+            }
+        } catch (EOFException e) {
+            // Torn last event: everything before it stands
+        }
+        return out;
+    }
+
+    // ── Metrics ─────────────────────────────────────────────────────────────
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> m = new HashMap<>();
+        long n = events.sum();
+        m.put("events", n);
+        m.put("avgAppendNanos", n == 0 ? 0 : appendNanos.sum() / n);
+        m.put("bytesWritten", bytesWritten.sum());
+        m.put("batches", batches.sum());
+        m.put("droppedRooms", droppedRooms.sum());
+        m.put("journaledRooms", rooms.size());
+        return m;
+    }
+
+    // ── Helpers ─────────────────────────────────────────────────────────────
+
+    private Path file(String roomId) {
+        return dir.resolve(roomId + ".rj");
+    }
+
+    private Path doneFile(String roomId) {
+        return dir.resolve(roomId + ".done.rj");
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.warnf("Cannot delete %s: %s", file, e.getMessage());
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return v;
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,280 @@
+package com.rafael.service;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * Remembers which questions a player has already been dealt, so the question
+ * endpoints can avoid repeats for returning players. One entry per player, game
+ * and theme: an exact bitset over the stable question ids, or a fixed-size Bloom
+ * filter when the id space is large. Entries expire after {@code game.seen.ttl}
+ * without use, and the oldest ones are dropped when the estimated footprint goes
+ * over {@code game.seen.memory-budget-mb}.
+ */
+@ApplicationScoped
+public class SeenQuestionTracker {
+
+    private static final Logger LOG = Logger.getLogger(SeenQuestionTracker.class);
+
+    /** Id spaces up to this size get an exact bitset (at most 1 KiB). */
+    static final int BITSET_MAX_IDS = 8192;
+    static final int BLOOM_BITS = 8192;
+    private static final int BLOOM_HASHES = 3;
+    /** A Bloom filter is cleared after this many ids (about 1.7% false positives). */
+    private static final int BLOOM_CAPACITY = BLOOM_BITS / 10;
+
+    /** Random probes before falling back to a scan of the level. */
+    private static final int PROBES = 16;
+    public static final int MAX_KEY_LENGTH = 64;
+
+    /** Rough per-entry cost besides the bit array: map node, key, entry object. */
+    private static final int ENTRY_OVERHEAD = 120;
+    /** Entries whose age is sampled to pick the eviction cut-off. */
+    private static final int AGE_SAMPLE = 4096;
+
+    @ConfigProperty(name = "game.seen.ttl", defaultValue = "6h")
+    Duration ttl;
+
+    @ConfigProperty(name = "game.seen.memory-budget-mb", defaultValue = "64")
+    long memoryBudgetMb;
+
+    private final ConcurrentHashMap<String, Seen> entries = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder repeatsAvoided = new LongAdder();
+    private final LongAdder levelsRecycled = new LongAdder();
+    private final AtomicBoolean sweepQueued = new AtomicBoolean();
+
+    private ScheduledExecutorService sweeper;
+
+    void onStart(@Observes StartupEvent ev) {
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "seen-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, 1, 1, TimeUnit.MINUTES);
+    }
+
+    void onStop(@Observes ShutdownEvent ev) {
+        if (sweeper != null)
+            sweeper.shutdownNow();
+    }
+
+    public static boolean isValidKey(String player) {
+        return player != null && !player.isBlank() && player.length() <= MAX_KEY_LENGTH;
+    }
+
+    /**
+     * Seen-set of a player for one game ({@code "quiz"}, {@code "millionaire"}) and
+     * theme, created on first use. Returns {@code null} when no valid key is given.
+     */
+    public Seen forPlayer(String player, String game, String theme, QuestionStore store) {
+        if (!isValidKey(player))
+            return null;
+        String key = game + '|' + theme + '|' + player;
+        Seen seen = entries.get(key);
+        if (seen == null) {
+            seen = entries.computeIfAbsent(key, k -> {
+                Seen created = new Seen(k.length(), store.idLimit());
+                bytes.addAndGet(created.footprint);
+                return created;
+            });
+            if (bytes.get() > budgetBytes())
+                requestSweep();
+        }
+        seen.lastAccess = System.currentTimeMillis();
+        return seen;
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("entries", entries.size());
+        m.put("bytes", bytes.get());
+        m.put("budgetBytes", budgetBytes());
+        m.put("expired", expired.sum());
+        m.put("evicted", evicted.sum());
+        m.put("repeatsAvoided", repeatsAvoided.sum());
+        m.put("levelsRecycled", levelsRecycled.sum());
+        return m;
+    }
+
+    private long budgetBytes() {
+        return memoryBudgetMb * 1024 * 1024;
+    }
+
+    private void requestSweep() {
+        if (sweeper != null && sweepQueued.compareAndSet(false, true))
+            sweeper.execute(this::sweep);
+    }
+
+    /** Drops expired entries, then the oldest ones while over budget. */
+    void sweep() {
+        sweepQueued.set(false);
+        long cutoff = System.currentTimeMillis() - ttl.toMillis();
+        int removed = removeIf(cutoff, expired);
+
+        long budget = budgetBytes();
+        long used = bytes.get();
+        if (used > budget && !entries.isEmpty()) {
+            // Estimate the age below which enough entries go to land at 90% of the budget
+            double fraction = Math.min(1.0, (used - budget * 0.9) / used);
+            long[] ages = new long[Math.min(AGE_SAMPLE, entries.size())];
+            int n = 0;
+            Iterator<Seen> it = entries.values().iterator();
+            while (n < ages.length && it.hasNext())
+                ages[n++] = it.next().lastAccess;
+            Arrays.sort(ages, 0, n);
+            int at = (int) Math.ceil(fraction * n) - 1;
+            removed += removeIf(ages[Math.max(0, Math.min(at, n - 1))] + 1, evicted);
+        }
+        if (removed > 0)
+            LOG.debugf("Seen-question sweep removed %d entries (%d bytes in use).", removed, bytes.get());
+    }
+
+    private int removeIf(long olderThan, LongAdder counter) {
+        int removed = 0;
+        for (Map.Entry<String, Seen> e : entries.entrySet()) {
+            Seen seen = e.getValue();
+            if (seen.lastAccess < olderThan && entries.remove(e.getKey(), seen)) {
+                bytes.addAndGet(-seen.footprint);
+                counter.increment();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /** Questions one player has been dealt. */
+    public final class Seen {
+        private long[] bits;
+        private final boolean bloom;
+        private int bloomCount;
+        private long footprint;
+        volatile long lastAccess;
+
+        private Seen(int keyLength, int idLimit) {
+            this.bloom = idLimit > BITSET_MAX_IDS;
+            this.bits = new long[bloom ? BLOOM_BITS / 64 : Math.max(1, (idLimit + 63) / 64)];
+            this.footprint = ENTRY_OVERHEAD + 2L * keyLength + 8L * bits.length;
+        }
+
+        /**
+         * Deals a question of the level at {@code ordinal}, preferring ones not seen
+         * yet, and records it. Returns its index within the level ({@code -1} for an
+         * empty level); {@code exclude} is never returned unless it is the only one.
+         * Once every question of the level has been seen the level starts over.
+         */
+        public synchronized int pick(QuestionStore store, int ordinal, RandomGenerator rng, int exclude) {
+            int n = store.levelSize(ordinal);
+            if (n == 0)
+                return -1;
+            if (n == 1)
+                return mark(store, ordinal, 0);
+            for (int probe = 0; probe < PROBES; probe++) {
+                int i = rng.nextInt(n);
+                if (i == exclude)
+                    continue;
+                if (!contains(store.id(store.questionAt(ordinal, i))))
+                    return mark(store, ordinal, i);
+                repeatsAvoided.increment();
+            }
+            int start = rng.nextInt(n);
+            for (int k = 0; k < n; k++) {
+                int i = (start + k) % n;
+                if (i != exclude && !contains(store.id(store.questionAt(ordinal, i))))
+                    return mark(store, ordinal, i);
+            }
+            levelsRecycled.increment();
+            forgetLevel(store, ordinal);
+            if (exclude < 0 || exclude >= n)
+                return mark(store, ordinal, rng.nextInt(n));
+            int i = rng.nextInt(n - 1);
+            return mark(store, ordinal, i >= exclude ? i + 1 : i);
+        }
+
+        private int mark(QuestionStore store, int ordinal, int index) {
+            add(store.id(store.questionAt(ordinal, index)));
+            return index;
+        }
+
+        boolean contains(int id) {
+            if (!bloom)
+                return id >>> 6 < bits.length && (bits[id >>> 6] & (1L << id)) != 0;
+            int h1 = mix(id);
+            int h2 = mix(h1) | 1;
+            for (int k = 0; k < BLOOM_HASHES; k++) {
+                int bit = ((h1 + k * h2) & Integer.MAX_VALUE) % BLOOM_BITS;
+                if ((bits[bit >>> 6] & (1L << bit)) == 0)
+                    return false;
+            }
+            return true;
+        }
+
+        private void add(int id) {
+            if (!bloom) {
+                if (id >>> 6 >= bits.length) {
+                    // The theme was reloaded with more questions
+                    int grown = (id >>> 6) + 1;
+                    bytes.addAndGet(8L * (grown - bits.length));
+                    footprint += 8L * (grown - bits.length);
+                    bits = Arrays.copyOf(bits, grown);
+                }
+                bits[id >>> 6] |= 1L << id;
+                return;
+            }
+            if (++bloomCount > BLOOM_CAPACITY) {
+                Arrays.fill(bits, 0);
+                bloomCount = 1;
+            }
+            int h1 = mix(id);
+            int h2 = mix(h1) | 1;
+            for (int k = 0; k < BLOOM_HASHES; k++) {
+                int bit = ((h1 + k * h2) & Integer.MAX_VALUE) % BLOOM_BITS;
+                bits[bit >>> 6] |= 1L << bit;
+            }
+        }
+
+        private void forgetLevel(QuestionStore store, int ordinal) {
+            if (bloom) {
+                // Bloom filters cannot remove single entries
+                Arrays.fill(bits, 0);
+                bloomCount = 0;
+                return;
+            }
+            for (int i = 0; i < store.levelSize(ordinal); i++) {
+                int id = store.id(store.questionAt(ordinal, i));
+                if (id >>> 6 < bits.length)
+                    bits[id >>> 6] &= ~(1L << id);
+            }
+        }
+
+        private static int mix(int x) {
+            x ^= x >>> 16;
+            x *= 0x7feb352d;
+            x ^= x >>> 15;
+            x *= 0x846ca68b;
+            x ^= x >>> 16;
+            return x;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.rafael.service;
+
+import com.rafael.model.Room;
+import com.rafael.model.RoomManager;
+import io.quarkus.websockets.next.WebSocketConnection;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only audiences of the Roletrando rooms. A room's frame is serialized once
+ * by the game and the same {@code String} is handed to every player and every
+ * spectator, so the cost of an update does not grow with the audience beyond the
+ * writes themselves. Those writes are not made here: {@code sendText} queues each
+ * one on the event loop that accepted that spectator, so a popular room spreads
+ * its fan-out over the loops its spectators came in on and the publishing thread
+ * only walks the set. At most {@code game.spectators.max-per-node} spectators are
+ * accepted on this node, across all rooms.
+ */
+@ApplicationScoped
+public class SpectatorHub {
+
+    private static final Logger LOG = Logger.getLogger(SpectatorHub.class);
+
+    /** Outcome of {@link #join}. */
+    public enum Join {
+        WATCHING, ROOM_GONE, FULL
+    }
+
+    @ConfigProperty(name = "game.spectators.max-per-node", defaultValue = "10000")
+    int maxPerNode;
+
+    @Inject
+    RoomManager roomManager;
+
+    /** Spectators of each live room. */
+    private final Map<String, Set<WebSocketConnection>> audiences = new ConcurrentHashMap<>();
+    /** Room of each accepted spectator connection. */
+    private final Map<String, String> roomBySpectator = new ConcurrentHashMap<>();
+    /** Last frame of each room, sent to spectators as they join. */
+    private final Map<String, String> lastState = new ConcurrentHashMap<>();
+    private final AtomicInteger spectators = new AtomicInteger();
+
+    /**
+     * Adds a spectator to a room and sends it the room's last frame. The room is
+     * checked inside the same atomic update that adds the spectator, so a join
+     * racing {@link #closeRoom} either lands before it (and is closed with the
+     * rest) or sees the room gone; it never leaves an audience behind.
+     */
+    public Join join(Room room, WebSocketConnection conn) {
+        if (spectators.incrementAndGet() > maxPerNode) {
+            spectators.decrementAndGet();
+            return Join.FULL;
+        }
+        roomBySpectator.put(conn.id(), room.id);
+        boolean[] added = new boolean[1];
+        audiences.compute(room.id, (id, audience) -> {
+            // Rooms are removed from the manager before closeRoom runs
+            if (roomManager.getRoom(id) != room)
+                return audience;
+            Set<WebSocketConnection> set = audience != null ? audience : ConcurrentHashMap.newKeySet();
+            added[0] = set.add(conn);
+            return set;
+        });
+        if (!added[0]) {
+            roomBySpectator.remove(conn.id());
+            spectators.decrementAndGet();
+            return Join.ROOM_GONE;
+        }
+        String state = lastState.get(room.id);
+        if (state != null)
+            send(conn, state);
+        return Join.WATCHING;
+    }
+
+    /** Removes a spectator; connections {@link #join} refused are ignored. */
+    public void leave(WebSocketConnection conn) {
+        String roomId = roomBySpectator.remove(conn.id());
+        if (roomId == null)
+            return;
+        spectators.decrementAndGet();
+        Set<WebSocketConnection> audience = audiences.get(roomId);
+        if (audience != null)
+            audience.remove(conn);
+    }
+
+    /** Sends a room frame to its spectators; a state frame is also kept for late joiners. */
+    public void publish(String roomId, String json, boolean state) {
+        if (state)
+            lastState.put(roomId, json);
+        Set<WebSocketConnection> audience = audiences.get(roomId);
+        if (audience != null)
+            audience.forEach(conn -> send(conn, json));
+    }
+
+    /** The room is gone: its spectators are disconnected (and counted out as they close). */
+    public void closeRoom(String roomId) {
+        lastState.remove(roomId);
+        Set<WebSocketConnection> audience = audiences.remove(roomId);
+        if (audience == null)
+            return;
+        for (WebSocketConnection conn : audience)
+            conn.close().subscribe().with(v -> {
+            }, err -> LOG.debug("Close error", err));
+    }
+
+    public int spectatorCount() {
+        return spectators.get();
+    }
+
+    public int spectatorCount(String roomId) {
+        Set<WebSocketConnection> audience = audiences.get(roomId);
+        return audience == null ? 0 : audience.size();
+    }
+
+    private static void send(WebSocketConnection conn, String json) {
+        if (conn.isOpen())
+            conn.sendText(json).subscribe().with(v -> {
+            }, err -> LOG.error("Send error", err));
+    }
+}
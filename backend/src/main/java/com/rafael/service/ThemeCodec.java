@@ -0,0 +1,204 @@
+package com.rafael.service;
+
+import com.rafael.model.GeoHunterTarget;
+import com.rafael.model.GeoLocation;
+import com.rafael.model.WheelPhrase;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary form of the theme files, written at build time by
+ * {@link ThemeCompiler} and read at startup with plain stream calls (no Jackson,
+ * no reflection). One {@code .bin} file per data type, next to its JSON source.
+ *
+ * <p>
+ * Layout: {@code int magic, byte kind, byte version}, then the data as
+ * length-prefixed lists. Nullable strings carry a leading presence flag.
+ */
+public final class ThemeCodec {
+
+    public static final int MAGIC = 0x52544231; // "RTB1"
+    public static final byte VERSION = 2;
+
+    public static final byte WHEEL = 1;
+    public static final byte MILLIONAIRE = 2;
+    public static final byte QUIZ = 3;
+    public static final byte GEOHUNTER = 4;
+
+    private ThemeCodec() {
+    }
+
+    // ── Writing ─────────────────────────────────────────────────────────────
+
+    public static void writeWheel(List<WheelPhrase> phrases, OutputStream os) throws IOException {
+        DataOutputStream out = header(os, WHEEL);
+        out.writeInt(phrases.size());
+        for (WheelPhrase p : phrases) {
+            writeString(out, p.category);
+            writeString(out, p.phrase);
+            out.writeInt(p.weight);
+        }
+        out.flush();
+    }
+
+    /** Writes a packed Millionaire ladder, with the ids the store assigned. */
+    public static void writeMillionaire(QuestionStore store, OutputStream os) throws IOException {
+        writeLadder(store, header(os, MILLIONAIRE));
+    }
+
+    /** Writes a packed Quiz ladder, with the ids the store assigned. */
+    public static void writeQuiz(QuestionStore store, OutputStream os) throws IOException {
+        writeLadder(store, header(os, QUIZ));
+    }
+
+    private static void writeLadder(QuestionStore store, DataOutputStream out) throws IOException {
+        out.writeInt(store.levelCount());
+        for (int l = 0; l < store.levelCount(); l++) {
+            out.writeInt(store.levelNumber(l));
+            writeString(out, store.levelTitle(l));
+            out.writeInt(store.levelSize(l));
+            for (int i = 0; i < store.levelSize(l); i++) {
+                int q = store.questionAt(l, i);
+                out.writeInt(store.id(q));
+                writeString(out, store.text(q));
+                writeStrings(out, store.options(q));
+                out.writeInt(store.answer(q));
+            }
+        }
+        out.flush();
+    }
+
+    public static void writeGeoHunter(List<GeoHunterTarget> targets, OutputStream os) throws IOException {
+        DataOutputStream out = header(os, GEOHUNTER);
+        out.writeInt(targets.size());
+        for (GeoHunterTarget t : targets) {
+            writeString(out, t.id);
+            writeString(out, t.name);
+            out.writeDouble(t.location.longitude);
+            out.writeDouble(t.location.latitude);
+            writeStrings(out, t.clues);
+        }
+        out.flush();
+    }
+
+    // ── Reading ─────────────────────────────────────────────────────────────
+
+    public static List<WheelPhrase> readWheel(InputStream is) throws IOException {
+        DataInputStream in = expect(is, WHEEL);
+        int n = in.readInt();
+        List<WheelPhrase> phrases = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            WheelPhrase p = new WheelPhrase();
+            p.category = readString(in);
+            p.phrase = readString(in);
+            p.weight = in.readInt();
+            phrases.add(p);
+        }
+        return phrases;
+    }
+
+    public static QuestionStore readMillionaire(InputStream is) throws IOException {
+        return readLadder(expect(is, MILLIONAIRE));
+    }
+
+    public static QuestionStore readQuiz(InputStream is) throws IOException {
+        return readLadder(expect(is, QUIZ));
+    }
+
+    /** Feeds the ladder straight into a store, one question at a time. */
+    private static QuestionStore readLadder(DataInputStream in) throws IOException {
+        QuestionStore.Builder builder = new QuestionStore.Builder();
+        List<String> options = new ArrayList<>(8);
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            int number = in.readInt();
+            String title = readString(in);
+            int count = in.readInt();
+            for (int j = 0; j < count; j++) {
+                int id = in.readInt();
+                String text = readString(in);
+                int optionCount = in.readInt();
+                options.clear();
+                for (int k = 0; k < optionCount; k++)
+                    options.add(readString(in));
+                builder.question(id, text, optionCount < 0 ? null : options, in.readInt());
+            }
+            builder.endLevel(number, title);
+        }
+        return builder.build();
+    }
+
+    public static List<GeoHunterTarget> readGeoHunter(InputStream is) throws IOException {
+        DataInputStream in = expect(is, GEOHUNTER);
+        int n = in.readInt();
+        List<GeoHunterTarget> targets = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            GeoHunterTarget t = new GeoHunterTarget();
+            t.id = readString(in);
+            t.name = readString(in);
+            t.location = new GeoLocation();
+            t.location.longitude = in.readDouble();
+            t.location.latitude = in.readDouble();
+            t.clues = readStrings(in);
+            targets.add(t);
+        }
+        return targets;
+    }
+
+    // ── Helpers ─────────────────────────────────────────────────────────────
+
+    private static DataOutputStream header(OutputStream os, byte kind) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os));
+        out.writeInt(MAGIC);
+        out.writeByte(kind);
+        out.writeByte(VERSION);
+        return out;
+    }
+
+    private static DataInputStream expect(InputStream is, byte kind) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(is));
+        if (in.readInt() != MAGIC)
+            throw new IOException("Not a compiled theme file");
+        byte actualKind = in.readByte();
+        byte version = in.readByte();
+        if (actualKind != kind || version != VERSION)
+            throw new IOException("Unexpected compiled theme file (kind " + actualKind + ", version " + version + ")");
+        return in;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null)
+            out.writeUTF(s);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> list) throws IOException {
+        out.writeInt(list == null ? -1 : list.size());
+        if (list != null) {
+            for (String s : list)
+                writeString(out, s);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int n = in.readInt();
+        if (n < 0)
+            return null;
+        List<String> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            list.add(readString(in));
+        return list;
+    }
+}
@@ -0,0 +1,242 @@
+package com.rafael.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rafael.model.GeoHunterTarget;
+import com.rafael.model.MillionaireData;
+import com.rafael.model.MillionaireLevel;
+import com.rafael.model.MillionaireQuestion;
+import com.rafael.model.QuizData;
+import com.rafael.model.QuizLevel;
+import com.rafael.model.QuizQuestion;
+import com.rafael.model.WheelPhrase;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Build-time step (bound to {@code process-classes} in the pom): validates the
+ * theme JSON under {@code data/} and writes the {@link ThemeCodec} binary next to
+ * each file, plus {@code data/themes.idx} with the theme names. Any malformed or
+ * inconsistent file fails the build instead of being skipped at runtime.
+ *
+ * <p>
+ * Usage: {@code ThemeCompiler <dataDir>}
+ */
+public final class ThemeCompiler {
+
+    private static final Logger LOG = Logger.getLogger(ThemeCompiler.class);
+
+    public static final String INDEX_FILE = "themes.idx";
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .enable(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES);
+    private final List<String> errors = new ArrayList<>();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1)
+            throw new IllegalArgumentException("Usage: ThemeCompiler <dataDir>");
+        Path dataDir = Path.of(args[0]);
+        if (!Files.isDirectory(dataDir)) {
+            LOG.infof("No data directory at %s, nothing to compile.", dataDir);
+            return;
+        }
+        ThemeCompiler compiler = new ThemeCompiler();
+        List<String> themes = compiler.compileAll(dataDir);
+        if (!compiler.errors.isEmpty()) {
+            throw new IllegalStateException("Invalid theme data:\n  - " + String.join("\n  - ", compiler.errors));
+        }
+        LOG.infof("Compiled %d theme(s): %s", themes.size(), themes);
+    }
+
+    List<String> compileAll(Path dataDir) throws IOException {
+        List<String> themes = new ArrayList<>();
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(dataDir, Files::isDirectory)) {
+            for (Path dir : dirs)
+                themes.add(dir.getFileName().toString());
+        }
+        Collections.sort(themes);
+        for (String theme : themes)
+            compileTheme(theme, dataDir.resolve(theme));
+        Files.writeString(dataDir.resolve(INDEX_FILE), String.join("\n", themes) + "\n", StandardCharsets.UTF_8);
+        return themes;
+    }
+
+    private void compileTheme(String theme, Path dir) throws IOException {
+        Path wheelFile = dir.resolve("wheel.json");
+        if (Files.exists(wheelFile)) {
+            List<WheelPhrase> phrases = parse(theme, wheelFile, new TypeReference<List<WheelPhrase>>() {
+            });
+            if (phrases != null && validateWheel(theme, phrases)) {
+                try (OutputStream os = Files.newOutputStream(dir.resolve("wheel.bin"))) {
+                    ThemeCodec.writeWheel(phrases, os);
+                }
+            }
+        }
+
+        Path millionaireFile = dir.resolve("millionaire.json");
+        if (Files.exists(millionaireFile)) {
+            MillionaireData data = parse(theme, millionaireFile, new TypeReference<MillionaireData>() {
+            });
+            if (data != null && validateMillionaire(theme, data.levels)) {
+                // The store assigns the same stable ids the runtime would
+                QuestionStore store = QuestionStore.fromMillionaire(data.levels);
+                try (OutputStream os = Files.newOutputStream(dir.resolve("millionaire.bin"))) {
+                    ThemeCodec.writeMillionaire(store, os);
+                }
+            }
+        }
+
+        Path quizFile = dir.resolve("quiz.json");
+        if (Files.exists(quizFile)) {
+            QuizData data = parse(theme, quizFile, new TypeReference<QuizData>() {
+            });
+            if (data != null && validateQuiz(theme, data.levels)) {
+                QuestionStore store = QuestionStore.fromQuiz(data.levels);
+                try (OutputStream os = Files.newOutputStream(dir.resolve("quiz.bin"))) {
+                    ThemeCodec.writeQuiz(store, os);
+                }
+            }
+        }
+
+        Path geoFile = dir.resolve("geohunter.json");
+        if (Files.exists(geoFile)) {
+            List<GeoHunterTarget> targets = parse(theme, geoFile, new TypeReference<List<GeoHunterTarget>>() {
+            });
+            if (targets != null && validateGeoHunter(theme, targets)) {
+                try (OutputStream os = Files.newOutputStream(dir.resolve("geohunter.bin"))) {
+                    ThemeCodec.writeGeoHunter(targets, os);
+                }
+            }
+        }
+    }
+
+    private <T> T parse(String theme, Path file, TypeReference<T> type) {
+        try {
+            return mapper.readValue(file.toFile(), type);
+        } catch (IOException e) {
+            error(theme, file.getFileName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean validateWheel(String theme, List<WheelPhrase> phrases) {
+        int before = errors.size();
+        for (int i = 0; i < phrases.size(); i++) {
+            WheelPhrase p = phrases.get(i);
+            if (isBlank(p.category))
+                error(theme, "wheel.json[" + i + "]: missing category");
+            if (isBlank(p.phrase))
+                error(theme, "wheel.json[" + i + "]: missing phrase");
+            if (p.weight < 0)
+                error(theme, "wheel.json[" + i + "]: negative weight");
+        }
+        return errors.size() == before;
+    }
+
+    private boolean validateMillionaire(String theme, List<MillionaireLevel> levels) {
+        int before = errors.size();
+        if (levels == null || levels.isEmpty()) {
+            error(theme, "millionaire.json: no levels");
+            return false;
+        }
+        Set<Integer> seen = new HashSet<>();
+        for (MillionaireLevel level : levels) {
+            String where = "millionaire.json level " + level.level;
+            if (level.level < 0 || level.level > QuestionStore.MAX_LEVEL || !seen.add(level.level))
+                error(theme, where + ": level number negative, above " + QuestionStore.MAX_LEVEL + " or repeated");
+            if (isBlank(level.prize))
+                error(theme, where + ": missing prize");
+            if (level.questions == null || level.questions.isEmpty()) {
+                error(theme, where + ": no questions");
+                continue;
+            }
+            for (int i = 0; i < level.questions.size(); i++) {
+                MillionaireQuestion q = level.questions.get(i);
+                // Lifelines assume exactly four options (audience poll, 50:50)
+                validateQuestion(theme, where + " question " + i, q.question, q.options, q.answer, 4);
+            }
+        }
+        return errors.size() == before;
+    }
+
+    private boolean validateQuiz(String theme, List<QuizLevel> levels) {
+        int before = errors.size();
+        if (levels == null || levels.isEmpty()) {
+            error(theme, "quiz.json: no levels");
+            return false;
+        }
+        Set<Integer> seen = new HashSet<>();
+        for (QuizLevel level : levels) {
+            String where = "quiz.json level " + level.level;
+            if (level.level < 0 || level.level > QuestionStore.MAX_LEVEL || !seen.add(level.level))
+                error(theme, where + ": level number negative, above " + QuestionStore.MAX_LEVEL + " or repeated");
+            if (level.questions == null || level.questions.isEmpty()) {
+                error(theme, where + ": no questions");
+                continue;
+            }
+            for (int i = 0; i < level.questions.size(); i++) {
+                QuizQuestion q = level.questions.get(i);
+                validateQuestion(theme, where + " question " + i, q.question, q.options, q.answer, -1);
+            }
+        }
+        return errors.size() == before;
+    }
+
+    private void validateQuestion(String theme, String where, String text, List<String> options, int answer,
+            int requiredOptions) {
+        if (isBlank(text))
+            error(theme, where + ": missing question text");
+        if (options == null || options.size() < 2) {
+            error(theme, where + ": needs at least two options");
+            return;
+        }
+        if (requiredOptions > 0 && options.size() != requiredOptions)
+            error(theme, where + ": needs exactly " + requiredOptions + " options, has " + options.size());
+        for (String option : options) {
+            if (isBlank(option))
+                error(theme, where + ": blank option");
+        }
+        if (answer < 0 || answer >= options.size())
+            error(theme, where + ": answer " + answer + " is not a valid option index");
+    }
+
+    private boolean validateGeoHunter(String theme, List<GeoHunterTarget> targets) {
+        int before = errors.size();
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < targets.size(); i++) {
+            GeoHunterTarget t = targets.get(i);
+            String where = "geohunter.json[" + i + "]";
+            if (isBlank(t.id) || !ids.add(t.id))
+                error(theme, where + ": missing or duplicate id");
+            if (isBlank(t.name))
+                error(theme, where + ": missing name");
+            if (t.location == null) {
+                error(theme, where + ": missing location");
+            } else if (Math.abs(t.location.latitude) > 90 || Math.abs(t.location.longitude) > 180) {
+                error(theme, where + ": location out of range");
+            }
+        }
+        return errors.size() == before;
+    }
+
+    private void error(String theme, String message) {
+        errors.add("[" + theme + "] " + message);
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+}
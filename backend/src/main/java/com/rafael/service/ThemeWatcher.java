@@ -0,0 +1,151 @@
+package com.rafael.service;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the external theme directory ({@code game.data.dir}) and reloads a
+ * theme when one of its files changes. Events are debounced per theme, because
+ * editors usually write a file in several steps, and the reload itself runs on
+ * a dedicated thread, never on the Vert.x event loop.
+ */
+@ApplicationScoped
+public class ThemeWatcher {
+
+    private static final Logger LOG = Logger.getLogger(ThemeWatcher.class);
+
+    private static final long DEBOUNCE_MS = 300;
+
+    @Inject
+    DataLoaderService dataLoader;
+
+    private WatchService watchService;
+    private ScheduledExecutorService reloader;
+    private final Map<WatchKey, String> themeByKey = new HashMap<>();
+    private final Map<String, ScheduledFuture<?>> pending = new HashMap<>();
+
+    // Observers default to APPLICATION + 500; start watching once the catalog is loaded
+    void onStart(@Observes @Priority(Interceptor.Priority.APPLICATION + 600) StartupEvent ev) {
+        Path dir = dataLoader.getExternalDir();
+        if (dir == null)
+            return;
+        if (!Files.isDirectory(dir)) {
+            LOG.warnf("External theme directory %s does not exist; hot reload disabled.", dir);
+            return;
+        }
+        try {
+            watchService = dir.getFileSystem().newWatchService();
+            dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE);
+            try (DirectoryStream<Path> themes = Files.newDirectoryStream(dir, Files::isDirectory)) {
+                for (Path themeDir : themes)
+                    register(themeDir);
+            }
+        } catch (IOException e) {
+            LOG.errorf("Could not watch theme directory %s: %s", dir, e.getMessage());
+            return;
+        }
+
+        reloader = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "theme-reloader"));
+        daemon(this::watchLoop, "theme-watcher").start();
+        LOG.infof("Watching %s for theme changes.", dir);
+    }
+
+    void onStop(@Observes ShutdownEvent ev) {
+        if (watchService == null)
+            return;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            LOG.debug("Failed to close theme watch service", e);
+        }
+        reloader.shutdownNow();
+    }
+
+    private void register(Path themeDir) throws IOException {
+        WatchKey key = themeDir.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        themeByKey.put(key, themeDir.getFileName().toString());
+    }
+
+    private void watchLoop() {
+        Path root = dataLoader.getExternalDir();
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            String theme = themeByKey.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    themeByKey.values().forEach(this::scheduleReload);
+                    continue;
+                }
+                Path changed = (Path) event.context();
+                if (theme == null) {
+                    // New theme folder dropped into the root directory
+                    Path themeDir = root.resolve(changed);
+                    if (Files.isDirectory(themeDir)) {
+                        try {
+                            register(themeDir);
+                            scheduleReload(changed.toString());
+                        } catch (IOException e) {
+                            LOG.warnf("Could not watch new theme directory %s: %s", themeDir, e.getMessage());
+                        }
+                    }
+                } else if (changed.toString().endsWith(".json")) {
+                    scheduleReload(theme);
+                }
+            }
+            if (!key.reset())
+                themeByKey.remove(key);
+        }
+    }
+
+    /** Called only from the watcher thread, so {@code pending} needs no locking. */
+    private void scheduleReload(String theme) {
+        ScheduledFuture<?> previous = pending.get(theme);
+        if (previous != null)
+            previous.cancel(false);
+        pending.put(theme, reloader.schedule(() -> reload(theme), DEBOUNCE_MS, TimeUnit.MILLISECONDS));
+    }
+
+    private void reload(String theme) {
+        try {
+            dataLoader.reloadTheme(theme);
+        } catch (Exception e) {
+            LOG.errorf(e, "[%s] Theme reload failed; keeping the previous version.", theme);
+        }
+    }
+
+    private static Thread daemon(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    }
+}
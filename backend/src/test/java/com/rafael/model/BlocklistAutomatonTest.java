@@ -0,0 +1,73 @@
+package com.rafael.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlocklistAutomatonTest {
+
+    private static final BlocklistAutomaton FILTER = new BlocklistAutomaton(
+            List.of("puta", "merd*", "filho da puta", "*bosta", "  ", "cacete"));
+
+    @Test
+    public void testFoldsAccentsLeetspeakRepeatsAndPunctuation() {
+        assertTrue(FILTER.matches("puta"));
+        assertTrue(FILTER.matches("PUTA"));
+        assertTrue(FILTER.matches("p.u.t.4"));
+        assertTrue(FILTER.matches("Pütá"));
+        assertTrue(FILTER.matches("puuuuttta"));
+        assertTrue(FILTER.matches("m3rd1nh@"));
+        assertTrue(FILTER.matches("c@c3t3"));
+        assertTrue(FILTER.matches("Filho   da\tPUTA"));
+        assertFalse(FILTER.matches("Jogador1"));
+        assertFalse(FILTER.matches(""));
+        assertEquals(5, FILTER.terms());
+    }
+
+    @Test
+    public void testTermsMatchWholeWordsUnlessOpened() {
+        assertTrue(FILTER.matches("sua puta"));
+        assertTrue(FILTER.matches("puta?"));
+        assertFalse(FILTER.matches("CIENCIA DA COMPUTACAO"));
+        assertFalse(FILTER.matches("putaria")); // "puta" is closed at the end
+        assertTrue(FILTER.matches("merdinha")); // "merd*" is open
+        assertFalse(FILTER.matches("desmerdar"));
+        assertTrue(FILTER.matches("cabosta")); // "*bosta" is open at the start
+        assertFalse(FILTER.matches("bostas"));
+        // A term never spans two words it does not have
+        assertFalse(FILTER.matches("pu ta"));
+        assertFalse(FILTER.matches("filho da putaria"));
+    }
+
+    @Test
+    public void testEmptyListMatchesNothing() {
+        BlocklistAutomaton empty = new BlocklistAutomaton(List.of());
+        assertFalse(empty.matches("qualquer coisa"));
+        assertEquals(1, empty.states());
+    }
+
+    /** The filter's answers do not depend on how many other terms it holds. */
+    @Test
+    public void testFiftyThousandTermsAgreeWithFive() {
+        Random random = new Random(50);
+        List<String> big = new ArrayList<>(List.of("puta", "merd*", "filho da puta", "*bosta", "cacete"));
+        for (int i = 0; i < 50_000; i++) {
+            char[] w = new char[5 + random.nextInt(6)];
+            for (int j = 0; j < w.length; j++)
+                w[j] = (char) ('a' + random.nextInt(26));
+            big.add(random.nextInt(4) == 0 ? new String(w) + "*" : new String(w));
+        }
+        BlocklistAutomaton large = new BlocklistAutomaton(big);
+        assertEquals(50_005, large.terms());
+
+        String[] messages = { "Jogador1", "Maria Clara", "CIENCIA DA COMPUTACAO", "ARROZ COM FEIJAO",
+                "LASANHA DE PRESUNTO", "ORNITORRINCO", "ENGENHARIA ELETRICA", "Zé_do_Pulo 2024", "filho da puta" };
+        for (String m : messages)
+            assertEquals(FILTER.matches(m), large.matches(m), m);
+        assertTrue(large.matches(big.get(5_000).replace("*", "")));
+    }
+}
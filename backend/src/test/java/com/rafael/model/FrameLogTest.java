@@ -0,0 +1,40 @@
+package com.rafael.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameLogTest {
+
+    @Test
+    public void testReplaysMissedFramesOrFallsBackToState() {
+        FrameLog log = new FrameLog(4);
+        log.append(seq -> "state" + seq, true);
+        for (int i = 0; i < 3; i++)
+            log.append(seq -> "spin" + seq, false);
+        assertEquals(4, log.lastSeq());
+
+        assertEquals(List.of("spin3", "spin4"), log.resume(2));
+        assertEquals(List.of(), log.resume(4));
+
+        // Frames 2-6 are no longer all in the ring: last state and what followed it
+        log.append(seq -> "state" + seq, true);
+        log.append(seq -> "spin" + seq, false);
+        log.append(seq -> "spin" + seq, false);
+        assertFalse(log.inRing(1));
+        assertEquals(List.of("state5", "spin6", "spin7"), log.resume(1));
+        assertEquals(List.of("state5", "spin6", "spin7"), log.resume(-1));
+        assertEquals(List.of("state5", "spin6", "spin7"), log.resume(99));
+    }
+
+    @Test
+    public void testSnapshotOnlyKeepsFramesStillInRing() {
+        FrameLog log = new FrameLog(2);
+        log.append(seq -> "state" + seq, true);
+        for (int i = 0; i < 5; i++)
+            log.append(seq -> "spin" + seq, false);
+        assertEquals(List.of("state1", "spin5", "spin6"), log.resume(-1));
+    }
+}
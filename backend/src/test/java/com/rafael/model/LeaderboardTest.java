@@ -0,0 +1,94 @@
+package com.rafael.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeaderboardTest {
+
+    @Test
+    public void testRanksMatchSortedScores() {
+        Random random = new Random(41);
+        Leaderboard board = new Leaderboard();
+        Map<String, Integer> scores = new LinkedHashMap<>();
+        for (int i = 0; i < 500; i++) {
+            board.put("p" + i, "Jogador" + i, 0);
+            scores.put("p" + i, 0);
+        }
+        for (int round = 0; round < 20; round++) {
+            for (String id : scores.keySet()) {
+                int score = scores.get(id) + random.nextInt(1001);
+                scores.put(id, score);
+                board.update(id, score);
+            }
+            if (round % 5 == 4) {
+                String gone = "p" + random.nextInt(500);
+                scores.remove(gone);
+                board.remove(gone);
+            }
+
+            List<Integer> sorted = new ArrayList<>(scores.values());
+            sorted.sort(Comparator.reverseOrder());
+            for (Map.Entry<String, Integer> e : scores.entrySet())
+                assertEquals(sorted.indexOf(e.getValue()) + 1, board.rank(e.getKey()));
+            List<Leaderboard.Standing> all = board.all();
+            assertEquals(scores.size(), all.size());
+            for (int i = 0; i < all.size(); i++)
+                assertEquals(sorted.get(i).intValue(), all.get(i).score());
+        }
+        assertEquals(-1, board.rank("desconhecido"));
+    }
+
+    @Test
+    public void testTopAndNeighbours() {
+        Leaderboard board = new Leaderboard();
+        for (int i = 0; i < 10; i++)
+            board.put("p" + i, "Jogador" + i, i * 100);
+
+        List<Leaderboard.Standing> top = board.top(3);
+        assertEquals(List.of("p9", "p8", "p7"), top.stream().map(Leaderboard.Standing::id).toList());
+        assertEquals(1, top.get(0).rank());
+
+        assertEquals(List.of("p7", "p6", "p5", "p4", "p3"),
+                board.around("p5", 2).stream().map(Leaderboard.Standing::id).toList());
+        assertEquals(List.of("p9", "p8", "p7"),
+                board.around("p9", 2).stream().map(Leaderboard.Standing::id).toList());
+        assertEquals(List.of("p2", "p1", "p0"),
+                board.around("p0", 2).stream().map(Leaderboard.Standing::id).toList());
+
+        // Ties share the rank and keep their arrival order
+        board.update("p0", 900);
+        assertEquals(1, board.rank("p0"));
+        assertEquals(1, board.rank("p9"));
+        assertEquals(List.of("p0", "p9"), board.top(2).stream().map(Leaderboard.Standing::id).toList());
+        assertEquals(3, board.rank("p8"));
+    }
+
+    @Test
+    public void testFiveThousandPlayerViews() {
+        int players = 5_000;
+        Random random = new Random(5000);
+        Leaderboard board = new Leaderboard();
+        for (int i = 0; i < players; i++)
+            board.put("p" + i, "Jogador" + i, 0);
+
+        for (int i = 0; i < players; i++)
+            board.update("p" + i, random.nextInt(1001));
+        int entries = 0;
+        for (int i = 0; i < players; i++) {
+            String id = "p" + i;
+            entries += board.top(10).size() + board.around(id, 2).size();
+            assertTrue(board.rank(id) >= 1);
+        }
+
+        // Every view stays small however large the room is
+        assertTrue(entries <= players * 15);
+    }
+}
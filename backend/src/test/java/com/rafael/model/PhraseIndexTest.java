@@ -0,0 +1,115 @@
+package com.rafael.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PhraseIndexTest {
+
+    private static WheelPhrase phrase(String category, String text) {
+        WheelPhrase p = new WheelPhrase();
+        p.category = category;
+        p.phrase = text;
+        return p;
+    }
+
+    private static final PhraseIndex INDEX = new PhraseIndex(List.of(
+            phrase("ANIMAIS", "GATO PRETO"),
+            phrase("ANIMAIS", "PATO BRAVO"),
+            phrase("COMIDA", "BOLO PRETO"),
+            phrase("COMIDA", "PÃO-DE-LÓ"),
+            phrase("ANIMAIS", "ORNITORRINCO")));
+
+    @Test
+    public void testRevealedLettersAndSpacesNarrowTheCandidates() {
+        // Only the length and the space: the three "XXXX XXXXX" phrases fit
+        assertEquals(3, INDEX.candidates("____ _____", null, Set.of()).count());
+        assertEquals(1, INDEX.candidates("____________", null, Set.of()).count());
+        assertEquals("ORNITORRINCO", INDEX.candidates("____________", null, Set.of()).first());
+
+        // A and O guessed: only PATO BRAVO has an A in its second word
+        PhraseIndex.Candidates c = INDEX.candidates("_A_O __A_O", null, Set.of('A', 'O'));
+        assertEquals(1, c.count());
+        assertEquals("PATO BRAVO", c.first());
+    }
+
+    @Test
+    public void testGuessedLettersCannotHide() {
+        // E was guessed and is nowhere on the board: neither PRETO fits
+        PhraseIndex.Candidates c = INDEX.candidates("____ _____", null, Set.of('E'));
+        assertEquals("PATO BRAVO", c.first());
+        assertEquals(1, c.count());
+    }
+
+    @Test
+    public void testCategoryAndHits() {
+        PhraseIndex.Candidates c = INDEX.candidates("____ _____", "ANIMAIS", Set.of());
+        assertEquals(2, c.count());
+        int[] hits = c.letterHits();
+        assertEquals(2, hits['T' - 'A']);
+        assertEquals(1, hits['G' - 'A']);
+        assertEquals(0, hits['L' - 'A']);
+    }
+
+    @Test
+    public void testPunctuationAndAccentsStayHiddenUntilGuessed() {
+        // GameEngine shows the hyphens and the accented letters as '_' too
+        assertEquals("PÃO-DE-LÓ", INDEX.candidates("_________", "COMIDA", Set.of()).first());
+        assertEquals(1, INDEX.candidates("P_O_DE_L_", null, Set.of('P', 'O', 'D', 'E', 'L')).count());
+        assertEquals(0, INDEX.candidates("_________", null, Set.of('Ã')).count());
+        // Boards of a length no phrase has
+        assertEquals(0, INDEX.candidates("___", null, Set.of()).count());
+        assertNull(INDEX.candidates("___", null, Set.of()).first());
+    }
+
+    @Test
+    public void testHundredThousandPhrases() {
+        Random random = new Random(49);
+        String[] words = new String[4000];
+        for (int i = 0; i < words.length; i++) {
+            char[] w = new char[3 + random.nextInt(7)];
+            for (int j = 0; j < w.length; j++)
+                w[j] = (char) ('A' + random.nextInt(26));
+            words[i] = new String(w);
+        }
+        List<WheelPhrase> corpus = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int n = 1 + random.nextInt(3);
+            for (int j = 0; j < n; j++)
+                sb.append(j == 0 ? "" : " ").append(words[random.nextInt(words.length)]);
+            corpus.add(phrase("C" + random.nextInt(10), sb.toString()));
+        }
+        PhraseIndex index = new PhraseIndex(corpus);
+        assertEquals(100_000, index.size());
+
+        // Boards of random phrases with a few letters guessed
+        int rounds = 2_000;
+        String[] boards = new String[rounds];
+        List<Set<Character>> guessed = new ArrayList<>();
+        for (int i = 0; i < rounds; i++) {
+            String p = corpus.get(random.nextInt(corpus.size())).phrase;
+            Set<Character> g = new HashSet<>();
+            for (int j = 0; j < 4; j++)
+                g.add((char) ('A' + random.nextInt(26)));
+            StringBuilder sb = new StringBuilder();
+            for (char c : p.toCharArray())
+                sb.append(c == ' ' ? ' ' : g.contains(c) ? c : '_');
+            boards[i] = sb.toString();
+            guessed.add(g);
+        }
+        long hits = 0;
+        for (int i = 0; i < rounds; i++) {
+            PhraseIndex.Candidates c = index.candidates(boards[i], null, guessed.get(i));
+            assertTrue(c.count() >= 1, boards[i]);
+            hits += c.letterHits()[0];
+        }
+        assertTrue(hits > 0);
+    }
+}
@@ -0,0 +1,68 @@
+package com.rafael.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void testBurstThenSustainedRate() {
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(2, 4, now);
+        for (int i = 0; i < 4; i++)
+            assertTrue(bucket.tryTake(now), "token " + i);
+        assertFalse(bucket.tryTake(now));
+        // Half a second earns one token at 2 per second
+        assertTrue(bucket.tryTake(now + SECOND / 2));
+        assertFalse(bucket.tryTake(now + SECOND / 2));
+        // A long pause refills up to the burst, not beyond
+        long later = now + 60 * SECOND;
+        for (int i = 0; i < 4; i++)
+            assertTrue(bucket.tryTake(later));
+        assertFalse(bucket.tryTake(later));
+    }
+
+    @Test
+    public void testWorksAcrossTheNanoTimeSign() {
+        long now = Long.MAX_VALUE - SECOND / 4;
+        TokenBucket bucket = new TokenBucket(1, 1, now);
+        assertTrue(bucket.tryTake(now));
+        assertFalse(bucket.tryTake(now));
+        assertTrue(bucket.tryTake(now + SECOND)); // wraps to a negative nanoTime
+    }
+
+    @Test
+    public void testConcurrentTakersShareTheBurstExactly() throws Exception {
+        int threads = 8;
+        int burst = 1000;
+        long now = System.nanoTime();
+        // 1 token an hour: nothing is earned while the test runs
+        TokenBucket bucket = new TokenBucket(1.0 / 3600, burst, now);
+        AtomicInteger taken = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < burst; i++) {
+                    if (bucket.tryTake(now))
+                        taken.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(burst, taken.get());
+    }
+}
@@ -0,0 +1,130 @@
+package com.rafael.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class DataResourceTest {
+
+    @Test
+    public void testThemesRevalidateWithEtag() {
+        String etag = given()
+                .when().get("/api/data/themes")
+                .then()
+                .statusCode(200)
+                .body("themes", hasItem("default"))
+                .header("ETag", notNullValue())
+                .extract().header("ETag");
+
+        given().header("If-None-Match", etag)
+                .when().get("/api/data/themes")
+                .then()
+                .statusCode(304);
+    }
+
+    @Test
+    public void testVersionedBundleIsImmutable() {
+        Response latest = given()
+                .when().get("/api/data/bundle/default")
+                .then()
+                .statusCode(200)
+                .body("theme", is("default"))
+                .extract().response();
+        String location = latest.header("Content-Location");
+        assertNotNull(location);
+        assertFalse(latest.asString().contains("\"answer\""), "Bundle must not leak answers");
+
+        given()
+                .when().get(location)
+                .then()
+                .statusCode(200)
+                .header("Cache-Control", containsString("immutable"));
+
+        given()
+                .when().get("/api/data/bundle/default/0000")
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    public void testGeoHunterTargetsServedGzipped() {
+        given().header("Accept-Encoding", "gzip")
+                .when().get("/api/data/geohunter/targets")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", "gzip")
+                .body("[0].id", notNullValue());
+    }
+
+    @Test
+    public void testPlayerKeyAvoidsRepeatedQuestions() {
+        Map<Integer, Set<Integer>> dealt = new HashMap<>();
+        for (int round = 0; round < 3; round++) {
+            List<Map<String, Object>> questions = given()
+                    .queryParam("player", "sem-repeticao")
+                    .when().get("/api/data/quiz/questions")
+                    .then()
+                    .statusCode(200)
+                    .extract().jsonPath().getList("$");
+            for (Map<String, Object> q : questions) {
+                int id = (Integer) q.get("questionId");
+                assertTrue(dealt.computeIfAbsent((Integer) q.get("level"), l -> new HashSet<>()).add(id),
+                        "Question " + id + " repeated for the same player");
+            }
+        }
+
+        given().queryParam("player", "x".repeat(65))
+                .when().get("/api/data/quiz/questions")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    public void testGeoHunterScoresBatchOfGuesses() {
+        Map<String, Object> nearBrasilia = Map.of("latitude", -15.8, "longitude", -47.9);
+        Map<String, Object> nearParis = Map.of("latitude", 48.86, "longitude", 2.3);
+        given().contentType("application/json")
+                .body(Map.of("targetId", "brasilia", "guesses", List.of(nearBrasilia, nearParis)))
+                .when().post("/api/data/geohunter/score")
+                .then()
+                .statusCode(200)
+                .body("results.size()", is(2))
+                .body("results[0].targetId", is("brasilia"))
+                .body("results[0].nearestTargetId", is("brasilia"))
+                .body("results[1].nearestTargetId", is("paris"))
+                .body("results[0].score", is(4995));
+
+        // Without a target each guess is measured against its nearest one
+        given().contentType("application/json")
+                .body(Map.of("guesses", List.of(nearParis)))
+                .when().post("/api/data/geohunter/score")
+                .then()
+                .statusCode(200)
+                .body("results[0].targetId", is("paris"));
+
+        given().contentType("application/json")
+                .body(Map.of("targetId", "atlantida", "guesses", List.of(nearParis)))
+                .when().post("/api/data/geohunter/score")
+                .then()
+                .statusCode(404);
+        given().contentType("application/json")
+                .body(Map.of("guesses", List.of(Map.of("latitude", 91, "longitude", 0))))
+                .when().post("/api/data/geohunter/score")
+                .then()
+                .statusCode(400);
+    }
+}
@@ -0,0 +1,150 @@
+package com.rafael.resource;
+
+import com.rafael.service.FloodGuard;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+@TestProfile(FloodProtectionTest.TightLimitsProfile.class)
+public class FloodProtectionTest {
+
+    public static class TightLimitsProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "game.flood.max-connections-per-ip", "3",
+                    "game.flood.max-strikes", "5",
+                    "game.flood.max-frame-chars", "512");
+        }
+    }
+
+    @TestHTTPResource("/")
+    URI baseUri;
+
+    @Inject
+    FloodGuard floodGuard;
+
+    private long metric(String name) {
+        return ((Number) floodGuard.metrics().get(name)).longValue();
+    }
+
+    @Test
+    public void testFloodingPlayerIsCutOff() throws Exception {
+        TestClient client = new TestClient(baseUri, "/api/ws/game/sala-flood/Inundador/default");
+        try {
+            long droppedBefore = metric("disconnected");
+            try {
+                for (int i = 0; i < 100 && !client.closeCode.isDone(); i++)
+                    client.sendText("{\"type\":\"GUESS\",\"payload\":\"A\"}");
+            } catch (Exception e) {
+                // The server closed the socket mid-send
+            }
+            // Policy violation, once the strikes ran out
+            assertEquals(1008, client.closeCode.get(10, TimeUnit.SECONDS));
+            assertEquals(droppedBefore + 1, metric("disconnected"));
+            @SuppressWarnings("unchecked")
+            Map<String, Long> byType = (Map<String, Long>) floodGuard.metrics().get("droppedTypeRate");
+            assertTrue(byType.getOrDefault("GUESS", 0L) >= 5, byType.toString());
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testGeoHunterPinsHaveTheirOwnLimit() throws Exception {
+        TestClient client = new TestClient(baseUri, "/api/ws/geohunter/sala-pinos/Alfinete/default");
+        try {
+            long droppedBefore = metric("disconnected");
+            try {
+                // Well under the frame rate, far over the pin rate
+                for (int i = 0; i < 30 && !client.closeCode.isDone(); i++) {
+                    client.sendText("{\"type\":\"SUBMIT_PIN\",\"payload\":{\"latitude\":1,\"longitude\":2}}");
+                    Thread.sleep(110);
+                }
+            } catch (Exception e) {
+                // The server closed the socket mid-send
+            }
+            assertEquals(1008, client.closeCode.get(10, TimeUnit.SECONDS));
+            // Frames still in flight after the close was decided do not close it again
+            assertEquals(droppedBefore + 1, metric("disconnected"));
+            @SuppressWarnings("unchecked")
+            Map<String, Long> byType = (Map<String, Long>) floodGuard.metrics().get("droppedTypeRate");
+            assertTrue(byType.getOrDefault("SUBMIT_PIN", 0L) >= 5, byType.toString());
+
+            // Its buckets go away with the connection instead of being made again
+            long deadline = System.currentTimeMillis() + 5000;
+            while (metric("trackedConnections") > 0 && System.currentTimeMillis() < deadline)
+                Thread.sleep(20);
+            assertEquals(0, metric("trackedConnections"));
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testOversizedFrameIsDroppedUnparsed() throws Exception {
+        TestClient client = new TestClient(baseUri, "/api/ws/quiz/sala-grande/Remetente/default");
+        try {
+            long before = metric("droppedOversized");
+            client.sendText("{\"type\":\"SUBMIT_ANSWER\",\"payload\":\"" + "x".repeat(1000) + "\"}");
+            long deadline = System.currentTimeMillis() + 5000;
+            while (metric("droppedOversized") == before && System.currentTimeMillis() < deadline)
+                Thread.sleep(20);
+            assertEquals(before + 1, metric("droppedOversized"));
+            // One strike is not enough to be cut off
+            assertFalse(client.closeCode.isDone());
+        } finally {
+            client.connection.closeAndAwait();
+        }
+    }
+
+    @Test
+    public void testConnectionsPerAddressAreCapped() throws Exception {
+        List<TestClient> open = new ArrayList<>();
+        try {
+            // Earlier tests' connections are released asynchronously
+            long deadline = System.currentTimeMillis() + 5000;
+            while (open.size() < 3) {
+                try {
+                    open.add(new TestClient(baseUri, "/api/ws/game/sala-limite-" + open.size() + "/Jogador/default"));
+                } catch (Exception e) {
+                    assertTrue(System.currentTimeMillis() < deadline, "Slots were never released");
+                    Thread.sleep(50);
+                }
+            }
+            long refused = metric("refusedUpgrades");
+            assertThrows(Exception.class, () -> new TestClient(baseUri, "/api/ws/game/sala-cheia/Quarto/default"));
+            assertEquals(refused + 1, metric("refusedUpgrades"));
+
+            // Closing one frees a slot
+            open.remove(0).connection.closeAndAwait();
+            TestClient again = null;
+            deadline = System.currentTimeMillis() + 5000;
+            while (again == null) {
+                try {
+                    again = new TestClient(baseUri, "/api/ws/game/sala-cheia/Quarto/default");
+                } catch (Exception e) {
+                    assertTrue(System.currentTimeMillis() < deadline, "Slot was never released");
+                    Thread.sleep(50);
+                }
+            }
+            open.add(again);
+        } finally {
+            for (TestClient c : open) {
+                c.close();
+            }
+        }
+    }
+}
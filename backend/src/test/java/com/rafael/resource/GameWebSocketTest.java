@@ -0,0 +1,231 @@
+package com.rafael.resource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import com.rafael.service.PhraseSelector;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class GameWebSocketTest {
+
+    @TestHTTPResource("/")
+    URI baseUri;
+
+    @Inject
+    PhraseSelector phraseSelector;
+
+    @Test
+    public void testSimultaneousJoinsShareOneRoom() throws Exception {
+        // As matchmaking does: three players open the same new room at once
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            for (int round = 0; round < 10; round++) {
+                String path = "/api/ws/game/sala-corrida-" + round + "/";
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<TestClient>> joins = new ArrayList<>();
+                for (String name : List.of("Ana", "Bia", "Caio")) {
+                    joins.add(pool.submit(() -> {
+                        go.await();
+                        return new TestClient(baseUri, path + name + "/default");
+                    }));
+                }
+                go.countDown();
+                for (Future<TestClient> join : joins) {
+                    TestClient c = join.get(10, TimeUnit.SECONDS);
+                    JsonNode room;
+                    do {
+                        room = c.frame("STATE_UPDATE").get("payload").get("room");
+                    } while (!room.get("status").asText().equals("PLAYING"));
+                    assertEquals(3, room.get("players").size());
+                    for (JsonNode p : room.get("players"))
+                        assertFalse(p.get("isBot").asBoolean(), "a bot took a seat in round " + round);
+                    c.connection.closeAndAwait();
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testJoinsWhileTheRoomBroadcasts() throws Exception {
+        // Seating a player and relaying another player's frame lock the same room
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 10; round++) {
+                String path = "/api/ws/game/sala-transmissao-" + round + "/";
+                TestClient ana = new TestClient(baseUri, path + "Ana/default");
+                ana.frame("STATE_UPDATE");
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<TestClient>> joins = new ArrayList<>();
+                for (String name : List.of("Bia", "Caio")) {
+                    joins.add(pool.submit(() -> {
+                        go.await();
+                        return new TestClient(baseUri, path + name + "/default");
+                    }));
+                }
+                go.countDown();
+                ana.send("SPIN_START", null);
+                ana.send("SPIN_START", null);
+                List<TestClient> all = new ArrayList<>(List.of(ana));
+                for (Future<TestClient> join : joins)
+                    all.add(join.get(10, TimeUnit.SECONDS));
+                for (TestClient c : all) {
+                    JsonNode room;
+                    do {
+                        room = c.frame("STATE_UPDATE").get("payload").get("room");
+                    } while (!room.get("status").asText().equals("PLAYING"));
+                    assertEquals(3, room.get("players").size());
+                }
+                for (TestClient c : all)
+                    c.close();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFullRoomClosesTheSocket() throws Exception {
+        List<TestClient> seated = new ArrayList<>();
+        try {
+            for (String name : List.of("Ana", "Bia", "Caio"))
+                seated.add(new TestClient(baseUri, "/api/ws/game/sala-lotada/" + name + "/default"));
+            JsonNode room;
+            do {
+                room = seated.get(0).frame("STATE_UPDATE").get("payload").get("room");
+            } while (!room.get("status").asText().equals("PLAYING"));
+
+            TestClient late = new TestClient(baseUri, "/api/ws/game/sala-lotada/Davi/default");
+            assertTrue(late.await("ERROR").asText().contains("Sala cheia"));
+            assertEquals(1000, late.closeCode.get(10, TimeUnit.SECONDS));
+        } finally {
+            for (TestClient c : seated)
+                c.close();
+        }
+    }
+
+    @Test
+    public void testRoomOfAnotherGameIsRejected() throws Exception {
+        TestClient quiz = new TestClient(baseUri, "/api/ws/quiz/sala-de-quiz/Ana/default");
+        try {
+            quiz.frame("STATE_UPDATE");
+            TestClient bia = new TestClient(baseUri, "/api/ws/game/sala-de-quiz/Bia/default");
+            assertTrue(bia.await("ERROR").asText().contains("Sala em uso"));
+            assertEquals(1000, bia.closeCode.get(10, TimeUnit.SECONDS));
+        } finally {
+            quiz.close();
+        }
+    }
+
+    @Test
+    public void testHostPicksThePhraseCategory() throws Exception {
+        List<String> categories = phraseSelector.categories("default");
+        String first = categories.get(0);
+        String last = categories.get(categories.size() - 1);
+        TestClient ana = new TestClient(baseUri, "/api/ws/game/sala-categoria/Ana/default?weighted=true&category="
+                + URLEncoder.encode(first, StandardCharsets.UTF_8));
+        try {
+            JsonNode room = ana.frame("STATE_UPDATE").get("payload").get("room");
+            assertEquals(first, room.get("gameSession").get("category").asText());
+
+            // Starting with another category draws the phrase again
+            ana.send("START_GAME", Map.of("category", last));
+            do {
+                room = ana.frame("STATE_UPDATE").get("payload").get("room");
+            } while (!room.get("status").asText().equals("PLAYING"));
+            assertEquals(last, room.get("gameSession").get("category").asText());
+        } finally {
+            ana.connection.closeAndAwait();
+        }
+    }
+
+    @Test
+    public void testDroppedPlayerResumesWithMissedFrames() throws Exception {
+        TestClient ana = new TestClient(baseUri, "/api/ws/game/sala-volta/Ana/default");
+        JsonNode session = ana.frame("SESSION").get("payload");
+        String token = session.get("token").asText();
+        long seq = ana.frame("STATE_UPDATE").get("seq").asLong();
+
+        TestClient bia = new TestClient(baseUri, "/api/ws/game/sala-volta/Bia/default");
+        try {
+            bia.frame("STATE_UPDATE");
+            seq = ana.frame("STATE_UPDATE").get("seq").asLong();
+
+            // Ana's socket drops: her seat is held and Bia sees her as disconnected
+            ana.connection.closeAndAwait();
+            JsonNode held = bia.frame("STATE_UPDATE");
+            assertEquals(seq + 1, held.get("seq").asLong());
+            JsonNode players = held.get("payload").get("room").get("players");
+            assertEquals(2, players.size());
+            assertTrue(players.get(0).get("disconnected").asBoolean());
+
+            TestClient back = new TestClient(baseUri, "/api/ws/game/sala-volta/Ana/default?resume=" + token + "&lastSeq=" + seq);
+            try {
+                JsonNode resumed = back.next();
+                assertEquals("SESSION", resumed.get("type").asText());
+                assertTrue(resumed.get("payload").get("resumed").asBoolean());
+                assertEquals(session.get("playerId").asText(), resumed.get("payload").get("playerId").asText());
+                // Only the frame Ana missed, exactly as Bia got it
+                assertEquals(held, back.next());
+                assertEquals(session.get("playerId").asText(),
+                        bia.frame("PLAYER_RESUMED").get("payload").get("playerId").asText());
+            } finally {
+                back.connection.closeAndAwait();
+            }
+        } finally {
+            bia.connection.closeAndAwait();
+        }
+    }
+
+    @Test
+    public void testResumeWithoutSequenceGetsSnapshot() throws Exception {
+        TestClient ana = new TestClient(baseUri, "/api/ws/game/sala-retrato/Ana/default");
+        TestClient bia = new TestClient(baseUri, "/api/ws/game/sala-retrato/Bia/default");
+        try {
+            String token = ana.frame("SESSION").get("payload").get("token").asText();
+            bia.frame("STATE_UPDATE");
+            ana.connection.closeAndAwait();
+            bia.frame("STATE_UPDATE");
+
+            TestClient back = new TestClient(baseUri, "/api/ws/game/sala-retrato/Ana/default?resume=" + token);
+            try {
+                back.frame("SESSION");
+                JsonNode snapshot = back.next();
+                assertEquals("STATE_UPDATE", snapshot.get("type").asText());
+                assertEquals(2, snapshot.get("payload").get("room").get("players").size());
+            } finally {
+                back.connection.closeAndAwait();
+            }
+        } finally {
+            bia.connection.closeAndAwait();
+        }
+    }
+
+    @Test
+    public void testUnknownTokenJoinsAsNewPlayer() throws Exception {
+        TestClient ana = new TestClient(baseUri, "/api/ws/game/sala-nova/Ana/default?resume=desconhecido&lastSeq=3");
+        try {
+            assertFalse(ana.frame("SESSION").get("payload").get("resumed").asBoolean());
+            assertEquals(1, ana.frame("STATE_UPDATE").get("payload").get("room").get("players").size());
+        } finally {
+            ana.connection.closeAndAwait();
+        }
+    }
+}
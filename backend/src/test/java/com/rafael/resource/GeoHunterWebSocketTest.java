@@ -0,0 +1,100 @@
+package com.rafael.resource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rafael.model.GeoHunterTarget;
+import com.rafael.service.DataLoaderService;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class GeoHunterWebSocketTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TestHTTPResource("/")
+    URI baseUri;
+
+    private TestClient join(String roomId, String name) {
+        return new TestClient(baseUri, "/api/ws/geohunter/" + roomId + "/" + name + "/default");
+    }
+
+    @Inject
+    DataLoaderService dataLoader;
+
+    @Test
+    public void testRejectedJoinIsClosed() throws Exception {
+        TestClient client = join("ab", "Jogador");
+        assertTrue(client.await("ERROR").asText().contains("ID da sala"));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (client.connection.isOpen() && System.currentTimeMillis() < deadline)
+            Thread.sleep(20);
+        assertFalse(client.connection.isOpen(), "The server must close a rejected join");
+    }
+
+    @Test
+    public void testHundredPlayersGetOneRankedResultPerRound() throws Exception {
+        int players = 100;
+        List<TestClient> clients = new ArrayList<>();
+        for (int i = 0; i < players; i++)
+            clients.add(join("geo-sala", "Jogador" + i));
+        try {
+            TestClient host = clients.get(0);
+            // Joins are handled concurrently: start only once all of them landed
+            while (host.await("STATE_UPDATE").get("room").get("players").size() < players)
+                ;
+            host.send("START_GAME", Map.of("rounds", 1, "roundSeconds", 60));
+            JsonNode round = host.await("ROUND_START");
+            assertEquals(1, round.get("round").asInt());
+
+            // The host finds the target through its clues and pins right on it
+            GeoHunterTarget target = dataLoader.getGeoHunterTargets("default").stream()
+                    .filter(t -> t.clues != null && MAPPER.valueToTree(t.clues).equals(round.get("clues")))
+                    .findFirst().orElseThrow();
+            host.send("SUBMIT_PIN", Map.of("latitude", target.location.latitude,
+                    "longitude", target.location.longitude));
+            for (int i = 1; i < players; i++)
+                clients.get(i).send("SUBMIT_PIN", Map.of("latitude", -60 + i, "longitude", -170 + 3 * i));
+
+            // Everyone pinned: the round closes early with a single ranked frame
+            for (TestClient c : clients) {
+                JsonNode result = c.await("ROUND_RESULT");
+                assertEquals(target.id, result.get("target").get("id").asText());
+                assertTrue(result.get("final").asBoolean());
+                JsonNode ranked = result.get("results");
+                assertEquals(players, ranked.size());
+                assertEquals("Jogador0", ranked.get(0).get("name").asText());
+                assertEquals(5000, ranked.get(0).get("score").asInt());
+                for (int i = 1; i < ranked.size(); i++) {
+                    assertEquals(i + 1, ranked.get(i).get("rank").asInt());
+                    assertTrue(ranked.get(i - 1).get("score").asInt() >= ranked.get(i).get("score").asInt());
+                }
+            }
+        } finally {
+            for (TestClient c : clients)
+                c.connection.closeAndAwait();
+        }
+    }
+
+    @Test
+    public void testLateJoinerIsRejected() throws Exception {
+        TestClient host = join("geo-fechada", "Anfitriao");
+        try {
+            host.send("START_GAME", Map.of("rounds", 1, "roundSeconds", 60));
+            host.await("ROUND_START");
+            TestClient late = join("geo-fechada", "Atrasado");
+            assertEquals("ERROR", late.next().get("type").asText());
+        } finally {
+            host.connection.closeAndAwait();
+        }
+    }
+}
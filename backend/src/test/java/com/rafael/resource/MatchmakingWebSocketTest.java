@@ -0,0 +1,66 @@
+package com.rafael.resource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class MatchmakingWebSocketTest {
+
+    @TestHTTPResource("/")
+    URI baseUri;
+
+    @Test
+    public void testThreeQueuedPlayersShareARoom() throws Exception {
+        String[] names = { "Fila1", "Fila2", "Fila3" };
+        List<TestClient> queued = new ArrayList<>();
+        List<TestClient> players = new ArrayList<>();
+        try {
+            for (String name : names)
+                queued.add(new TestClient(baseUri, "/api/ws/matchmaking/" + name + "/default"));
+            String roomId = null;
+            for (TestClient c : queued) {
+                c.await("QUEUED");
+                JsonNode match = c.await("MATCH_FOUND");
+                if (roomId == null)
+                    roomId = match.get("roomId").asText();
+                assertEquals(roomId, match.get("roomId").asText());
+                assertEquals(3, match.get("players").size());
+                // The queue socket is done once the match is sent
+                assertEquals(1000, c.closeCode.get(10, TimeUnit.SECONDS));
+            }
+
+            for (String name : names)
+                players.add(new TestClient(baseUri, "/api/ws/game/" + roomId + "/" + name + "/default"));
+            // The third arrival starts the game, with no bots
+            JsonNode room;
+            do {
+                room = players.get(0).await("STATE_UPDATE").get("room");
+            } while (!room.get("status").asText().equals("PLAYING"));
+            assertEquals(3, room.get("players").size());
+            for (JsonNode p : room.get("players"))
+                assertFalse(p.get("isBot").asBoolean());
+        } finally {
+            for (TestClient c : queued) {
+                c.close();
+            }
+            for (TestClient c : players)
+                c.connection.closeAndAwait();
+        }
+    }
+
+    @Test
+    public void testUnknownThemeIsRejected() throws Exception {
+        TestClient client = new TestClient(baseUri, "/api/ws/matchmaking/Jogador/tema-inexistente");
+        assertTrue(client.await("ERROR").asText().contains("Tema"));
+        assertEquals(1000, client.closeCode.get(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,129 @@
+package com.rafael.resource;
+
+import com.rafael.service.DataLoaderService;
+import com.rafael.service.GameHistoryService;
+import com.rafael.service.QuestionStore;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class MillionaireSessionResourceTest {
+
+    @Inject
+    DataLoaderService dataLoader;
+
+    @Inject
+    GameHistoryService historyService;
+
+    private JsonPath start(String player) {
+        return given().contentType(ContentType.JSON)
+                .body(Map.of("playerName", player))
+                .when().post("/api/millionaire/sessions")
+                .then()
+                .statusCode(201)
+                .body("status", is("PLAYING"))
+                .body("question.options.size()", is(4))
+                .extract().jsonPath();
+    }
+
+    private int correctAnswer(JsonPath state) {
+        QuestionStore store = dataLoader.getMillionaireStore();
+        return store.answer(store.byId(state.getInt("question.questionId")));
+    }
+
+    private JsonPath answer(String id, int answerIndex) {
+        return given().contentType(ContentType.JSON)
+                .body(Map.of("answerIndex", answerIndex))
+                .when().post("/api/millionaire/sessions/" + id + "/answer")
+                .then()
+                .statusCode(200)
+                .extract().jsonPath();
+    }
+
+    @Test
+    public void testFullLadderIsWonAndRecorded() {
+        String player = "Sessao Vencedora";
+        JsonPath state = start(player);
+        String id = state.getString("sessionId");
+        int steps = state.getInt("steps");
+        assertEquals(steps, state.getList("ladder").size());
+
+        for (int step = 0; step < steps; step++) {
+            assertEquals(step, state.getInt("step"));
+            state = answer(id, correctAnswer(state));
+            assertTrue(state.getBoolean("correct"));
+        }
+        assertEquals("WON", state.getString("status"));
+        assertNull(state.get("question"));
+
+        List<Map<String, Object>> ranking = historyService.getRanking();
+        assertTrue(ranking.stream().anyMatch(r -> player.equals(r.get("playerName")) && (int) r.get("wins") > 0),
+                "Win must be recorded server-side");
+
+        given().contentType(ContentType.JSON).body(Map.of("answerIndex", 0))
+                .when().post("/api/millionaire/sessions/" + id + "/answer")
+                .then()
+                .statusCode(409);
+    }
+
+    @Test
+    public void testWrongAnswerEndsTheGame() {
+        JsonPath state = start("Sessao Perdedora");
+        String id = state.getString("sessionId");
+        int wrong = (correctAnswer(state) + 1) % 4;
+        JsonPath after = answer(id, wrong);
+        assertFalse(after.getBoolean("correct"));
+        assertEquals("LOST", after.getString("status"));
+    }
+
+    @Test
+    public void testLifelinesCanBeUsedOnce() {
+        JsonPath state = start("Sessao Ajudas");
+        String id = state.getString("sessionId");
+        int questionId = state.getInt("question.questionId");
+
+        given().when().post("/api/millionaire/sessions/" + id + "/lifelines/fifty-fifty")
+                .then()
+                .statusCode(200)
+                .body("hiddenOptions.size()", is(2))
+                .body("lifelines.fiftyFifty", is(false));
+        given().when().post("/api/millionaire/sessions/" + id + "/lifelines/fifty-fifty")
+                .then()
+                .statusCode(409);
+
+        int newId = given().when().post("/api/millionaire/sessions/" + id + "/lifelines/skip")
+                .then()
+                .statusCode(200)
+                .body("question", notNullValue())
+                .extract().jsonPath().getInt("question.questionId");
+        assertNotEquals(questionId, newId);
+
+        given().when().get("/api/millionaire/sessions/" + id)
+                .then()
+                .statusCode(200)
+                .body("lifelines.skip", is(false))
+                .body("lifelines.audience", is(true))
+                .body("hiddenOptions", nullValue());
+    }
+
+    @Test
+    public void testUnknownSessionAndMissingPlayer() {
+        given().when().get("/api/millionaire/sessions/nao-existe").then().statusCode(404);
+        given().contentType(ContentType.JSON).body(Map.of("theme", "default"))
+                .when().post("/api/millionaire/sessions")
+                .then()
+                .statusCode(400);
+    }
+}
@@ -0,0 +1,152 @@
+package com.rafael.resource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.rafael.service.DataLoaderService;
+import com.rafael.service.QuestionStore;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class QuizWebSocketTest {
+
+    @TestHTTPResource("/")
+    URI baseUri;
+
+    private TestClient join(String roomId, String name) {
+        return new TestClient(baseUri, "/api/ws/quiz/" + roomId + "/" + name + "/default");
+    }
+
+    @Inject
+    DataLoaderService dataLoader;
+
+    @Test
+    public void testServerScoresAnswersAndClosesWhenAllAnswered() throws Exception {
+        TestClient host = join("quiz-servidor", "Anfitriao");
+        TestClient guest = join("quiz-servidor", "Convidado");
+        try {
+            host.awaitPlayers(2);
+            host.send("START_GAME", null);
+            JsonNode question = host.await("QUESTION");
+            assertEquals(0, question.get("step").asInt());
+            assertFalse(question.has("answer"), "The question frame must not carry the answer");
+            guest.await("QUESTION");
+
+            QuestionStore store = dataLoader.getQuizStore("default");
+            int answer = store.answer(store.byId(question.get("questionId").asInt()));
+            int wrong = (answer + 1) % question.get("options").size();
+
+            // A client-computed score is no longer trusted
+            guest.send("SUBMIT_SCORE", 1000);
+            host.send("SUBMIT_ANSWER", answer);
+            host.await("ANSWER_RECEIVED");
+            host.send("SUBMIT_ANSWER", wrong); // second answer is ignored
+            guest.send("SUBMIT_ANSWER", Map.of("answerIndex", wrong));
+
+            // Everyone answered: the question closes before its time is up
+            JsonNode closed = host.await("QUESTION_CLOSED");
+            assertEquals(answer, closed.get("correctAnswerIndex").asInt());
+            assertEquals(2, closed.get("answeredCount").asInt());
+            assertEquals(1, closed.get("distribution").get(answer).asInt());
+            assertEquals(1, closed.get("distribution").get(wrong).asInt());
+            JsonNode state = host.await("STATE_UPDATE").get("room");
+            for (JsonNode p : state.get("players")) {
+                int score = p.get("score").asInt();
+                if (p.get("name").asText().equals("Anfitriao"))
+                    assertTrue(score > 900 && score <= 1000, "Quick right answer, got " + score);
+                else
+                    assertEquals(0, score);
+            }
+
+            host.send("NEXT_QUESTION", null);
+            assertEquals(1, guest.await("QUESTION").get("step").asInt());
+        } finally {
+            host.connection.closeAndAwait();
+            guest.connection.closeAndAwait();
+        }
+    }
+
+    @Test
+    public void testHostGetsLiveHistogram() throws Exception {
+        TestClient host = join("quiz-histograma", "Anfitriao");
+        TestClient guest = join("quiz-histograma", "Convidado");
+        try {
+            host.awaitPlayers(2);
+            host.send("START_GAME", null);
+            JsonNode question = host.await("QUESTION");
+            guest.await("QUESTION");
+            guest.send("SUBMIT_ANSWER", 2);
+            guest.await("ANSWER_RECEIVED");
+
+            JsonNode histogram = host.await("ANSWER_HISTOGRAM");
+            assertEquals(question.get("step").asInt(), histogram.get("step").asInt());
+            assertEquals(1, histogram.get("answeredCount").asInt());
+            assertEquals(2, histogram.get("players").asInt());
+            assertEquals(question.get("options").size(), histogram.get("distribution").size());
+            assertEquals(1, histogram.get("distribution").get(2).asInt());
+
+            // Only the host gets the histogram
+            host.send("NEXT_QUESTION", null);
+            guest.await("QUESTION_CLOSED");
+            assertFalse(guest.pending("ANSWER_HISTOGRAM"));
+        } finally {
+            host.connection.closeAndAwait();
+            guest.connection.closeAndAwait();
+        }
+    }
+
+    @Test
+    public void testLargeRoomSendsLeaderboardViews() throws Exception {
+        int players = 60; // above game.quiz.large-room-threshold
+        List<TestClient> clients = new ArrayList<>();
+        for (int i = 0; i < players; i++)
+            clients.add(join("quiz-auditorio", "Jogador" + i));
+        try {
+            TestClient host = clients.get(0);
+            host.awaitPlayers(players);
+            host.send("START_GAME", null);
+            JsonNode question = host.await("QUESTION");
+            QuestionStore store = dataLoader.getQuizStore("default");
+            int answer = store.answer(store.byId(question.get("questionId").asInt()));
+            host.send("SUBMIT_ANSWER", answer);
+            host.await("ANSWER_RECEIVED");
+            // Half the room answers wrong, so there are round scores to hand out
+            int wrong = (answer + 1) % question.get("options").size();
+            for (TestClient c : clients.subList(players / 2, players)) {
+                c.send("SUBMIT_ANSWER", wrong);
+                c.await("ANSWER_RECEIVED");
+            }
+            host.send("NEXT_QUESTION", null);
+
+            // The host still sees the whole room
+            assertEquals(players / 2 + 1, host.await("QUESTION_CLOSED").get("roundScores").size());
+            assertEquals(players, host.await("STATE_UPDATE").get("room").get("players").size());
+
+            // Everyone else gets the top, their rank and their neighbours only
+            TestClient guest = clients.get(players - 1);
+            JsonNode scores = guest.await("QUESTION_CLOSED").get("roundScores");
+            assertTrue(scores.size() >= 2 && scores.size() <= 11, scores.toString());
+            JsonNode room = guest.await("STATE_UPDATE").get("room");
+            assertEquals(players, room.get("playerCount").asInt());
+            assertEquals(1, room.get("players").size());
+            assertEquals("Jogador" + (players - 1), room.get("players").get(0).get("name").asText());
+            JsonNode board = room.get("leaderboard");
+            assertEquals(10, board.get("top").size());
+            assertEquals("Jogador0", board.get("top").get(0).get("name").asText());
+            assertTrue(board.get("top").get(0).get("score").asInt() > 0);
+            assertEquals(2, board.get("rank").asInt());
+            assertTrue(board.get("around").size() <= 5);
+        } finally {
+            for (TestClient c : clients)
+                c.connection.closeAndAwait();
+        }
+    }
+}
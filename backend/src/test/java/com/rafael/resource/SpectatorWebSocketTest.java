@@ -0,0 +1,74 @@
+package com.rafael.resource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rafael.service.SpectatorHub;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class SpectatorWebSocketTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TestHTTPResource("/")
+    URI baseUri;
+
+    @Inject
+    SpectatorHub hub;
+
+    @Test
+    public void testSpectatorsGetThePlayersFrames() throws Exception {
+        TestClient host = new TestClient(baseUri, "/api/ws/game/sala-palco/Anfitriao/default");
+        host.frameText("STATE_UPDATE");
+        List<TestClient> audience = new ArrayList<>();
+        try {
+            for (int i = 0; i < 50; i++)
+                audience.add(new TestClient(baseUri, "/api/ws/spectate/sala-palco"));
+            // Joining spectators start from the room's current state
+            for (TestClient s : audience)
+                assertEquals(1, MAPPER.readTree(s.frameText("STATE_UPDATE")).get("payload").get("room").get("players").size());
+            assertEquals(50, hub.spectatorCount("sala-palco"));
+
+            TestClient guest = new TestClient(baseUri, "/api/ws/game/sala-palco/Convidado/default");
+            try {
+                String frame = host.frameText("STATE_UPDATE");
+                assertEquals(2, MAPPER.readTree(frame).get("payload").get("room").get("players").size());
+                // Byte for byte the frame the players got
+                for (TestClient s : audience)
+                    assertEquals(frame, s.frameText("STATE_UPDATE"));
+            } finally {
+                guest.connection.closeAndAwait();
+            }
+        } finally {
+            for (TestClient s : audience)
+                s.connection.closeAndAwait();
+            host.connection.closeAndAwait();
+        }
+    }
+
+    @Test
+    public void testUnknownRoomIsRejected() throws Exception {
+        TestClient spectator = new TestClient(baseUri, "/api/ws/spectate/sala-inexistente");
+        assertTrue(spectator.frameText("ERROR").contains("Sala não encontrada"));
+    }
+
+    @Test
+    public void testOnlyRoletrandoRoomsCanBeWatched() throws Exception {
+        TestClient player = new TestClient(baseUri, "/api/ws/quiz/sala-quiz-palco/Jogador/default");
+        try {
+            player.frameText("STATE_UPDATE");
+            TestClient spectator = new TestClient(baseUri, "/api/ws/spectate/sala-quiz-palco");
+            assertTrue(spectator.frameText("ERROR").contains("Sala não encontrada"));
+        } finally {
+            player.connection.closeAndAwait();
+        }
+    }
+}
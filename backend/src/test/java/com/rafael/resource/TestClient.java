@@ -0,0 +1,104 @@
+package com.rafael.resource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.websockets.next.BasicWebSocketConnector;
+import io.quarkus.websockets.next.WebSocketClientConnection;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A connection to one of the game endpoints, for the endpoint tests. Queues the
+ * text of every frame it receives, in arrival order, and records the code the
+ * server closed it with.
+ */
+final class TestClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+    final CompletableFuture<Integer> closeCode = new CompletableFuture<>();
+    final WebSocketClientConnection connection;
+
+    TestClient(URI baseUri, String path) {
+        connection = BasicWebSocketConnector.create()
+                .baseUri(baseUri)
+                // Handle frames on the event loop, in the order they arrive
+                .executionModel(BasicWebSocketConnector.ExecutionModel.NON_BLOCKING)
+                .path(path)
+                .onTextMessage((c, text) -> frames.add(text))
+                .onClose((c, reason) -> closeCode.complete(reason.getCode()))
+                .connectAndAwait();
+    }
+
+    /** Text of the next frame. */
+    String nextText() throws InterruptedException {
+        String frame = frames.poll(10, TimeUnit.SECONDS);
+        assertNotNull(frame, "Timed out waiting for a frame");
+        return frame;
+    }
+
+    JsonNode next() throws Exception {
+        return MAPPER.readTree(nextText());
+    }
+
+    /** Text of the next frame of {@code type}, skipping the others. */
+    String frameText(String type) throws Exception {
+        while (true) {
+            String frame = frames.poll(10, TimeUnit.SECONDS);
+            assertNotNull(frame, "Timed out waiting for " + type);
+            if (type.equals(MAPPER.readTree(frame).get("type").asText()))
+                return frame;
+        }
+    }
+
+    /** The next frame of {@code type}, whole. */
+    JsonNode frame(String type) throws Exception {
+        return MAPPER.readTree(frameText(type));
+    }
+
+    /** Payload of the next frame of {@code type}. */
+    JsonNode await(String type) throws Exception {
+        return frame(type).get("payload");
+    }
+
+    /** Joins are handled concurrently: waits until the room has all {@code players}. */
+    void awaitPlayers(int players) throws Exception {
+        while (await("STATE_UPDATE").get("room").get("players").size() < players)
+            ;
+    }
+
+    /** Whether a frame of {@code type} was received and not read yet. */
+    boolean pending(String type) throws Exception {
+        for (String frame : frames) {
+            if (type.equals(MAPPER.readTree(frame).get("type").asText()))
+                return true;
+        }
+        return false;
+    }
+
+    void send(String type, Object payload) throws Exception {
+        Map<String, Object> msg = new HashMap<>();
+        msg.put("type", type);
+        msg.put("payload", payload);
+        sendText(MAPPER.writeValueAsString(msg));
+    }
+
+    void sendText(String text) {
+        connection.sendTextAndAwait(text);
+    }
+
+    /** Closes the connection unless the server already did. */
+    void close() {
+        if (connection.isOpen())
+            connection.closeAndAwait();
+    }
+}
@@ -0,0 +1,109 @@
+package com.rafael.service;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class BlockingWorkersTest {
+
+    @Inject
+    BlockingWorkers workers;
+
+    @Inject
+    GameHistoryService historyService;
+
+    @Inject
+    Vertx vertx;
+
+    @ConfigProperty(name = "game.blocking.max-pending")
+    int max;
+
+    /** Runs {@code action} on an event loop, as a room timer would, and waits for it. */
+    private <T> T onEventLoop(Supplier<T> action) throws Exception {
+        CompletableFuture<T> out = new CompletableFuture<>();
+        vertx.getOrCreateContext().runOnContext(v -> {
+            try {
+                out.complete(action.get());
+            } catch (Throwable t) {
+                out.completeExceptionally(t);
+            }
+        });
+        return out.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testWorkLeavesTheEventLoopAndComesBack() throws Exception {
+        CompletableFuture<String> ranOn = new CompletableFuture<>();
+        CompletableFuture<Boolean> backOnContext = new CompletableFuture<>();
+        onEventLoop(() -> {
+            Context context = Vertx.currentContext();
+            workers.submit("test", () -> {
+                ranOn.complete(Context.isOnEventLoopThread() ? "event loop" : Thread.currentThread().getName());
+                return 42;
+            }).onComplete(ar -> backOnContext.complete(
+                    ar.result() == 42 && Vertx.currentContext() == context && Context.isOnEventLoopThread()));
+            return null;
+        });
+        assertTrue(ranOn.get(10, TimeUnit.SECONDS).startsWith("roletrando-blocking"), ranOn.get());
+        assertTrue(backOnContext.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testHistoryFromAnEventLoopNeverWritesThere() throws Exception {
+        long before = historyService.eventLoopWrites();
+        List<Future<Void>> writes = new ArrayList<>();
+        // A burst of games ending on timers at once
+        onEventLoop(() -> {
+            for (int i = 0; i < 50; i++)
+                writes.add(historyService.recordLater("Teste",
+                        List.of(new GameHistoryService.Result("Jogador" + i, i, i == 49))));
+            return null;
+        });
+        for (Future<Void> w : writes)
+            w.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        assertEquals(before, historyService.eventLoopWrites());
+
+        // The detector itself: a direct write from the loop is counted
+        onEventLoop(() -> {
+            historyService.record("Jogador", "Teste", 0, false);
+            return null;
+        });
+        assertEquals(before + 1, historyService.eventLoopWrites());
+    }
+
+    @Test
+    public void testPendingWorkIsBounded() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<Integer>> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < max; i++)
+                held.add(workers.submit("held", () -> {
+                    release.await(10, TimeUnit.SECONDS);
+                    return 1;
+                }));
+            Future<Integer> extra = workers.submit("extra", () -> 1);
+            assertTrue(extra.failed());
+            assertInstanceOf(RejectedExecutionException.class, extra.cause());
+        } finally {
+            release.countDown();
+        }
+        for (Future<Integer> f : held)
+            assertEquals(1, f.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS));
+        assertEquals(0, workers.metrics().get("pending"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.rafael.service;
+
+import com.rafael.model.GameEngine;
+import com.rafael.model.GameSession;
+import com.rafael.model.WheelPhrase;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class BotBrainTest {
+
+    @Inject
+    BotBrain brain;
+
+    @Inject
+    GameEngine engine;
+
+    @Inject
+    DataLoaderService dataLoader;
+
+    /** Plays one phrase to the end; returns the moves it took. */
+    private int play(WheelPhrase phrase, BotBrain.Difficulty level, Random rng) {
+        GameSession session = engine.startGame(phrase.category, phrase.phrase);
+        session.currentSpinValue = 100;
+        int moves = 0;
+        while (!session.gameOver) {
+            BotBrain.Decision move = brain.decide("default", session, level, rng);
+            assertNotNull(move, "no move left on " + session.obscuredPhrase);
+            moves++;
+            if (move.solves()) {
+                engine.solve(session.id, move.solution());
+                assertTrue(session.solveCorrect, "wrong solve " + move.solution() + " for " + phrase.phrase);
+            } else {
+                assertFalse(session.guessedLetters.contains(move.letter()));
+                engine.processGuess(session.id, move.letter());
+            }
+            assertTrue(moves <= 26, "too many moves on " + phrase.phrase);
+        }
+        return moves;
+    }
+
+    @Test
+    public void testSmartBotsSolveEveryPhraseInFewerMoves() {
+        Random rng = new Random(7);
+        int easy = 0, medium = 0, hard = 0;
+        for (WheelPhrase phrase : dataLoader.getWheelPhrases("default")) {
+            easy += play(phrase, BotBrain.Difficulty.EASY, rng);
+            medium += play(phrase, BotBrain.Difficulty.MEDIUM, rng);
+            hard += play(phrase, BotBrain.Difficulty.HARD, rng);
+        }
+        assertTrue(hard < easy);
+        assertTrue(medium < easy);
+    }
+
+    @Test
+    public void testSolvesAsSoonAsOnePhraseFits() {
+        WheelPhrase phrase = dataLoader.getWheelPhrases("default").get(0);
+        GameSession session = engine.startGame(phrase.category, phrase.phrase);
+        BotBrain.Decision move = brain.decide("default", session, BotBrain.Difficulty.HARD, new Random(1));
+        // Fresh board: the category and the word lengths may already be enough
+        if (!move.solves()) {
+            assertTrue(Character.isLetter(move.letter()));
+        } else {
+            assertEquals(phrase.phrase, move.solution());
+        }
+
+        // A phrase outside the theme still gets letters, by frequency
+        GameSession unknown = engine.startGame("NADA", "XYZWQQQQKKKKJJJJWWWWYY");
+        move = brain.decide("default", unknown, BotBrain.Difficulty.HARD, new Random(1));
+        assertFalse(move.solves());
+        assertEquals('A', move.letter());
+    }
+}
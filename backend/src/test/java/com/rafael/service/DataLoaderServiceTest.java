@@ -0,0 +1,84 @@
+package com.rafael.service;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class DataLoaderServiceTest {
+
+    @Inject
+    DataLoaderService dataLoader;
+
+    @Test
+    public void testDefaultThemeIsListedFirst() {
+        assertFalse(dataLoader.getAvailableThemes().isEmpty());
+        assertEquals("default", dataLoader.getAvailableThemes().get(0));
+    }
+
+    @Test
+    public void testResolvedViewsAreSharedAndReadOnly() {
+        // Repeated lookups must hand back the same pre-resolved list, not a copy
+        assertSame(dataLoader.getWheelPhrases("jatai"), dataLoader.getWheelPhrases("jatai"));
+        assertThrows(UnsupportedOperationException.class,
+                () -> dataLoader.getWheelPhrases("default").clear());
+    }
+
+    @Test
+    public void testUnknownThemeFallsBackToDefault() {
+        assertSame(dataLoader.getMillionaireStore("default"), dataLoader.getMillionaireStore("nao-existe"));
+        assertSame(dataLoader.getGeoHunterTargets("default"), dataLoader.getGeoHunterTargets(null));
+    }
+
+    @Test
+    public void testStoreLookupsAgree() {
+        QuestionStore store = dataLoader.getMillionaireStore("default");
+        assertFalse(store.isEmpty());
+        for (int l = 0; l < store.levelCount(); l++) {
+            int number = store.levelNumber(l);
+            assertEquals(l, store.levelOrdinal(number));
+            assertEquals(store.levelSize(l), store.questionCount(number));
+            for (int i = 0; i < store.levelSize(l); i++) {
+                int q = store.question(number, i);
+                assertEquals(store.questionAt(l, i), q);
+                assertEquals(q, store.byId(store.id(q)));
+                assertEquals(4, store.optionCount(q));
+                assertTrue(store.answer(q) >= 0 && store.answer(q) < 4);
+            }
+        }
+        assertEquals(-1, store.question(-1, 0));
+        assertEquals(-1, store.question(1, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testQuizQuestionsGetUniqueStableIds() {
+        QuestionStore store = dataLoader.getQuizStore("default");
+        java.util.Set<Integer> ids = new java.util.HashSet<>();
+        for (int q = 0; q < store.size(); q++) {
+            int id = store.id(q);
+            assertTrue(id > 0 && id < store.idLimit());
+            assertTrue(ids.add(id), "Duplicate quiz id " + id);
+        }
+    }
+
+    @Test
+    public void testJsonEditedAfterCompileWins() throws Exception {
+        Path dir = Files.createTempDirectory("stale-bin");
+        Path json = Files.writeString(dir.resolve("quiz.json"), "{}");
+        Path bin = Files.write(dir.resolve("quiz.bin"), new byte[0]);
+        Files.setLastModifiedTime(json, FileTime.fromMillis(1_000_000));
+        Files.setLastModifiedTime(bin, FileTime.fromMillis(2_000_000));
+        assertFalse(DataLoaderService.isStale(bin.toUri().toURL(), json.toUri().toURL()));
+
+        // Dev mode copies the edited JSON over, the binary stays from the last build
+        Files.setLastModifiedTime(json, FileTime.fromMillis(3_000_000));
+        assertTrue(DataLoaderService.isStale(bin.toUri().toURL(), json.toUri().toURL()));
+        assertFalse(DataLoaderService.isStale(bin.toUri().toURL(), null));
+    }
+}
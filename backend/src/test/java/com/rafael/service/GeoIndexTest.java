@@ -0,0 +1,101 @@
+package com.rafael.service;
+
+import com.rafael.model.GeoHunterTarget;
+import com.rafael.model.GeoLocation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeoIndexTest {
+
+    private static GeoHunterTarget target(String id, double latitude, double longitude) {
+        GeoHunterTarget t = new GeoHunterTarget();
+        t.id = id;
+        t.name = id;
+        t.location = new GeoLocation();
+        t.location.latitude = latitude;
+        t.location.longitude = longitude;
+        return t;
+    }
+
+    private static List<GeoHunterTarget> randomTargets(int count, long seed) {
+        SplittableRandom rng = new SplittableRandom(seed);
+        List<GeoHunterTarget> targets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Uniform on the sphere, so the poles get their fair share
+            double latitude = Math.toDegrees(Math.asin(rng.nextDouble(-1, 1)));
+            targets.add(target("t" + i, latitude, rng.nextDouble(-180, 180)));
+        }
+        return targets;
+    }
+
+    @Test
+    public void testHaversineAndScore() {
+        assertEquals(111.195, GeoIndex.haversineKm(0, 0, 0, 1), 0.001);
+        assertEquals(Math.PI * GeoIndex.EARTH_RADIUS_KM, GeoIndex.haversineKm(0, 0, 0, 180), 1e-6);
+        // Across the antimeridian
+        assertEquals(GeoIndex.haversineKm(10, 179.5, 10, -179.5), GeoIndex.haversineKm(10, -0.5, 10, 0.5), 1e-9);
+
+        assertEquals(GeoIndex.MAX_SCORE, GeoIndex.score(0));
+        assertEquals(Math.round(GeoIndex.MAX_SCORE / Math.E), GeoIndex.score(GeoIndex.SCORE_SCALE_KM));
+        assertTrue(GeoIndex.score(100) > GeoIndex.score(1000));
+    }
+
+    @Test
+    public void testNearestMatchesBruteForceOnLargeMap() {
+        List<GeoHunterTarget> targets = randomTargets(100_000, 7);
+        GeoIndex index = GeoIndex.of(targets);
+        assertEquals(targets.size(), index.size());
+
+        SplittableRandom rng = new SplittableRandom(11);
+        int queries = 500;
+        double[] lats = new double[queries];
+        double[] lons = new double[queries];
+        for (int i = 0; i < queries; i++) {
+            lats[i] = rng.nextDouble(-90, 90);
+            lons[i] = rng.nextDouble(-180, 180);
+        }
+        int[] nearest = new int[queries];
+        double[] distances = new double[queries];
+        int[] scores = new int[queries];
+        index.score(lats, lons, -1, nearest, distances, scores);
+
+        for (int i = 0; i < queries; i++) {
+            double best = Double.MAX_VALUE;
+            for (int h = 0; h < index.size(); h++)
+                best = Math.min(best, GeoIndex.haversineKm(lats[i], lons[i], index.latitude(h), index.longitude(h)));
+            assertEquals(best, distances[i], 1e-6, "Query " + i + " missed the nearest target");
+            assertEquals(GeoIndex.score(distances[i]), scores[i]);
+        }
+    }
+
+    @Test
+    public void testFixedTargetAndDuplicatePoints() {
+        List<GeoHunterTarget> targets = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            targets.add(target("same" + i, -15.7934, -47.8828));
+        targets.add(target("paris", 48.8584, 2.2945));
+        targets.add(target("sem-local", 0, 0));
+        targets.get(targets.size() - 1).location = null;
+        GeoIndex index = GeoIndex.of(targets);
+        assertEquals(1001, index.size());
+        assertEquals(-1, index.byId("sem-local"));
+
+        int paris = index.byId("paris");
+        assertEquals(paris, index.nearest(48.85, 2.29));
+        int[] nearest = new int[1];
+        double[] distances = new double[1];
+        int[] scores = new int[1];
+        index.score(new double[] { -15.8 }, new double[] { -47.9 }, paris, nearest, distances, scores);
+        assertTrue(index.id(nearest[0]).startsWith("same"));
+        assertEquals(GeoIndex.haversineKm(-15.8, -47.9, 48.8584, 2.2945), distances[0], 1e-9);
+        assertTrue(scores[0] < GeoIndex.MAX_SCORE / 10);
+
+        assertTrue(GeoIndex.empty().isEmpty());
+        assertEquals(-1, GeoIndex.empty().nearest(0, 0));
+    }
+}
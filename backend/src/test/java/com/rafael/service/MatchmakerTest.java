@@ -0,0 +1,94 @@
+package com.rafael.service;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Each test queues on a theme of its own, so the matcher's own timer, which
+ * keeps running, cannot mix their players.
+ */
+@QuarkusTest
+public class MatchmakerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Inject
+    Matchmaker matchmaker;
+
+    @Test
+    public void testThousandsOfPlayersGoThreeToARoom() throws Exception {
+        int threads = 4;
+        int perThread = 7_500;
+        int players = threads * perThread;
+        Map<String, Matchmaker.Assignment> byPlayer = new ConcurrentHashMap<>();
+        CountDownLatch allMatched = new CountDownLatch(players);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    String name = "J" + thread + "-" + i;
+                    matchmaker.enqueue("carga", name, a -> {
+                        assertNull(byPlayer.put(name, a), name + " matched twice");
+                        allMatched.countDown();
+                    });
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        matchmaker.tick(System.nanoTime());
+        assertTrue(allMatched.await(10, TimeUnit.SECONDS));
+
+        Set<String> rooms = new HashSet<>();
+        for (Matchmaker.Assignment a : byPlayer.values()) {
+            assertEquals(Matchmaker.ROOM_SIZE, a.players().size());
+            assertEquals(Matchmaker.ROOM_SIZE, (int) matchmaker.expectedPlayers(a.roomId()));
+            rooms.add(a.roomId());
+        }
+        assertEquals(players / Matchmaker.ROOM_SIZE, rooms.size());
+        for (String room : rooms)
+            matchmaker.release(room);
+    }
+
+    @Test
+    public void testLeftoverPlayersGetBotsAfterTheWait() {
+        List<Matchmaker.Assignment> got = new CopyOnWriteArrayList<>();
+        long now = System.nanoTime();
+        // Caio leaves before the others arrive, so no round ever sees three players
+        matchmaker.enqueue("sozinhos", "Caio", got::add).cancel();
+        matchmaker.enqueue("sozinhos", "Ana", got::add);
+        matchmaker.enqueue("sozinhos", "Bia", got::add);
+
+        matchmaker.tick(now + SECOND);
+        assertTrue(got.isEmpty(), "Two players are not a room yet");
+
+        long botRooms = ((Number) matchmaker.metrics().get("botRooms")).longValue();
+        matchmaker.tick(now + 21 * SECOND);
+        assertEquals(2, got.size());
+        assertEquals(got.get(0), got.get(1));
+        assertEquals(List.of("Ana", "Bia"), got.get(0).players());
+        assertEquals(2, (int) matchmaker.expectedPlayers(got.get(0).roomId()));
+        assertEquals(botRooms + 1, ((Number) matchmaker.metrics().get("botRooms")).longValue());
+        matchmaker.release(got.get(0).roomId());
+        assertNull(matchmaker.expectedPlayers(got.get(0).roomId()));
+    }
+}
@@ -0,0 +1,147 @@
+package com.rafael.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.rafael.model.ClientMessage;
+import com.rafael.model.GameMessage;
+import com.rafael.model.GameSession;
+import com.rafael.model.Player;
+import com.rafael.model.Room;
+import com.rafael.model.RoomState;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class MessageCodecTest {
+
+    @Inject
+    MessageCodec codec;
+
+    @Inject
+    ObjectMapper mapper;
+
+    private static Room room() {
+        Room room = new Room("sala-codec");
+        for (int i = 0; i < 3; i++) {
+            Player p = new Player("id-" + i, "Jogador " + i, "https://avatar/" + i, "conn-" + i, i == 2);
+            p.score = 100 * i;
+            p.resumeToken = "segredo-" + i;
+            room.players.add(p);
+        }
+        room.players.get(1).disconnected = true;
+        room.gameSession = new GameSession("sessao", "Objeto", "B_L_ A___", 300, new TreeSet<>(Set.of('B', 'L')), false);
+        room.gameSession.message = "A roleta parou em 300 pontos!";
+        room.status = "PLAYING";
+        room.hostConnectionId = "conn-0";
+        room.currentTurnIndex = 1;
+        return room;
+    }
+
+    @Test
+    public void testReadsEveryType() {
+        assertEquals(new ClientMessage.Guess('A'), codec.read("{\"type\":\"GUESS\",\"payload\":\"A\"}"));
+        assertEquals(new ClientMessage.Solve("BOLA AZUL"), codec.read("{\"type\":\"SOLVE\",\"payload\":\"BOLA AZUL\"}"));
+        assertSame(ClientMessage.SpinStart.INSTANCE, codec.read("{\"type\":\"SPIN_START\"}"));
+        assertSame(ClientMessage.SpinEnd.INSTANCE, codec.read("{\"type\":\"SPIN_END\",\"payload\":null}"));
+        assertSame(ClientMessage.StartGame.UNLIMITED, codec.read("{\"type\":\"START_GAME\"}"));
+        assertEquals(new ClientMessage.StartGame(5), codec.read("{\"type\":\"START_GAME\",\"payload\":5}"));
+        assertEquals(new ClientMessage.StartGame(null, "ANIMAL", true),
+                codec.read("{\"type\":\"START_GAME\",\"payload\":{\"category\":\"ANIMAL\",\"weighted\":true}}"));
+        // Absent keeps the room's draw mode, false turns weighted draws off
+        assertEquals(new ClientMessage.StartGame(null, null, false),
+                codec.read("{\"type\":\"START_GAME\",\"payload\":{\"weighted\":false}}"));
+        assertEquals(new ClientMessage.SubmitAnswer(2), codec.read("{\"type\":\"SUBMIT_ANSWER\",\"payload\":2}"));
+        assertEquals(new ClientMessage.SubmitAnswer(3),
+                codec.read("{\"type\":\"SUBMIT_ANSWER\",\"payload\":{\"step\":1,\"answerIndex\":3}}"));
+        assertSame(ClientMessage.SubmitScore.INSTANCE, codec.read("{\"type\":\"SUBMIT_SCORE\",\"payload\":{\"score\":[1,2]}}"));
+        assertSame(ClientMessage.NextQuestion.INSTANCE, codec.read("{\"type\":\"NEXT_QUESTION\"}"));
+        assertEquals(new ClientMessage.SubmitPin(-15.5, -47.25),
+                codec.read("{\"type\":\"SUBMIT_PIN\",\"payload\":{\"longitude\":-47.25,\"latitude\":-15.5}}"));
+        assertEquals(new ClientMessage.StartGame(3, null, null, 45),
+                codec.read("{\"type\":\"START_GAME\",\"payload\":{\"rounds\":3,\"roundSeconds\":45}}"));
+        // Field order is the sender's choice; unknown fields are skipped
+        assertEquals(new ClientMessage.Guess('E'),
+                codec.read("{\"payload\":\"E\",\"extra\":{\"a\":[1]},\"type\":\"GUESS\"}"));
+        assertEquals(new ClientMessage.SubmitAnswer(1),
+                codec.read("{\"payload\":{\"answerIndex\":1},\"type\":\"SUBMIT_ANSWER\"}"));
+    }
+
+    @Test
+    public void testRejectsWhatPlayersMayNotSend() {
+        assertNull(codec.read("{\"type\":\"STATE_UPDATE\",\"payload\":{}}"));
+        assertNull(codec.read("{\"type\":\"GUESS\",\"payload\":\"\"}"));
+        assertNull(codec.read("{\"type\":\"GUESS\",\"payload\":7}"));
+        assertNull(codec.read("{\"type\":\"GUESS\"}"));
+        assertNull(codec.read("{\"type\":\"SOLVE\",\"payload\":[\"A\"]}"));
+        assertNull(codec.read("{\"type\":\"SUBMIT_ANSWER\",\"payload\":\"2\"}"));
+        assertNull(codec.read("{\"type\":\"SUBMIT_ANSWER\",\"payload\":{\"index\":2}}"));
+        assertNull(codec.read("{\"type\":\"SUBMIT_PIN\",\"payload\":{\"latitude\":1}}"));
+        assertNull(codec.read("{\"type\":\"SUBMIT_PIN\",\"payload\":[1,2]}"));
+        assertNull(codec.read("{\"type\":7}"));
+        assertNull(codec.read("{\"payload\":\"A\"}"));
+        assertNull(codec.read("[\"GUESS\",\"A\"]"));
+        assertNull(codec.read("{\"type\":\"GUESS\",\"payload\":\"A\""));
+        assertNull(codec.read("não é json"));
+    }
+
+    @Test
+    public void testRoomJsonMatchesTheBeanSerializer() throws Exception {
+        Room room = room();
+        String reflective = new ObjectMapper().writeValueAsString(room);
+        assertEquals(reflective, mapper.writeValueAsString(room));
+        assertFalse(reflective.contains("segredo"));
+
+        GameMessage frame = new GameMessage("STATE_UPDATE", new RoomState(room, "id-1"));
+        frame.seq = 42L;
+        assertEquals(new ObjectMapper().writeValueAsString(frame), codec.write(frame));
+        assertFalse(codec.write(new GameMessage("STATE_UPDATE", new RoomState(room))).contains("currentPlayerTurnId"));
+
+        // Every payload class gets its own writer; the envelope stays the mapper's
+        for (GameMessage msg : List.of(new GameMessage("ERROR", "Sala cheia."), new GameMessage("SPIN_START", 300),
+                new GameMessage("PIN_ACCEPTED", Map.of("round", 2)), new GameMessage("SPIN_END", null)))
+            assertEquals(mapper.writeValueAsString(msg), codec.write(msg));
+    }
+
+    /**
+     * The hand-written serializers against the bean serializers Jackson builds
+     * for the same classes: a field added to Room or Player and not to the
+     * serializers fails here.
+     */
+    @Test
+    public void testHandWrittenSerializersRoundTrip() throws Exception {
+        ObjectMapper plain = new ObjectMapper();
+        for (Class<?> type : List.of(Room.class, Player.class)) {
+            Set<String> properties = new TreeSet<>();
+            for (BeanPropertyDefinition property : plain.getSerializationConfig()
+                    .introspect(plain.constructType(type)).findProperties()) {
+                if (property.couldSerialize())
+                    properties.add(property.getName());
+            }
+            Object value = type == Room.class ? room() : room().players.get(1);
+            Set<String> written = new TreeSet<>();
+            mapper.valueToTree(value).fieldNames().forEachRemaining(written::add);
+            assertEquals(properties, written, type.getSimpleName());
+        }
+
+        // Read back by the bean deserializers, a player writes out the same again
+        Player player = room().players.get(1);
+        String json = mapper.writeValueAsString(player);
+        assertEquals(plain.writeValueAsString(player), json);
+        assertEquals(json, mapper.writeValueAsString(plain.readValue(json, Player.class)));
+
+        Room room = room();
+        room.gameSession = null; // the sessions keep the bean serializers
+        json = mapper.writeValueAsString(room);
+        Room back = plain.readValue(json, Room.class);
+        assertEquals(json, mapper.writeValueAsString(back));
+        assertEquals(plain.writeValueAsString(back), json);
+    }
+}
@@ -0,0 +1,32 @@
+package com.rafael.service;
+
+import com.rafael.model.WheelPhrase;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class ModerationFilterTest {
+
+    @Inject
+    ModerationFilter moderation;
+
+    @Inject
+    DataLoaderService dataLoader;
+
+    @Test
+    public void testBundledListBlocksNamesButNoThemePhrase() {
+        assertFalse(moderation.allows("Merdinha"));
+        assertFalse(moderation.allows("c4r4lh0"));
+        assertTrue(moderation.allows("Jogador1"));
+
+        // Solving a board must never be refused
+        for (String theme : dataLoader.getAvailableThemes()) {
+            for (WheelPhrase p : dataLoader.getWheelPhrases(theme))
+                assertTrue(moderation.allows(p.phrase), theme + ": " + p.phrase);
+        }
+        assertTrue(((Number) moderation.metrics().get("rejected")).longValue() >= 2);
+    }
+}
@@ -0,0 +1,63 @@
+package com.rafael.service;
+
+import com.rafael.model.WheelPhrase;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class PhraseSelectorTest {
+
+    @Inject
+    PhraseSelector selector;
+
+    @Test
+    public void testBagPlaysEveryItemBeforeRepeating() {
+        PhraseSelector.ShuffleBag bag = new PhraseSelector.ShuffleBag(new int[] { 0, 1, 2, 3, 4, 5, 6 });
+        SplittableRandom rng = new SplittableRandom(42);
+        int previous = -1;
+        for (int round = 0; round < 50; round++) {
+            Set<Integer> seen = new HashSet<>();
+            for (int i = 0; i < 7; i++) {
+                int pick = bag.draw(rng);
+                assertTrue(seen.add(pick), "Repeated " + pick + " within a round");
+                assertNotEquals(previous, pick, "Same item twice in a row");
+                previous = pick;
+            }
+        }
+    }
+
+    @Test
+    public void testAliasTableFollowsWeights() {
+        PhraseSelector.AliasTable table = PhraseSelector.AliasTable.of(new double[] { 1, 3, 0.5, 5.5 });
+        SplittableRandom rng = new SplittableRandom(7);
+        int[] counts = new int[4];
+        int draws = 200_000;
+        for (int i = 0; i < draws; i++)
+            counts[table.sample(rng)]++;
+        double[] expected = { 0.1, 0.3, 0.05, 0.55 };
+        for (int i = 0; i < 4; i++)
+            assertEquals(expected[i], counts[i] / (double) draws, 0.01, "Weight of item " + i);
+    }
+
+    @Test
+    public void testCategoryDrawsStayInCategory() {
+        List<String> categories = selector.categories("default");
+        assertFalse(categories.isEmpty());
+        String category = categories.get(categories.size() - 1);
+        for (int i = 0; i < 20; i++) {
+            WheelPhrase p = selector.next("default", category, ThreadLocalRandom.current());
+            assertEquals(category, p.category);
+        }
+        assertNotNull(selector.next("default", "CATEGORIA INEXISTENTE", ThreadLocalRandom.current()));
+        assertEquals(categories, selector.categories("tema-desconhecido"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.rafael.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuestionBankParserTest {
+
+    private static InputStream json(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testParsesLevelsAndSharesRepeatedStrings() throws Exception {
+        QuestionBankParser parser = new QuestionBankParser(new JsonFactory());
+        QuestionStore store = parser.parseQuiz(json("""
+                { "title": "ignorado", "levels": [
+                  { "level": 1, "label": "Fácil", "extra": { "a": [1, 2] }, "questions": [
+                    { "question": "Sol é estrela?", "options": ["Verdadeiro", "Falso"], "answer": 0 },
+                    { "id": 7, "question": "Lua é planeta?", "options": ["Verdadeiro", "Falso"], "answer": 1 } ] },
+                  { "questions": [], "label": "Fácil", "level": 2 } ] }
+                """));
+
+        assertEquals(2, store.levelCount());
+        assertEquals(1, store.levelNumber(0));
+        assertEquals("Fácil", store.levelTitle(0));
+        assertEquals(2, store.questionCount(1));
+        int q = store.question(1, 1);
+        assertEquals(7, store.id(q));
+        assertEquals(1, store.answer(q));
+        assertEquals(8, store.id(store.question(1, 0)));
+        assertSame(store.option(store.question(1, 0), 0), store.option(q, 0));
+        assertSame(store.levelTitle(0), store.levelTitle(1));
+        // 2 texts + 2 options + 1 label
+        assertEquals(5, store.poolSize());
+    }
+
+    @Test
+    public void testParsesMillionairePrizes() throws Exception {
+        QuestionStore store = new QuestionBankParser(new JsonFactory()).parseMillionaire(json("""
+                { "levels": [ { "questions": [
+                    { "question": "Capital?", "options": ["A", "B", "C", "D"], "answer": 2 } ],
+                  "level": 3, "prize": "R$ 5.000" } ] }
+                """));
+        assertEquals("R$ 5.000", store.levelTitle(store.levelOrdinal(3)));
+        assertEquals(List.of("A", "B", "C", "D"), store.options(store.question(3, 0)));
+        assertEquals(2, store.answer(store.question(3, 0)));
+    }
+
+    @Test
+    public void testEmptyDocumentReturnsNull() throws Exception {
+        assertNull(new QuestionBankParser(new JsonFactory()).parseQuiz(json("  \n")));
+    }
+
+    @Test
+    public void testMalformedDocumentFails() {
+        assertThrows(JsonParseException.class,
+                () -> new QuestionBankParser(new JsonFactory()).parseQuiz(json("[ 1, 2 ]")));
+    }
+}
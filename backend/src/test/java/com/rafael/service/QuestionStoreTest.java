@@ -0,0 +1,129 @@
+package com.rafael.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rafael.model.MillionaireData;
+import com.rafael.model.MillionaireLevel;
+import com.rafael.model.MillionaireQuestion;
+import com.rafael.model.QuizData;
+import com.rafael.model.QuizLevel;
+import com.rafael.model.QuizQuestion;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuestionStoreTest {
+
+    private static QuizLevel quizLevel(int number, String label, QuizQuestion... questions) {
+        QuizLevel level = new QuizLevel();
+        level.level = number;
+        level.label = label;
+        level.questions = new ArrayList<>(List.of(questions));
+        return level;
+    }
+
+    private static QuizQuestion quizQuestion(int id, String text, int answer, String... options) {
+        QuizQuestion q = new QuizQuestion();
+        q.id = id;
+        q.question = text;
+        q.answer = answer;
+        q.options = new ArrayList<>(List.of(options));
+        return q;
+    }
+
+    @Test
+    public void testPacksLevelsAndSharesStrings() {
+        QuizQuestion first = quizQuestion(0, "Sol é estrela?", 0, "Verdadeiro", "Falso");
+        QuizQuestion second = quizQuestion(5, "Lua é planeta?", 1, "Verdadeiro", "Falso");
+        QuizQuestion third = quizQuestion(5, "Marte é vermelho?", 9, "Verdadeiro", "Falso");
+        QuestionStore store = QuestionStore.fromQuiz(List.of(
+                quizLevel(2, "Fácil", first, second),
+                quizLevel(-1, "Ignorado", quizQuestion(0, "?", 0, "a", "b")),
+                quizLevel(4, "Fácil", third)));
+
+        assertEquals(2, store.levelCount());
+        assertEquals(3, store.size());
+        assertEquals(0, store.questionCount(3));
+        assertEquals(2, store.questionCount(2));
+        assertEquals(1, store.levelOrdinal(4));
+        assertEquals("Fácil", store.levelTitle(1));
+        // 3 texts + 2 options + 1 label
+        assertEquals(6, store.poolSize());
+
+        int q = store.question(2, 1);
+        assertEquals("Lua é planeta?", store.text(q));
+        assertEquals(List.of("Verdadeiro", "Falso"), store.options(q));
+        assertEquals(1, store.answer(q));
+        assertEquals(-1, store.answer(store.question(4, 0)), "Out-of-range answers never match");
+
+        // Declared id kept, missing and duplicate ids assigned after it; the sources stay as they were
+        assertEquals(5, store.id(q));
+        assertEquals(6, store.id(store.question(2, 0)));
+        assertEquals(7, store.id(store.question(4, 0)));
+        assertEquals(q, store.byId(5));
+        assertEquals(8, store.idLimit());
+        assertEquals(0, first.id);
+        assertEquals(5, third.id);
+    }
+
+    @Test
+    public void testRejectsRepeatedAndHugeLevelNumbers() {
+        QuestionStore store = QuestionStore.fromQuiz(List.of(
+                quizLevel(1, "Fácil", quizQuestion(0, "Sol é estrela?", 0, "Sim", "Não")),
+                quizLevel(1, "Outra", quizQuestion(0, "Repetida?", 0, "x", "y")),
+                quizLevel(Integer.MAX_VALUE, "Enorme", quizQuestion(0, "Longe?", 0, "x", "y")),
+                quizLevel(2, "Médio", quizQuestion(0, "Lua é planeta?", 1, "Sim", "Não"))));
+
+        assertEquals(2, store.levelCount());
+        assertEquals("Fácil", store.levelTitle(store.levelOrdinal(1)));
+        assertEquals("Lua é planeta?", store.text(store.question(2, 0)));
+        assertEquals(-1, store.levelOrdinal(Integer.MAX_VALUE));
+        assertEquals(2, store.size());
+        // Strings of the dropped levels are not kept: 2 texts + 2 options + 2 labels
+        assertEquals(6, store.poolSize());
+    }
+
+    @Test
+    public void testEmptyLadder() {
+        QuestionStore store = QuestionStore.fromQuiz(List.of());
+        assertTrue(store.isEmpty());
+        assertEquals(0, store.questionCount(1));
+        assertEquals(-1, store.question(1, 0));
+        assertEquals(-1, store.byId(1));
+    }
+
+    /**
+     * The retained size of the default theme as packed in the store against the
+     * objects Jackson binds it to, measured with JOL.
+     */
+    @Test
+    public void testStoreIsSmallerThanTheObjects() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        ClassLoader cl = getClass().getClassLoader();
+        List<MillionaireLevel> millionaire;
+        List<QuizLevel> quiz;
+        try (InputStream is = cl.getResourceAsStream("data/default/millionaire.json")) {
+            millionaire = mapper.readValue(is, MillionaireData.class).levels;
+        }
+        try (InputStream is = cl.getResourceAsStream("data/default/quiz.json")) {
+            quiz = mapper.readValue(is, QuizData.class).levels;
+        }
+        long before = GraphLayout.parseInstance(millionaire, quiz).totalSize();
+
+        QuestionStore millionaireStore = QuestionStore.fromMillionaire(millionaire);
+        QuestionStore quizStore = QuestionStore.fromQuiz(quiz);
+        long after = GraphLayout.parseInstance(millionaireStore, quizStore).totalSize();
+
+        assertTrue(after < before, "Packed store should be smaller than the object graph");
+
+        MillionaireQuestion sample = millionaire.get(0).questions.get(0);
+        int q = millionaireStore.questionAt(0, 0);
+        assertEquals(sample.question, millionaireStore.text(q));
+        assertEquals(sample.options, millionaireStore.options(q));
+        assertEquals(sample.answer, millionaireStore.answer(q));
+    }
+}
@@ -0,0 +1,124 @@
+package com.rafael.service;
+
+import com.rafael.model.Player;
+import com.rafael.model.Room;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class RoomJournalTest {
+
+    @Inject
+    RoomJournal journal;
+
+    /** A fresh directory per test run, so nothing is recovered from an earlier one. */
+    @ConfigProperty(name = "game.journal.dir")
+    Path dir;
+
+    private static Player player(String name, boolean bot) {
+        Player p = new Player(name + "-id", name, "", "conn-" + name, bot);
+        if (!bot)
+            p.resumeToken = "token-" + name;
+        return p;
+    }
+
+    @Test
+    public void testUnfinishedRoomIsRebuilt() throws Exception {
+        journal.created("sala-diario", "default", "Objeto", "BOLA AZUL");
+        journal.join("sala-diario", player("Ana", false));
+        journal.join("sala-diario", player("Bia", false));
+        journal.join("sala-diario", player("Robô 1", true));
+        journal.started("sala-diario");
+        journal.spin("sala-diario", 0, 500);
+        journal.guess("sala-diario", 0, 'A', 1000);
+        journal.spin("sala-diario", 0, 300);
+        journal.guess("sala-diario", 0, 'X', 1000);
+        journal.turn("sala-diario", 1);
+        journal.spin("sala-diario", 1, 0);
+        journal.turn("sala-diario", 2);
+        assertTrue(journal.awaitFlush(5000));
+
+        List<RoomJournal.Event> events = RoomJournal.read(dir.resolve("sala-diario.rj"));
+        assertEquals(12, events.size());
+        Room room = journal.rebuild("sala-diario", events);
+        assertNotNull(room);
+        assertEquals("PLAYING", room.status);
+        assertEquals(3, room.players.size());
+        assertEquals(1000, room.players.get(0).score);
+        assertEquals(0, room.players.get(1).score);
+        assertEquals(2, room.currentTurnIndex);
+        assertEquals("___A A___", room.gameSession.obscuredPhrase);
+        assertTrue(room.gameSession.guessedLetters.contains('X'));
+        // Players come back disconnected, holding their resume tokens
+        assertTrue(room.players.get(0).disconnected);
+        assertEquals("token-Ana", room.players.get(0).resumeToken);
+        assertEquals(room.players.get(0).connectionId, room.hostConnectionId);
+        assertTrue(room.players.get(2).isBot);
+
+        // A crash mid-write leaves a torn last event, which is skipped
+        byte[] bytes = Files.readAllBytes(dir.resolve("sala-diario.rj"));
+        byte[] torn = Arrays.copyOf(bytes, bytes.length - 2);
+        assertEquals(11, RoomJournal.read(new ByteArrayInputStream(torn)).size());
+        // ...and so is garbage where the next event's kind should be
+        byte[] corrupt = Arrays.copyOf(bytes, bytes.length + 3);
+        corrupt[bytes.length] = (byte) 0xEE;
+        assertEquals(12, RoomJournal.read(new ByteArrayInputStream(corrupt)).size());
+    }
+
+    @Test
+    public void testFinishedGameIsReplayedAndDiscardedRoomIsDeleted() throws Exception {
+        journal.created("sala-fim", "default", "Objeto", "BOLA");
+        journal.join("sala-fim", player("Ana", false));
+        journal.started("sala-fim");
+        journal.solve("sala-fim", 0, "BOLA", 4000);
+        journal.ended("sala-fim");
+        journal.created("sala-vazia", "default", "Objeto", "BOLA");
+        journal.join("sala-vazia", player("Bia", false));
+        journal.discard("sala-vazia");
+        assertTrue(journal.awaitFlush(5000));
+
+        assertFalse(Files.exists(dir.resolve("sala-fim.rj")));
+        assertFalse(Files.exists(dir.resolve("sala-vazia.rj")));
+        String body = given().when().get("/api/rooms/sala-fim/replay")
+                .then().statusCode(200)
+                .body(containsString("\"type\":\"SOLVE\""))
+                .body(not(containsString("token-Ana")))
+                .extract().asString();
+        String[] lines = body.trim().split("\n");
+        assertEquals(5, lines.length);
+        assertTrue(lines[0].contains("\"type\":\"CREATED\""));
+        assertTrue(lines[4].contains("\"type\":\"ENDED\""));
+
+        given().when().get("/api/rooms/sala-vazia/replay").then().statusCode(404);
+        given().when().get("/api/rooms/x/replay").then().statusCode(400);
+    }
+
+    @Test
+    public void testManyActionsStayCompact() throws Exception {
+        int actions = 20_000; // well under game.journal.queue-size, so nothing is dropped
+        Object dropped = journal.metrics().get("droppedRooms");
+        journal.created("sala-carga", "default", "Objeto", "BOLA AZUL");
+        journal.join("sala-carga", player("Ana", false));
+        for (int i = 0; i < actions; i++)
+            journal.guess("sala-carga", 0, (char) ('A' + i % 26), i);
+        assertTrue(journal.awaitFlush(30_000));
+        long size = Files.size(dir.resolve("sala-carga.rj"));
+        journal.discard("sala-carga");
+
+        assertEquals(dropped, journal.metrics().get("droppedRooms"));
+        assertTrue(size > actions, "Every action is on disk");
+        assertTrue(size < actions * 16L, size / actions + " bytes per action");
+    }
+}
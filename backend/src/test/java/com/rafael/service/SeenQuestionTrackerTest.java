@@ -0,0 +1,96 @@
+package com.rafael.service;
+
+import com.rafael.model.QuizLevel;
+import com.rafael.model.QuizQuestion;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SeenQuestionTrackerTest {
+
+    private static SeenQuestionTracker tracker(Duration ttl, long budgetMb) {
+        SeenQuestionTracker tracker = new SeenQuestionTracker();
+        tracker.ttl = ttl;
+        tracker.memoryBudgetMb = budgetMb;
+        return tracker;
+    }
+
+    /** One level with {@code count} questions whose ids start at {@code firstId}. */
+    private static QuestionStore store(int count, int firstId) {
+        QuizLevel level = new QuizLevel();
+        level.level = 1;
+        level.questions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            QuizQuestion q = new QuizQuestion();
+            q.id = firstId + i;
+            q.question = "Pergunta " + i;
+            q.options = List.of("A", "B");
+            level.questions.add(q);
+        }
+        return QuestionStore.fromQuiz(List.of(level));
+    }
+
+    private static void assertDealsEveryQuestionOnce(QuestionStore store, SeenQuestionTracker.Seen seen) {
+        SplittableRandom rng = new SplittableRandom(3);
+        Set<Integer> dealt = new HashSet<>();
+        for (int i = 0; i < store.levelSize(0); i++)
+            assertTrue(dealt.add(seen.pick(store, 0, rng, -1)), "Question dealt twice before the level ran out");
+    }
+
+    @Test
+    public void testBitsetDealsEachQuestionOnceThenStartsOver() {
+        SeenQuestionTracker tracker = tracker(Duration.ofHours(1), 64);
+        QuestionStore store = store(40, 1);
+        SeenQuestionTracker.Seen seen = tracker.forPlayer("ana", "quiz", "default", store);
+        assertDealsEveryQuestionOnce(store, seen);
+
+        // Level exhausted: it starts over, still honouring the excluded index
+        assertNotEquals(5, seen.pick(store, 0, new SplittableRandom(1), 5));
+        assertEquals(1L, tracker.metrics().get("levelsRecycled"));
+        assertSame(seen, tracker.forPlayer("ana", "quiz", "default", store));
+        assertNotSame(seen, tracker.forPlayer("ana", "millionaire", "default", store));
+    }
+
+    @Test
+    public void testLargeIdSpacesUseBloomFilter() {
+        SeenQuestionTracker tracker = tracker(Duration.ofHours(1), 64);
+        QuestionStore store = store(200, SeenQuestionTracker.BITSET_MAX_IDS + 1000);
+        SeenQuestionTracker.Seen seen = tracker.forPlayer("bia", "quiz", "grande", store);
+        assertDealsEveryQuestionOnce(store, seen);
+        long bytes = (Long) tracker.metrics().get("bytes");
+        assertTrue(bytes >= SeenQuestionTracker.BLOOM_BITS / 8 && bytes < 2 * SeenQuestionTracker.BLOOM_BITS / 8);
+    }
+
+    @Test
+    public void testMissingOrOversizedKeyIsNotTracked() {
+        SeenQuestionTracker tracker = tracker(Duration.ofHours(1), 64);
+        assertNull(tracker.forPlayer(null, "quiz", "default", store(3, 1)));
+        assertFalse(SeenQuestionTracker.isValidKey("x".repeat(SeenQuestionTracker.MAX_KEY_LENGTH + 1)));
+    }
+
+    @Test
+    public void testSweepEnforcesTtlAndBudget() throws Exception {
+        QuestionStore store = store(10, 1);
+        SeenQuestionTracker expiring = tracker(Duration.ZERO, 64);
+        expiring.forPlayer("caio", "quiz", "default", store);
+        Thread.sleep(5);
+        expiring.sweep();
+        assertEquals(0, expiring.metrics().get("entries"));
+        assertEquals(1L, expiring.metrics().get("expired"));
+        assertEquals(0L, expiring.metrics().get("bytes"));
+
+        SeenQuestionTracker bounded = tracker(Duration.ofHours(1), 0);
+        for (int i = 0; i < 100; i++)
+            bounded.forPlayer("jogador" + i, "quiz", "default", store);
+        bounded.sweep();
+        assertEquals(0, bounded.metrics().get("entries"));
+        assertEquals(100L, bounded.metrics().get("evicted"));
+    }
+}
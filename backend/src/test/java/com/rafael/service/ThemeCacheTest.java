@@ -0,0 +1,96 @@
+package com.rafael.service;
+
+import com.rafael.model.WheelPhrase;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+@TestProfile(ThemeCacheTest.SmallCacheProfile.class)
+public class ThemeCacheTest {
+
+    static final Path DIR = Path.of("target", "test-theme-cache").toAbsolutePath();
+
+    public static class SmallCacheProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            try {
+                for (int i = 1; i <= 4; i++) {
+                    Files.createDirectories(DIR.resolve("t" + i));
+                    Files.writeString(DIR.resolve("t" + i + "/wheel.json"),
+                            "[{\"category\": \"TESTE\", \"phrase\": \"TEMA " + i + "\"}]");
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return Map.of("game.data.dir", DIR.toString(), "game.theme-cache.size", "2");
+        }
+    }
+
+    @Inject
+    DataLoaderService dataLoader;
+
+    @Test
+    public void testCacheStaysBoundedAndKeepsDefault() {
+        List<WheelPhrase> defaultPhrases = dataLoader.getWheelPhrases("default");
+        for (int round = 0; round < 3; round++) {
+            for (int i = 1; i <= 4; i++) {
+                assertEquals("TEMA " + i, dataLoader.getWheelPhrases("t" + i).get(0).phrase);
+                assertTrue(dataLoader.getLoadedThemeCount() <= 3, "2 themes + pinned default");
+            }
+        }
+        assertSame(defaultPhrases, dataLoader.getWheelPhrases("default"), "default must never be evicted");
+        assertTrue(dataLoader.getAvailableThemes().containsAll(List.of("default", "t1", "t2", "t3", "t4")));
+    }
+
+    @Test
+    public void testConcurrentFirstAccessLoadsOnce() throws Exception {
+        // Touch other themes so t1 is evicted and must be loaded again
+        for (int i = 2; i <= 4; i++)
+            dataLoader.getWheelPhrases("t" + i);
+
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<List<WheelPhrase>>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(pool.submit(() -> {
+                go.await();
+                return dataLoader.getWheelPhrases("t1");
+            }));
+        }
+        go.countDown();
+        List<WheelPhrase> first = results.get(0).get();
+        for (Future<List<WheelPhrase>> f : results)
+            assertSame(first, f.get());
+        pool.shutdown();
+    }
+
+    @Test
+    public void testDerivedValuesGoAwayWithTheirTheme() {
+        Object first = dataLoader.derived("t1", "probe", theme -> new Object());
+        assertSame(first, dataLoader.derived("t1", "probe", theme -> new Object()));
+        assertEquals("default", dataLoader.derived("missing", "name", theme -> theme));
+
+        // Evict t1: its derived value is not kept past it
+        for (int i = 2; i <= 4; i++)
+            dataLoader.getWheelPhrases("t" + i);
+        assertNotSame(first, dataLoader.derived("t1", "probe", theme -> new Object()));
+    }
+}
@@ -0,0 +1,56 @@
+package com.rafael.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThemeCompilerTest {
+
+    @Test
+    public void testCompiledMillionaireRoundTrips() throws Exception {
+        Path dir = Files.createTempDirectory("compile-ok");
+        Files.createDirectories(dir.resolve("mini"));
+        Files.writeString(dir.resolve("mini/millionaire.json"), """
+                { "levels": [ { "level": 1, "prize": "R$ 1.000", "questions": [
+                    { "question": "Capital?", "options": ["A", "B", "C", "D"], "answer": 1 },
+                    { "question": "Cor?", "options": ["E", "F", "G", "H"], "answer": 3 } ] } ] }
+                """);
+
+        List<String> themes = new ThemeCompiler().compileAll(dir);
+        assertEquals(List.of("mini"), themes);
+        assertEquals("mini\n", Files.readString(dir.resolve(ThemeCompiler.INDEX_FILE)));
+
+        QuestionStore store;
+        try (InputStream is = Files.newInputStream(dir.resolve("mini/millionaire.bin"))) {
+            store = ThemeCodec.readMillionaire(is);
+        }
+        assertEquals(1, store.levelCount());
+        assertEquals("R$ 1.000", store.levelTitle(0));
+        int q = store.question(1, 1);
+        assertEquals(List.of("E", "F", "G", "H"), store.options(q));
+        assertEquals(3, store.answer(q));
+        assertEquals(2, store.id(q), "Ids are assigned at build time");
+    }
+
+    @Test
+    public void testMalformedDataFailsTheBuild() throws Exception {
+        Path dir = Files.createTempDirectory("compile-bad");
+        Files.createDirectories(dir.resolve("bad"));
+        Files.writeString(dir.resolve("bad/quiz.json"), """
+                { "levels": [ { "level": 1, "label": "Fácil", "questions": [
+                    { "question": "Quanto?", "options": ["1", "2"], "answer": 5 } ] } ] }
+                """);
+        Files.writeString(dir.resolve("bad/wheel.json"), "[ { \"category\": \"X\", \"frase\": \"Y\" } ]");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> ThemeCompiler.main(new String[] { dir.toString() }));
+        assertTrue(e.getMessage().contains("answer 5"), e.getMessage());
+        assertTrue(e.getMessage().contains("wheel.json"), e.getMessage());
+        assertFalse(Files.exists(dir.resolve("bad/quiz.bin")));
+    }
+}
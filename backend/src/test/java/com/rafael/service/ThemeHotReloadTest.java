@@ -0,0 +1,81 @@
+package com.rafael.service;
+
+import com.rafael.model.WheelPhrase;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+@TestProfile(ThemeHotReloadTest.ExternalDirProfile.class)
+public class ThemeHotReloadTest {
+
+    static final Path DIR = Path.of("target", "test-themes").toAbsolutePath();
+
+    public static class ExternalDirProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            try {
+                Files.createDirectories(DIR.resolve("hot"));
+                writeWheel("PRIMEIRA FRASE");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return Map.of("game.data.dir", DIR.toString());
+        }
+    }
+
+    @Inject
+    DataLoaderService dataLoader;
+
+    @Test
+    public void testExternalThemeIsDiscovered() {
+        assertTrue(dataLoader.getAvailableThemes().contains("hot"));
+        assertEquals("TESTE", dataLoader.getWheelPhrases("hot").get(0).category);
+        // Missing quiz.json falls back to default
+        assertSame(dataLoader.getQuizStore("default"), dataLoader.getQuizStore("hot"));
+    }
+
+    @Test
+    public void testReloadSwapsWithoutTouchingOldData() throws IOException {
+        List<WheelPhrase> before = dataLoader.getWheelPhrases("hot");
+        String original = before.get(0).phrase;
+
+        writeWheel("SEGUNDA FRASE");
+        dataLoader.reloadTheme("hot");
+
+        assertEquals("SEGUNDA FRASE", dataLoader.getWheelPhrases("hot").get(0).phrase);
+        assertEquals(original, before.get(0).phrase, "Previous snapshot must stay intact");
+
+        // A broken file keeps the last good version
+        Files.writeString(DIR.resolve("hot/wheel.json"), "[{ not json");
+        dataLoader.reloadTheme("hot");
+        assertEquals("SEGUNDA FRASE", dataLoader.getWheelPhrases("hot").get(0).phrase);
+    }
+
+    @Test
+    public void testWatcherPicksUpChanges() throws Exception {
+        writeWheel("FRASE VIGIADA");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!"FRASE VIGIADA".equals(dataLoader.getWheelPhrases("hot").get(0).phrase)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals("FRASE VIGIADA", dataLoader.getWheelPhrases("hot").get(0).phrase);
+    }
+
+    private static void writeWheel(String phrase) throws IOException {
+        Files.writeString(DIR.resolve("hot/wheel.json"),
+                "[{\"category\": \"TESTE\", \"phrase\": \"" + phrase + "\"}]");
+    }
+}
@@ -5,8 +5,7 @@ import {
     ArrowLeft, Trophy, CheckCircle, XCircle,
     Triangle, Square, Circle, Star, RotateCcw, Users
 } from 'lucide-react';
-import { Container, Typography, Box, Grid, alpha, Paper, Stack, IconButton, ButtonBase, Avatar, TextField, Alert, CircularProgress } from '@mui/material';
-import { dataApi } from '../utils/api';
+import { Container, Typography, Box, Grid, alpha, Paper, Stack, IconButton, ButtonBase, Avatar, TextField, Alert } from '@mui/material';
 import { useSound } from '../hooks/useSound';
 import { useUser } from '../context/UserContext';
 import { useTheme } from '../context/ThemeContext';
@@ -27,8 +26,9 @@ const Quiz: React.FC = () => {
     const [selectedAnswer, setSelectedAnswer] = useState<number | null>(null);
     const [correctAnswerIndex, setCorrectAnswerIndex] = useState<number | null>(null);
     const [error, setError] = useState<string | null>(null);
-    const [questions, setQuestions] = useState<any[]>([]);
-    const [loading, setLoading] = useState(true);
+    const [currentQuestion, setCurrentQuestion] = useState<any>(null);
+    const [totalQuestions, setTotalQuestions] = useState(0);
+    const [histogram, setHistogram] = useState<{ answeredCount: number; players: number; distribution: number[] } | null>(null);
 
     // Multiplayer State
     const [roomIdInput, setRoomIdInput] = useState('');
@@ -36,37 +36,41 @@ const Quiz: React.FC = () => {
     const { status, gameState, lastEvent, sendMessage, setLastEvent } = useWebSocket(activeRoomId, userName || 'Player', selectedTheme, 'quiz');
 
     const timerRef = useRef<number | null>(null);
+    const selectedAnswerRef = useRef<number | null>(null);
 
-    // Handle Server Events
-    useEffect(() => {
-        const fetchQuestions = async () => {
-            setLoading(true);
-            setQuestions([]);
-            setCurrentStep(0);
-            setSelectedAnswer(null);
-            setCorrectAnswerIndex(null);
-            try {
-                const res = await dataApi.get('/quiz/questions', { params: { theme: selectedTheme } });
-                setQuestions(res.data);
-            } catch (error) {
-                console.error("Erro carregando questoes do quiz", error);
-            } finally {
-                setLoading(false);
-            }
-        };
-        fetchQuestions();
-    }, [selectedTheme]);
-
+    // Handle Server Events: the server sends each question and scores the answers
     useEffect(() => {
         if (lastEvent) {
             if (lastEvent.type === 'GAME_START') {
                 playSound('click');
+            } else if (lastEvent.type === 'QUESTION') {
+                const q = lastEvent.payload;
+                setCurrentQuestion(q);
+                setCurrentStep(q.step);
+                setTotalQuestions(q.total);
+                setSelectedAnswer(null);
+                selectedAnswerRef.current = null;
+                setCorrectAnswerIndex(null);
+                setHistogram(null);
                 setLocalPhase('question');
                 startTimer();
+            } else if (lastEvent.type === 'ANSWER_HISTOGRAM') {
+                setHistogram(lastEvent.payload);
+            } else if (lastEvent.type === 'QUESTION_CLOSED') {
+                if (timerRef.current) clearInterval(timerRef.current);
+                stopSound('ticker');
+                const correct = lastEvent.payload.correctAnswerIndex;
+                playSound(selectedAnswerRef.current === correct ? 'correct' : 'wrong');
+                if (selectedAnswerRef.current === null) setSelectedAnswer(-1);
+                setCorrectAnswerIndex(correct);
+                setLocalPhase('feedback');
+            } else if (lastEvent.type === 'GAME_OVER') {
+                playSound('win');
+                setLocalPhase('ended');
             }
             setLastEvent(null);
         }
-    }, [lastEvent, setLastEvent, playSound]);
+    }, [lastEvent, setLastEvent, playSound, stopSound]);
 
     const joinRoom = () => {
         if (!roomIdInput.trim()) {
@@ -83,7 +87,7 @@ const Quiz: React.FC = () => {
     };
 
     const startGameViaHost = () => {
-        sendMessage('START_GAME', questions.length);
+        sendMessage('START_GAME');
     };
 
     const startTimer = useCallback(() => {
@@ -104,48 +108,20 @@ const Quiz: React.FC = () => {
         }, 100);
     }, [playSound]);
 
-    const handleTimeUp = async () => {
+    // The server closes the question when time is up; the countdown is only visual
+    const handleTimeUp = () => {
         if (timerRef.current) clearInterval(timerRef.current);
         stopSound('ticker');
-        if (selectedAnswer === null) {
-            playSound('wrong');
-            setSelectedAnswer(-1);
-            try {
-                const q = questions[currentStep];
-                const res = await dataApi.post(`/quiz/answer/${q?.level ?? 1}/${q?.questionIndex ?? 0}`, { answerIndex: -1 }, { params: { theme: selectedTheme } });
-                setCorrectAnswerIndex(res.data.correctAnswerIndex);
-            } catch (e) {
-                console.error(e);
-            }
-            setLocalPhase('feedback');
-        }
     };
 
-    const handleAnswer = async (index: number) => {
+    const handleAnswer = (index: number) => {
         if (localPhase !== 'question' || selectedAnswer !== null) return;
 
         if (timerRef.current) clearInterval(timerRef.current);
         stopSound('ticker');
         setSelectedAnswer(index);
-
-        try {
-            const q = questions[currentStep];
-            const res = await dataApi.post(`/quiz/answer/${q?.level ?? 1}/${q?.questionIndex ?? 0}`, { answerIndex: index }, { params: { theme: selectedTheme } });
-            const { correct, correctAnswerIndex } = res.data;
-            setCorrectAnswerIndex(correctAnswerIndex);
-            let youScore = 0;
-            if (correct) {
-                playSound('correct');
-                youScore = Math.floor(1000 * (timer / QUIZ_DURATION));
-                sendMessage('SUBMIT_SCORE', youScore);
-            } else {
-                playSound('wrong');
-            }
-            setLocalPhase('feedback');
-        } catch (e) {
-            console.error(e);
-            setSelectedAnswer(null); // Retentar
-        }
+        selectedAnswerRef.current = index;
+        sendMessage('SUBMIT_ANSWER', index);
     };
 
     const toQuestionRanking = () => {
@@ -158,35 +134,23 @@ const Quiz: React.FC = () => {
         setLocalPhase('accumulated_ranking');
     };
 
+    // Only the host moves the room on; everyone follows the server's next frame
     const nextStep = () => {
         playSound('click');
-        if (currentStep < questions.length - 1) {
-            setCurrentStep(prev => prev + 1);
-            setSelectedAnswer(null);
-            setCorrectAnswerIndex(null);
-            setLocalPhase('question');
-            startTimer();
-            sendMessage('NEXT_QUESTION');
-        } else {
-            playSound('win');
-            setLocalPhase('ended');
-        }
+        sendMessage('NEXT_QUESTION');
     };
 
-    const resetQuiz = async () => {
+    const resetQuiz = () => {
         playSound('click');
         setCurrentStep(0);
+        setCurrentQuestion(null);
+        setTotalQuestions(0);
         setSelectedAnswer(null);
+        selectedAnswerRef.current = null;
         setCorrectAnswerIndex(null);
+        setLocalPhase('question');
         setActiveRoomId('');
         setRoomIdInput('');
-        // Reload fresh random questions
-        try {
-            const res = await dataApi.get('/quiz/questions', { params: { theme: selectedTheme } });
-            setQuestions(res.data);
-        } catch (e) {
-            console.error(e);
-        }
     };
 
     useEffect(() => {
@@ -202,16 +166,6 @@ const Quiz: React.FC = () => {
         { color: '#26890c', icon: <Star size={24} fill="white" /> }    // Green
     ];
 
-    if (loading) {
-        return (
-            <Box sx={{ minHeight: '100vh', display: 'flex', alignItems: 'center', justifyContent: 'center', bgcolor: '#46178f' }}>
-                <CircularProgress sx={{ color: 'white' }} />
-            </Box>
-        );
-    }
-
-    const currentQuestion = questions[currentStep] ?? null;
-
     if (!activeRoomId) {
         return (
             <Box sx={{ minHeight: '100vh', display: 'flex', alignItems: 'center', justifyContent: 'center', bgcolor: '#46178f', color: 'white', pb: 4 }}>
@@ -278,11 +232,17 @@ const Quiz: React.FC = () => {
     const room = gameState;
     const players = room.players || [];
     const me = players.find((p: any) => p.name === userName);
-    const isHost = players.length > 0 && players[0].id === me?.id;
+    const isHost = !!me && me.connectionId === room.hostConnectionId;
     const roundScores = room.quizSession?.roundScores || {};
-
-    const topByQuestion = [...players].sort((a: any, b: any) => (roundScores[b.id] || 0) - (roundScores[a.id] || 0)).slice(0, 10);
-    const topAccumulated = [...players].sort((a: any, b: any) => b.score - a.score).slice(0, 10);
+    // Large rooms only send the top of the leaderboard and the entries around us
+    const board = room.leaderboard;
+    const ranked = board
+        ? [...board.top, ...board.around.filter((s: any) => !board.top.some((t: any) => t.id === s.id))]
+        : players;
+    const playerCount = room.playerCount ?? players.length;
+
+    const topByQuestion = [...ranked].sort((a: any, b: any) => (roundScores[b.id] || 0) - (roundScores[a.id] || 0)).slice(0, 10);
+    const topAccumulated = [...ranked].sort((a: any, b: any) => b.score - a.score).slice(0, 10);
     const you = players.find((p: any) => p.id === me?.id);
 
     return (
@@ -297,7 +257,7 @@ const Quiz: React.FC = () => {
                 </IconButton>
                 <Box sx={{ px: 3, py: 1, borderRadius: 3, bgcolor: 'rgba(255,255,255,0.1)', backdropFilter: 'blur(10px)', border: '1px solid rgba(255,255,255,0.1)', display: 'flex', alignItems: 'center', gap: 2 }}>
                     <Users size={18} color="#34d399" />
-                    <Typography variant="button" sx={{ fontWeight: 900, letterSpacing: 1 }}>{players.length} JOGADORES</Typography>
+                    <Typography variant="button" sx={{ fontWeight: 900, letterSpacing: 1 }}>{playerCount} JOGADORES</Typography>
                 </Box>
             </Container>
 
@@ -319,7 +279,7 @@ const Quiz: React.FC = () => {
                                         <Paper key={p.id} sx={{ p: 2.5, bgcolor: alpha('#46178f', 0.05), display: 'flex', alignItems: 'center', gap: 2, borderRadius: 4, color: 'text.primary' }}>
                                             <Avatar src={p.avatar} sx={{ border: '2px solid', borderColor: '#46178f' }} />
                                             <Typography variant="h6" sx={{ fontWeight: 800 }}>
-                                                {p.name} {p.id === me?.id && "(Você)"} {p.id === players[0].id && "👑"}
+                                                {p.name} {p.id === me?.id && "(Você)"} {p.connectionId === room.hostConnectionId && "👑"}
                                             </Typography>
                                         </Paper>
                                     ))}
@@ -338,7 +298,7 @@ const Quiz: React.FC = () => {
                         <Container maxWidth="md" component={motion.div} key="question" initial={{ opacity: 0 }} animate={{ opacity: 1 }} exit={{ opacity: 0 }}>
                             <Paper sx={{ p: 6, mb: 4, textAlign: 'center', borderRadius: 10, borderBottom: '8px solid rgba(0,0,0,0.1)' }}>
                                 <Typography variant="overline" sx={{ color: 'text.secondary', fontWeight: 900, mb: 2, display: 'block' }}>
-                                    Questão {currentStep + 1} de {questions.length}
+                                    Questão {currentStep + 1} de {totalQuestions}
                                 </Typography>
                                 <Typography variant="h4" sx={{ fontWeight: 900, mb: 4, color: 'text.primary' }}>{currentQuestion?.question ?? ''}</Typography>
 
@@ -355,6 +315,11 @@ const Quiz: React.FC = () => {
                                         {Math.ceil(timer)}
                                     </Typography>
                                 </Box>
+                                {isHost && histogram && (
+                                    <Typography variant="overline" sx={{ color: 'text.secondary', fontWeight: 900, mt: 2, display: 'block' }}>
+                                        {histogram.answeredCount} de {histogram.players} responderam
+                                    </Typography>
+                                )}
                             </Paper>
 
                             <Grid container spacing={2}>
@@ -372,6 +337,9 @@ const Quiz: React.FC = () => {
                                         >
                                             <Box sx={{ bgcolor: 'rgba(0,0,0,0.15)', p: 1, borderRadius: 2 }}>{optionStyles[index].icon}</Box>
                                             <Typography variant="h5" sx={{ fontWeight: 900 }}>{option}</Typography>
+                                            {isHost && histogram && (
+                                                <Typography variant="h6" sx={{ fontWeight: 900, ml: 'auto', opacity: 0.8 }}>{histogram.distribution[index] ?? 0}</Typography>
+                                            )}
                                         </ButtonBase>
                                     </Grid>
                                 ))}
@@ -440,9 +408,13 @@ const Quiz: React.FC = () => {
                                         </Box>
                                     ))}
                                 </Stack>
-                                <ActionButton fullWidth onClick={nextStep} sx={{ bgcolor: 'white', color: '#46178f', '&:hover': { bgcolor: '#eee' } }}>
-                                    {currentStep < questions.length - 1 ? 'PRÓXIMA PERGUNTA' : 'RESULTADO FINAL'}
-                                </ActionButton>
+                                {isHost ? (
+                                    <ActionButton fullWidth onClick={nextStep} sx={{ bgcolor: 'white', color: '#46178f', '&:hover': { bgcolor: '#eee' } }}>
+                                        {currentStep < totalQuestions - 1 ? 'PRÓXIMA PERGUNTA' : 'RESULTADO FINAL'}
+                                    </ActionButton>
+                                ) : (
+                                    <Typography variant="button" sx={{ display: 'block', opacity: 0.7 }}>Aguardando o host...</Typography>
+                                )}
                             </Paper>
                         </Container>
                     ) : (
@@ -450,7 +422,7 @@ const Quiz: React.FC = () => {
                             <Paper sx={{ p: 6, textAlign: 'center', borderRadius: 12 }}>
                                 <Trophy size={96} color="#46178f" style={{ marginBottom: 32 }} />
                                 <Typography variant="h3" sx={{ fontWeight: 900, color: '#46178f', mb: 1 }}>FIM DE JOGO!</Typography>
-                                <Typography variant="h6" sx={{ color: 'text.secondary', mb: 6 }}>Você terminou na {topAccumulated.findIndex((p: any) => p.id === me?.id) + 1}ª posição</Typography>
+                                <Typography variant="h6" sx={{ color: 'text.secondary', mb: 6 }}>Você terminou na {board ? board.rank : topAccumulated.findIndex((p: any) => p.id === me?.id) + 1}ª posição</Typography>
 
                                 <Paper elevation={0} sx={{ p: 6, mb: 6, bgcolor: alpha('#46178f', 0.05), borderRadius: 8 }}>
                                     <Typography variant="h1" sx={{ fontWeight: 900, color: '#46178f', lineHeight: 1, mb: 2 }}>{you?.score?.toLocaleString() || 0}</Typography>
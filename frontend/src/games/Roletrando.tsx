@@ -9,7 +9,7 @@ import { Container, Typography, Box, Grid, alpha, Avatar, Paper, Stack, IconButt
 import { useSound } from '../hooks/useSound';
 import { useUser } from '../context/UserContext';
 import { ActionButton } from '../components/shared/ActionButton';
-import { useWebSocket } from '../hooks/useWebSocket';
+import { useWebSocket, wsBaseUrl } from '../hooks/useWebSocket';
 
 import { useTheme } from '../context/ThemeContext';
 import type { Player } from '../types/game';
@@ -27,6 +27,8 @@ const Roletrando: React.FC = () => {
 
   const [isSpinning, setIsSpinning] = useState(false);
   const [error, setError] = useState<string | null>(null);
+  const [searching, setSearching] = useState(false);
+  const queueWs = useRef<WebSocket | null>(null);
 
   const wheelRef = useRef<WheelHandle>(null);
   const ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ".split("");
@@ -57,6 +59,32 @@ const Roletrando: React.FC = () => {
     setActiveRoomId(randomId);
   };
 
+  const quickMatch = () => {
+    if (queueWs.current) {
+      // Second click leaves the queue
+      queueWs.current.close();
+      return;
+    }
+    setError(null);
+    setSearching(true);
+    const socket = new WebSocket(`${wsBaseUrl()}/api/ws/matchmaking/${encodeURIComponent(userName || 'Player')}/${encodeURIComponent(selectedTheme)}`);
+    queueWs.current = socket;
+    socket.onmessage = (event) => {
+      const msg = JSON.parse(event.data);
+      if (msg.type === 'MATCH_FOUND') {
+        setActiveRoomId(msg.payload.roomId);
+      } else if (msg.type === 'ERROR') {
+        setError(msg.payload);
+      }
+    };
+    socket.onclose = () => {
+      queueWs.current = null;
+      setSearching(false);
+    };
+  };
+
+  useEffect(() => () => queueWs.current?.close(), []);
+
   const handleGuess = (letter: string) => {
     if (!gameState || isSpinning || gameState.gameSession.currentSpinValue === 0) return;
     sendMessage('GUESS', letter);
@@ -96,6 +124,9 @@ const Roletrando: React.FC = () => {
             {error && <Alert severity="error" sx={{ mb: 3 }}>{error}</Alert>}
 
             <Stack spacing={3}>
+              <ActionButton fullWidth onClick={quickMatch} size="large">
+                {searching ? 'PROCURANDO JOGADORES... (CANCELAR)' : 'PARTIDA RÁPIDA'}
+              </ActionButton>
               <ActionButton fullWidth onClick={createRoom} size="large">
                 CRIAR NOVA SALA
               </ActionButton>
@@ -3,6 +3,24 @@ import Logger from '../utils/logger';
 
 import type { Room, GameMessage } from '../types/game';
 
+export function wsBaseUrl(): string {
+    let base = '';
+    if (import.meta.env.VITE_API_URL) {
+        try {
+            const parsedUrl = new URL(import.meta.env.VITE_API_URL);
+            base = `${parsedUrl.protocol === 'https:' ? 'wss:' : 'ws:'}//${parsedUrl.host}`;
+        } catch (e) {
+            // Fallback for invalid URLs
+            base = import.meta.env.VITE_API_URL.replace(/^http/, 'ws').replace(/\/api.*$/, '');
+        }
+    } else {
+        const protocol = window.location.protocol === 'https:' ? 'wss:' : 'ws:';
+        const host = window.location.hostname;
+        base = `${protocol}//${host}:8080`;
+    }
+    return base.replace(/\/$/, '');
+}
+
 export function useWebSocket(roomId: string, playerName: string, theme: string = 'default', endpoint: string = 'game') {
     const [status, setStatus] = useState<'CONNECTING' | 'CONNECTED' | 'DISCONNECTED'>('CONNECTING');
     const [gameState, setGameState] = useState<Room | null>(null);
@@ -10,28 +28,22 @@ export function useWebSocket(roomId: string, playerName: string, theme: string =
     const [lastEvent, setLastEvent] = useState<GameMessage | null>(null);
 
     const ws = useRef<WebSocket | null>(null);
+    // Resume state: the server's token for our seat and the last room frame we saw
+    const resumeKey = `resume:${endpoint}:${roomId}:${playerName}`;
+    const lastSeq = useRef<number>(-1);
+    const retries = useRef(0);
+    const retryTimer = useRef<ReturnType<typeof setTimeout> | null>(null);
+    const closedByUs = useRef(false);
 
     const connect = useCallback(() => {
         if (!roomId || !playerName) return;
 
-        let wsBaseUrl = '';
-        if (import.meta.env.VITE_API_URL) {
-            try {
-                const parsedUrl = new URL(import.meta.env.VITE_API_URL);
-                wsBaseUrl = `${parsedUrl.protocol === 'https:' ? 'wss:' : 'ws:'}//${parsedUrl.host}`;
-            } catch (e) {
-                // Fallback for invalid URLs
-                wsBaseUrl = import.meta.env.VITE_API_URL.replace(/^http/, 'ws').replace(/\/api.*$/, '');
-            }
-        } else {
-            const protocol = window.location.protocol === 'https:' ? 'wss:' : 'ws:';
-            const host = window.location.hostname;
-            wsBaseUrl = `${protocol}//${host}:8080`;
+        let wsUrl = `${wsBaseUrl()}/api/ws/${endpoint}/${roomId}/${encodeURIComponent(playerName)}/${encodeURIComponent(theme)}`;
+        const token = sessionStorage.getItem(resumeKey);
+        if (token) {
+            wsUrl += `?resume=${encodeURIComponent(token)}&lastSeq=${lastSeq.current}`;
         }
 
-        wsBaseUrl = wsBaseUrl.replace(/\/$/, '');
-        const wsUrl = `${wsBaseUrl}/api/ws/${endpoint}/${roomId}/${encodeURIComponent(playerName)}/${encodeURIComponent(theme)}`;
-
         Logger.info('useWebSocket', `Attempting to connect to: ${wsUrl}`);
         Logger.info('useWebSocket', `VITE_API_URL status: ${import.meta.env.VITE_API_URL ? 'set' : 'not set'}`);
 
@@ -39,14 +51,25 @@ export function useWebSocket(roomId: string, playerName: string, theme: string =
 
         ws.current.onopen = () => {
             Logger.info('useWebSocket', 'Connected to WebSocket server');
+            retries.current = 0;
             setStatus('CONNECTED');
         };
 
         ws.current.onmessage = (event) => {
             try {
                 const msg: GameMessage = JSON.parse(event.data);
+                if (typeof msg.seq === 'number') {
+                    lastSeq.current = msg.seq;
+                }
 
-                if (msg.type === 'STATE_UPDATE') {
+                if (msg.type === 'SESSION') {
+                    sessionStorage.setItem(resumeKey, msg.payload.token);
+                } else if (msg.type === 'PLAYER_RESUMED') {
+                    setGameState(prev => prev && {
+                        ...prev,
+                        players: prev.players.map(p => p.id === msg.payload.playerId ? { ...p, disconnected: false } : p)
+                    });
+                } else if (msg.type === 'STATE_UPDATE') {
                     setGameState(msg.payload.room);
                     setCurrentPlayerTurnId(msg.payload.currentPlayerTurnId);
                 } else {
@@ -60,17 +83,25 @@ export function useWebSocket(roomId: string, playerName: string, theme: string =
         ws.current.onclose = () => {
             Logger.warn('useWebSocket', 'WebSocket disconnected');
             setStatus('DISCONNECTED');
+            if (closedByUs.current || !sessionStorage.getItem(resumeKey)) return;
+            // Back off with jitter so a network blip does not bring every client back at once
+            const delay = Math.min(10000, 500 * 2 ** retries.current) * (0.5 + Math.random());
+            retries.current += 1;
+            retryTimer.current = setTimeout(connect, delay);
         };
 
         ws.current.onerror = (err) => {
             Logger.error('useWebSocket', 'WebSocket error', err);
             setStatus('DISCONNECTED');
         };
-    }, [roomId, playerName, theme, endpoint]);
+    }, [roomId, playerName, theme, endpoint, resumeKey]);
 
     useEffect(() => {
+        closedByUs.current = false;
         connect();
         return () => {
+            closedByUs.current = true;
+            if (retryTimer.current) clearTimeout(retryTimer.current);
             if (ws.current) ws.current.close();
         };
     }, [connect]);
@@ -5,6 +5,7 @@ export interface Player {
     connectionId: string;
     isBot: boolean;
     score: number;
+    disconnected?: boolean;
 }
 
 export interface GameSession {
@@ -32,4 +33,5 @@ export interface Room {
 export interface GameMessage {
     type: string;
     payload?: any;
+    seq?: number;
 }